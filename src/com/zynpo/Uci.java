@@ -0,0 +1,425 @@
+package com.zynpo;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Fen;
+import com.zynpo.impls.Move;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.search.Search;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import com.zynpo.search.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Speaks the Universal Chess Interface over a pair of streams, so the library can be driven by chess GUIs
+ * and tournament managers. Commands are read on the thread that calls run(), while a search runs on a
+ * thread of its own, so stop and isready are answered straight away.
+ *
+ * The game is kept between position commands, so one that only adds moves to the last, as GUIs send
+ * during a game, just does the moves added rather than replaying the whole game.
+ */
+public class Uci {
+
+    private static final String ENGINE_NAME = "ZynpoChess";
+    private static final String ENGINE_AUTHOR = "Zynpo";
+
+    private BufferedReader _in;
+    private PrintStream _out;
+
+    private TranspositionTable _table;    // Kept from one move to the next, until a new game
+    private int _threadCount;
+    private int _multiPv;
+    private ChessGameImpl _game;
+    private String _positionFen;         // The FEN the game started from
+    private List<String> _positionMoves; // Done in the game since, in coordinate notation
+
+    private Search _search;
+    private Thread _searchThread;
+    private final Object _stopLock = new Object();
+    private boolean _stopRequested;
+
+
+    public Uci(Reader in, PrintStream out) {
+        _in = (in instanceof BufferedReader) ? (BufferedReader) in : new BufferedReader(in);
+        _out = out;
+
+        _table = new TranspositionTable();
+        _threadCount = 1;
+        _multiPv = 1;
+        _game = new ChessGameImpl();
+        _positionFen = Fen.START_POSITION;
+        _positionMoves = new ArrayList<>();
+    }
+
+
+    /**
+     * Answer commands until told to quit or there are no more.
+     */
+    public void run() throws IOException {
+        String line;
+
+        while (null != (line = _in.readLine())) {
+            if (!handle(line.trim().split("\\s+"))) {
+                break;
+            }
+        }
+
+        stopSearch();
+    }
+
+
+    /**
+     * @return false once told to quit
+     */
+    private boolean handle(String[] tokens) {
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + ENGINE_NAME);
+                send("id author " + ENGINE_AUTHOR);
+                send("option name Hash type spin default " + TranspositionTable.DEFAULT_MEGABYTES
+                        + " min 1 max " + TranspositionTable.MAX_MEGABYTES);
+                send("option name Threads type spin default 1 min 1 max " + Search.MAX_THREADS);
+                send("option name MultiPV type spin default 1 min 1 max " + Search.MAX_MULTI_PV);
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                _table.clear();
+                _game = new ChessGameImpl();
+                _positionFen = Fen.START_POSITION;
+                _positionMoves.clear();
+                break;
+            case "position":
+                stopSearch();
+                position(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "d":
+                send("Fen: " + _game.reviewLast().toFen());
+                break;
+            case "quit":
+                return false;
+            case "":
+                break;
+            default:
+                send("info string Unknown command: " + String.join(" ", tokens));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * setoption name <id> [value <x>]
+     */
+    private void setOption(String[] tokens) {
+        int valueAt = tokens.length;
+
+        for (int i = 2; i < tokens.length; ++i) {
+            if (tokens[i].equals("value")) {
+                valueAt = i;
+                break;
+            }
+        }
+
+        if ((tokens.length < 3) || !tokens[1].equals("name")) {
+            send("info string Expected setoption name <id> [value <x>]: " + String.join(" ", tokens));
+            return;
+        }
+
+        String name = String.join(" ", Arrays.copyOfRange(tokens, 2, valueAt));
+        String value = String.join(" ", Arrays.copyOfRange(tokens, Math.min(valueAt + 1, tokens.length), tokens.length));
+
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                _table.resize(Integer.parseInt(value));
+            } else if (name.equalsIgnoreCase("Threads")) {
+                int threadCount = Integer.parseInt(value);
+
+                if ((threadCount < 1) || (Search.MAX_THREADS < threadCount)) {
+                    throw new IllegalArgumentException("Must be 1 to " + Search.MAX_THREADS);
+                }
+
+                _threadCount = threadCount;
+            } else if (name.equalsIgnoreCase("MultiPV")) {
+                int multiPv = Integer.parseInt(value);
+
+                if ((multiPv < 1) || (Search.MAX_MULTI_PV < multiPv)) {
+                    throw new IllegalArgumentException("Must be 1 to " + Search.MAX_MULTI_PV);
+                }
+
+                _multiPv = multiPv;
+            } else {
+                send("info string Unknown option: " + name);
+            }
+        } catch (IllegalArgumentException iae) {
+            send("info string Bad value for " + name + ": " + iae.getMessage());
+        }
+    }
+
+
+    /**
+     * position [startpos | fen <fen>] [moves <move> ...]
+     */
+    private void position(String[] tokens) {
+        int movesAt = tokens.length;
+
+        for (int i = 1; i < tokens.length; ++i) {
+            if (tokens[i].equals("moves")) {
+                movesAt = i;
+                break;
+            }
+        }
+
+        String fen;
+
+        if ((2 <= tokens.length) && tokens[1].equals("startpos")) {
+            fen = Fen.START_POSITION;
+        } else if ((3 <= tokens.length) && tokens[1].equals("fen")) {
+            fen = String.join(" ", Arrays.copyOfRange(tokens, 2, movesAt));
+        } else {
+            send("info string Expected startpos or fen: " + String.join(" ", tokens));
+            return;
+        }
+
+        setPosition(fen, tokens, movesAt + 1);
+    }
+
+
+    /**
+     * Bring the game to the given position followed by the moves from tokens[firstMove] on, keeping
+     * whatever moves it already shares with the game so far ...
+     */
+    private void setPosition(String fen, String[] tokens, int firstMove) {
+        int sharedMoves = 0;
+
+        if (fen.equals(_positionFen)) {
+            while ((sharedMoves < _positionMoves.size()) && (firstMove + sharedMoves < tokens.length)
+                    && _positionMoves.get(sharedMoves).equals(tokens[firstMove + sharedMoves])) {
+                ++sharedMoves;
+            }
+
+            while (sharedMoves < _positionMoves.size()) {
+                _game.takeBackLastMove();
+                _positionMoves.remove(_positionMoves.size() - 1);
+            }
+        } else {
+            try {
+                _game = Fen.START_POSITION.equals(fen) ? new ChessGameImpl() : new ChessGameImpl(fen);
+            } catch (IllegalArgumentException iae) {
+                send("info string " + iae.getMessage());
+                return;
+            }
+
+            _positionFen = fen;
+            _positionMoves.clear();
+        }
+
+        for (int i = firstMove + sharedMoves; i < tokens.length; ++i) {
+            try {
+                _game.doMove(Move.fromString(tokens[i]));
+                _positionMoves.add(tokens[i]);
+            } catch (IllegalArgumentException | InternalError e) {
+                send("info string Can't do move " + tokens[i] + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * go [depth <plies>] [nodes <count>] [movetime <ms>] [wtime <ms>] [btime <ms>] [winc <ms>] [binc <ms>]
+     *    [movestogo <moves>] [infinite] [ponder]
+     *
+     * Told to search without limit, the best move is only given once stopped, even should the search
+     * end sooner by finding a checkmate. Told to ponder, it's given once stopped or told of a ponder hit,
+     * after which the clock given is kept to.
+     */
+    private void go(String[] tokens) {
+        ChessBoardState boardState = _game.reviewLast();
+        SearchLimits limits = new SearchLimits();
+        boolean untilStopped = false;
+        long[] timeLeft = { SearchLimits.NO_LIMIT, SearchLimits.NO_LIMIT };
+        long[] increment = { 0, 0 };
+        int movesToGo = 0;
+
+        try {
+            for (int i = 1; i < tokens.length; ++i) {
+                switch (tokens[i]) {
+                    case "infinite":
+                        untilStopped = true;
+                        break;
+                    case "ponder":
+                        limits.setPonder(true);
+                        break;
+                    case "depth":
+                        limits.setMaxDepth(Integer.parseInt(tokens[++i]));
+                        break;
+                    case "nodes":
+                        limits.setMaxNodes(Long.parseLong(tokens[++i]));
+                        break;
+                    case "movetime":
+                        limits.setMoveTimeMillis(Long.parseLong(tokens[++i]));
+                        break;
+                    case "wtime":
+                        timeLeft[SideColor.White.getValue()] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "btime":
+                        timeLeft[SideColor.Black.getValue()] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "winc":
+                        increment[SideColor.White.getValue()] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "binc":
+                        increment[SideColor.Black.getValue()] = Long.parseLong(tokens[++i]);
+                        break;
+                    case "movestogo":
+                        movesToGo = Integer.parseInt(tokens[++i]);
+                        break;
+                    default:
+                        send("info string Ignoring " + tokens[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            send("info string Bad go command: " + String.join(" ", tokens));
+            send("bestmove " + Move.toString(Move.NO_MOVE));
+            return;
+        }
+
+        int sideToMove = boardState.getSideToMove().getValue();
+
+        if (SearchLimits.NO_LIMIT != timeLeft[sideToMove]) {
+            limits.setTimeLeftMillis(Math.max(0, timeLeft[sideToMove]));
+            limits.setIncrementMillis(Math.max(0, increment[sideToMove]));
+            limits.setMovesToGo(Math.max(0, movesToGo));
+        }
+
+        limits.setInfinite(untilStopped);
+
+        boolean waitForStop = untilStopped;
+        Search search = new Search(boardState, _game.getZobristKeysSinceProgress(), _table);
+        search.setThreadCount(_threadCount);
+        search.setMultiPv(_multiPv);
+
+        synchronized (_stopLock) {
+            _stopRequested = false;
+        }
+
+        _search = search;
+        _searchThread = new Thread(() -> search(search, limits, waitForStop), "uci-search");
+        _searchThread.start();
+    }
+
+
+    private void search(Search search, SearchLimits limits, boolean waitForStop) {
+        SearchResult result = search.search(limits, this::sendInfo);
+
+        if (waitForStop || search.isPondering()) {
+            synchronized (_stopLock) {
+                while (!_stopRequested && (waitForStop || search.isPondering())) {
+                    try {
+                        _stopLock.wait();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (Move.NO_MOVE == result.getPonderMove()) {
+            send("bestmove " + Move.toString(result.getBestMove()));
+        } else {
+            send("bestmove " + Move.toString(result.getBestMove()) + " ponder " + Move.toString(result.getPonderMove()));
+        }
+    }
+
+
+    private void sendInfo(SearchResult result) {
+        send("info depth " + result.getDepth()
+                + ((1 == _multiPv) ? "" : " multipv " + result.getMultiPv())
+                + (result.isMateScore() ? " score mate " + result.getMateInMoves() : " score cp " + result.getScore())
+                + " nodes " + result.getNodes()
+                + " nps " + result.getNodesPerSecond()
+                + " hashfull " + _table.permilleFull()
+                + " time " + result.getElapsedNanos() / 1_000_000
+                + " pv " + result.principalVariationString());
+    }
+
+
+    /**
+     * The opponent made the move pondered on, so the search is to go on as if told to search the position
+     * after it, on the clock, giving its best move as soon as it's done, or straight away if it's done
+     * already ...
+     */
+    private void ponderHit() {
+        if (null == _searchThread) {
+            return;
+        }
+
+        _search.ponderHit();
+
+        synchronized (_stopLock) {
+            _stopLock.notifyAll();
+        }
+    }
+
+
+    /**
+     * Tell any search running to stop, and wait for it to give its best move.
+     */
+    private void stopSearch() {
+        if (null == _searchThread) {
+            return;
+        }
+
+        _search.stop();
+
+        synchronized (_stopLock) {
+            _stopRequested = true;
+            _stopLock.notifyAll();
+        }
+
+        try {
+            _searchThread.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        _searchThread = null;
+        _search = null;
+    }
+
+
+    private void send(String line) {
+        synchronized (_out) {
+            _out.println(line);
+            _out.flush();
+        }
+    }
+}
@@ -1,13 +1,246 @@
 package com.zynpo;
 
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SearchFeature;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Fen;
+import com.zynpo.impls.ParallelPerft;
+import com.zynpo.impls.Perft;
+import com.zynpo.impls.PerftHashTable;
+import com.zynpo.impls.PerftResult;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.search.Search;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import com.zynpo.search.TranspositionTable;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.EnumSet;
+import java.util.Map;
+
 public class ZynpoChess {
 
-    public static void main(String[] args) {
-        System.out.println("Hello World!");
-        
-        for(int i = 0; i < args.length; ++i) {
-            System.out.println(String.format("args[%d] = %s", i, args[i]));
+    private static final String[] BENCH_FENS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+
+    private static final int DEFAULT_BENCH_DEPTH = 6;
+    private static final String DEFAULT_BENCH_THREADS = "1,2,4,8,16,32";
+
+    /**
+     * With no arguments, speak UCI over stdin and stdout, as chess GUIs expect of an engine.
+     */
+    public static void main(String[] args) throws IOException {
+        if (0 == args.length) {
+            new Uci(new InputStreamReader(System.in), System.out).run();
+            return;
+        }
+
+        if (args[0].equals("perft")) {
+            perft(args);
+            return;
+        }
+
+        if (args[0].equals("bench")) {
+            bench(args);
+            return;
+        }
+
+        System.err.println("Usage: ZynpoChess [perft depth [divide] [checks] [threads n] [hash megabytes]]");
+        System.err.println("                  [bench [depth d | movetime ms] [threads n,n,...] [hash megabytes]");
+        System.err.println("                         [without feature,...]]");
+        System.exit(1);
+    }
+
+
+    /**
+     * perft depth [divide] [checks] [threads n] [hash megabytes]
+     *
+     * Count the positions reachable from the start of the game to the given depth, optionally
+     * listing the count below each first move, and counting checks and checkmates as well.
+     * With more than one thread only the positions themselves are counted.
+     */
+    private static void perft(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: perft depth [divide] [checks] [threads n] [hash megabytes]");
+            System.exit(1);
+        }
+
+        int depth = parseNumber(args, 1);
+        boolean divide = false;
+        boolean countChecks = false;
+        int threads = 1;
+        int hashMegabytes = ParallelPerft.DEFAULT_HASH_MEGABYTES;
+
+        for (int i = 2; i < args.length; ++i) {
+            if (args[i].equals("divide")) {
+                divide = true;
+            } else if (args[i].equals("checks")) {
+                countChecks = true;
+            } else if (args[i].equals("threads")) {
+                threads = parseNumber(args, ++i);
+            } else if (args[i].equals("hash")) {
+                hashMegabytes = parseNumber(args, ++i);
+            } else {
+                System.err.println("Unexpected perft option: " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        if (countChecks && (1 < threads)) {
+            System.err.println("Checks can only be counted with a single thread");
+            System.exit(1);
+        }
+
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        PerftResult result;
+
+        if (1 < threads) {
+            result = ParallelPerft.perft(board, SideColor.White, depth,
+                    threads, ParallelPerft.DEFAULT_SPLIT_PLIES, new PerftHashTable(hashMegabytes));
+        } else {
+            result = Perft.perft(board, SideColor.White, depth, countChecks);
+        }
+
+        if (divide) {
+            for (Map.Entry<String, Long> entry : result.getDivide().entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+
+            System.out.println();
+        }
+
+        System.out.println("Nodes: " + result.getNodes());
+
+        if (1 < threads) {
+            for (Map.Entry<String, Long> entry : result.getNodesByThread().entrySet()) {
+                System.out.println("  " + entry.getKey() + ": " + entry.getValue());
+            }
+        } else {
+            System.out.println("Captures: " + result.getCaptures());
+            System.out.println("En passants: " + result.getEnPassants());
+            System.out.println("Castles: " + result.getCastles());
+            System.out.println("Promotions: " + result.getPromotions());
         }
+
+        if (countChecks) {
+            System.out.println("Checks: " + result.getChecks());
+            System.out.println("Checkmates: " + result.getCheckmates());
+        }
+
+        System.out.println(String.format("Time: %.3f s", result.getElapsedNanos() / 1e9));
+        System.out.println("Nodes per second: " + result.getNodesPerSecond());
     }
 
-}
\ No newline at end of file
+
+    /**
+     * bench [depth d | movetime ms] [threads n,n,...] [hash megabytes] [without feature,...]
+     *
+     * Search each of BENCH_FENS to the given depth with each number of threads in turn, starting every
+     * search with a fresh transposition table, and give how long it took to reach that depth all told,
+     * and how much quicker that is than with the first number of threads. Given a time instead, search
+     * each for that long, and give how deep the searches got on average. The SearchFeatures named are
+     * turned off, to see what each is worth.
+     */
+    private static void bench(String[] args) {
+        int depth = DEFAULT_BENCH_DEPTH;
+        int moveTimeMillis = 0;
+        String threadCounts = DEFAULT_BENCH_THREADS;
+        int hashMegabytes = TranspositionTable.DEFAULT_MEGABYTES;
+        EnumSet<SearchFeature> disabledFeatures = EnumSet.noneOf(SearchFeature.class);
+
+        for (int i = 1; i < args.length; ++i) {
+            if (args[i].equals("depth")) {
+                depth = parseNumber(args, ++i);
+            } else if (args[i].equals("movetime")) {
+                moveTimeMillis = parseNumber(args, ++i);
+            } else if (args[i].equals("threads") && (i + 1 < args.length)) {
+                threadCounts = args[++i];
+            } else if (args[i].equals("hash")) {
+                hashMegabytes = parseNumber(args, ++i);
+            } else if (args[i].equals("without") && (i + 1 < args.length)) {
+                for (String name : args[++i].split(",")) {
+                    try {
+                        disabledFeatures.add(SearchFeature.valueOf(name));
+                    } catch (IllegalArgumentException iae) {
+                        System.err.println("Unknown search feature: " + name + ", expected one of " + EnumSet.allOf(SearchFeature.class));
+                        System.exit(1);
+                    }
+                }
+            } else {
+                System.err.println("Unexpected bench option: " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        // So the first number of threads isn't held back by code yet to be compiled ...
+        for (String fen : BENCH_FENS) {
+            new Search(ChessFactory.createBoardState(fen), new long[0], new TranspositionTable(hashMegabytes))
+                    .search(SearchLimits.depth(Math.max(1, depth - 1)));
+        }
+
+        SearchLimits limits = SearchLimits.depth(depth);
+
+        if (0 < moveTimeMillis) {
+            limits = new SearchLimits();
+            limits.setMoveTimeMillis(moveTimeMillis);
+        }
+
+        System.out.println(String.format("%8s %12s %10s %12s %8s %6s", "Threads", "Nodes", "Time (s)", "Nodes/s", "Speedup", "Depth"));
+        long firstNanos = 0;
+
+        for (String threadCount : threadCounts.split(",")) {
+            int threads = parseNumber(new String[] { "threads", threadCount }, 1);
+            TranspositionTable table = new TranspositionTable(hashMegabytes);
+            long nodes = 0;
+            long nanos = 0;
+            int depths = 0;
+
+            for (String fen : BENCH_FENS) {
+                table.clear();
+
+                Search search = new Search(ChessFactory.createBoardState(fen), new long[0], table);
+                search.setThreadCount(threads);
+
+                for (SearchFeature feature : disabledFeatures) {
+                    search.setFeatureEnabled(feature, false);
+                }
+
+                SearchResult result = search.search(limits);
+                nodes += result.getNodes();
+                nanos += result.getElapsedNanos();
+                depths += result.getDepth();
+            }
+
+            if (0 == firstNanos) {
+                firstNanos = nanos;
+            }
+
+            System.out.println(String.format("%8d %12d %10.3f %12d %8.2f %6.1f",
+                    threads, nodes, nanos / 1e9, (long) (nodes * 1e9 / nanos), (double) firstNanos / nanos,
+                    (double) depths / BENCH_FENS.length));
+        }
+    }
+
+
+    private static int parseNumber(String[] args, int i) {
+        if (args.length <= i) {
+            System.err.println("Expected a number after " + args[i - 1]);
+            System.exit(1);
+        }
+
+        try {
+            return Integer.parseInt(args[i]);
+        } catch (NumberFormatException nfe) {
+            System.err.println("Expected a number, not " + args[i]);
+            System.exit(1);
+            return 0;
+        }
+    }
+}
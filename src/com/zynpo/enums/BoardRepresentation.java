@@ -0,0 +1,14 @@
+package com.zynpo.enums;
+
+public enum BoardRepresentation {
+    /**
+     * Every Square and every Piece is its own object (ChessBoardImpl).
+     */
+    PieceObjects,
+
+    /**
+     * The position is held in 64-bit masks, with Squares and Pieces
+     * handed out as thin views over them (BitboardChessBoard).
+     */
+    Bitboards,
+}
@@ -0,0 +1,110 @@
+package com.zynpo.enums;
+
+import com.zynpo.interfaces.pieces.ChessPiece;
+
+/**
+ * The kind of a ChessPiece, independent of which PieceIndex it occupies.
+ * A Pawn keeps its PieceIndex after promotion, so its PieceType is what changes.
+ */
+public enum PieceType {
+    Pawn(0, "P", 1),
+    Knight(1, "N", 3),
+    Bishop(2, "B", 3),
+    Castle(3, "R", 5),
+    Queen(4, "Q", 9),
+    King(5, "K", Integer.MAX_VALUE);
+
+    public static final int COUNT = 6;
+
+    private int _value;
+    private String _notation;
+    private int _materialValue;
+    private static PieceType[] _allValues = values();
+
+    PieceType(int value, String notation, int materialValue) {
+        _value = value;
+        _notation = notation;
+        _materialValue = materialValue;
+    }
+
+    public int getValue() { return _value; }
+
+    public String notation() { return _notation; }
+
+    public int materialValue() { return _materialValue; }
+
+    public static PieceType fromOrdinal(int i) { return _allValues[i]; }
+
+    /**
+     * @param index of a piece as it was set up at the start of the game
+     * @return the PieceType the piece with this index starts the game as
+     */
+    public static PieceType origPieceType(PieceIndex index) {
+        if (PieceFlags.AllPawns.contains(index)) {
+            return Pawn;
+        } else if (PieceFlags.AllCastles.contains(index)) {
+            return Castle;
+        } else if (PieceFlags.AllKnights.contains(index)) {
+            return Knight;
+        } else if (PieceFlags.AllBishops.contains(index)) {
+            return Bishop;
+        } else if (PieceFlags.AllQueens.contains(index)) {
+            return Queen;
+        } else {
+            return King;
+        }
+    }
+
+    /**
+     * @param piece to determine the PieceType of
+     * @return the PieceType of the given piece, or null for an undetermined promotion
+     */
+    public static PieceType of(ChessPiece piece) {
+        if (piece instanceof com.zynpo.interfaces.pieces.Pawn) {
+            return Pawn;
+        } else if (piece instanceof com.zynpo.interfaces.pieces.Knight) {
+            return Knight;
+        } else if (piece instanceof com.zynpo.interfaces.pieces.Bishop) {
+            return Bishop;
+        } else if (piece instanceof com.zynpo.interfaces.pieces.Castle) {
+            return Castle;
+        } else if (piece instanceof com.zynpo.interfaces.pieces.Queen) {
+            return Queen;
+        } else if (piece instanceof com.zynpo.interfaces.pieces.King) {
+            return King;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @param sideColor the pieces belong to
+     * @return PieceFlags bits of the pieces that start the game as this PieceType for the given side
+     */
+    public int origPieceFlags(SideColor sideColor) {
+        PieceFlags pieceFlags;
+
+        switch (this) {
+            case Pawn:
+                pieceFlags = PieceFlags.AllPawns;
+                break;
+            case Knight:
+                pieceFlags = PieceFlags.AllKnights;
+                break;
+            case Bishop:
+                pieceFlags = PieceFlags.AllBishops;
+                break;
+            case Castle:
+                pieceFlags = PieceFlags.AllCastles;
+                break;
+            case Queen:
+                pieceFlags = PieceFlags.AllQueens;
+                break;
+            default:
+                pieceFlags = PieceFlags.BothKings;
+                break;
+        }
+
+        return PieceFlags.piecesOfSameSide(pieceFlags, sideColor);
+    }
+}
@@ -4,4 +4,5 @@ package com.zynpo.enums;
 public enum PotentialMoveReason {
     ForNextMove,
     ForMoveAfterNext,
+    ForCaptureOrPromotion,  // Only the squares of the next move that take a piece, or promote a Pawn
 }
@@ -0,0 +1,26 @@
+package com.zynpo.enums;
+
+public enum SearchFeature {
+    /**
+     * Let the other side move twice in a row, with less depth, and take a score still
+     * too good for it as a cutoff, unless the side to move has only Pawns left.
+     */
+    NullMovePruning,
+
+    /**
+     * Search the quiet moves ordered late with less depth, and again in full only when
+     * one of them turns out better than it was expected to.
+     */
+    LateMoveReductions,
+
+    /**
+     * Near the last ply, give up on positions evaluated so far above beta that nothing
+     * is likely to bring them back, and on quiet moves from those so far below alpha.
+     */
+    FutilityPruning,
+
+    /**
+     * Search a move that gives check a ply deeper.
+     */
+    CheckExtensions,
+}
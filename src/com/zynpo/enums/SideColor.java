@@ -22,5 +22,18 @@ public enum SideColor {
         _value = value;
     }
 
+    public int getValue() { return _value; }
+
+    public static SideColor fromValue(int value) {
+        switch (value) {
+            case 0:
+                return White;
+            case 1:
+                return Black;
+            default:
+                return None;
+        }
+    }
+
     public SideColor opposingSideColor() { return None; }
 }
@@ -0,0 +1,293 @@
+package com.zynpo.impls;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+
+
+/**
+ * Precomputed masks of the squares each kind of piece covers from each square.
+ * Bit n of every mask stands for the square with getIndex() == n.
+ *
+ * Knights, kings and pawns are plain lookups. Bishops and castles (and so queens)
+ * use magic bitboards: the occupied squares that could block a slider are multiplied
+ * by a per-square magic number, and the top bits of the product index a table of
+ * every possible attack mask for that square. The magic numbers below were found by
+ * trying sparse random numbers until none of a square's occupancies collided, and the
+ * tables are checked against them when this class is first used.
+ */
+public final class AttackTables {
+
+    private AttackTables() {}
+
+    private static final int SQUARE_COUNT = ChessBoardSpecs.ROW_COUNT * ChessBoardSpecs.COL_COUNT;
+
+    private static final long[] KNIGHT_ATTACKS = new long[SQUARE_COUNT];
+    private static final long[] KING_ATTACKS = new long[SQUARE_COUNT];
+    private static final long[][] PAWN_ATTACKS = new long[2][SQUARE_COUNT];
+    private static final long[][] SQUARES_BETWEEN = new long[SQUARE_COUNT][SQUARE_COUNT];
+
+    private static final int[][] DIAGONAL_DIRECTIONS = { { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+    private static final int[][] STRAIGHT_DIRECTIONS = { { -1, 0 }, { 0, -1 }, { 0, 1 }, { 1, 0 } };
+
+    private static final long[] BISHOP_MASKS = new long[SQUARE_COUNT];
+    private static final int[] BISHOP_SHIFTS = new int[SQUARE_COUNT];
+    private static final long[][] BISHOP_ATTACKS = new long[SQUARE_COUNT][];
+
+    private static final long[] CASTLE_MASKS = new long[SQUARE_COUNT];
+    private static final int[] CASTLE_SHIFTS = new int[SQUARE_COUNT];
+    private static final long[][] CASTLE_ATTACKS = new long[SQUARE_COUNT][];
+
+    private static final long[] BISHOP_MAGICS = {
+        0x0042080A00AA0200L, 0x0028410424014001L, 0x2008280104202020L, 0x8008204041A20810L,
+        0x0002021010001020L, 0x0140821140400410L, 0x4C42025A20140104L, 0x8080404050101009L,
+        0x0100046028010100L, 0x8000440404040628L, 0x0048041820910240L, 0xA08008049110680CL,
+        0x8080040421404051L, 0x0400010420440150L, 0x0401404150101000L, 0x4010020106C82408L,
+        0x0008021020082090L, 0x05A0403001020488L, 0x960A400802004201L, 0x0009081024008000L,
+        0x6008200402080808L, 0x4000402600522021L, 0x810040E08804B020L, 0x1810A04606020A80L,
+        0x3802090020200403L, 0x0002600110442080L, 0x0408022004040010L, 0x0000808008020202L,
+        0x8019004004044010L, 0x10030200C1105000L, 0x2004011202415000L, 0x080200202A010140L,
+        0x0004024000081000L, 0x0408021012080180L, 0x0110405000A80020L, 0x00104008200A0200L,
+        0x0010020200102008L, 0x8810004880091010L, 0x861C010210004848L, 0x1104B40300008092L,
+        0x0005103004089041L, 0x0002080404090224L, 0x0910804040440803L, 0x0410304208004080L,
+        0x0000481010140100L, 0x1118101000880610L, 0x1502300400830110L, 0x001404A429001640L,
+        0x0010880802102802L, 0x6010220804054180L, 0x8000020084040400L, 0x0140000210440020L,
+        0x0000086910240000L, 0x0000400408208020L, 0x0284D88A04240003L, 0x0004040410460C04L,
+        0x0001004100A05000L, 0x2001122088141000L, 0x0121240101081620L, 0x0200000000421208L,
+        0x0A10100010020208L, 0x200A001020410108L, 0x0028C22448020841L, 0x00A0014408004040L
+    };
+
+    private static final long[] CASTLE_MAGICS = {
+        0x0080008424104000L, 0x0040001000200040L, 0x0200081200442080L, 0x0100090004100020L,
+        0x0A00102008020084L, 0x0900080100440002L, 0x0E00044082000128L, 0x8600040100204082L,
+        0x0406002042090084L, 0x1010C00020005000L, 0x1002004020820012L, 0x1412000814420020L,
+        0x800100080100FD10L, 0x1006000804100200L, 0x4214000110024824L, 0x100200004108840AL,
+        0x0000208000401080L, 0x50C0008040802008L, 0x2000410020010810L, 0x00A0808008001001L,
+        0x0000808004000800L, 0x0600808004000200L, 0x0020040008018210L, 0x084002000150A409L,
+        0x1080802080104000L, 0x8141008100204008L, 0x0430120200204080L, 0x0001100480080080L,
+        0x4000050100080010L, 0x610C008080040200L, 0x0001000500040600L, 0x05000442000410A1L,
+        0x0180002002400051L, 0x201000200040400CL, 0x0000200080801000L, 0x1006001042000820L,
+        0x2000800800800400L, 0x4801000401000802L, 0xC804425004000168L, 0xC3A0808042000104L,
+        0x0008902040008000L, 0x1040100028002000L, 0x0610200100410010L, 0x0220420010220008L,
+        0x0200480100110044L, 0x0004000200808004L, 0xA004040200010100L, 0x98E0008851220004L,
+        0x8080002000400040L, 0x0000802100400100L, 0x001681B004200880L, 0x9000801000080080L,
+        0x0000808400880280L, 0x0040020080040080L, 0x1910820110084400L, 0x2009010884024600L,
+        0x0040204010800901L, 0x0200124482012102L, 0x1A8220004408B101L, 0x000E00201040040AL,
+        0x0102000810200502L, 0x8102000148100482L, 0x0840100102008804L, 0x000C140100208042L
+    };
+
+    static {
+        for (int square = 0; square < SQUARE_COUNT; ++square) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square,
+                    new int[][] { { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 }, { 1, 2 }, { 2, -1 }, { 2, 1 } });
+
+            KING_ATTACKS[square] = stepAttacks(square,
+                    new int[][] { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 }, { 1, 0 }, { 1, 1 } });
+
+            PAWN_ATTACKS[SideColor.White.getValue()][square] = stepAttacks(square, new int[][] { { 1, -1 }, { 1, 1 } });
+            PAWN_ATTACKS[SideColor.Black.getValue()][square] = stepAttacks(square, new int[][] { { -1, -1 }, { -1, 1 } });
+        }
+
+        for (int from = 0; from < SQUARE_COUNT; ++from) {
+            for (int[] direction : concat(DIAGONAL_DIRECTIONS, STRAIGHT_DIRECTIONS)) {
+                long between = 0L;
+                int row = rowOf(from) + direction[0];
+                int col = colOf(from) + direction[1];
+
+                while (squareExists(row, col)) {
+                    int to = row * ChessBoardSpecs.COL_COUNT + col;
+                    SQUARES_BETWEEN[from][to] = between;
+                    between |= 1L << to;
+                    row += direction[0];
+                    col += direction[1];
+                }
+            }
+        }
+
+        for (int square = 0; square < SQUARE_COUNT; ++square) {
+            fillMagicTable(square, DIAGONAL_DIRECTIONS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+            fillMagicTable(square, STRAIGHT_DIRECTIONS, CASTLE_MAGICS, CASTLE_MASKS, CASTLE_SHIFTS, CASTLE_ATTACKS);
+        }
+    }
+
+
+    public static long knightAttacks(int square) { return KNIGHT_ATTACKS[square]; }
+
+    public static long kingAttacks(int square) { return KING_ATTACKS[square]; }
+
+    /**
+     * @return the two (or one, on the edge) squares diagonally in front of a pawn of the given side
+     */
+    public static long pawnAttacks(int sideColor, int square) { return PAWN_ATTACKS[sideColor][square]; }
+
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[square][index];
+    }
+
+    public static long castleAttacks(int square, long occupied) {
+        int index = (int) (((occupied & CASTLE_MASKS[square]) * CASTLE_MAGICS[square]) >>> CASTLE_SHIFTS[square]);
+        return CASTLE_ATTACKS[square][index];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | castleAttacks(square, occupied);
+    }
+
+    /**
+     * @return mask of the squares a piece of the given type and side covers from the given square
+     */
+    public static long attacks(int pieceType, int sideColor, int square, long occupied) {
+        switch (PieceType.fromOrdinal(pieceType)) {
+            case Pawn:
+                return PAWN_ATTACKS[sideColor][square];
+            case Knight:
+                return KNIGHT_ATTACKS[square];
+            case Bishop:
+                return bishopAttacks(square, occupied);
+            case Castle:
+                return castleAttacks(square, occupied);
+            case Queen:
+                return queenAttacks(square, occupied);
+            default:
+                return KING_ATTACKS[square];
+        }
+    }
+
+    /**
+     * @return mask of the squares strictly between two squares on the same row, column or diagonal,
+     * or 0 if they don't line up.
+     */
+    public static long squaresBetween(int from, int to) { return SQUARES_BETWEEN[from][to]; }
+
+    /**
+     * Look backwards from the square: a piece of the given side covers it exactly
+     * when the same kind of piece, standing on the square, would cover that piece.
+     *
+     * @param pieceBitboards one mask per side and PieceType, indexed by (sideColor * PieceType.COUNT) + pieceType
+     * @return mask of the squares holding pieces of the given side that cover the square
+     */
+    static long attackersOf(int square, int sideColor, long occupied, long[] pieceBitboards) {
+        int offset = sideColor * PieceType.COUNT;
+        long queens = pieceBitboards[offset + PieceType.Queen.getValue()];
+
+        return (PAWN_ATTACKS[1 - sideColor][square] & pieceBitboards[offset + PieceType.Pawn.getValue()])
+                | (KNIGHT_ATTACKS[square] & pieceBitboards[offset + PieceType.Knight.getValue()])
+                | (KING_ATTACKS[square] & pieceBitboards[offset + PieceType.King.getValue()])
+                | (bishopAttacks(square, occupied) & (pieceBitboards[offset + PieceType.Bishop.getValue()] | queens))
+                | (castleAttacks(square, occupied) & (pieceBitboards[offset + PieceType.Castle.getValue()] | queens));
+    }
+
+
+    //--------------------------------------------------------------------
+    // Table construction
+    //--------------------------------------------------------------------
+
+    private static int rowOf(int square) { return square / ChessBoardSpecs.COL_COUNT; }
+
+    private static int colOf(int square) { return square % ChessBoardSpecs.COL_COUNT; }
+
+    private static boolean squareExists(int row, int col) {
+        return (0 <= row) && (row < ChessBoardSpecs.ROW_COUNT) && (0 <= col) && (col < ChessBoardSpecs.COL_COUNT);
+    }
+
+    private static int[][] concat(int[][] first, int[][] second) {
+        int[][] both = new int[first.length + second.length][];
+        System.arraycopy(first, 0, both, 0, first.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+
+    private static long stepAttacks(int square, int[][] offsets) {
+        long attacks = 0L;
+
+        for (int[] offset : offsets) {
+            int row = rowOf(square) + offset[0];
+            int col = colOf(square) + offset[1];
+
+            if (squareExists(row, col)) {
+                attacks |= 1L << (row * ChessBoardSpecs.COL_COUNT + col);
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * Walk each direction until running off the board or into an occupied square,
+     * which is the slow way the magic tables stand in for.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int row = rowOf(square) + direction[0];
+            int col = colOf(square) + direction[1];
+
+            while (squareExists(row, col)) {
+                long bit = 1L << (row * ChessBoardSpecs.COL_COUNT + col);
+                attacks |= bit;
+
+                if (0L != (occupied & bit)) {
+                    // Something is blocking this direction from here on ...
+                    break;
+                }
+
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    /**
+     * @return the squares whose occupancy can change a slider's attacks: every square it
+     * slides over, other than the last square in each direction.
+     */
+    private static long relevantOccupancyMask(int square, int[][] directions) {
+        long mask = 0L;
+
+        for (int[] direction : directions) {
+            int row = rowOf(square) + direction[0];
+            int col = colOf(square) + direction[1];
+
+            while (squareExists(row + direction[0], col + direction[1])) {
+                mask |= 1L << (row * ChessBoardSpecs.COL_COUNT + col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+
+        return mask;
+    }
+
+    private static void fillMagicTable(int square, int[][] directions, long[] magics,
+                                       long[] masks, int[] shifts, long[][] attackTables) {
+        long mask = relevantOccupancyMask(square, directions);
+        int bitCount = Long.bitCount(mask);
+        int shift = Long.SIZE - bitCount;
+
+        long[] table = new long[1 << bitCount];
+        boolean[] filled = new boolean[table.length];
+
+        // Enumerate every subset of the mask (the "carry-rippler") ...
+        long occupied = 0L;
+        do {
+            int index = (int) ((occupied * magics[square]) >>> shift);
+            long attacks = slidingAttacks(square, occupied, directions);
+
+            if (filled[index] && (table[index] != attacks)) {
+                throw new InternalError("Magic number for square " + square + " maps different attacks to the same entry");
+            }
+
+            filled[index] = true;
+            table[index] = attacks;
+            occupied = (occupied - mask) & mask;
+        } while (0L != occupied);
+
+        masks[square] = mask;
+        shifts[square] = shift;
+        attackTables[square] = table;
+    }
+}
@@ -0,0 +1,1527 @@
+package com.zynpo.impls;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceFlags;
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.PotentialMoveReason;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.pieces.ChessPieceFactory;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessSquare;
+import com.zynpo.interfaces.pieces.ChessPiece;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+
+/**
+ * A ChessBoard that holds its position as one 64-bit mask per side and PieceType,
+ * plus occupancy masks. Bit n of every mask stands for the square with getIndex() == n,
+ * so a1 is bit 0 and h8 is bit 63.
+ *
+ * ChessSquares and ChessPieces handed out by this board are thin views that read
+ * from, and write through to, these masks. They are created on first use and are
+ * never copied by clone().
+ */
+public class BitboardChessBoard implements ChessBoard {
+
+    public static final int SQUARE_COUNT = ChessBoardSpecs.ROW_COUNT * ChessBoardSpecs.COL_COUNT;
+    public static final int PIECE_COUNT = 32;
+
+    public static final int NO_SQUARE = -1;
+    public static final int NO_PIECE = -1;
+
+    private static final int UNDO_STACK_INITIAL_SIZE = 64;
+    private static final int[] NO_UNDO_ENTRIES = {};
+    private static final int[] CASTLING_COL_OFFSETS = { 2, -2 };
+
+    private static final int[] PROMOTION_TYPE_VALUES = {
+            PieceType.Knight.getValue(), PieceType.Bishop.getValue(), PieceType.Castle.getValue(), PieceType.Queen.getValue() };
+
+    private long[] _pieceBitboards;      // Indexed by (sideColor * PieceType.COUNT) + pieceType
+    private long[] _sideBitboards;       // Indexed by sideColor
+    private long _occupiedBitboard;
+
+    private byte[] _squarePieces;        // PieceIndex on each square, or NO_PIECE
+    private byte[] _pieceSquares;        // Square of each PieceIndex, or NO_SQUARE once taken
+    private byte[] _pieceTypes;          // PieceType of each PieceIndex, which changes on promotion
+    private byte[] _pieceOrigSquares;
+    private int[] _pieceMovedCounts;
+    private int _takenByEnPassantFlags;  // PieceFlags of pawns that were taken en passant
+    private int _enPassantSquare;
+
+    private long _zobristKey;            // Kept up to date with every change, leaving out the side to move
+    private long _pawnKey;               // The part of it keying the Pawns
+    private int _pieceSquareScore;       // Packed PieceSquareTables scores of every piece, for White less Black
+    private int _gamePhase;              // PieceSquareTables phases of every piece
+    private int _castlingRights;         // Bit (2 * sideColor) for the King's side, the next bit for the Queen's
+
+    private int[] _undoStack;            // One packed entry per move made by makeMove() and not yet unmade
+    private int _undoCount;
+
+    private ChessSquare[] _squareViews;
+    private ChessPiece[] _pieceViews;
+
+
+    BitboardChessBoard() {
+        this(true);
+    }
+
+
+    /**
+     * @param setUpPieces whether to put every piece on its square at the start of the game,
+     *                    or leave them all out of play for the position to be set up by setUpPiece()
+     */
+    private BitboardChessBoard(boolean setUpPieces) {
+        allocate();
+
+        for (PieceIndex index : PieceIndex.values()) {
+            int i = index.getValue();
+            int square = index.origRow() * getColCount() + index.origCol();
+
+            _pieceTypes[i] = (byte) PieceType.origPieceType(index).getValue();
+            _pieceOrigSquares[i] = (byte) square;
+
+            if (setUpPieces) {
+                putPiece(i, square);
+            }
+        }
+
+        updateCastlingRights();
+    }
+
+
+    /**
+     * @return a board with every piece out of play, for setting up a position with setUpPiece()
+     */
+    static BitboardChessBoard createEmpty() {
+        return new BitboardChessBoard(false);
+    }
+
+
+    private BitboardChessBoard(BitboardChessBoard otherBoard) {
+        _pieceBitboards = otherBoard._pieceBitboards.clone();
+        _sideBitboards = otherBoard._sideBitboards.clone();
+        _occupiedBitboard = otherBoard._occupiedBitboard;
+
+        _squarePieces = otherBoard._squarePieces.clone();
+        _pieceSquares = otherBoard._pieceSquares.clone();
+        _pieceTypes = otherBoard._pieceTypes.clone();
+        _pieceOrigSquares = otherBoard._pieceOrigSquares.clone();
+        _pieceMovedCounts = otherBoard._pieceMovedCounts.clone();
+        _takenByEnPassantFlags = otherBoard._takenByEnPassantFlags;
+        _enPassantSquare = otherBoard._enPassantSquare;
+
+        _zobristKey = otherBoard._zobristKey;
+        _pawnKey = otherBoard._pawnKey;
+        _pieceSquareScore = otherBoard._pieceSquareScore;
+        _gamePhase = otherBoard._gamePhase;
+        _castlingRights = otherBoard._castlingRights;
+
+        // A clone starts from the position as it stands, with no moves to unmake, and
+        // only takes room for them once it makes one, as a checkpointed game may never ...
+        _undoStack = NO_UNDO_ENTRIES;
+        _undoCount = 0;
+    }
+
+
+    /**
+     * Construct a BitboardChessBoard holding the same position as any other ChessBoard.
+     * @param otherBoard to copy the pieces, moved counts and en passant square of.
+     */
+    BitboardChessBoard(ChessBoard otherBoard) {
+        if (this.getRowCount() != otherBoard.getRowCount()) {
+            throw new InternalError("Copying a board with an unexpected number of rows");
+        }
+
+        if (this.getColCount() != otherBoard.getColCount()) {
+            throw new InternalError("Copying a board with an unexpected number of columns");
+        }
+
+        allocate();
+
+        for (int i = 0; i < PIECE_COUNT; ++i) {
+            ChessPiece piece = otherBoard.getPiece(i);
+            PieceType pieceType = PieceType.of(piece);
+
+            if (null == pieceType) {
+                // Treat a Pawn whose promotion hasn't been determined yet as still being a Pawn ...
+                pieceType = PieceType.Pawn;
+            }
+
+            _pieceTypes[i] = (byte) pieceType.getValue();
+            _pieceOrigSquares[i] = (byte) (null == piece.getOrigSquare() ? NO_SQUARE : piece.getOrigSquare().getIndex());
+            _pieceMovedCounts[i] = piece.getMovedCount();
+
+            if (null != piece.getSquare()) {
+                putPiece(i, piece.getSquare().getIndex());
+            }
+        }
+
+        ChessSquare enPassantSquare = otherBoard.getEnPassantSquare();
+        setEnPassantSquareIndex((null == enPassantSquare) ? NO_SQUARE : enPassantSquare.getIndex());
+        updateCastlingRights();
+    }
+
+
+    private void allocate() {
+        _pieceBitboards = new long[2 * PieceType.COUNT];
+        _sideBitboards = new long[2];
+        _occupiedBitboard = 0L;
+
+        _squarePieces = new byte[SQUARE_COUNT];
+        _pieceSquares = new byte[PIECE_COUNT];
+        _pieceTypes = new byte[PIECE_COUNT];
+        _pieceOrigSquares = new byte[PIECE_COUNT];
+        _pieceMovedCounts = new int[PIECE_COUNT];
+        _takenByEnPassantFlags = 0;
+        _enPassantSquare = NO_SQUARE;
+
+        _zobristKey = 0L;
+        _pawnKey = 0L;
+        _pieceSquareScore = 0;
+        _gamePhase = 0;
+        _castlingRights = 0;
+
+        _undoStack = new int[UNDO_STACK_INITIAL_SIZE];
+        _undoCount = 0;
+
+        Arrays.fill(_squarePieces, (byte) NO_PIECE);
+        Arrays.fill(_pieceSquares, (byte) NO_SQUARE);
+    }
+
+
+    @Override
+    public BitboardChessBoard clone() {
+        return new BitboardChessBoard(this);
+    }
+
+
+    //--------------------------------------------------------------------
+    // Square and piece arithmetic shared by the views and the bitboards
+    //--------------------------------------------------------------------
+
+    public static int rowOf(int square) { return square / ChessBoardSpecs.COL_COUNT; }
+
+    public static int colOf(int square) { return square % ChessBoardSpecs.COL_COUNT; }
+
+    public static int sideColorOf(int pieceIndex) {
+        return (pieceIndex < PieceIndex.BlackPawnA.getValue()) ? SideColor.White.getValue() : SideColor.Black.getValue();
+    }
+
+    /**
+     * @param sideColor of a pawn
+     * @return how far a pawn of the given side advances in square indexes with each step forward
+     */
+    public static int pawnAdvance(int sideColor) {
+        return (SideColor.White.getValue() == sideColor) ? ChessBoardSpecs.COL_COUNT : -ChessBoardSpecs.COL_COUNT;
+    }
+
+    private static int pawnGameStartRow(int sideColor) {
+        return (SideColor.White.getValue() == sideColor) ? 1 : ChessBoardSpecs.ROW_COUNT - 2;
+    }
+
+    private static int promotionRowOf(int sideColor) {
+        return (SideColor.White.getValue() == sideColor) ? ChessBoardSpecs.ROW_COUNT - 1 : 0;
+    }
+
+    private static boolean squareExistsAt(int row, int col) {
+        return (0 <= row) && (row < ChessBoardSpecs.ROW_COUNT) && (0 <= col) && (col < ChessBoardSpecs.COL_COUNT);
+    }
+
+
+    //--------------------------------------------------------------------
+    // Raw bitboard access
+    //--------------------------------------------------------------------
+
+    public long getPieceBitboard(int sideColor, int pieceType) {
+        return _pieceBitboards[sideColor * PieceType.COUNT + pieceType];
+    }
+
+    public long getPieceBitboard(SideColor sideColor, PieceType pieceType) {
+        return getPieceBitboard(sideColor.getValue(), pieceType.getValue());
+    }
+
+    public long getSideBitboard(int sideColor) { return _sideBitboards[sideColor]; }
+
+    public long getSideBitboard(SideColor sideColor) { return getSideBitboard(sideColor.getValue()); }
+
+    public long getOccupiedBitboard() { return _occupiedBitboard; }
+
+    /**
+     * @return whether the side has any piece other than Pawns and its King, promoted Pawns included,
+     *     which PieceFlags masks can't tell as they go by the piece a Pawn started out as
+     */
+    public boolean hasPiecesOtherThanPawns(int sideColor) {
+        return 0L != (getSideBitboard(sideColor)
+                & ~getPieceBitboard(sideColor, PieceType.Pawn.getValue())
+                & ~getPieceBitboard(sideColor, PieceType.King.getValue()));
+    }
+
+    /**
+     * @param square index of the square
+     * @return the PieceIndex value of the piece on the square, or NO_PIECE
+     */
+    public int getPieceIndexOn(int square) { return _squarePieces[square]; }
+
+    /**
+     * @param pieceIndex value of a PieceIndex
+     * @return the square index the piece sits on, or NO_SQUARE if it was taken
+     */
+    public int getSquareOf(int pieceIndex) { return _pieceSquares[pieceIndex]; }
+
+    public int getPieceTypeOf(int pieceIndex) { return _pieceTypes[pieceIndex]; }
+
+    public int getOrigSquareOf(int pieceIndex) { return _pieceOrigSquares[pieceIndex]; }
+
+    public int getMovedCountOf(int pieceIndex) { return _pieceMovedCounts[pieceIndex]; }
+
+    /**
+     * @return index of the en passant square, or NO_SQUARE
+     */
+    public int getEnPassantSquareIndex() { return _enPassantSquare; }
+
+
+    /**
+     * @return bit (2 * sideColor) for castling on the King's side, the next bit for the Queen's
+     */
+    int getCastlingRights() { return _castlingRights; }
+
+
+    //--------------------------------------------------------------------
+    // Setting up a position other than by moves
+    //--------------------------------------------------------------------
+
+    /**
+     * Put a piece out of play onto an empty square as the given PieceType, as if it had started
+     * the game there and moved the given number of times. Nothing else is worked out until finishSetUp().
+     */
+    void setUpPiece(int pieceIndex, int pieceType, int square, int movedCount) {
+        if ((NO_SQUARE != _pieceSquares[pieceIndex]) || (NO_PIECE != _squarePieces[square])) {
+            throw new InternalError("Can't set up " + PieceIndex.fromOrdinal(pieceIndex) + " on " + getSquare(square)
+                    + " unless both are unused");
+        }
+
+        _pieceTypes[pieceIndex] = (byte) pieceType;
+        _pieceOrigSquares[pieceIndex] = (byte) square;
+        _pieceMovedCounts[pieceIndex] = movedCount;
+        putPiece(pieceIndex, square);
+    }
+
+
+    void setMovedCountOf(int pieceIndex, int movedCount) {
+        _pieceMovedCounts[pieceIndex] = movedCount;
+    }
+
+
+    /**
+     * Take the en passant square as given, as a position set up without the move that made it can't tell ...
+     */
+    void setUpEnPassantSquare(int square) {
+        setEnPassantSquareIndex(square);
+    }
+
+
+    /**
+     * Work out the castlings the pieces set up still allow.
+     */
+    void finishSetUp() {
+        updateCastlingRights();
+    }
+
+
+    private void putPiece(int pieceIndex, int square) {
+        long bit = 1L << square;
+        int sideColor = sideColorOf(pieceIndex);
+
+        _pieceBitboards[sideColor * PieceType.COUNT + _pieceTypes[pieceIndex]] |= bit;
+        _sideBitboards[sideColor] |= bit;
+        _occupiedBitboard |= bit;
+
+        _squarePieces[square] = (byte) pieceIndex;
+        _pieceSquares[pieceIndex] = (byte) square;
+
+        _zobristKey ^= Zobrist.pieceKey(sideColor, _pieceTypes[pieceIndex], square);
+        _pieceSquareScore += PieceSquareTables.score(sideColor, _pieceTypes[pieceIndex], square);
+
+        if (PieceType.Pawn.getValue() == _pieceTypes[pieceIndex]) {
+            _pawnKey ^= Zobrist.pieceKey(sideColor, _pieceTypes[pieceIndex], square);
+        }
+        _gamePhase += PieceSquareTables.phase(_pieceTypes[pieceIndex]);
+    }
+
+
+    private void liftPiece(int pieceIndex) {
+        int square = _pieceSquares[pieceIndex];
+        long bit = 1L << square;
+        int sideColor = sideColorOf(pieceIndex);
+
+        _pieceBitboards[sideColor * PieceType.COUNT + _pieceTypes[pieceIndex]] &= ~bit;
+        _sideBitboards[sideColor] &= ~bit;
+        _occupiedBitboard &= ~bit;
+
+        _squarePieces[square] = (byte) NO_PIECE;
+        _pieceSquares[pieceIndex] = (byte) NO_SQUARE;
+
+        _zobristKey ^= Zobrist.pieceKey(sideColor, _pieceTypes[pieceIndex], square);
+        _pieceSquareScore -= PieceSquareTables.score(sideColor, _pieceTypes[pieceIndex], square);
+
+        if (PieceType.Pawn.getValue() == _pieceTypes[pieceIndex]) {
+            _pawnKey ^= Zobrist.pieceKey(sideColor, _pieceTypes[pieceIndex], square);
+        }
+        _gamePhase -= PieceSquareTables.phase(_pieceTypes[pieceIndex]);
+    }
+
+
+    private void setEnPassantSquareIndex(int square) {
+        if (NO_SQUARE != _enPassantSquare) {
+            _zobristKey ^= Zobrist.enPassantKey(_enPassantSquare);
+        }
+
+        _enPassantSquare = square;
+
+        if (NO_SQUARE != _enPassantSquare) {
+            _zobristKey ^= Zobrist.enPassantKey(_enPassantSquare);
+        }
+    }
+
+
+    /**
+     * Only Kings and Castles moving, being taken or coming back can change which castlings are still possible ...
+     */
+    private boolean affectsCastling(int pieceIndex) {
+        int pieceType = _pieceTypes[pieceIndex];
+        return (PieceType.King.getValue() == pieceType) || (PieceType.Castle.getValue() == pieceType);
+    }
+
+
+    /**
+     * Work out afresh which castlings are still possible some time, keeping the Zobrist key in step ...
+     */
+    private void updateCastlingRights() {
+        int castlingRights = 0;
+
+        for (int sideColor = 0; sideColor < 2; ++sideColor) {
+            if (hasCastlingRight(sideColor, true)) {
+                castlingRights |= 1 << (2 * sideColor);
+            }
+
+            if (hasCastlingRight(sideColor, false)) {
+                castlingRights |= 2 << (2 * sideColor);
+            }
+        }
+
+        int changedRights = castlingRights ^ _castlingRights;
+
+        for (int sideColor = 0; sideColor < 2; ++sideColor) {
+            if (0 != (changedRights & (1 << (2 * sideColor)))) {
+                _zobristKey ^= Zobrist.castlingKey(sideColor, true);
+            }
+
+            if (0 != (changedRights & (2 << (2 * sideColor)))) {
+                _zobristKey ^= Zobrist.castlingKey(sideColor, false);
+            }
+        }
+
+        _castlingRights = castlingRights;
+    }
+
+
+    //--------------------------------------------------------------------
+    // Attacks
+    //--------------------------------------------------------------------
+
+    /**
+     * @return mask of the squares a piece of the given type and side would cover from the given square
+     */
+    static long pieceAttacks(int pieceType, int sideColor, int square, long occupied) {
+        return AttackTables.attacks(pieceType, sideColor, square, occupied);
+    }
+
+
+    /**
+     * @param pieceIndex value of a PieceIndex in play
+     * @return mask of the squares the piece covers, or 0 if it was taken
+     */
+    public long attacksOf(int pieceIndex) {
+        int square = _pieceSquares[pieceIndex];
+
+        if (NO_SQUARE == square) {
+            return 0L;
+        }
+
+        return pieceAttacks(_pieceTypes[pieceIndex], sideColorOf(pieceIndex), square, _occupiedBitboard);
+    }
+
+
+    /**
+     * @param square index of the square in question
+     * @param sideColor whose pieces might cover the square
+     * @return true if any piece of the given side covers the square
+     */
+    public boolean isSquareCoveredBy(int square, int sideColor) {
+        return 0L != AttackTables.attackersOf(square, sideColor, _occupiedBitboard, _pieceBitboards);
+    }
+
+
+    /**
+     * @param sideColor whose king to consider
+     * @return true if the given side's king is covered by any opposing piece
+     */
+    public boolean isInCheck(int sideColor) {
+        long king = getPieceBitboard(sideColor, PieceType.King.getValue());
+
+        return (0L != king) && isSquareCoveredBy(Long.numberOfTrailingZeros(king), 1 - sideColor);
+    }
+
+
+    /**
+     * Hash the position from scratch, with the given side to move, by XORing together the Zobrist
+     * keys of every piece on its square, the en passant square and each castling still possible.
+     * This is what getZobristKey() keeps up with move by move, so is only needed to check it.
+     */
+    public long computeHash(int sideToMove) {
+        long hash = 0L;
+
+        for (int i = 0; i < _pieceBitboards.length; ++i) {
+            long bitboard = _pieceBitboards[i];
+
+            while (0L != bitboard) {
+                int square = Long.numberOfTrailingZeros(bitboard);
+                bitboard &= bitboard - 1;
+
+                hash ^= Zobrist.pieceKey(i / PieceType.COUNT, i % PieceType.COUNT, square);
+            }
+        }
+
+        if (NO_SQUARE != _enPassantSquare) {
+            hash ^= Zobrist.enPassantKey(_enPassantSquare);
+        }
+
+        for (int sideColor = 0; sideColor < 2; ++sideColor) {
+            if (hasCastlingRight(sideColor, true)) {
+                hash ^= Zobrist.castlingKey(sideColor, true);
+            }
+
+            if (hasCastlingRight(sideColor, false)) {
+                hash ^= Zobrist.castlingKey(sideColor, false);
+            }
+        }
+
+        return hash ^ Zobrist.sideToMoveKey(sideToMove);
+    }
+
+
+    /**
+     * Have the given side's King and Castle not yet moved, so they may castle some time, if not now?
+     * @param kingSide whether it's the Castle on the King's right as White sees the board
+     */
+    private boolean hasCastlingRight(int sideColor, boolean kingSide) {
+        long king = getPieceBitboard(sideColor, PieceType.King.getValue());
+
+        if (0L == king) {
+            return false;
+        }
+
+        int kingSquare = Long.numberOfTrailingZeros(king);
+        int kingIndex = _squarePieces[kingSquare];
+
+        if (0 != _pieceMovedCounts[kingIndex]) {
+            return false;
+        }
+
+        int castleSquare = kingSide ? kingSquare + 3 : kingSquare - 4;
+
+        if ((castleSquare < 0) || (SQUARE_COUNT <= castleSquare) || (rowOf(castleSquare) != rowOf(kingSquare))) {
+            return false;
+        }
+
+        int castleIndex = _squarePieces[castleSquare];
+
+        return (NO_PIECE != castleIndex)
+                && (PieceType.Castle.getValue() == _pieceTypes[castleIndex])
+                && (sideColorOf(castleIndex) == sideColor)
+                && (0 == _pieceMovedCounts[castleIndex]);
+    }
+
+
+    //--------------------------------------------------------------------
+    // Piece behaviour the views delegate to
+    //--------------------------------------------------------------------
+
+    /**
+     * @return the square a pawn may initially jump two squares forward to, or NO_SQUARE
+     */
+    public int jumpTwoSquareOf(int pieceIndex) {
+        int origSquare = _pieceOrigSquares[pieceIndex];
+        int sideColor = sideColorOf(pieceIndex);
+
+        if ((NO_SQUARE == origSquare) || (rowOf(origSquare) != pawnGameStartRow(sideColor))) {
+            return NO_SQUARE;
+        }
+
+        return origSquare + 2 * pawnAdvance(sideColor);
+    }
+
+
+    public boolean pieceCovers(int pieceIndex, int square) {
+        int pieceSquare = _pieceSquares[pieceIndex];
+
+        if ((NO_SQUARE == pieceSquare) || (pieceSquare == square)) {
+            return false;
+        }
+
+        return 0L != (attacksOf(pieceIndex) & (1L << square));
+    }
+
+
+    public boolean pieceMightMoveTo(int pieceIndex, int square) {
+        int pieceSquare = _pieceSquares[pieceIndex];
+
+        if ((NO_SQUARE == pieceSquare) || (pieceSquare == square)) {
+            return false;
+        }
+
+        int sideColor = sideColorOf(pieceIndex);
+        int pieceType = _pieceTypes[pieceIndex];
+        int occupant = _squarePieces[square];
+
+        if (pieceCovers(pieceIndex, square)) {
+            if (NO_PIECE == occupant) {
+                if (PieceType.Pawn.getValue() != pieceType) {
+                    // Pieces other than pawns can generally move onto covered squares that aren't occupied ...
+                    return true;
+                } else if (_enPassantSquare == square) {
+                    // Pawns can only move onto empty covered squares when en-passant is possible ...
+                    return true;
+                }
+            } else if (sideColorOf(occupant) != sideColor) {
+                // All pieces can take an opposing piece on a square they cover ...
+                return true;
+            }
+        }
+
+        if ((PieceType.Pawn.getValue() == pieceType) && (NO_PIECE == occupant)) {
+            int squareJustInFront = pieceSquare + pawnAdvance(sideColor);
+
+            if (NO_PIECE == _squarePieces[squareJustInFront]) {
+                if (squareJustInFront == square) {
+                    return true;
+                }
+
+                if ((0 == _pieceMovedCounts[pieceIndex]) && (jumpTwoSquareOf(pieceIndex) == square)) {
+                    return true;
+                }
+            }
+        }
+
+        if ((PieceType.King.getValue() == pieceType) && (NO_SQUARE != castleIndexFor(pieceIndex, square))) {
+            return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Is the given king permitted to castle by moving to the given square?
+     * @return the PieceIndex value of the Castle it would castle with, or NO_PIECE
+     */
+    private int castleIndexFor(int kingIndex, int square) {
+        int kingSquare = _pieceSquares[kingIndex];
+
+        if ((0 != _pieceMovedCounts[kingIndex]) || (rowOf(kingSquare) != rowOf(square))) {
+            return NO_PIECE;
+        }
+
+        int colsAway = colOf(square) - colOf(kingSquare);
+
+        if ((2 != colsAway) && (-2 != colsAway)) {
+            return NO_PIECE;
+        }
+
+        int step = colsAway / 2;
+        int sideColor = sideColorOf(kingIndex);
+
+        if (!hasCastlingRight(sideColor, 0 < step)) {
+            return NO_PIECE;
+        }
+
+        int castleSquare = (0 < step) ? kingSquare + 3 : kingSquare - 4;
+        int castleIndex = _squarePieces[castleSquare];
+
+        if (0L != (_occupiedBitboard & AttackTables.squaresBetween(kingSquare, castleSquare))) {
+            // Can't castle through other pieces ...
+            return NO_PIECE;
+        }
+
+        int opposingSideColor = 1 - sideColor;
+
+        // Can't castle out of, through or into check ...
+        for (int kingPath = kingSquare; kingPath != square + step; kingPath += step) {
+            if (isSquareCoveredBy(kingPath, opposingSideColor)) {
+                return NO_PIECE;
+            }
+        }
+
+        return castleIndex;
+    }
+
+
+    public long potentialMoveSquaresOf(int pieceIndex, PotentialMoveReason reason) {
+        int pieceSquare = _pieceSquares[pieceIndex];
+
+        if (NO_SQUARE == pieceSquare) {
+            return 0L;
+        }
+
+        int sideColor = sideColorOf(pieceIndex);
+        int pieceType = _pieceTypes[pieceIndex];
+        long ownPieces = _sideBitboards[sideColor];
+        long ownKing = getPieceBitboard(sideColor, PieceType.King.getValue());
+        long potentials = 0L;
+
+        if (PieceType.Pawn.getValue() == pieceType) {
+            int squareJustInFront = pieceSquare + pawnAdvance(sideColor);
+            long forwardSquares = (1L << squareJustInFront) | pieceAttacks(pieceType, sideColor, pieceSquare, 0L);
+
+            if ((PotentialMoveReason.ForCaptureOrPromotion == reason) && (rowOf(squareJustInFront) != promotionRowOf(sideColor))) {
+                // Stepping forward takes nothing, so only counts when it promotes ...
+                forwardSquares &= ~(1L << squareJustInFront);
+            }
+
+            int jumpTwoSquare = jumpTwoSquareOf(pieceIndex);
+
+            if ((NO_SQUARE != jumpTwoSquare) && (PotentialMoveReason.ForCaptureOrPromotion != reason)
+                    && (rowOf(pieceSquare) == pawnGameStartRow(sideColor))
+                    && (0 == _pieceMovedCounts[pieceIndex])) {
+                forwardSquares |= 1L << jumpTwoSquare;
+            }
+
+            if (PotentialMoveReason.ForMoveAfterNext == reason) {
+                // Simply assume we might be able to move there ...
+                return forwardSquares;
+            }
+
+            while (0L != forwardSquares) {
+                int square = Long.numberOfTrailingZeros(forwardSquares);
+                forwardSquares &= forwardSquares - 1;
+
+                if (pieceMightMoveTo(pieceIndex, square)) {
+                    potentials |= 1L << square;
+                }
+            }
+
+            return potentials;
+        }
+
+        if (PotentialMoveReason.ForMoveAfterNext == reason) {
+            if (PieceType.King.getValue() == pieceType) {
+                return pieceAttacks(pieceType, sideColor, pieceSquare, 0L);
+            }
+
+            // Only assume this piece won't land on, or move through, its own King
+            // for the move after next ...
+            return pieceAttacks(pieceType, sideColor, pieceSquare, ownKing) & ~ownKing;
+        }
+
+        if (PotentialMoveReason.ForCaptureOrPromotion == reason) {
+            return attacksOf(pieceIndex) & _sideBitboards[1 - sideColor];
+        }
+
+        potentials = attacksOf(pieceIndex) & ~ownPieces;
+
+        if ((PieceType.King.getValue() == pieceType) && (0 == _pieceMovedCounts[pieceIndex])) {
+            for (int colOffset : CASTLING_COL_OFFSETS) {
+                int col = colOf(pieceSquare) + colOffset;
+
+                if (squareExistsAt(rowOf(pieceSquare), col)
+                        && (NO_PIECE != castleIndexFor(pieceIndex, pieceSquare + colOffset))) {
+                    potentials |= 1L << (pieceSquare + colOffset);
+                }
+            }
+        }
+
+        return potentials;
+    }
+
+
+    //--------------------------------------------------------------------
+    // Changes made through the views
+    //--------------------------------------------------------------------
+
+    public void dropPiece(int pieceIndex, int square) {
+        if (NO_PIECE != _squarePieces[square]) {
+            throw new InternalError("Can't drop " + getPiece(pieceIndex) + " onto "
+                    + getSquare(square) + " that already contains " + getPiece(_squarePieces[square]));
+        }
+
+        if (NO_SQUARE != _pieceSquares[pieceIndex]) {
+            liftPiece(pieceIndex);
+        }
+
+        putPiece(pieceIndex, square);
+        _pieceMovedCounts[pieceIndex] = 0;
+        _pieceOrigSquares[pieceIndex] = (byte) square;
+        setEnPassantSquareIndex(NO_SQUARE);
+        updateCastlingRights();
+    }
+
+
+    /**
+     * Move a piece the way ChessPiece.moveToSquare() does, castling and taking en passant as implied.
+     * @return the PieceIndex value of the piece taken, or NO_PIECE
+     */
+    public int movePiece(int pieceIndex, int square) {
+        int departedSquare = _pieceSquares[pieceIndex];
+
+        if (NO_SQUARE == departedSquare) {
+            throw new InternalError("Can't move " + getPiece(pieceIndex) + " from null to " + getSquare(square));
+        }
+
+        if (departedSquare == square) {
+            throw new InternalError("Can't move " + getPiece(pieceIndex) + " to the same square " + getSquare(square));
+        }
+
+        int sideColor = sideColorOf(pieceIndex);
+        int pieceType = _pieceTypes[pieceIndex];
+        int possibleEnPassantSquare = NO_SQUARE;
+
+        if ((PieceType.Pawn.getValue() == pieceType)
+                && (departedSquare == _pieceOrigSquares[pieceIndex])
+                && (jumpTwoSquareOf(pieceIndex) == square)) {
+
+            // Only consider the square jumped over as the en passant square if an opposing pawn could take on it ...
+            // (the squares beside where it lands are the ones a pawn covers from the square jumped over)
+            long besideSquares = AttackTables.pawnAttacks(sideColor, departedSquare + pawnAdvance(sideColor));
+
+            if (0L != (besideSquares & getPieceBitboard(1 - sideColor, PieceType.Pawn.getValue()))) {
+                possibleEnPassantSquare = departedSquare + pawnAdvance(sideColor);
+            }
+        }
+
+        int takenPiece = _squarePieces[square];
+
+        if (NO_PIECE != takenPiece) {
+            liftPiece(takenPiece);
+        }
+
+        liftPiece(pieceIndex);
+        putPiece(pieceIndex, square);
+        ++_pieceMovedCounts[pieceIndex];
+
+        int priorEnPassantSquare = _enPassantSquare;
+        setEnPassantSquareIndex(NO_SQUARE);
+
+        if ((PieceType.King.getValue() == pieceType)
+                && (NO_PIECE == takenPiece)
+                && (1 == _pieceMovedCounts[pieceIndex])
+                && (2 == Math.abs(colOf(square) - colOf(_pieceOrigSquares[pieceIndex])))) {
+
+            // The king is castling, so the castle has to come along ...
+            if (colOf(square) > colOf(_pieceOrigSquares[pieceIndex])) {
+                movePiece(_squarePieces[square + 1], square - 1);
+            } else {
+                movePiece(_squarePieces[square - 2], square + 1);
+            }
+        }
+
+        if ((PieceType.Pawn.getValue() == pieceType) && (priorEnPassantSquare == square)) {
+            if (NO_PIECE != takenPiece) {
+                throw new InternalError("En-passant square shouldn't have been occupied by a " + getPiece(takenPiece));
+            }
+
+            takenPiece = _squarePieces[square - pawnAdvance(sideColor)];
+            liftPiece(takenPiece);
+            _takenByEnPassantFlags |= 1 << takenPiece;
+        }
+
+        setEnPassantSquareIndex(possibleEnPassantSquare);
+
+        if (affectsCastling(pieceIndex) || ((NO_PIECE != takenPiece) && affectsCastling(takenPiece))) {
+            updateCastlingRights();
+        }
+
+        return takenPiece;
+    }
+
+
+    /**
+     * Take a piece back the way ChessPiece.takeBackToSquare() does, undoing any castling
+     * or en passant implied.
+     */
+    public void takeBackPiece(int pieceIndex, int square, int formerlyTakenPiece) {
+        int currentSquare = _pieceSquares[pieceIndex];
+        int origSquare = _pieceOrigSquares[pieceIndex];
+
+        if ((NO_SQUARE != currentSquare)
+                && (PieceType.King.getValue() == _pieceTypes[pieceIndex])
+                && (1 == _pieceMovedCounts[pieceIndex])
+                && (2 == Math.abs(colOf(currentSquare) - colOf(origSquare)))) {
+
+            // Taking back a castling ...
+            int castleIndex = (colOf(currentSquare) > colOf(origSquare)) ?
+                    _squarePieces[currentSquare - 1] : _squarePieces[currentSquare + 1];
+
+            takeBackPiece(castleIndex, _pieceOrigSquares[castleIndex], NO_PIECE);
+        }
+
+        if (NO_SQUARE != currentSquare) {
+            liftPiece(pieceIndex);
+
+            if (NO_PIECE != formerlyTakenPiece) {
+                int formerlyTakenSquare = currentSquare;
+
+                if (0 != (_takenByEnPassantFlags & (1 << formerlyTakenPiece))) {
+                    formerlyTakenSquare = currentSquare - pawnAdvance(sideColorOf(pieceIndex));
+                    _takenByEnPassantFlags &= ~(1 << formerlyTakenPiece);
+                }
+
+                putPiece(formerlyTakenPiece, formerlyTakenSquare);
+            }
+
+            if (--_pieceMovedCounts[pieceIndex] < 0) {
+                throw new InternalError("" + getPiece(pieceIndex)
+                        + " getMovedCount() should never have dropped to " + _pieceMovedCounts[pieceIndex]);
+            }
+        } else if (NO_PIECE != formerlyTakenPiece) {
+            throw new InternalError("How can " + getPiece(pieceIndex)
+                    + " have taken " + getPiece(formerlyTakenPiece) + " when it's not on a square?");
+        }
+
+        if (NO_PIECE != _squarePieces[square]) {
+            throw new InternalError("Can't take " + getPiece(pieceIndex)
+                    + " back to " + getSquare(square) + " when it already contains " + getPiece(_squarePieces[square]));
+        }
+
+        putPiece(pieceIndex, square);
+        setEnPassantSquareIndex(NO_SQUARE);
+
+        if (affectsCastling(pieceIndex) || ((NO_PIECE != formerlyTakenPiece) && affectsCastling(formerlyTakenPiece))) {
+            updateCastlingRights();
+        }
+    }
+
+
+    /**
+     * Put the given piece on the given square as ChessSquare.setPiece() does,
+     * taking whatever piece occupied the square out of play.
+     * @param pieceIndex value of a PieceIndex, or NO_PIECE to empty the square
+     */
+    public void setPieceOn(int square, int pieceIndex) {
+        int occupant = _squarePieces[square];
+
+        if (occupant == pieceIndex) {
+            return;
+        }
+
+        if (NO_PIECE != occupant) {
+            liftPiece(occupant);
+        }
+
+        if (NO_PIECE != pieceIndex) {
+            if (NO_SQUARE != _pieceSquares[pieceIndex]) {
+                liftPiece(pieceIndex);
+            }
+
+            putPiece(pieceIndex, square);
+        }
+
+        updateCastlingRights();
+    }
+
+
+    /**
+     * Turn the given piece into the given PieceType where it stands, as a Pawn reaching its promotion row does.
+     */
+    public void promotePiece(int pieceIndex, PieceType pieceType) {
+        int square = _pieceSquares[pieceIndex];
+
+        if (NO_SQUARE != square) {
+            liftPiece(pieceIndex);
+        }
+
+        _pieceTypes[pieceIndex] = (byte) pieceType.getValue();
+
+        if (NO_SQUARE != square) {
+            putPiece(pieceIndex, square);
+        }
+    }
+
+
+    //--------------------------------------------------------------------
+    // Making and unmaking moves in place
+    //--------------------------------------------------------------------
+
+    /**
+     * Move whatever piece is on the departed square, as movePiece() does, promoting a Pawn
+     * that reaches its promotion row, and remember enough to exactly undo it with unmakeMove().
+     *
+     * @param promotionType what a Pawn reaching its promotion row becomes, otherwise ignored
+     * @return the PieceIndex value of the piece taken, or NO_PIECE
+     */
+    public int makeMove(int departedSquare, int occupiedSquare, PieceType promotionType) {
+        int pieceIndex = _squarePieces[departedSquare];
+
+        if (NO_PIECE == pieceIndex) {
+            throw new InternalError("Can't make a move from empty square " + getSquare(departedSquare));
+        }
+
+        boolean promoting = (PieceType.Pawn.getValue() == _pieceTypes[pieceIndex])
+                && (rowOf(occupiedSquare) == promotionRowOf(sideColorOf(pieceIndex)));
+
+        if (promoting && (null == promotionType)) {
+            throw new IllegalArgumentException("Must say what " + getPiece(pieceIndex)
+                    + " is promoted to on " + getSquare(occupiedSquare));
+        }
+
+        int priorEnPassantSquare = _enPassantSquare;
+        int takenPiece = movePiece(pieceIndex, occupiedSquare);
+
+        if (promoting) {
+            promotePiece(pieceIndex, promotionType);
+        }
+
+        pushUndo(departedSquare
+                | (pieceIndex << 6)
+                | ((takenPiece + 1) << 11)
+                | ((priorEnPassantSquare + 1) << 17)
+                | ((promoting ? 1 : 0) << 24));
+
+        return takenPiece;
+    }
+
+
+    /**
+     * Pass the move to the other side without moving anything, as a search does to see whether the side
+     * to move is doing so well it could pass and still be, and remember it for unmakeMove(). Only the en
+     * passant square goes, as a Pawn can only be taken en passant straight after jumping two squares.
+     */
+    public void makeNullMove() {
+        int priorEnPassantSquare = _enPassantSquare;
+        setEnPassantSquareIndex(NO_SQUARE);
+
+        pushUndo(((priorEnPassantSquare + 1) << 17) | (1 << 25));
+    }
+
+
+    private void pushUndo(int undo) {
+        if (_undoCount == _undoStack.length) {
+            _undoStack = Arrays.copyOf(_undoStack, Math.max(UNDO_STACK_INITIAL_SIZE, 2 * _undoStack.length));
+        }
+
+        _undoStack[_undoCount++] = undo;
+    }
+
+
+    /**
+     * Undo the last move made by makeMove() or makeNullMove(), including the en passant square it replaced.
+     */
+    public void unmakeMove() {
+        if (0 == _undoCount) {
+            throw new InternalError("There is no move left to unmake");
+        }
+
+        int undo = _undoStack[--_undoCount];
+
+        int departedSquare = undo & 0x3F;
+        int pieceIndex = (undo >>> 6) & 0x1F;
+        int takenPiece = ((undo >>> 11) & 0x3F) - 1;
+        int priorEnPassantSquare = ((undo >>> 17) & 0x7F) - 1;
+        boolean promoted = 0 != ((undo >>> 24) & 1);
+        boolean nullMove = 0 != ((undo >>> 25) & 1);
+
+        if (nullMove) {
+            setEnPassantSquareIndex(priorEnPassantSquare);
+            return;
+        }
+
+        if (promoted) {
+            promotePiece(pieceIndex, PieceType.Pawn);
+        }
+
+        takeBackPiece(pieceIndex, departedSquare, takenPiece);
+        setEnPassantSquareIndex(priorEnPassantSquare);
+    }
+
+
+    /**
+     * @return how many moves made by makeMove() have yet to be unmade
+     */
+    public int getUndoDepth() { return _undoCount; }
+
+
+    /**
+     * Make a move packed as described by Move, as makeMove(int, int, PieceType) does.
+     * @return the PieceIndex value of the piece taken, or NO_PIECE
+     */
+    public int makeMove(int move) {
+        return makeMove(Move.squareDeparted(move), Move.squareOccupied(move), Move.promotionType(move));
+    }
+
+
+    //--------------------------------------------------------------------
+    // Generating moves
+    //--------------------------------------------------------------------
+
+    /**
+     * Add every valid move of the given side to the given list, packed as described by Move.
+     * Each candidate move is tried out with makeMove() and unmakeMove(), so this board is left
+     * as it was found, and nothing is allocated once the list is big enough.
+     * @return the number of moves added
+     */
+    public int generateMoves(int sideColor, MoveList moves) {
+        return generateMoves(sideColor, moves, PotentialMoveReason.ForNextMove, false);
+    }
+
+
+    /**
+     * Add only the valid moves of the given side that take a piece, or promote a Pawn to a Queen, as
+     * generateMoves() would, without the quiet moves ever being tried out. Pawns are promoted to a
+     * Queen only, as the search looks for material to be won.
+     * @return the number of moves added
+     */
+    public int generateCaptures(int sideColor, MoveList moves) {
+        return generateMoves(sideColor, moves, PotentialMoveReason.ForCaptureOrPromotion, false);
+    }
+
+
+    /**
+     * Add the valid moves of the given side that generateCaptures() leaves out: those taking nothing,
+     * and the promotions of Pawns to anything but a Queen, so between them every valid move is added once.
+     * @return the number of moves added
+     */
+    public int generateQuietMoves(int sideColor, MoveList moves) {
+        return generateMoves(sideColor, moves, PotentialMoveReason.ForNextMove, true);
+    }
+
+
+    private int generateMoves(int sideColor, MoveList moves, PotentialMoveReason reason, boolean quietOnly) {
+        int sizeBefore = moves.size();
+        long piecesToMove = _sideBitboards[sideColor];
+
+        while (0L != piecesToMove) {
+            int squareDeparted = Long.numberOfTrailingZeros(piecesToMove);
+            piecesToMove &= piecesToMove - 1;
+
+            int pieceIndex = _squarePieces[squareDeparted];
+            boolean pawn = PieceType.Pawn.getValue() == _pieceTypes[pieceIndex];
+            long squaresOccupied = potentialMoveSquaresOf(pieceIndex, reason);
+
+            if (quietOnly && !pawn) {
+                squaresOccupied &= ~_sideBitboards[1 - sideColor];
+            }
+
+            while (0L != squaresOccupied) {
+                int squareOccupied = Long.numberOfTrailingZeros(squaresOccupied);
+                squaresOccupied &= squaresOccupied - 1;
+
+                int move = encodeMove(pieceIndex, squareDeparted, squareOccupied);
+                boolean promoting = pawn && (rowOf(squareOccupied) == promotionRowOf(sideColor));
+
+                // A Pawn taking without being promoted is the only capture left to leave out ...
+                if (quietOnly && Move.isCapture(move) && !promoting) {
+                    continue;
+                }
+
+                // Whatever a Pawn is promoted to, its own King is left in check or not all the same ...
+                makeMove(squareDeparted, squareOccupied, PieceType.Queen);
+                boolean isValidMove = !isInCheck(sideColor);
+                unmakeMove();
+
+                if (!isValidMove) {
+                    continue;
+                }
+
+                if (promoting) {
+                    if (PotentialMoveReason.ForCaptureOrPromotion == reason) {
+                        moves.add(move | Move.of(0, 0, PieceType.Queen.getValue(), 0));
+                        continue;
+                    }
+
+                    for (int promotionType : PROMOTION_TYPE_VALUES) {
+                        if (!quietOnly || (PieceType.Queen.getValue() != promotionType)) {
+                            moves.add(move | Move.of(0, 0, promotionType, 0));
+                        }
+                    }
+                } else {
+                    moves.add(move);
+                }
+            }
+        }
+
+        return moves.size() - sizeBefore;
+    }
+
+
+    public int generateMoves(SideColor sideColor, MoveList moves) {
+        return generateMoves(sideColor.getValue(), moves);
+    }
+
+
+    /**
+     * @return whether the given side has any valid move at all, stopping at the first one found
+     */
+    public boolean hasValidMove(int sideColor) {
+        long piecesToMove = _sideBitboards[sideColor];
+
+        while (0L != piecesToMove) {
+            int squareDeparted = Long.numberOfTrailingZeros(piecesToMove);
+            piecesToMove &= piecesToMove - 1;
+
+            long squaresOccupied = potentialMoveSquaresOf(_squarePieces[squareDeparted], PotentialMoveReason.ForNextMove);
+
+            while (0L != squaresOccupied) {
+                int squareOccupied = Long.numberOfTrailingZeros(squaresOccupied);
+                squaresOccupied &= squaresOccupied - 1;
+
+                makeMove(squareDeparted, squareOccupied, PieceType.Queen);
+                boolean isValidMove = !isInCheck(sideColor);
+                unmakeMove();
+
+                if (isValidMove) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @param move packed as described by Move, flags and all, such as one remembered from another position
+     * @return whether it's a valid move of the given side on this board, as generateMoves() would add it
+     */
+    public boolean isValidMove(int sideColor, int move) {
+        int squareDeparted = Move.squareDeparted(move);
+        int squareOccupied = Move.squareOccupied(move);
+        int pieceIndex = _squarePieces[squareDeparted];
+
+        if ((Move.NO_MOVE == move) || (NO_PIECE == pieceIndex) || (sideColorOf(pieceIndex) != sideColor)
+                || !pieceMightMoveTo(pieceIndex, squareOccupied)) {
+            return false;
+        }
+
+        boolean promoting = (PieceType.Pawn.getValue() == _pieceTypes[pieceIndex])
+                && (rowOf(squareOccupied) == promotionRowOf(sideColor));
+
+        if ((promoting != Move.isPromotion(move)) || (PieceType.Queen.getValue() < Move.promotionTypeValue(move))
+                || ((encodeMove(pieceIndex, squareDeparted, squareOccupied) | Move.of(0, 0, Move.promotionTypeValue(move), 0)) != move)) {
+            return false;
+        }
+
+        makeMove(squareDeparted, squareOccupied, PieceType.Queen);
+        boolean isValidMove = !isInCheck(sideColor);
+        unmakeMove();
+
+        return isValidMove;
+    }
+
+
+    /**
+     * @return the move of the given piece, packed as described by Move, without any promotion
+     */
+    private int encodeMove(int pieceIndex, int squareDeparted, int squareOccupied) {
+        int pieceType = _pieceTypes[pieceIndex];
+        int flags = 0;
+
+        if (NO_PIECE != _squarePieces[squareOccupied]) {
+            flags |= Move.CAPTURE;
+        }
+
+        if (PieceType.Pawn.getValue() == pieceType) {
+            if ((squareOccupied == _enPassantSquare) && (NO_PIECE == _squarePieces[squareOccupied])) {
+                flags |= Move.CAPTURE | Move.EN_PASSANT;
+            } else if (2 * ChessBoardSpecs.COL_COUNT == Math.abs(squareOccupied - squareDeparted)) {
+                flags |= Move.DOUBLE_PUSH;
+            }
+        } else if ((PieceType.King.getValue() == pieceType)
+                && (2 == Math.abs(colOf(squareOccupied) - colOf(squareDeparted)))) {
+            flags |= Move.CASTLING;
+        }
+
+        return Move.of(squareDeparted, squareOccupied, PieceType.Pawn.getValue(), flags);
+    }
+
+
+    /**
+     * @return the given move as it would be played on this board, flags and all, or Move.NO_MOVE
+     *     when no piece stands on the square it departs from
+     */
+    public int moveFrom(int squareDeparted, int squareOccupied, PieceType promotionType) {
+        int pieceIndex = _squarePieces[squareDeparted];
+
+        if (NO_PIECE == pieceIndex) {
+            return Move.NO_MOVE;
+        }
+
+        return encodeMove(pieceIndex, squareDeparted, squareOccupied)
+                | Move.of(0, 0, promotionType, 0);
+    }
+
+
+    //--------------------------------------------------------------------
+    // ChessBoard
+    //--------------------------------------------------------------------
+
+    @Override
+    public int getRowCount() { return ChessBoardSpecs.ROW_COUNT; }
+
+    @Override
+    public int getColCount() { return ChessBoardSpecs.COL_COUNT; }
+
+    @Override
+    public boolean squareExists(int row, int col) {
+        return squareExistsAt(row, col);
+    }
+
+    @Override
+    public ChessSquare getSquare(int index) {
+        if (null == _squareViews) {
+            _squareViews = new ChessSquare[SQUARE_COUNT];
+        }
+
+        ChessSquare square = _squareViews[index];
+
+        if (null == square) {
+            square = new BitboardSquare(this, index);
+            _squareViews[index] = square;
+        }
+
+        return square;
+    }
+
+    @Override
+    public ChessSquare getSquare(int row, int col) {
+        if (squareExists(row, col)) {
+            return getSquare(row * getColCount() + col);
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public ChessSquare getSquare(String notation) {
+        notation = notation.trim().toLowerCase();
+
+        if (notation.length() != 2)
+            throw new IllegalArgumentException("Unexpected square notation: " + notation);
+
+        int col = notation.charAt(0) - 'a';
+        int row = notation.charAt(1) - '1';
+
+        return getSquare(row, col);
+    }
+
+    @Override
+    public Set<ChessSquare> getSquares(String... notations) {
+        Set<ChessSquare> squares = ChessFactory.createChessSquareSet();
+
+        for (String notation : notations) {
+            squares.add(getSquare(notation));
+        }
+
+        return squares;
+    }
+
+    @Override
+    public Iterator<ChessSquare> iterator() {
+        return new ChessSquareSet(this).iterator();
+    }
+
+    @Override
+    public ChessPiece getPiece(PieceIndex index) {
+        return getPiece(index.getValue());
+    }
+
+    @Override
+    public ChessPiece getPiece(int index) {
+        if (null == _pieceViews) {
+            _pieceViews = new ChessPiece[PIECE_COUNT];
+        }
+
+        PieceType pieceType = PieceType.fromOrdinal(_pieceTypes[index]);
+        ChessPiece piece = _pieceViews[index];
+
+        if ((null == piece) || (PieceType.of(piece) != pieceType)) {
+            // The first time this piece is asked for, or it was promoted since ...
+            piece = ChessPieceFactory.createPieceView(this, PieceIndex.fromOrdinal(index), pieceType);
+            _pieceViews[index] = piece;
+        }
+
+        return piece;
+    }
+
+
+    /**
+     * Pieces in play that match the given PieceFlags. A promoted Pawn matches
+     * when the flags ask for any of its side's pieces of the PieceType it was
+     * promoted to, rather than by its own PieceIndex.
+     */
+    private int piecesInPlayFlags(int pieceFlags) {
+        int matchingFlags = 0;
+
+        for (int i = 0; i < PIECE_COUNT; ++i) {
+            if (NO_SQUARE == _pieceSquares[i]) {
+                continue;
+            }
+
+            PieceIndex index = PieceIndex.fromOrdinal(i);
+            PieceType pieceType = PieceType.fromOrdinal(_pieceTypes[i]);
+
+            if (PieceType.origPieceType(index) == pieceType) {
+                matchingFlags |= pieceFlags & PieceFlags.fromIndex(index);
+            } else if (0 != (pieceFlags & pieceType.origPieceFlags(index.origSideColor()))) {
+                matchingFlags |= PieceFlags.fromIndex(index);
+            }
+        }
+
+        return matchingFlags;
+    }
+
+
+    @Override
+    public Set<ChessPiece> getPiecesInPlay(int pieceFlags) {
+        return ChessFactory.createChessPieceSet(this, piecesInPlayFlags(pieceFlags));
+    }
+
+    @Override
+    public Set<ChessPiece> getPiecesInPlay(PieceFlags pieceFlags) {
+        return getPiecesInPlay(pieceFlags.getValue());
+    }
+
+    @Override
+    public Set<ChessPiece> getPiecesOutOfPlay(PieceFlags pieceFlags) {
+        int outOfPlayFlags = 0;
+
+        for (int i = 0; i < PIECE_COUNT; ++i) {
+            if (NO_SQUARE == _pieceSquares[i]) {
+                outOfPlayFlags |= 1 << i;
+            }
+        }
+
+        return ChessFactory.createChessPieceSet(this, outOfPlayFlags & pieceFlags.getValue());
+    }
+
+    @Override
+    public long getZobristKey() { return _zobristKey; }
+
+    @Override
+    public long getPawnKey() { return _pawnKey; }
+
+    /**
+     * @return the packed PieceSquareTables scores of every piece in play, for White less Black,
+     *     kept up to date as pieces move
+     */
+    public int getPieceSquareScore() { return _pieceSquareScore; }
+
+    /**
+     * @return the PieceSquareTables phases of every piece in play, which is MAX_PHASE at the start of the game
+     */
+    public int getGamePhase() { return _gamePhase; }
+
+    /**
+     * @return the Zobrist key of this board with the given side to move, as ChessBoardState.getZobristKey() gives
+     */
+    public long getZobristKey(int sideToMove) { return _zobristKey ^ Zobrist.sideToMoveKey(sideToMove); }
+
+
+    @Override
+    public ChessSquare getEnPassantSquare() {
+        return (NO_SQUARE == _enPassantSquare) ? null : getSquare(_enPassantSquare);
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+
+        if (obj instanceof BitboardChessBoard) {
+            BitboardChessBoard other = (BitboardChessBoard) obj;
+
+            for (int i = 0; i < _pieceBitboards.length; ++i) {
+                if (_pieceBitboards[i] != other._pieceBitboards[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (!(obj instanceof ChessBoard)) {
+            return false;
+        }
+
+        ChessBoard other = (ChessBoard) obj;
+
+        if ((this.getRowCount() != other.getRowCount()) || (this.getColCount() != other.getColCount())) {
+            return false;
+        }
+
+        for (int i = 0; i < SQUARE_COUNT; ++i) {
+            if (!this.getSquare(i).equals(other.getSquare(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Only the pieces on their squares, as compared by equals(), rather than the Zobrist key, which
+     * also tells apart en passant squares and castlings ...
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(_pieceBitboards);
+    }
+
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("    a   b   c   d   e   f   g   h\r\n");
+        sb.append("  +---+---+---+---+---+---+---+---+\r\n");
+
+        for (int row = getRowCount() - 1; row >= 0; --row)
+        {
+            sb.append(String.format("%c |", '1' + row));
+
+            for (int col = 0; col < getColCount(); ++col)
+            {
+                int pieceIndex = _squarePieces[row * getColCount() + col];
+
+                String notation;
+
+                if (NO_PIECE == pieceIndex)
+                    notation = " ";
+                else {
+                    notation = PieceType.fromOrdinal(_pieceTypes[pieceIndex]).notation();
+
+                    if (sideColorOf(pieceIndex) == SideColor.White.getValue()) {
+                        notation = notation.toUpperCase();
+                    } else {
+                        notation = notation.toLowerCase();
+                    }
+                }
+
+                sb.append(String.format(" %s |", notation));
+            }
+
+            sb.append(String.format(" %c\r\n", '1' + row));
+            sb.append("  +---+---+---+---+---+---+---+---+\r\n");
+        }
+
+        sb.append("    a   b   c   d   e   f   g   h\r\n");
+
+        return sb.toString();
+    }
+}
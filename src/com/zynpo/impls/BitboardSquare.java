@@ -0,0 +1,150 @@
+package com.zynpo.impls;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessSquare;
+import com.zynpo.interfaces.pieces.ChessPiece;
+
+
+/**
+ * A view of one square on a BitboardChessBoard. It holds nothing but its board and index,
+ * so whatever it reports comes straight from the board's bitboards.
+ */
+class BitboardSquare implements ChessSquare, Comparable<ChessSquare> {
+
+    private BitboardChessBoard _board;
+    private int _index;
+
+
+    BitboardSquare(BitboardChessBoard board, int index) {
+        _board = board;
+        _index = index;
+    }
+
+    @Override
+    public int getIndex() { return _index; }
+
+    @Override
+    public int getRow() { return BitboardChessBoard.rowOf(_index); }
+
+    @Override
+    public int getCol() { return BitboardChessBoard.colOf(_index); }
+
+    @Override
+    public SideColor getSideColor() {
+        if (((getRow() + getCol()) & 1) == 1)
+            return SideColor.White;
+        else
+            return SideColor.Black;
+    }
+
+    @Override
+    public ChessBoard getBoard() { return _board; }
+
+    @Override
+    public ChessPiece getPiece() {
+        int pieceIndex = _board.getPieceIndexOn(_index);
+        return (BitboardChessBoard.NO_PIECE == pieceIndex) ? null : _board.getPiece(pieceIndex);
+    }
+
+    @Override
+    public void setPiece(ChessPiece piece) {
+        if (null == piece) {
+            _board.setPieceOn(_index, BitboardChessBoard.NO_PIECE);
+        } else if (piece.getBoard() != _board) {
+            throw new InternalError("Can't put " + piece + " from another board onto " + this);
+        } else {
+            _board.setPieceOn(_index, piece.getIndex().getValue());
+        }
+    }
+
+    @Override
+    public int rowsAwayFromCount(ChessSquare other) {
+        if (other.getBoard() != _board) {
+            throw new IllegalArgumentException("Can't calculate rows away from Square on different board");
+        }
+
+        return getRow() - other.getRow();
+    }
+
+    @Override
+    public int colsAwayFromCount(ChessSquare other) {
+        if (other.getBoard() != _board) {
+            throw new IllegalArgumentException("Can't calculate columns away from Square on different board");
+        }
+
+        return getCol() - other.getCol();
+    }
+
+    @Override
+    public int rowDistanceFrom(ChessSquare other) { return Math.abs(rowsAwayFromCount(other)); }
+
+    @Override
+    public int colDistanceFrom(ChessSquare other) {
+        return Math.abs(colsAwayFromCount(other));
+    }
+
+    @Override
+    public ChessSquare getRelativeSquare(int rowOffset, int colOffset) {
+        return _board.getSquare(getRow() + rowOffset, getCol() + colOffset);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+
+        if (!(obj instanceof ChessSquare)) {
+            return false;
+        }
+
+        ChessSquare other = (ChessSquare) obj;
+
+        if ((this.getRow() != other.getRow()) || (this.getCol() != other.getCol())) {
+            return false;
+        }
+
+        ChessPiece piece = this.getPiece();
+
+        if (null == piece) {
+            return null == other.getPiece();
+        }
+
+        return piece.equals(other.getPiece());
+    }
+
+    @Override
+    public int hashCode() {
+        return _index;
+    }
+
+    @Override
+    public int compareTo(ChessSquare other) {
+        if (this.getRow() != other.getRow()) {
+            return (this.getRow() < other.getRow()) ? -1 : 1;
+        }
+
+        if (this.getCol() != other.getCol()) {
+            return (this.getCol() < other.getCol()) ? -1 : 1;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public boolean coveredBy(SideColor sideColor) {
+        return _board.isSquareCoveredBy(_index, sideColor.getValue());
+    }
+
+    @Override
+    public ChessSquare clone(ChessBoard otherBoard) {
+        // Views belong to their board, so the other board's own view stands in for a copy ...
+        return otherBoard.getSquare(_index);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%c%c", 'a' + getCol(), '1' + getRow());
+    }
+}
@@ -3,9 +3,11 @@ package com.zynpo.impls;
 import com.zynpo.constant.ChessBoardSpecs;
 import com.zynpo.enums.PieceFlags;
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
 import com.zynpo.impls.pieces.ChessPieceFactory;
 import com.zynpo.interfaces.*;
+import com.zynpo.interfaces.pieces.Castle;
 import com.zynpo.interfaces.pieces.ChessPiece;
 import com.zynpo.interfaces.pieces.Pawn;
 
@@ -15,12 +17,24 @@ import java.util.Set;
 
 public class ChessBoardImpl implements ChessBoard {
 
+    private static final PieceIndex[] KING_INDEXES = { PieceIndex.WhiteKing, PieceIndex.BlackKing };
+
     private ChessSquare[] _squares;
     private ChessPiece[] _pieces;
     private ChessPieceSet _piecesInPlay;
 
     private ChessSquare _enPassantSquare = null;
 
+    // Kept in step with the squares by ChessSquareImpl.setPiece(), so covers() and
+    // coveredBy() can use AttackTables instead of walking the squares ...
+    private long[] _pieceBitboards = new long[2 * PieceType.COUNT];
+    private long[] _sideBitboards = new long[2];
+    private long _occupiedBitboard = 0L;
+
+    // Zobrist keys of the pieces on their squares and of the en passant square, kept in step the same way ...
+    private long _zobristKey = 0L;
+    private long _pawnKey = 0L;
+
     @Override
     public int getRowCount() { return ChessBoardSpecs.ROW_COUNT; }
 
@@ -70,10 +84,7 @@ public class ChessBoardImpl implements ChessBoard {
         _pieces = new ChessPiece[PieceIndex.values().length];
 
         for (int i = 0; i < _pieces.length; ++i) {
-            ChessPiece pieceToClone = ((ChessBoardImpl) otherBoard)._pieces[i];
-            ChessSquare square = (pieceToClone.getSquare() == null ? null :
-                    getSquare(pieceToClone.getSquare().getIndex()));
-            _pieces[i] = pieceToClone.clone(square);
+            _pieces[i] = ChessPieceFactory.clonePiece(((ChessBoardImpl) otherBoard)._pieces[i], this);
         }
 
         _piecesInPlay = ((ChessBoardImpl) otherBoard)._piecesInPlay.clone(this);
@@ -187,9 +198,68 @@ public class ChessBoardImpl implements ChessBoard {
     }
 
 
+    void squarePieceChanged(int square, ChessPiece priorPiece, ChessPiece piece) {
+        long bit = 1L << square;
+
+        if (null != priorPiece) {
+            updateBitboards(priorPiece, bit, false);
+        }
+
+        if (null != piece) {
+            updateBitboards(piece, bit, true);
+        }
+    }
+
+
+    private void updateBitboards(ChessPiece piece, long bit, boolean occupied) {
+        int sideColor = piece.getSideColor().getValue();
+        PieceType pieceType = PieceType.of(piece);
+
+        if (occupied) {
+            _sideBitboards[sideColor] |= bit;
+            _occupiedBitboard |= bit;
+        } else {
+            _sideBitboards[sideColor] &= ~bit;
+            _occupiedBitboard &= ~bit;
+        }
+
+        if (null != pieceType) {
+            // An undetermined promotion doesn't cover anything, so only counts as occupying its square ...
+            int i = sideColor * PieceType.COUNT + pieceType.getValue();
+            _pieceBitboards[i] = occupied ? (_pieceBitboards[i] | bit) : (_pieceBitboards[i] & ~bit);
+            _zobristKey ^= Zobrist.pieceKey(sideColor, pieceType.getValue(), Long.numberOfTrailingZeros(bit));
+
+            if (PieceType.Pawn == pieceType) {
+                _pawnKey ^= Zobrist.pieceKey(sideColor, pieceType.getValue(), Long.numberOfTrailingZeros(bit));
+            }
+        }
+    }
+
+
+    public long getOccupiedBitboard() { return _occupiedBitboard; }
+
+
+    /**
+     * @param square index of the square in question
+     * @param sideColor whose pieces might cover the square
+     * @return true if any piece of the given side covers the square
+     */
+    public boolean isSquareCoveredBy(int square, int sideColor) {
+        return 0L != AttackTables.attackersOf(square, sideColor, _occupiedBitboard, _pieceBitboards);
+    }
+
+
     public void setEnPassantSquare(ChessSquare enPassantSquare) {
+        if (null != _enPassantSquare) {
+            _zobristKey ^= Zobrist.enPassantKey(_enPassantSquare.getIndex());
+        }
+
         _enPassantSquare = enPassantSquare;
 
+        if (null != _enPassantSquare) {
+            _zobristKey ^= Zobrist.enPassantKey(_enPassantSquare.getIndex());
+        }
+
         if (null != _enPassantSquare) {
             if ((_enPassantSquare.getRow() != 2) && (_enPassantSquare.getRow() != 5)) {
                 throw new InternalError("En passant square must be on row 3 or 6; can't be " + _enPassantSquare);
@@ -201,6 +271,45 @@ public class ChessBoardImpl implements ChessBoard {
         }
     }
 
+    @Override
+    public long getPawnKey() { return _pawnKey; }
+
+    @Override
+    public long getZobristKey() {
+        long zobristKey = _zobristKey;
+
+        // Moved counts are kept by the pieces themselves, so which castlings are still possible is
+        // worked out when asked for, from the few pieces involved ...
+        for (PieceIndex kingIndex : KING_INDEXES) {
+            ChessPiece king = _pieces[kingIndex.getValue()];
+
+            if ((0 != king.getMovedCount()) || (null == king.getSquare())) {
+                continue;
+            }
+
+            if (castleMayCastleWith(king, 3)) {
+                zobristKey ^= Zobrist.castlingKey(king.getSideColor().getValue(), true);
+            }
+
+            if (castleMayCastleWith(king, -4)) {
+                zobristKey ^= Zobrist.castlingKey(king.getSideColor().getValue(), false);
+            }
+        }
+
+        return zobristKey;
+    }
+
+
+    private static boolean castleMayCastleWith(ChessPiece king, int colOffset) {
+        ChessSquare castleSquare = king.getSquare().getRelativeSquare(0, colOffset);
+        ChessPiece castle = (null == castleSquare) ? null : castleSquare.getPiece();
+
+        return (castle instanceof Castle)
+                && (castle.getSideColor() == king.getSideColor())
+                && (0 == castle.getMovedCount());
+    }
+
+
     @Override
     public ChessSquare getEnPassantSquare() {
         if ((null != _enPassantSquare) && (null != _enPassantSquare.getPiece())) {
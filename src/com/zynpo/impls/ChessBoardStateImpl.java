@@ -1,16 +1,10 @@
 package com.zynpo.impls;
 
 import com.zynpo.enums.*;
-import com.zynpo.impls.pieces.BishopImpl;
-import com.zynpo.impls.pieces.CastleImpl;
-import com.zynpo.impls.pieces.KnightImpl;
-import com.zynpo.impls.pieces.QueenImpl;
 import com.zynpo.interfaces.ChessBoard;
 import com.zynpo.interfaces.ChessBoardState;
-import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.MoveRecord;
 import com.zynpo.interfaces.pieces.ChessPiece;
-import com.zynpo.interfaces.pieces.King;
 import com.zynpo.interfaces.pieces.Pawn;
 
 import java.util.ArrayList;
@@ -21,98 +15,69 @@ import java.util.Set;
 public class ChessBoardStateImpl implements ChessBoardState {
 
     private ChessBoard _board;
+    private BitboardChessBoard _position;   // A copy of _board that's never handed out, for the MoveRecords to work from
     private SideColor _sideToMove;
     private boolean _sideToMoveIsInCheck;
     private boolean _sideToMoveHasValidMove;
     private List<MoveRecord> _validMoves;
     private GameStatus _gameStatus;
+    private int _halfmoveClock;
+    private int _fullmoveNumber;
 
 
     ChessBoardStateImpl(ChessBoard board, SideColor sideToMove, boolean findAllValidMoves) {
-        _board = board.clone();
+        this(board.clone(), sideToMove, 0, 1, findAllValidMoves);
+    }
+
+
+    /**
+     * @param ownBoard a board nothing else refers to, which this state keeps rather than clones
+     * @param halfmoveClock moves since a pawn last moved or a piece was last taken
+     * @param fullmoveNumber starting at 1, and going up after each move by Black
+     */
+    ChessBoardStateImpl(ChessBoard ownBoard, SideColor sideToMove,
+                        int halfmoveClock, int fullmoveNumber, boolean findAllValidMoves) {
+        _board = ownBoard;
         _sideToMove = sideToMove;
-        SideColor opposingSideColor;
-
-        King sideToMoveKing = null;
-        Set<ChessPiece> piecesToMoveInPlay = null;
-        Set<ChessPiece> opposingPiecesInPlay = null;
-
-        switch (_sideToMove) {
-            case White:
-                sideToMoveKing = (King) _board.getPiecesInPlay(PieceFlags.WhiteKing).toArray()[0];
-                piecesToMoveInPlay = _board.getPiecesInPlay(PieceFlags.AllWhitePieces);
-                opposingPiecesInPlay = _board.getPiecesInPlay(PieceFlags.AllBlackPieces);
-                opposingSideColor = SideColor.Black;
-                break;
-            case Black:
-                sideToMoveKing = (King) _board.getPiecesInPlay(PieceFlags.BlackKing).toArray()[0];
-                piecesToMoveInPlay = _board.getPiecesInPlay(PieceFlags.AllBlackPieces);
-                opposingPiecesInPlay = _board.getPiecesInPlay(PieceFlags.AllWhitePieces);
-                opposingSideColor = SideColor.White;
-                break;
-            default:
-                throw new InternalError("Can't construct ChessBoardState when sideToMove = " + sideToMove);
+        _halfmoveClock = halfmoveClock;
+        _fullmoveNumber = fullmoveNumber;
+
+        if ((SideColor.White != _sideToMove) && (SideColor.Black != _sideToMove)) {
+            throw new InternalError("Can't construct ChessBoardState when sideToMove = " + sideToMove);
         }
 
-        _sideToMoveIsInCheck = sideToMoveKing.getSquare().coveredBy(opposingSideColor);
+        // Generate the moves as packed ints on a BitboardChessBoard, and only turn them into
+        // MoveRecords here at the edge. The MoveRecords work out their notation and resulting state
+        // from this copy if anyone asks for them, so whatever is done to _board since can't change them ...
+        BitboardChessBoard position = (_board instanceof BitboardChessBoard) ?
+                ((BitboardChessBoard) _board).clone() : new BitboardChessBoard(_board);
+        _position = position;
+
+        int sideColor = _sideToMove.getValue();
+        _sideToMoveIsInCheck = position.isInCheck(sideColor);
 
         if (findAllValidMoves) {
-            _validMoves = new ArrayList<>();
-        } else {
-            _validMoves = null;
-        }
+            MoveList moves = new MoveList();
+            position.generateMoves(sideColor, moves);
 
-        _sideToMoveHasValidMove = false;
-
-        for (ChessPiece pieceToMove : piecesToMoveInPlay) {
-            ChessSquare squareDeparted = pieceToMove.getSquare();
-
-            for (ChessSquare squareOccupied : pieceToMove.potentialMoveSquares(PotentialMoveReason.ForNextMove)) {
-                ChessPiece takenPiece = pieceToMove.moveToSquare(squareOccupied);
-                boolean isValidMove = !sideToMoveKing.getSquare().coveredBy(opposingSideColor);
-                pieceToMove.takeBackToSquare(squareDeparted, takenPiece);
-
-                if (isValidMove) {
-                    _sideToMoveHasValidMove = true;
-
-                    if (findAllValidMoves) {
-                        if ((pieceToMove instanceof Pawn) && (((Pawn) pieceToMove).promotionRow() == squareOccupied.getRow())) {
-                            _validMoves.add(new MoveRecordImpl(pieceToMove,
-                                    takenPiece, new KnightImpl((Pawn) pieceToMove), squareDeparted, squareOccupied,
-                                    takenPiece.getSquare()));
-
-                            _validMoves.add(new MoveRecordImpl(pieceToMove,
-                                    takenPiece, new BishopImpl((Pawn) pieceToMove), squareDeparted, squareOccupied,
-                                    takenPiece.getSquare()));
-
-                            _validMoves.add(new MoveRecordImpl(pieceToMove,
-                                    takenPiece, new CastleImpl((Pawn) pieceToMove), squareDeparted, squareOccupied,
-                                    takenPiece.getSquare()));
-
-                            _validMoves.add(new MoveRecordImpl(pieceToMove,
-                                    takenPiece, new QueenImpl((Pawn) pieceToMove), squareDeparted, squareOccupied,
-                                    takenPiece.getSquare()));
-                        } else {
-                            _validMoves.add(new MoveRecordImpl(pieceToMove,
-                                    takenPiece, null, squareDeparted, squareOccupied,
-                                    takenPiece.getSquare()));
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
+            _sideToMoveHasValidMove = !moves.isEmpty();
+            _validMoves = new ArrayList<>(moves.size());
 
-            if (_sideToMoveHasValidMove && !findAllValidMoves) {
-                break;
+            for (int i = 0; i < moves.size(); ++i) {
+                MoveRecordImpl moveRecord = MoveRecordImpl.fromMove(_board, _position, moves.get(i));
+                moveRecord.setMoveCountersBefore(_halfmoveClock, _fullmoveNumber);
+                _validMoves.add(moveRecord);
             }
+        } else {
+            _sideToMoveHasValidMove = position.hasValidMove(sideColor);
+            _validMoves = null;
         }
 
         if (_sideToMoveHasValidMove && findAllValidMoves) {
             Collections.sort(_validMoves);
         }
 
-        if (0 == this.getValidMoves().size()) {
+        if (!_sideToMoveHasValidMove) {
             // The game is over for some reason, so determine why ...
             if (this.sideToMoveIsInCheck()) {
                 if (this.getSideToMove() == SideColor.White) {
@@ -202,6 +167,26 @@ public class ChessBoardStateImpl implements ChessBoardState {
         return _gameStatus;
     }
 
+    @Override
+    public long getZobristKey() {
+        return _board.getZobristKey() ^ Zobrist.sideToMoveKey(_sideToMove.getValue());
+    }
+
+    @Override
+    public int getHalfmoveClock() {
+        return _halfmoveClock;
+    }
+
+    @Override
+    public int getFullmoveNumber() {
+        return _fullmoveNumber;
+    }
+
+    @Override
+    public String toFen() {
+        return Fen.toFen(_board, _sideToMove, _halfmoveClock, _fullmoveNumber);
+    }
+
 
     @Override
     public String toString() {
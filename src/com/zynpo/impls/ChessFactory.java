@@ -1,6 +1,9 @@
 package com.zynpo.impls;
 
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessBoardState;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.MoveRecord;
 import com.zynpo.interfaces.pieces.ChessPiece;
@@ -17,7 +20,57 @@ public class ChessFactory {
     }
 
     public static ChessBoard createBoard() {
-        return new ChessBoardImpl();
+        return createBoard(BoardRepresentation.PieceObjects);
+    }
+
+
+    public static ChessBoard createBoard(BoardRepresentation boardRepresentation) {
+        switch (boardRepresentation) {
+            case PieceObjects:
+                return new ChessBoardImpl();
+            case Bitboards:
+                return new BitboardChessBoard();
+            default:
+                throw new IllegalArgumentException("Unexpected board representation: " + boardRepresentation);
+        }
+    }
+
+
+    /**
+     * @param board to copy the position of, whatever its representation
+     * @return a BitboardChessBoard of its own holding the same position, to make and unmake moves on
+     */
+    public static BitboardChessBoard createBitboardCopy(ChessBoard board) {
+        return (board instanceof BitboardChessBoard) ?
+                ((BitboardChessBoard) board).clone() : new BitboardChessBoard(board);
+    }
+
+
+    /**
+     * @param fen a position in Forsyth-Edwards Notation, see Fen
+     * @return a board holding the position, leaving out the side to move and the move counters
+     */
+    public static ChessBoard createBoard(String fen) {
+        return Fen.parseBoard(fen);
+    }
+
+
+    /**
+     * @param board to copy the position of
+     * @param sideToMove next in the position
+     * @return the position with all the moves the side to move may make from it
+     */
+    public static ChessBoardState createBoardState(ChessBoard board, SideColor sideToMove) {
+        return new ChessBoardStateImpl(board, sideToMove, true);
+    }
+
+
+    /**
+     * @param fen a position in Forsyth-Edwards Notation, see Fen
+     * @return the position with all the moves the side to move may make from it
+     */
+    public static ChessBoardState createBoardState(String fen) {
+        return Fen.parseBoardState(fen);
     }
 
 
@@ -31,6 +84,16 @@ public class ChessFactory {
     }
 
 
+    /**
+     * @param board the squares belong to
+     * @param squareBits one bit per square, where bit n stands for the square with getIndex() == n
+     * @return a set of the board's squares matching the given bits
+     */
+    public static Set<ChessSquare> createChessSquareSet(ChessBoard board, long squareBits) {
+        return new ChessSquareSet(board, squareBits);
+    }
+
+
     public static Set<ChessPiece> createChessPieceSet(ChessPiece... pieces) {
         Set<ChessPiece> chessPieceSet = new ChessPieceSet();
 
@@ -41,6 +104,16 @@ public class ChessFactory {
     }
 
 
+    /**
+     * @param board the pieces belong to
+     * @param pieceFlags one bit per PieceIndex, exactly as given
+     * @return a set of the board's pieces matching the given bits
+     */
+    public static Set<ChessPiece> createChessPieceSet(ChessBoard board, int pieceFlags) {
+        return ChessPieceSet.withExactFlags(pieceFlags, board);
+    }
+
+
     //public static MoveRecord createMoveRecord()
 
 }
@@ -1,9 +1,9 @@
 package com.zynpo.impls;
 
 import com.zynpo.enums.GameStatus;
-import com.zynpo.enums.PieceFlags;
 import com.zynpo.enums.SideColor;
 import com.zynpo.exceptions.MoveException;
+import com.zynpo.interfaces.ChessBoard;
 import com.zynpo.interfaces.ChessBoardState;
 import com.zynpo.interfaces.ChessGame;
 import com.zynpo.interfaces.MoveRecord;
@@ -13,16 +13,61 @@ import java.util.*;
 
 public class ChessGameImpl implements ChessGame {
 
-    private List<ChessBoardState> _boardStates;
-    private List<MoveRecord> _moves;
+    private static final int CHECKPOINT_INTERVAL = 16;
+    private static final int REVIEWED_BOARD_STATES_KEPT = 4;
+
+    // Rather than a ChessBoardState per move, only the moves are kept, packed as described by Move,
+    // along with the board every CHECKPOINT_INTERVAL moves. Any other ChessBoardState is made again
+    // from the nearest checkpoint before it when reviewed ...
+    private MoveList _moves;
+    private List<BitboardChessBoard> _checkpoints;
+    private ChessBoardState _lastBoardState;
+    private Map<Integer, ChessBoardState> _reviewedBoardStates;
+
+    // Kept up to date by doMove() and takeBackLastMove(), so draws can be judged without looking back over the game ...
+    private Map<Long, Integer> _boardStateCounts;       // How often each ChessBoardState Zobrist key came up
+    private List<Integer> _movesWithoutProgressCounts;  // One per board state, reset by pawn moves and captures
     private int _currentViewIndex;
+    private GameStatus _overallGameStatus;
+
+    private SideColor _firstSideToMove;      // Of the position the game started from, which may have been set up by FEN
+    private int _firstFullmoveNumber;
 
 
     public ChessGameImpl() {
-        _boardStates = new ArrayList<>();
-        _boardStates.add(new ChessBoardStateImpl(new ChessBoardImpl(), SideColor.White, true));
-        _moves = new ArrayList<>();
+        this(new ChessBoardStateImpl(new BitboardChessBoard(), SideColor.White, 0, 1, true));
+    }
+
+
+    /**
+     * @param fen the position to start the game from, in Forsyth-Edwards Notation
+     */
+    public ChessGameImpl(String fen) {
+        this(Fen.parseBoardState(fen));
+    }
+
+
+    private ChessGameImpl(ChessBoardState firstBoardState) {
+        _moves = new MoveList();
+        _checkpoints = new ArrayList<>();
+        _checkpoints.add(((BitboardChessBoard) firstBoardState.getBoard()).clone());
+        _firstSideToMove = firstBoardState.getSideToMove();
+        _firstFullmoveNumber = firstBoardState.getFullmoveNumber();
+        _lastBoardState = firstBoardState;
+
+        _reviewedBoardStates = new LinkedHashMap<Integer, ChessBoardState>(REVIEWED_BOARD_STATES_KEPT + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ChessBoardState> eldest) {
+                return REVIEWED_BOARD_STATES_KEPT < size();
+            }
+        };
+
+        _boardStateCounts = new HashMap<>();
+        _movesWithoutProgressCounts = new ArrayList<>();
         _currentViewIndex = 0;
+        _overallGameStatus = firstBoardState.getGameStatus();
+
+        countBoardState(_lastBoardState, firstBoardState.getHalfmoveClock());
     }
 
 
@@ -46,39 +91,179 @@ public class ChessGameImpl implements ChessGame {
                     + notation + "\" when game is already over: " + this.getOverallGameStatus());
         }
 
-        ChessBoardState currentBoardState = _boardStates.get(_boardStates.size() - 1);
-        SideColor sideToMove = (0 == (_boardStates.size() & 1)) ? SideColor.White : SideColor.Black;
+        MoveRecordImpl moveRecord = MoveRecordImpl.fromNotation(
+                notation, _lastBoardState.getSideToMove(), _lastBoardState.getBoard());
+        moveRecord.setMoveCountersBefore(_lastBoardState.getHalfmoveClock(), _lastBoardState.getFullmoveNumber());
+
+        return doMove(moveRecord);
+    }
+
+
+    /**
+     * Do one of the valid moves of the current ChessBoardState.
+     *
+     * @param moveRecord found on the board of the current ChessBoardState, as by its getValidMoves()
+     */
+    public GameStatus doMove(MoveRecord moveRecord) {
+        if(this.getOverallGameStatus().meansGameIsOver()) {
+            throw new InternalError("Can't do move \""
+                    + moveRecord + "\" when game is already over: " + this.getOverallGameStatus());
+        }
+
+        // A move of any other position would leave the moves kept out of step with the game ...
+        if (moveRecord.squareDeparted().getBoard() != _lastBoardState.getBoard()) {
+            throw new IllegalArgumentException("Not a move of the current position: " + moveRecord);
+        }
+
+        boolean madeProgress = (moveRecord.pieceMoved() instanceof Pawn) || (null != moveRecord.pieceTaken());
 
-        MoveRecord moveRecord = MoveRecordImpl.fromNotation(notation, sideToMove, currentBoardState.getBoard());
+        _moves.add(((MoveRecordImpl) moveRecord).toMove());
+        _lastBoardState = moveRecord.resultingBoardState();
 
-        _moves.add(moveRecord);
-        _boardStates.add(moveRecord.resultingBoardState());
+        if (0 == _moves.size() % CHECKPOINT_INTERVAL) {
+            ChessBoard board = _lastBoardState.getBoard();
+            _checkpoints.add((board instanceof BitboardChessBoard) ?
+                    ((BitboardChessBoard) board).clone() : new BitboardChessBoard(board));
+        }
+
+        countBoardState(_lastBoardState, madeProgress ? 0 : countOfMovesWithoutProgress() + 1);
         this.setOverallGameStatus(moveRecord.resultingBoardState().getGameStatus());
 
+        // Repetition and lack of progress are cheap enough to judge now, so the game ends by them as soon as it should ...
+        this.whoCanForceDraw();
+
         return moveRecord.gameStatus();
     }
 
 
+    /**
+     * Do the valid move of the current ChessBoardState that matches the given move packed as described by Move.
+     */
+    public GameStatus doMove(int move) {
+        if (this.getOverallGameStatus().meansGameIsOver()) {
+            throw new InternalError("Can't do move \""
+                    + Move.toString(move) + "\" when game is already over: " + this.getOverallGameStatus());
+        }
+
+        for (MoveRecord moveRecord : _lastBoardState.getValidMoves()) {
+            if (Move.keyOf(((MoveRecordImpl) moveRecord).toMove()) == Move.keyOf(move)) {
+                return doMove(moveRecord);
+            }
+        }
+
+        throw new IllegalArgumentException("Not a valid move here: " + Move.toString(move));
+    }
+
+
     @Override
-    public GameStatus takeBackLastMove() {
-        _moves.remove(_moves.size() - 1);
-        _boardStates.remove(_boardStates.size() - 1);
+    public GameStatus takeBackLastMove() throws IndexOutOfBoundsException {
+        if (_moves.isEmpty()) {
+            throw new IndexOutOfBoundsException("No move to takeBackLastMove() on");
+        }
+
+        ChessBoardState lastBoardState = _lastBoardState;
+
+        if (0 == _moves.size() % CHECKPOINT_INTERVAL) {
+            _checkpoints.remove(_checkpoints.size() - 1);
+        }
+
+        _moves.removeLast();
+        _movesWithoutProgressCounts.remove(_movesWithoutProgressCounts.size() - 1);
+
+        // The state before the move taken back might have been reviewed lately, while any after
+        // it no longer belong to the game ...
+        ChessBoardState previousBoardState = _reviewedBoardStates.get(_moves.size());
+        _reviewedBoardStates.keySet().removeIf(ply -> _moves.size() <= ply);
+        _lastBoardState = (null != previousBoardState) ? previousBoardState : boardStateAt(_moves.size());
+        _currentViewIndex = Math.min(_currentViewIndex, _moves.size());
+
+        long zobristKey = lastBoardState.getZobristKey();
+        int count = _boardStateCounts.get(zobristKey);
+
+        if (1 == count) {
+            _boardStateCounts.remove(zobristKey);
+        } else {
+            _boardStateCounts.put(zobristKey, count - 1);
+        }
+
+        // The move taken back may have been the one that ended the game, which setOverallGameStatus()
+        // won't undo, so the status is judged again from scratch ...
+        _overallGameStatus = _lastBoardState.getGameStatus();
+        this.whoCanForceDraw();
 
-        return _boardStates.get(_boardStates.size() - 1).getGameStatus();
+        return _overallGameStatus;
+    }
+
+
+    /**
+     * @param ply how many moves into the game
+     * @return the ChessBoardState after that many moves, made again from the nearest checkpoint before it
+     */
+    private ChessBoardState boardStateAt(int ply) {
+        BitboardChessBoard board = _checkpoints.get(ply / CHECKPOINT_INTERVAL).clone();
+
+        for (int i = ply - (ply % CHECKPOINT_INTERVAL); i < ply; ++i) {
+            board.makeMove(_moves.get(i));
+        }
+
+        SideColor sideToMove = (0 == (ply & 1)) ? _firstSideToMove : _firstSideToMove.opposingSideColor();
+        int fullmoveNumber = _firstFullmoveNumber + (ply + _firstSideToMove.getValue()) / 2;
+
+        return new ChessBoardStateImpl(board, sideToMove, _movesWithoutProgressCounts.get(ply), fullmoveNumber, true);
+    }
+
+
+    /**
+     * @return the Zobrist keys of the ChessBoardStates since the last move that made progress, oldest
+     *     first and not counting the last, so a search can tell when it comes back to one of them
+     */
+    public long[] getZobristKeysSinceProgress() {
+        int firstPly = Math.max(0, _moves.size() - countOfMovesWithoutProgress());
+        long[] zobristKeys = new long[_moves.size() - firstPly];
+
+        BitboardChessBoard board = _checkpoints.get(firstPly / CHECKPOINT_INTERVAL).clone();
+        int sideToMove = _firstSideToMove.getValue() ^ (firstPly & 1);
+
+        for (int i = firstPly - (firstPly % CHECKPOINT_INTERVAL); i < firstPly; ++i) {
+            board.makeMove(_moves.get(i));
+        }
+
+        for (int i = firstPly; i < _moves.size(); ++i) {
+            zobristKeys[i - firstPly] = board.getZobristKey(sideToMove);
+            board.makeMove(_moves.get(i));
+            sideToMove = 1 - sideToMove;
+        }
+
+        return zobristKeys;
+    }
+
+
+    private ChessBoardState reviewedBoardStateAt(int ply) {
+        if (ply == _moves.size()) {
+            return _lastBoardState;
+        }
+
+        return _reviewedBoardStates.computeIfAbsent(ply, this::boardStateAt);
+    }
+
+
+    private void countBoardState(ChessBoardState boardState, int movesWithoutProgress) {
+        _boardStateCounts.merge(boardState.getZobristKey(), 1, Integer::sum);
+        _movesWithoutProgressCounts.add(movesWithoutProgress);
     }
 
 
     @Override
     public ChessBoardState reviewFirst() {
         _currentViewIndex = 0;
-        return _boardStates.get(_currentViewIndex);
+        return reviewedBoardStateAt(_currentViewIndex);
     }
 
 
     @Override
     public ChessBoardState reviewNext() throws IndexOutOfBoundsException {
-        if (_currentViewIndex < _boardStates.size() - 1) {
-            return _boardStates.get(++_currentViewIndex);
+        if (_currentViewIndex < _moves.size()) {
+            return reviewedBoardStateAt(++_currentViewIndex);
         } else {
             throw new IndexOutOfBoundsException("No more ChessBoardState(s) to reviewNext() on");
         }
@@ -88,7 +273,7 @@ public class ChessGameImpl implements ChessGame {
     @Override
     public ChessBoardState reviewPrevious() throws IndexOutOfBoundsException {
         if (0 < _currentViewIndex) {
-            return _boardStates.get(--_currentViewIndex);
+            return reviewedBoardStateAt(--_currentViewIndex);
         } else {
             throw new IndexOutOfBoundsException("No more ChessBoardState(s) to reviewPrevious() on");
         }
@@ -97,21 +282,26 @@ public class ChessGameImpl implements ChessGame {
 
     @Override
     public ChessBoardState reviewLast() {
-        _currentViewIndex = _boardStates.size() - 1;
-        return _boardStates.get(_currentViewIndex);
+        _currentViewIndex = _moves.size();
+        return _lastBoardState;
     }
 
 
     @Override
     public String getAllMoves() {
         StringBuilder sb = new StringBuilder();
+        BitboardChessBoard board = _checkpoints.get(0).clone();
+
+        for (int i = 0; i < _moves.size(); ++i) {
+            if (0 < i) {
+                sb.append(", ");
+            }
 
-        for (MoveRecord move : _moves) {
-            sb.append(move.notation());
-            sb.append(", ");
+            MoveNotationWriter.appendNotation(sb, board, _moves.get(i));
+            board.makeMove(_moves.get(i));
         }
 
-        return sb.substring(0, sb.length() - 3);
+        return sb.toString();
     }
 
 
@@ -130,48 +320,13 @@ public class ChessGameImpl implements ChessGame {
 
 
     // TODO: Still have to determine whether the same board state came up 5 times in the last 5 consecutive moves ...
-    // Pass in the number of moves to check, to see how many times it came up ...
-    // int overHowManyLastMoves = 10
     private int countOfCurrentBoardState() {
-        int count = 1;
-        ChessBoardState currentState = _boardStates.get(_boardStates.size() - 1);
-        int currentStatePieceCount = currentState.getBoard().getPiecesInPlay(PieceFlags.AllPieces).size();
-
-        for (int i = _boardStates.size() - 3; 0 <= i; i -= 2) {
-            ChessBoardState earlierState = _boardStates.get(i);
-            if (earlierState.equals(currentState)) {
-                ++count;
-            } else {
-                int earlierStatePieceCount = earlierState.getBoard().getPiecesInPlay(PieceFlags.AllPieces).size();
-
-                if (currentStatePieceCount < earlierStatePieceCount) {
-                    // There's no way any more earlier board states can equal this one ...
-                    break;
-                }
-            }
-        }
-
-        return count;
+        return _boardStateCounts.get(_lastBoardState.getZobristKey());
     }
 
 
     private int countOfMovesWithoutProgress() {
-        int count;
-        for (count = 0; count < _moves.size(); ++count) {
-            MoveRecord move = _moves.get(_moves.size() - count - 1);
-
-            if (move.pieceMoved() instanceof Pawn) {
-                // Count's over because a pawn moving constitutes progress ...
-                break;
-            }
-
-            if (null != move.pieceTaken()) {
-                // Count's over because a captured piece constitutes progress ...
-                break;
-            }
-        }
-
-        return count;
+        return _movesWithoutProgressCounts.get(_movesWithoutProgressCounts.size() - 1);
     }
 
     @Override
@@ -185,7 +340,7 @@ public class ChessGameImpl implements ChessGame {
             setOverallGameStatus(GameStatus.DrawByRepetition);
         } else if (3 <= countOfCurrentBoardState) {
             // The player who just moved may force draw ...
-            canForceDrawSet.add((_moves.size() & 1) == 1 ? SideColor.White : SideColor.Black);
+            canForceDrawSet.add(_lastBoardState.getSideToMove().opposingSideColor());
         }
 
         if (150 <= countOfMovesWithoutProgress) {
@@ -198,4 +353,22 @@ public class ChessGameImpl implements ChessGame {
 
         return canForceDrawSet;
     }
-}
+
+
+    @Override
+    public boolean setOverallGameStatus(GameStatus gameStatus) {
+        if (_overallGameStatus.meansGameIsOver()) {
+            // Once the game is over, its final status shouldn't be overridden ...
+            return false;
+        }
+
+        _overallGameStatus = gameStatus;
+        return true;
+    }
+
+
+    @Override
+    public GameStatus getOverallGameStatus() {
+        return _overallGameStatus;
+    }
+}
\ No newline at end of file
@@ -33,26 +33,26 @@ class ChessPieceSet implements Set<ChessPiece> {
         _bitMask = bitMask;
         _board = board;
 
-        boolean pawnsDesired = PieceFlags.AllPawns.containsAnyOf(_bitMask);
-        boolean castlesDesired = PieceFlags.AllCastles.containsAnyOf(_bitMask);
-        boolean knightsDesired = PieceFlags.AllKnights.containsAnyOf(_bitMask);
-        boolean bishopsDesired = PieceFlags.AllBishops.containsAnyOf(_bitMask);
-        boolean queensDesired = PieceFlags.AllQueens.containsAnyOf(_bitMask);
-
-        // Pawns in play might have been promoted to other PromotablePieces, which complicates things ...
+        // Pawns in play might have been promoted to other PromotablePieces, which complicates things.
+        // A promoted Pawn is wanted when its new kind is wanted for its own side, while a Pawn that is
+        // still a Pawn is only wanted when its own flag is ...
         for (int bitIndex = PieceIndex.WhitePawnA.getValue(); bitIndex <= PieceIndex.BlackPawnH.getValue(); ++bitIndex) {
             boolean turnBitOn;
-            PromotablePiece promotedToPiece = ((Pawn) _board.getPiece(bitIndex)).getPromotedToPiece();
+            int sideFlags = bitMask & ((bitIndex < PieceIndex.BlackPawnA.getValue()) ?
+                    PieceFlags.AllWhitePieces.getValue() : PieceFlags.AllBlackPieces.getValue());
+            ChessPiece piece = _board.getPiece(bitIndex);
+            PromotablePiece promotedToPiece = (piece instanceof Pawn) ?
+                    ((Pawn) piece).getPromotedToPiece() : (PromotablePiece) piece;
             if (null == promotedToPiece) {
-                turnBitOn = pawnsDesired;
+                turnBitOn = 0 != (bitMask & (1 << bitIndex));
             } else if (promotedToPiece instanceof Queen) {
-                turnBitOn = queensDesired;
+                turnBitOn = PieceFlags.AllQueens.containsAnyOf(sideFlags);
             } else if (promotedToPiece instanceof Knight){
-                turnBitOn = knightsDesired;
+                turnBitOn = PieceFlags.AllKnights.containsAnyOf(sideFlags);
             } else if (promotedToPiece instanceof Castle) {
-                turnBitOn = castlesDesired;
+                turnBitOn = PieceFlags.AllCastles.containsAnyOf(sideFlags);
             } else if (promotedToPiece instanceof Bishop) {
-                turnBitOn = bishopsDesired;
+                turnBitOn = PieceFlags.AllBishops.containsAnyOf(sideFlags);
             } else {
                 throw new InternalError("What was this Pawn promoted to? " + promotedToPiece);
             }
@@ -66,6 +66,22 @@ class ChessPieceSet implements Set<ChessPiece> {
     }
 
 
+    /**
+     * Unlike the public constructor, this takes the given flags exactly as they are,
+     * for boards that already know which of their pieces are promoted to what.
+     */
+    static ChessPieceSet withExactFlags(int pieceFlags, ChessBoard board) {
+        ChessPieceSet chessPieceSet = new ChessPieceSet();
+        chessPieceSet._bitMask = pieceFlags;
+
+        if (0 != pieceFlags) {
+            chessPieceSet._board = board;
+        }
+
+        return chessPieceSet;
+    }
+
+
     ChessPieceSet clone(ChessBoard otherBoard) {
         return new ChessPieceSet(this, otherBoard);
     }
@@ -185,7 +201,7 @@ class ChessPieceSet implements Set<ChessPiece> {
 
                     if ((bit & _iteratorBitMask) == bit) {
                         _iteratorBitMask &= ~bit; // Turn this bit off
-                        ChessPiece piece = ((ChessBoardImpl) _board).getPiece(_bitIndex++);
+                        ChessPiece piece = _board.getPiece(_bitIndex++);
                         if (piece instanceof Pawn) {
                             Pawn pawn = (Pawn) piece;
                             if (null != pawn.getPromotedToPiece()) {
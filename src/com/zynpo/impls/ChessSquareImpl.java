@@ -1,13 +1,10 @@
 package com.zynpo.impls;
 
-import com.zynpo.enums.PieceFlags;
 import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessBoard;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.ChessPiece;
 
-import java.util.Set;
-
 
 class ChessSquareImpl implements ChessSquare, Comparable<ChessSquare> {
 
@@ -49,7 +46,12 @@ class ChessSquareImpl implements ChessSquare, Comparable<ChessSquare> {
 
     @Override
     public void setPiece(ChessPiece piece) {
+        ChessPiece priorPiece = _piece;
         _piece = piece;
+
+        if (priorPiece != piece) {
+            ((ChessBoardImpl) _board).squarePieceChanged(this.getIndex(), priorPiece, piece);
+        }
     }
 
     @Override
@@ -138,16 +140,7 @@ class ChessSquareImpl implements ChessSquare, Comparable<ChessSquare> {
 
     @Override
     public boolean coveredBy(SideColor sideColor) {
-        Set<ChessPiece> pieces = this.getBoard().getPiecesInPlay(
-                SideColor.White == sideColor ? PieceFlags.AllWhitePieces : PieceFlags.AllBlackPieces);
-
-        for (ChessPiece piece : pieces) {
-            if (piece.covers(this)) {
-                return true;
-            }
-        }
-
-        return false;
+        return ((ChessBoardImpl) _board).isSquareCoveredBy(this.getIndex(), sideColor.getValue());
     }
 
     @Override
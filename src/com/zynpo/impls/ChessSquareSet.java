@@ -27,6 +27,18 @@ class ChessSquareSet implements Set<ChessSquare> {
         _board = board;
     }
 
+    /**
+     * Construct a ChessSquareSet that contains the Squares of the given board matching the given bits.
+     * @param board containing the Squares in the constructed ChessSquareSet.
+     * @param bitMask where bit n stands for the Square with getIndex() == n.
+     */
+    ChessSquareSet(ChessBoard board, long bitMask) {
+        _bitMask = bitMask;
+
+        // An empty Set doesn't pertain to any particular ChessBoard ...
+        _board = (0L == bitMask) ? null : board;
+    }
+
     @Override
     public synchronized boolean add(ChessSquare square) {
 
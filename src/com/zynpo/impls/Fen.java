@@ -0,0 +1,481 @@
+package com.zynpo.impls;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.interfaces.ChessBoard;
+
+import java.util.Arrays;
+
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: the pieces rank by rank from the 8th,
+ * the side to move, castlings still possible, the en passant square, the moves since a pawn moved
+ * or a piece was taken, and the move number, e.g. START_POSITION.
+ *
+ * A FEN only says where the pieces are, so each is given the PieceIndex of a piece of its type that
+ * started the game on its side, preferably one that started on the square it's on. Pieces beyond those,
+ * such as a second Queen, take the PieceIndex of one of their side's pawns no longer in play, as if promoted.
+ * The en passant square is only kept if a pawn of the side to move could take on it, as it would be
+ * after the pawn jumping two squares here.
+ */
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "PNBRQK";   // Indexed by PieceType value, lower case for Black
+    private static final int SIDE_PIECE_COUNT = BitboardChessBoard.PIECE_COUNT / 2;
+
+    // The PieceIndex values of each side's pieces of each PieceType at the start of the game ...
+    private static final int[][] ORIG_PIECE_INDEXES = new int[2 * PieceType.COUNT][];
+
+    static {
+        for (int sideColor = 0; sideColor < 2; ++sideColor) {
+            for (int pieceType = 0; pieceType < PieceType.COUNT; ++pieceType) {
+                int count = 0;
+                int[] indexes = new int[SIDE_PIECE_COUNT];
+
+                for (PieceIndex index : PieceIndex.values()) {
+                    if ((index.origSideColor().getValue() == sideColor)
+                            && (PieceType.origPieceType(index).getValue() == pieceType)) {
+                        indexes[count++] = index.getValue();
+                    }
+                }
+
+                ORIG_PIECE_INDEXES[sideColor * PieceType.COUNT + pieceType] = Arrays.copyOf(indexes, count);
+            }
+        }
+    }
+
+    private String _fen;
+    private int _pos;
+
+    private BitboardChessBoard _board;
+    private int _sideToMove;
+    private int _halfmoveClock;
+    private int _fullmoveNumber;
+
+
+    private Fen(String fen) {
+        if (null == fen) {
+            throw new IllegalArgumentException("Can't read a position out of a null FEN");
+        }
+
+        _fen = fen;
+        _pos = 0;
+        _board = BitboardChessBoard.createEmpty();
+        _halfmoveClock = 0;
+        _fullmoveNumber = 1;
+
+        parse();
+    }
+
+
+    /**
+     * @return the position of the FEN, leaving out the side to move and the move counters
+     */
+    static BitboardChessBoard parseBoard(String fen) {
+        return new Fen(fen)._board;
+    }
+
+
+    /**
+     * @return the position of the FEN with all the moves the side to move may make from it
+     */
+    static ChessBoardStateImpl parseBoardState(String fen) {
+        Fen parsed = new Fen(fen);
+
+        return new ChessBoardStateImpl(parsed._board, SideColor.fromValue(parsed._sideToMove),
+                parsed._halfmoveClock, parsed._fullmoveNumber, true);
+    }
+
+
+    //--------------------------------------------------------------------
+    // Reading
+    //--------------------------------------------------------------------
+
+    private void parse() {
+        skipSpaces();
+        int placementStart = _pos;
+        placePieces(placementStart, false);
+        placePieces(placementStart, true);
+
+        for (int sideColor = 0; sideColor < 2; ++sideColor) {
+            if (0L == _board.getPieceBitboard(sideColor, PieceType.King.getValue())) {
+                throw invalid("no " + SideColor.fromValue(sideColor) + " King");
+            }
+        }
+
+        skipSpaces();
+
+        switch (nextChar()) {
+            case 'w':
+                _sideToMove = SideColor.White.getValue();
+                break;
+            case 'b':
+                _sideToMove = SideColor.Black.getValue();
+                break;
+            default:
+                throw invalid("the side to move should be w or b");
+        }
+
+        skipSpaces();
+
+        if (_pos < _fen.length()) {
+            parseCastling();
+            skipSpaces();
+        }
+
+        _board.finishSetUp();
+
+        if (_pos < _fen.length()) {
+            parseEnPassantSquare();
+            skipSpaces();
+        }
+
+        if (_pos < _fen.length()) {
+            _halfmoveClock = parseNumber();
+            skipSpaces();
+        }
+
+        if (_pos < _fen.length()) {
+            _fullmoveNumber = parseNumber();
+            skipSpaces();
+
+            if (_fullmoveNumber < 1) {
+                throw invalid("the move number should be at least 1");
+            }
+        }
+
+        if (_pos < _fen.length()) {
+            throw invalid("unexpected " + _fen.substring(_pos));
+        }
+
+        if (_board.isInCheck(1 - _sideToMove)) {
+            throw invalid("the side that just moved is in check");
+        }
+    }
+
+
+    /**
+     * Walk the pieces from the 8th rank down. The first time around each piece takes an unused PieceIndex
+     * of its own PieceType if there is one, the second time around the rest take the PieceIndex of a Pawn ...
+     */
+    private void placePieces(int placementStart, boolean placeTheRest) {
+        _pos = placementStart;
+        int row = ChessBoardSpecs.ROW_COUNT - 1;
+        int col = 0;
+
+        while (true) {
+            char c = nextChar();
+
+            if (('1' <= c) && (c <= '8')) {
+                col += c - '0';
+            } else if ('/' == c) {
+                if (ChessBoardSpecs.COL_COUNT != col) {
+                    throw invalid("rank " + (row + 1) + " doesn't have 8 squares");
+                }
+
+                if (--row < 0) {
+                    throw invalid("more than 8 ranks");
+                }
+
+                col = 0;
+            } else if (' ' == c) {
+                break;
+            } else {
+                int pieceType = PIECE_LETTERS.indexOf(Character.toUpperCase(c));
+
+                if (pieceType < 0) {
+                    throw invalid("unexpected '" + c + "' among the pieces");
+                }
+
+                if (ChessBoardSpecs.COL_COUNT <= col) {
+                    throw invalid("rank " + (row + 1) + " has more than 8 squares");
+                }
+
+                int sideColor = Character.isUpperCase(c) ? SideColor.White.getValue() : SideColor.Black.getValue();
+                int square = row * ChessBoardSpecs.COL_COUNT + col;
+
+                if (!placeTheRest) {
+                    placePiece(sideColor, pieceType, square);
+                } else if (BitboardChessBoard.NO_PIECE == _board.getPieceIndexOn(square)) {
+                    placePieceAsPawn(sideColor, pieceType, square);
+                }
+
+                ++col;
+            }
+
+            if (ChessBoardSpecs.COL_COUNT < col) {
+                throw invalid("rank " + (row + 1) + " has more than 8 squares");
+            }
+        }
+
+        if ((0 != row) || (ChessBoardSpecs.COL_COUNT != col)) {
+            throw invalid("the pieces don't cover 8 ranks of 8 squares");
+        }
+    }
+
+
+    private void placePiece(int sideColor, int pieceType, int square) {
+        int row = BitboardChessBoard.rowOf(square);
+
+        if (PieceType.Pawn.getValue() == pieceType) {
+            if ((0 == row) || (ChessBoardSpecs.ROW_COUNT - 1 == row)) {
+                throw invalid("a pawn on the first or last rank");
+            }
+
+            // A pawn takes the PieceIndex of its column's pawn if that's free, and hasn't moved if it's where pawns start ...
+            int pieceIndex = ORIG_PIECE_INDEXES[sideColor * PieceType.COUNT + pieceType][BitboardChessBoard.colOf(square)];
+
+            if (BitboardChessBoard.NO_SQUARE == _board.getSquareOf(pieceIndex)) {
+                _board.setUpPiece(pieceIndex, pieceType, square, pawnMovedCount(sideColor, square));
+            }
+
+            return;
+        }
+
+        int[] indexes = ORIG_PIECE_INDEXES[sideColor * PieceType.COUNT + pieceType];
+
+        if ((PieceType.King.getValue() == pieceType) && (BitboardChessBoard.NO_SQUARE != _board.getSquareOf(indexes[0]))) {
+            throw invalid("more than one " + SideColor.fromValue(sideColor) + " King");
+        }
+
+        int freeIndex = BitboardChessBoard.NO_PIECE;
+
+        for (int pieceIndex : indexes) {
+            if (BitboardChessBoard.NO_SQUARE != _board.getSquareOf(pieceIndex)) {
+                continue;
+            }
+
+            if (_board.getOrigSquareOf(pieceIndex) == square) {
+                freeIndex = pieceIndex;
+                break;
+            }
+
+            if (BitboardChessBoard.NO_PIECE == freeIndex) {
+                freeIndex = pieceIndex;
+            }
+        }
+
+        if (BitboardChessBoard.NO_PIECE != freeIndex) {
+            // Kings and Castles only count as unmoved once the castlings allow it ...
+            boolean mayBeUnmoved = (PieceType.King.getValue() != pieceType) && (PieceType.Castle.getValue() != pieceType)
+                    && (_board.getOrigSquareOf(freeIndex) == square);
+
+            _board.setUpPiece(freeIndex, pieceType, square, mayBeUnmoved ? 0 : 1);
+        }
+    }
+
+
+    private void placePieceAsPawn(int sideColor, int pieceType, int square) {
+        for (int pieceIndex : ORIG_PIECE_INDEXES[sideColor * PieceType.COUNT + PieceType.Pawn.getValue()]) {
+            if (BitboardChessBoard.NO_SQUARE == _board.getSquareOf(pieceIndex)) {
+                boolean isPawn = (PieceType.Pawn.getValue() == pieceType);
+                _board.setUpPiece(pieceIndex, pieceType, square, isPawn ? pawnMovedCount(sideColor, square) : 1);
+                return;
+            }
+        }
+
+        throw invalid("more than " + SIDE_PIECE_COUNT + " " + SideColor.fromValue(sideColor) + " pieces");
+    }
+
+
+    /**
+     * A pawn on the rank pawns start on may not have moved yet, so may still jump two squares ...
+     */
+    private static int pawnMovedCount(int sideColor, int square) {
+        int startRow = (SideColor.White.getValue() == sideColor) ? 1 : ChessBoardSpecs.ROW_COUNT - 2;
+        return (BitboardChessBoard.rowOf(square) == startRow) ? 0 : 1;
+    }
+
+
+    private void parseCastling() {
+        char c = nextChar();
+
+        if ('-' == c) {
+            return;
+        }
+
+        for (; ' ' != c; c = nextChar()) {
+            int sideColor = Character.isUpperCase(c) ? SideColor.White.getValue() : SideColor.Black.getValue();
+            int backRow = (SideColor.White.getValue() == sideColor) ? 0 : ChessBoardSpecs.ROW_COUNT - 1;
+            int kingSquare = backRow * ChessBoardSpecs.COL_COUNT + 4;
+            int castleSquare;
+
+            switch (Character.toUpperCase(c)) {
+                case 'K':
+                    castleSquare = kingSquare + 3;
+                    break;
+                case 'Q':
+                    castleSquare = kingSquare - 4;
+                    break;
+                default:
+                    throw invalid("unexpected '" + c + "' among the castlings");
+            }
+
+            // Only a King and Castle on the squares they started the game on can castle ...
+            int kingIndex = _board.getPieceIndexOn(kingSquare);
+            int castleIndex = _board.getPieceIndexOn(castleSquare);
+
+            if (isPieceOf(kingIndex, sideColor, PieceType.King) && isPieceOf(castleIndex, sideColor, PieceType.Castle)) {
+                _board.setMovedCountOf(kingIndex, 0);
+                _board.setMovedCountOf(castleIndex, 0);
+            }
+        }
+    }
+
+
+    private boolean isPieceOf(int pieceIndex, int sideColor, PieceType pieceType) {
+        return (BitboardChessBoard.NO_PIECE != pieceIndex)
+                && (BitboardChessBoard.sideColorOf(pieceIndex) == sideColor)
+                && (_board.getPieceTypeOf(pieceIndex) == pieceType.getValue());
+    }
+
+
+    private void parseEnPassantSquare() {
+        char c = nextChar();
+
+        if ('-' == c) {
+            return;
+        }
+
+        int col = c - 'a';
+        int row = nextChar() - '1';
+        int expectedRow = (SideColor.White.getValue() == _sideToMove) ? ChessBoardSpecs.ROW_COUNT - 3 : 2;
+
+        if ((col < 0) || (ChessBoardSpecs.COL_COUNT <= col) || (row != expectedRow)) {
+            throw invalid("not a square a pawn could have jumped over");
+        }
+
+        // The other side's pawn must be on the square it jumped to, with the squares it jumped over and
+        // from left empty ...
+        int square = row * ChessBoardSpecs.COL_COUNT + col;
+        int jump = (SideColor.White.getValue() == _sideToMove) ? -ChessBoardSpecs.COL_COUNT : ChessBoardSpecs.COL_COUNT;
+
+        if (!isPieceOf(_board.getPieceIndexOn(square + jump), 1 - _sideToMove, PieceType.Pawn)
+                || (BitboardChessBoard.NO_PIECE != _board.getPieceIndexOn(square))
+                || (BitboardChessBoard.NO_PIECE != _board.getPieceIndexOn(square - jump))) {
+            throw invalid("no pawn could have just jumped over " + c + (char) ('1' + row));
+        }
+
+        long takingPawns = AttackTables.pawnAttacks(1 - _sideToMove, square)
+                & _board.getPieceBitboard(_sideToMove, PieceType.Pawn.getValue());
+
+        if (0L != takingPawns) {
+            _board.setUpEnPassantSquare(square);
+        }
+    }
+
+
+    private int parseNumber() {
+        int start = _pos;
+        int number = 0;
+
+        while ((_pos < _fen.length()) && Character.isDigit(_fen.charAt(_pos))) {
+            number = 10 * number + (_fen.charAt(_pos++) - '0');
+
+            if (100000 < number) {
+                throw invalid("a move counter that's too large");
+            }
+        }
+
+        if (start == _pos) {
+            throw invalid("expected a number, not " + _fen.substring(_pos));
+        }
+
+        return number;
+    }
+
+
+    /**
+     * @return the next character, or a space past the end so a FEN may stop after any field
+     */
+    private char nextChar() {
+        return (_pos < _fen.length()) ? _fen.charAt(_pos++) : ' ';
+    }
+
+
+    private void skipSpaces() {
+        while ((_pos < _fen.length()) && (' ' == _fen.charAt(_pos))) {
+            ++_pos;
+        }
+    }
+
+
+    private IllegalArgumentException invalid(String reason) {
+        return new IllegalArgumentException("Invalid FEN, " + reason + ": " + _fen);
+    }
+
+
+    //--------------------------------------------------------------------
+    // Writing
+    //--------------------------------------------------------------------
+
+    /**
+     * @param board any ChessBoard, quickest when a BitboardChessBoard
+     * @return the FEN of the given position
+     */
+    public static String toFen(ChessBoard board, SideColor sideToMove, int halfmoveClock, int fullmoveNumber) {
+        BitboardChessBoard position = (board instanceof BitboardChessBoard) ?
+                (BitboardChessBoard) board : new BitboardChessBoard(board);
+
+        StringBuilder sb = new StringBuilder(90);
+
+        for (int row = ChessBoardSpecs.ROW_COUNT - 1; 0 <= row; --row) {
+            int emptySquares = 0;
+
+            for (int col = 0; col < ChessBoardSpecs.COL_COUNT; ++col) {
+                int pieceIndex = position.getPieceIndexOn(row * ChessBoardSpecs.COL_COUNT + col);
+
+                if (BitboardChessBoard.NO_PIECE == pieceIndex) {
+                    ++emptySquares;
+                    continue;
+                }
+
+                if (0 < emptySquares) {
+                    sb.append((char) ('0' + emptySquares));
+                    emptySquares = 0;
+                }
+
+                char letter = PIECE_LETTERS.charAt(position.getPieceTypeOf(pieceIndex));
+                sb.append((SideColor.White.getValue() == BitboardChessBoard.sideColorOf(pieceIndex)) ?
+                        letter : Character.toLowerCase(letter));
+            }
+
+            if (0 < emptySquares) {
+                sb.append((char) ('0' + emptySquares));
+            }
+
+            if (0 < row) {
+                sb.append('/');
+            }
+        }
+
+        sb.append((SideColor.White == sideToMove) ? " w " : " b ");
+
+        int castlingRights = position.getCastlingRights();
+
+        if (0 == castlingRights) {
+            sb.append('-');
+        } else {
+            if (0 != (castlingRights & 1)) sb.append('K');
+            if (0 != (castlingRights & 2)) sb.append('Q');
+            if (0 != (castlingRights & 4)) sb.append('k');
+            if (0 != (castlingRights & 8)) sb.append('q');
+        }
+
+        int enPassantSquare = position.getEnPassantSquareIndex();
+
+        if (BitboardChessBoard.NO_SQUARE == enPassantSquare) {
+            sb.append(" -");
+        } else {
+            sb.append(' ')
+                    .append((char) ('a' + BitboardChessBoard.colOf(enPassantSquare)))
+                    .append((char) ('1' + BitboardChessBoard.rowOf(enPassantSquare)));
+        }
+
+        return sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+}
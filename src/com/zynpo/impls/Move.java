@@ -0,0 +1,159 @@
+package com.zynpo.impls;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceType;
+
+
+/**
+ * Moves packed into a single int, for searching and other bulk work where a MoveRecord per move
+ * would be far too much garbage. Laid out as:
+ *
+ *   bits  0-5   square departed
+ *   bits  6-11  square occupied
+ *   bits 12-14  PieceType value a Pawn is promoted to, or 0 (Pawn) when not promoting
+ *   bit  15     a piece is taken
+ *   bit  16     the piece taken is a Pawn taken en passant
+ *   bit  17     a King castling
+ *   bit  18     a Pawn jumping two squares
+ *
+ * The low 15 bits alone tell apart every move from any one position, so they can be kept
+ * in a short where space matters. NO_MOVE is never a real move, as no piece moves onto
+ * the square it departed from.
+ */
+public final class Move {
+
+    public static final int NO_MOVE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLING = 1 << 17;
+    public static final int DOUBLE_PUSH = 1 << 18;
+
+    public static final int KEY_MASK = 0x7FFF;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int OCCUPIED_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+
+
+    private Move() {}
+
+
+    /**
+     * @param promotionType what a Pawn reaching its promotion row becomes, otherwise null
+     * @param flags any of CAPTURE, EN_PASSANT, CASTLING and DOUBLE_PUSH
+     */
+    public static int of(int squareDeparted, int squareOccupied, PieceType promotionType, int flags) {
+        return of(squareDeparted, squareOccupied, (null == promotionType) ? PieceType.Pawn.getValue() : promotionType.getValue(), flags);
+    }
+
+
+    public static int of(int squareDeparted, int squareOccupied, int promotionType, int flags) {
+        return squareDeparted
+                | (squareOccupied << OCCUPIED_SHIFT)
+                | (promotionType << PROMOTION_SHIFT)
+                | flags;
+    }
+
+
+    public static int squareDeparted(int move) { return move & SQUARE_MASK; }
+
+    public static int squareOccupied(int move) { return (move >>> OCCUPIED_SHIFT) & SQUARE_MASK; }
+
+    /**
+     * @return the PieceType value the moved Pawn becomes, or PieceType.Pawn's value when not promoting
+     */
+    public static int promotionTypeValue(int move) { return (move >>> PROMOTION_SHIFT) & PROMOTION_MASK; }
+
+    /**
+     * @return the PieceType the moved Pawn becomes, or null when not promoting
+     */
+    public static PieceType promotionType(int move) {
+        int promotionType = promotionTypeValue(move);
+        return (PieceType.Pawn.getValue() == promotionType) ? null : PieceType.fromOrdinal(promotionType);
+    }
+
+    public static boolean isPromotion(int move) { return 0 != (move & (PROMOTION_MASK << PROMOTION_SHIFT)); }
+
+    public static boolean isCapture(int move) { return 0 != (move & CAPTURE); }
+
+    public static boolean isEnPassant(int move) { return 0 != (move & EN_PASSANT); }
+
+    public static boolean isCastling(int move) { return 0 != (move & CASTLING); }
+
+    public static boolean isDoublePush(int move) { return 0 != (move & DOUBLE_PUSH); }
+
+    /**
+     * @return just the bits telling this move apart from others in the same position
+     */
+    public static int keyOf(int move) { return move & KEY_MASK; }
+
+
+    /**
+     * @return the move in coordinate notation, as in e2e4 or e7e8q
+     */
+    public static String toString(int move) {
+        if (NO_MOVE == move) {
+            return "0000";
+        }
+
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, squareDeparted(move));
+        appendSquare(sb, squareOccupied(move));
+
+        if (isPromotion(move)) {
+            sb.append(Character.toLowerCase(promotionType(move).notation().charAt(0)));
+        }
+
+        return sb.toString();
+    }
+
+
+    /**
+     * @param coordinates a move in coordinate notation, as toString() gives
+     * @return the move without any flags, so only its keyOf() can be relied upon
+     */
+    public static int fromString(String coordinates) {
+        int length = (null == coordinates) ? 0 : coordinates.length();
+
+        if ((4 != length) && (5 != length)) {
+            throw new IllegalArgumentException("Not a move in coordinate notation: " + coordinates);
+        }
+
+        int squareDeparted = squareAt(coordinates, 0);
+        int squareOccupied = squareAt(coordinates, 2);
+        PieceType promotionType = null;
+
+        if (5 == length) {
+            switch (coordinates.charAt(4)) {
+                case 'n': promotionType = PieceType.Knight; break;
+                case 'b': promotionType = PieceType.Bishop; break;
+                case 'r': promotionType = PieceType.Castle; break;
+                case 'q': promotionType = PieceType.Queen; break;
+                default:
+                    throw new IllegalArgumentException("Not a piece a pawn is promoted to: " + coordinates);
+            }
+        }
+
+        return of(squareDeparted, squareOccupied, promotionType, 0);
+    }
+
+
+    private static int squareAt(String coordinates, int i) {
+        int col = coordinates.charAt(i) - 'a';
+        int row = coordinates.charAt(i + 1) - '1';
+
+        if ((col < 0) || (ChessBoardSpecs.COL_COUNT <= col) || (row < 0) || (ChessBoardSpecs.ROW_COUNT <= row)) {
+            throw new IllegalArgumentException("Not a move in coordinate notation: " + coordinates);
+        }
+
+        return row * ChessBoardSpecs.COL_COUNT + col;
+    }
+
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + BitboardChessBoard.colOf(square)));
+        sb.append((char) ('1' + BitboardChessBoard.rowOf(square)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.zynpo.impls;
+
+import java.util.Arrays;
+
+
+/**
+ * A reusable, growable list of moves packed as described by Move. Clearing it
+ * keeps its array, so one MoveList per search ply allocates nothing once warmed up.
+ */
+public final class MoveList {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] _moves;
+    private int _size;
+
+
+    public MoveList() {
+        this(INITIAL_CAPACITY);
+    }
+
+
+    public MoveList(int capacity) {
+        _moves = new int[Math.max(1, capacity)];
+        _size = 0;
+    }
+
+
+    public int size() { return _size; }
+
+    public boolean isEmpty() { return 0 == _size; }
+
+    public void clear() { _size = 0; }
+
+
+    public int get(int i) {
+        if ((i < 0) || (_size <= i)) {
+            throw new IndexOutOfBoundsException("No move " + i + " in a MoveList of " + _size);
+        }
+
+        return _moves[i];
+    }
+
+
+    public void set(int i, int move) {
+        if ((i < 0) || (_size <= i)) {
+            throw new IndexOutOfBoundsException("No move " + i + " in a MoveList of " + _size);
+        }
+
+        _moves[i] = move;
+    }
+
+
+    public void add(int move) {
+        if (_size == _moves.length) {
+            _moves = Arrays.copyOf(_moves, 2 * _moves.length);
+        }
+
+        _moves[_size++] = move;
+    }
+
+
+    /**
+     * @return the last move, which is no longer in the list
+     */
+    public int removeLast() {
+        if (0 == _size) {
+            throw new IndexOutOfBoundsException("No move to remove from an empty MoveList");
+        }
+
+        return _moves[--_size];
+    }
+
+
+    public boolean contains(int move) {
+        return 0 <= indexOf(move);
+    }
+
+
+    /**
+     * @return where the given move is, comparing only Move.keyOf(), or -1
+     */
+    public int indexOf(int move) {
+        int key = Move.keyOf(move);
+
+        for (int i = 0; i < _size; ++i) {
+            if (Move.keyOf(_moves[i]) == key) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Swap two moves, as move ordering does when picking the next best move.
+     */
+    public void swap(int i, int j) {
+        int move = _moves[i];
+        _moves[i] = _moves[j];
+        _moves[j] = move;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < _size; ++i) {
+            if (0 < i) {
+                sb.append(' ');
+            }
+
+            sb.append(Move.toString(_moves[i]));
+        }
+
+        return sb.toString();
+    }
+}
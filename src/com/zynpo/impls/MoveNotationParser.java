@@ -0,0 +1,416 @@
+package com.zynpo.impls;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.exceptions.AmbiguousMoveException;
+import com.zynpo.exceptions.InvalidMoveException;
+import com.zynpo.exceptions.MisrepresentedMoveException;
+import com.zynpo.exceptions.MoveException;
+
+
+/**
+ * Reads moves in standard algebraic notation, as written by MoveRecord.notation() or found in PGN,
+ * in a single pass over the characters without making any Strings along the way. The piece moved is
+ * found by looking back from the square occupied along the ways that piece moves, and the move is
+ * given back packed as described by Move.
+ *
+ * Besides plain SAN this takes C for a Castle, 0-0 for O-O, "ep" or "e.p." after a pawn taking
+ * en passant, which may then name the square of the pawn taken, "++" for checkmate, and any
+ * trailing ! and ? annotations. A + or # is checked against the move made, while leaving it out is
+ * taken to mean nothing either way.
+ *
+ * One parser can be kept and reused for any number of moves, but not by several threads at once.
+ */
+public final class MoveNotationParser {
+
+    private static final int NO_COL = -1;
+    private static final int NO_ROW = -1;
+
+    private static final long COL_A_SQUARES = 0x0101010101010101L;
+    private static final long ROW_1_SQUARES = 0xFFL;
+
+    // What the last notation parsed says, worked out by tokenize() ...
+    private int _pieceType;
+    private int _castlingCols;           // +2 for O-O, -2 for O-O-O, otherwise 0
+    private int _departedCol;
+    private int _departedRow;
+    private int _squareNamed;
+    private int _promotionType;          // PieceType value, or Pawn's when not promoting
+    private boolean _taking;
+    private boolean _enPassant;
+    private boolean _claimsCheck;
+    private boolean _claimsCheckmate;
+
+
+    public MoveNotationParser() {}
+
+
+    public int parse(CharSequence notation, BitboardChessBoard board, SideColor sideToMove) throws MoveException {
+        if (null == notation) {
+            throw new IllegalArgumentException("Can't parse a move out of null");
+        }
+
+        return parse(notation, 0, notation.length(), board, sideToMove.getValue());
+    }
+
+
+    /**
+     * @param notation holding the move between start and end, with or without spaces around it
+     * @param board holding the position the move is made from, which is left as it was found
+     * @param sideColor of the side to move
+     * @return the move packed as described by Move
+     */
+    public int parse(CharSequence notation, int start, int end, BitboardChessBoard board, int sideColor) throws MoveException {
+        if ((SideColor.White.getValue() != sideColor) && (SideColor.Black.getValue() != sideColor)) {
+            throw new IllegalArgumentException("Can't parse a move when sideColor = " + sideColor);
+        }
+
+        tokenize(notation, start, end);
+
+        int move = (0 != _castlingCols) ? findCastling(notation, start, end, board, sideColor)
+                : findMove(notation, start, end, board, sideColor);
+
+        if (_claimsCheck || _claimsCheckmate) {
+            board.makeMove(move);
+            boolean check = board.isInCheck(1 - sideColor);
+            boolean checkmate = check && !board.hasValidMove(1 - sideColor);
+            board.unmakeMove();
+
+            if ((check != (_claimsCheck || _claimsCheckmate)) || (checkmate != _claimsCheckmate)) {
+                throw new MisrepresentedMoveException("Move " + notation.subSequence(start, end).toString().trim()
+                        + " gives " + (checkmate ? "checkmate" : check ? "check" : "neither check nor checkmate"));
+            }
+        }
+
+        return move;
+    }
+
+
+    //--------------------------------------------------------------------
+    // Reading the characters
+    //--------------------------------------------------------------------
+
+    private void tokenize(CharSequence notation, int start, int end) throws MoveException {
+        _pieceType = PieceType.Pawn.getValue();
+        _castlingCols = 0;
+        _departedCol = NO_COL;
+        _departedRow = NO_ROW;
+        _squareNamed = BitboardChessBoard.NO_SQUARE;
+        _promotionType = PieceType.Pawn.getValue();
+        _taking = false;
+        _enPassant = false;
+        _claimsCheck = false;
+        _claimsCheckmate = false;
+
+        int first = start;
+        int last = end;     // One past the last character still to read, working inwards from both ends ...
+
+        while ((first < last) && Character.isWhitespace(notation.charAt(first))) ++first;
+        while ((first < last) && isTrailingAnnotation(notation.charAt(last - 1))) --last;
+
+        if (first == last) {
+            throw invalid(notation, start, end, "there's no move");
+        }
+
+        if ('#' == notation.charAt(last - 1)) {
+            _claimsCheckmate = true;
+            --last;
+        } else if ('+' == notation.charAt(last - 1)) {
+            --last;
+
+            if ((first < last) && ('+' == notation.charAt(last - 1))) {
+                _claimsCheckmate = true;
+                --last;
+            } else {
+                _claimsCheck = true;
+            }
+        }
+
+        if (endsWith(notation, first, last, "e.p.")) {
+            _enPassant = true;
+            last -= 4;
+        } else if (endsWith(notation, first, last, "ep")) {
+            _enPassant = true;
+            last -= 2;
+        }
+
+        while ((first < last) && Character.isWhitespace(notation.charAt(last - 1))) --last;
+
+        if (isCastling(notation, first, last, 5)) {
+            _castlingCols = -2;
+            return;
+        }
+
+        if (isCastling(notation, first, last, 3)) {
+            _castlingCols = 2;
+            return;
+        }
+
+        int pieceType = pieceTypeOf(notation.charAt(first));
+
+        if (BitboardChessBoard.NO_PIECE != pieceType) {
+            _pieceType = pieceType;
+            ++first;
+        }
+
+        if ((PieceType.Pawn.getValue() == _pieceType) && (first < last)) {
+            int promotionType = pieceTypeOf(notation.charAt(last - 1));
+
+            if ((BitboardChessBoard.NO_PIECE != promotionType) && (PieceType.King.getValue() != promotionType)) {
+                _promotionType = promotionType;
+                --last;
+
+                if ((first < last) && ('=' == notation.charAt(last - 1))) {
+                    --last;
+                }
+            }
+        }
+
+        if ((last - first < 2) || !isCol(notation.charAt(last - 2)) || !isRow(notation.charAt(last - 1))) {
+            throw invalid(notation, start, end, "it doesn't end with the square moved to");
+        }
+
+        _squareNamed = squareAt(notation.charAt(last - 1) - '1', notation.charAt(last - 2) - 'a');
+        last -= 2;
+
+        if ((first < last) && (('x' == notation.charAt(last - 1)) || (':' == notation.charAt(last - 1)))) {
+            _taking = true;
+            --last;
+        } else if ((first < last) && ('-' == notation.charAt(last - 1))) {
+            --last;
+        }
+
+        if ((first < last) && isCol(notation.charAt(first))) {
+            _departedCol = notation.charAt(first++) - 'a';
+        }
+
+        if ((first < last) && isRow(notation.charAt(first))) {
+            _departedRow = notation.charAt(first++) - '1';
+        }
+
+        if (first != last) {
+            throw invalid(notation, start, end, "unexpected '" + notation.charAt(first) + "'");
+        }
+
+        if (_enPassant && !(_taking && (PieceType.Pawn.getValue() == _pieceType))) {
+            throw invalid(notation, start, end, "only a pawn taking something can do so en passant");
+        }
+    }
+
+
+    private static boolean isTrailingAnnotation(char c) {
+        return ('!' == c) || ('?' == c) || Character.isWhitespace(c);
+    }
+
+
+    private static boolean endsWith(CharSequence notation, int first, int last, String suffix) {
+        if (last - first < suffix.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < suffix.length(); ++i) {
+            if (notation.charAt(last - suffix.length() + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Is it O-O (length 3) or O-O-O (length 5), written with letters O or zeros?
+     */
+    private static boolean isCastling(CharSequence notation, int first, int last, int length) {
+        if (last - first != length) {
+            return false;
+        }
+
+        char o = notation.charAt(first);
+
+        if (('O' != o) && ('0' != o)) {
+            return false;
+        }
+
+        for (int i = 1; i < length; ++i) {
+            if (notation.charAt(first + i) != ((1 == (i & 1)) ? '-' : o)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * @return the PieceType value of a piece letter other than P, or NO_PIECE
+     */
+    private static int pieceTypeOf(char c) {
+        switch (c) {
+            case 'N': return PieceType.Knight.getValue();
+            case 'B': return PieceType.Bishop.getValue();
+            case 'R':
+            case 'C': return PieceType.Castle.getValue();
+            case 'Q': return PieceType.Queen.getValue();
+            case 'K': return PieceType.King.getValue();
+            default: return BitboardChessBoard.NO_PIECE;
+        }
+    }
+
+
+    private static boolean isCol(char c) { return ('a' <= c) && (c < 'a' + ChessBoardSpecs.COL_COUNT); }
+
+    private static boolean isRow(char c) { return ('1' <= c) && (c < '1' + ChessBoardSpecs.ROW_COUNT); }
+
+    private static int squareAt(int row, int col) { return row * ChessBoardSpecs.COL_COUNT + col; }
+
+
+    //--------------------------------------------------------------------
+    // Finding the move on the board
+    //--------------------------------------------------------------------
+
+    private int findCastling(CharSequence notation, int start, int end, BitboardChessBoard board, int sideColor)
+            throws MoveException {
+        long king = board.getPieceBitboard(sideColor, PieceType.King.getValue());
+
+        if (0L != king) {
+            int kingSquare = Long.numberOfTrailingZeros(king);
+            int squareOccupied = kingSquare + _castlingCols;
+
+            if ((0 <= squareOccupied) && (squareOccupied < BitboardChessBoard.SQUARE_COUNT)
+                    && board.pieceMightMoveTo(board.getPieceIndexOn(kingSquare), squareOccupied)) {
+                int move = board.moveFrom(kingSquare, squareOccupied, null);
+
+                if (Move.isCastling(move) && isLegal(board, move, sideColor)) {
+                    return move;
+                }
+            }
+        }
+
+        throw invalid(notation, start, end, "castling isn't possible");
+    }
+
+
+    private int findMove(CharSequence notation, int start, int end, BitboardChessBoard board, int sideColor)
+            throws MoveException {
+        int squareOccupied = _squareNamed;
+
+        if (_enPassant) {
+            // The square named may be that of the pawn taken, rather than the en passant square behind it ...
+            int enPassantSquare = board.getEnPassantSquareIndex();
+
+            if ((BitboardChessBoard.NO_SQUARE == enPassantSquare)
+                    || ((squareOccupied != enPassantSquare)
+                        && (squareOccupied != enPassantSquare - BitboardChessBoard.pawnAdvance(sideColor)))) {
+                throw invalid(notation, start, end, "there's no pawn to take en passant");
+            }
+
+            squareOccupied = enPassantSquare;
+        }
+
+        long candidates = board.getPieceBitboard(sideColor, _pieceType);
+
+        if (PieceType.Pawn.getValue() == _pieceType) {
+            if (_taking && (NO_COL == _departedCol)) {
+                throw invalid(notation, start, end, "a pawn taking something must say which column it's from");
+            }
+
+            int departedCol = (NO_COL == _departedCol) ? BitboardChessBoard.colOf(squareOccupied) : _departedCol;
+            candidates &= COL_A_SQUARES << departedCol;
+        } else {
+            // Pieces other than pawns cover the square they'd move to from wherever it covers them ...
+            long coveringSquares = BitboardChessBoard.pieceAttacks(_pieceType, sideColor, squareOccupied, board.getOccupiedBitboard());
+
+            if ((PieceType.King.getValue() == _pieceType) && (BitboardChessBoard.rowOf(squareOccupied) == rowOfKing(board, sideColor))) {
+                // ... besides a King castling, when written as a King's move two squares along ...
+                coveringSquares |= board.getPieceBitboard(sideColor, _pieceType);
+            }
+
+            candidates &= coveringSquares;
+
+            if (NO_COL != _departedCol) {
+                candidates &= COL_A_SQUARES << _departedCol;
+            }
+        }
+
+        if (NO_ROW != _departedRow) {
+            candidates &= ROW_1_SQUARES << (ChessBoardSpecs.COL_COUNT * _departedRow);
+        }
+
+        int move = Move.NO_MOVE;
+
+        while (0L != candidates) {
+            int squareDeparted = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+
+            if (!board.pieceMightMoveTo(board.getPieceIndexOn(squareDeparted), squareOccupied)) {
+                continue;
+            }
+
+            int candidateMove = board.moveFrom(squareDeparted, squareOccupied, promotionTypeFor(board, squareDeparted, squareOccupied));
+
+            if (isLegal(board, candidateMove, sideColor)) {
+                if (Move.NO_MOVE != move) {
+                    throw new AmbiguousMoveException("More than one piece fits move description: "
+                            + notation.subSequence(start, end).toString().trim());
+                }
+
+                move = candidateMove;
+            }
+        }
+
+        if (Move.NO_MOVE == move) {
+            throw invalid(notation, start, end, "no piece can make such a move");
+        }
+
+        if (Move.isPromotion(move) != (PieceType.Pawn.getValue() != _promotionType)) {
+            throw invalid(notation, start, end, Move.isPromotion(move) ?
+                    "must say what the pawn is promoted to" : "only a pawn reaching the last row is promoted");
+        }
+
+        if (_taking && !Move.isCapture(move)) {
+            throw invalid(notation, start, end, "there's nothing to take");
+        }
+
+        return move;
+    }
+
+
+    private static int rowOfKing(BitboardChessBoard board, int sideColor) {
+        long king = board.getPieceBitboard(sideColor, PieceType.King.getValue());
+        return (0L == king) ? NO_ROW : BitboardChessBoard.rowOf(Long.numberOfTrailingZeros(king));
+    }
+
+
+    /**
+     * @return the PieceType named for the promotion, or Queen when a promoting pawn is given none, to be
+     *     rejected once the move is known to be otherwise valid
+     */
+    private PieceType promotionTypeFor(BitboardChessBoard board, int squareDeparted, int squareOccupied) {
+        int pieceIndex = board.getPieceIndexOn(squareDeparted);
+        int sideColor = BitboardChessBoard.sideColorOf(pieceIndex);
+        int promotionRow = (SideColor.White.getValue() == sideColor) ? ChessBoardSpecs.ROW_COUNT - 1 : 0;
+
+        if ((PieceType.Pawn.getValue() != board.getPieceTypeOf(pieceIndex)) || (BitboardChessBoard.rowOf(squareOccupied) != promotionRow)) {
+            return null;
+        }
+
+        return PieceType.fromOrdinal((PieceType.Pawn.getValue() == _promotionType) ? PieceType.Queen.getValue() : _promotionType);
+    }
+
+
+    private static boolean isLegal(BitboardChessBoard board, int move, int sideColor) {
+        board.makeMove(move);
+        boolean legal = !board.isInCheck(sideColor);
+        board.unmakeMove();
+
+        return legal;
+    }
+
+
+    private static InvalidMoveException invalid(CharSequence notation, int start, int end, String reason) {
+        return new InvalidMoveException("\"" + notation.subSequence(start, end).toString().trim()
+                + "\" is an invalid move, as " + reason);
+    }
+}
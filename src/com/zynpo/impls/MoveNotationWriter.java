@@ -0,0 +1,121 @@
+package com.zynpo.impls;
+
+import com.zynpo.enums.PieceType;
+
+
+/**
+ * Writes moves packed as described by Move in the notation MoveRecord.notation() gives, working only
+ * from the position before the move. Similar pieces are told apart by what they cover, and check and
+ * checkmate are found by making the move on the board, looking for attacks on the opposing King and
+ * whether it has any valid move, then unmaking it again, so no ChessBoardState is ever built.
+ *
+ * The board handed in is left as it was found.
+ */
+public final class MoveNotationWriter {
+
+    private MoveNotationWriter() {}
+
+
+    public static String toNotation(BitboardChessBoard board, int move) {
+        return appendNotation(new StringBuilder(8), board, move).toString();
+    }
+
+
+    /**
+     * @param board holding the position the move is made from
+     * @return sb, with the notation of the move appended to it
+     */
+    public static StringBuilder appendNotation(StringBuilder sb, BitboardChessBoard board, int move) {
+        int squareDeparted = Move.squareDeparted(move);
+        int squareOccupied = Move.squareOccupied(move);
+        int pieceIndex = board.getPieceIndexOn(squareDeparted);
+
+        if (BitboardChessBoard.NO_PIECE == pieceIndex) {
+            throw new InternalError("No piece on " + board.getSquare(squareDeparted) + " to make " + Move.toString(move));
+        }
+
+        int sideColor = BitboardChessBoard.sideColorOf(pieceIndex);
+        int pieceType = board.getPieceTypeOf(pieceIndex);
+
+        if (Move.isCastling(move)) {
+            sb.append((squareOccupied > squareDeparted) ? "O-O" : "O-O-O");
+        } else {
+            appendPieceAndSquares(sb, board, move, pieceType, sideColor);
+        }
+
+        board.makeMove(move);
+
+        if (board.isInCheck(1 - sideColor)) {
+            sb.append(board.hasValidMove(1 - sideColor) ? "+" : "++");
+        }
+
+        board.unmakeMove();
+
+        return sb;
+    }
+
+
+    private static void appendPieceAndSquares(StringBuilder sb, BitboardChessBoard board, int move, int pieceType, int sideColor) {
+        int squareDeparted = Move.squareDeparted(move);
+        int squareOccupied = Move.squareOccupied(move);
+
+        boolean mustDifferentiateRow = false;
+        boolean mustDifferentiateCol = false;
+
+        if (PieceType.Pawn.getValue() == pieceType) {
+            // When a pawn takes something the column is always specified in the notation ...
+            mustDifferentiateCol = Move.isCapture(move);
+        } else {
+            sb.append(PieceType.fromOrdinal(pieceType).notation());
+
+            // There's only ever one King per side, so there's nothing similar to differentiate it from ...
+            long similarPieces = (PieceType.King.getValue() == pieceType) ? 0L
+                    : board.getPieceBitboard(sideColor, pieceType) & ~(1L << squareDeparted)
+                        & BitboardChessBoard.pieceAttacks(pieceType, sideColor, squareOccupied, board.getOccupiedBitboard());
+
+            while (0L != similarPieces) {
+                int similarSquare = Long.numberOfTrailingZeros(similarPieces);
+                similarPieces &= similarPieces - 1;
+
+                if (board.pieceMightMoveTo(board.getPieceIndexOn(similarSquare), squareOccupied)) {
+                    if (BitboardChessBoard.colOf(similarSquare) != BitboardChessBoard.colOf(squareDeparted)) {
+                        mustDifferentiateCol = true;
+                    } else {
+                        mustDifferentiateRow = true;
+                    }
+                }
+            }
+        }
+
+        if (mustDifferentiateCol) {
+            sb.append((char) ('a' + BitboardChessBoard.colOf(squareDeparted)));
+        }
+
+        if (mustDifferentiateRow) {
+            sb.append((char) ('1' + BitboardChessBoard.rowOf(squareDeparted)));
+        }
+
+        if (Move.isEnPassant(move)) {
+            // Written with the square of the pawn taken, which is beside the pawn taking it ...
+            sb.append('x');
+            appendSquare(sb, squareOccupied - BitboardChessBoard.pawnAdvance(sideColor));
+            sb.append("ep");
+        } else {
+            if (Move.isCapture(move)) {
+                sb.append('x');
+            }
+
+            appendSquare(sb, squareOccupied);
+        }
+
+        if (Move.isPromotion(move)) {
+            sb.append('=').append(Move.promotionType(move).notation());
+        }
+    }
+
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + BitboardChessBoard.colOf(square)))
+                .append((char) ('1' + BitboardChessBoard.rowOf(square)));
+    }
+}
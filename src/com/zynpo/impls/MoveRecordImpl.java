@@ -1,332 +1,144 @@
 package com.zynpo.impls;
 
 import com.zynpo.enums.GameStatus;
-import com.zynpo.enums.PieceFlags;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
-import com.zynpo.exceptions.AmbiguousMoveException;
-import com.zynpo.exceptions.InvalidMoveException;
-import com.zynpo.exceptions.MisrepresentedMoveException;
 import com.zynpo.exceptions.MoveException;
-import com.zynpo.impls.pieces.*;
 import com.zynpo.interfaces.ChessBoard;
 import com.zynpo.interfaces.ChessBoardState;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.MoveRecord;
 import com.zynpo.interfaces.pieces.ChessPiece;
-import com.zynpo.interfaces.pieces.King;
 import com.zynpo.interfaces.pieces.Pawn;
 import com.zynpo.interfaces.pieces.PromotablePiece;
 
-import java.util.Set;
-
 public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
 
     private String _notation;
 
     private ChessPiece _pieceMoved;
     private ChessPiece _pieceTaken;
-    private PromotablePiece _promotedToPiece;
+    private PieceType _promotionType;
 
     private ChessSquare _squareDeparted;
     private ChessSquare _squareOccupied;
     private ChessSquare _squareOfTakenPiece;
 
+    // The move packed as described by Move, and a copy of the position it's made from that nothing
+    // ever changes, so it can't be told apart by moves made on the board its squares are on since ...
+    private int _move;
+    private BitboardChessBoard _position;
+
     private ChessBoardState _resultingBoardState;
+    private int _halfmoveClockBefore = 0;
+    private int _fullmoveNumberBefore = 1;
 
 
-    public static MoveRecord fromNotation(String notation, SideColor sideToMove, ChessBoard board) throws MoveException {
+    /**
+     * @param notation of a move in standard algebraic notation, see MoveNotationParser
+     * @param board holding the position the move is made from
+     */
+    public static MoveRecordImpl fromNotation(String notation, SideColor sideToMove, ChessBoard board) throws MoveException {
         if (null == notation) {
             throw new IllegalArgumentException("Can't construct MoveRecord out of null");
         }
 
-        notation = notation.trim();
-        final String origNotation = notation;
-
-        if (notation.length() == 0) {
-            throw new IllegalArgumentException("Can't construct MoveRecord out of empty string");
-        }
-
-        try {
-
-            GameStatus expectedGameStatus;
-
-            if (notation.endsWith("++")) {
-                expectedGameStatus = (SideColor.White == sideToMove ?
-                        GameStatus.BlackWinByCheckmate : GameStatus.WhiteWinByCheckmate);
-                notation = notation.substring(0, notation.length() - 3);
-            } else if (notation.endsWith("#")) {
-                expectedGameStatus = (SideColor.White == sideToMove ?
-                        GameStatus.BlackWinByCheckmate : GameStatus.WhiteWinByCheckmate);
-                notation = notation.substring(0, notation.length() - 2);
-            } else if (notation.endsWith("+")) {
-                expectedGameStatus = (SideColor.White == sideToMove ?
-                        GameStatus.WhiteInCheck : GameStatus.BlackInCheck);
-                notation = notation.substring(0, notation.length() - 2);
-            } else {
-                expectedGameStatus = GameStatus.InPlay;
-            }
-
-            boolean enPassant = false;
-
-            if (notation.endsWith("ep")) {
-                enPassant = true;
-                notation = notation.substring(0, notation.length() - 3);
-            }
-
-            int pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.AllPawns, sideToMove);
-
-            if (notation.startsWith("R") || notation.startsWith("C")) {
-                pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.AllCastles, sideToMove);
-                notation = notation.substring(1); // Trim the piece char away from the front.
-            } else if (notation.startsWith("N")) {
-                pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.AllKnights, sideToMove);
-                notation = notation.substring(1);
-            } else if (notation.startsWith("B")) {
-                pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.AllBishops, sideToMove);
-                notation = notation.substring(1);
-            } else if (notation.startsWith("Q")) {
-                pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.AllQueens, sideToMove);
-                notation = notation.substring(1);
-            } else if (notation.startsWith("K")) {
-                pieceToMoveFlags = PieceFlags.piecesOfSameSide(PieceFlags.BothKings, sideToMove);
-                notation = notation.substring(1);
-            }
-
-            String startCol = "";
-            String startRow = "";
-
-            if (('a' <= notation.charAt(0)) && (notation.charAt(0) <= 'a' + (board.getColCount() - 1))) {
-                startCol = notation.substring(0, 0);
-                notation = notation.substring(1);
-            }
-
-            if (('1' <= notation.charAt(0)) && (notation.charAt(0) <= '1' + (board.getRowCount() - 1))) {
-                startRow = notation.substring(0, 0);
-                notation = notation.substring(1);
-            }
-
-            boolean pieceIsTaken = (notation.charAt(0) == 'x');
-
-            if (pieceIsTaken) {
-                notation = notation.substring(1);
-            } else if (enPassant) {
-                throw new InvalidMoveException("Must x = take something to do ep = en-passant: " + origNotation);
-            }
-
-            if (enPassant) {
-                if (!PieceFlags.AllPawns.containsAllOf(pieceToMoveFlags)) {
-                    throw new InvalidMoveException("Only a pawn can take ep = en-passant: " + origNotation);
-                }
-            }
-
-            ChessSquare squareOccupied;
-            ChessSquare squareOfTakenPiece = null;
-
-            {
-                ChessSquare likelySquareOccupied;
-
-                String squareStr = notation.substring(notation.length() - 3);
-                likelySquareOccupied = board.getSquare(squareStr);
-
-                if (null == likelySquareOccupied) {
-                    throw new InvalidMoveException("Can't determine the meaning of square: " + squareStr);
-                }
-
-                if (enPassant) {
-                    squareOccupied = board.getEnPassantSquare();
-                    squareOfTakenPiece = likelySquareOccupied;
-                } else {
-                    squareOccupied = likelySquareOccupied;
-                    if (pieceIsTaken) {
-                        squareOfTakenPiece = squareOccupied;
-                    }
-                }
-            }
-
-            Set<ChessPiece> possiblePiecesToMove = board.getPiecesInPlay(pieceToMoveFlags);
-
-            if (possiblePiecesToMove.isEmpty()) {
-                throw new InvalidMoveException("No piece found to make such a move: " + origNotation);
-            }
-
-            Set<ChessPiece> possiblePiecesToMove2 = ChessFactory.createChessPieceSet();
-
-            for (ChessPiece possiblePieceToMove : possiblePiecesToMove) {
-                if (possiblePieceToMove.mightMoveTo(squareOccupied)) {
-                    if (startCol.isEmpty() || possiblePieceToMove.getSquare().toString().startsWith(startCol)) {
-                        if (startRow.isEmpty() || possiblePieceToMove.getSquare().toString().endsWith(startRow)) {
-                            possiblePiecesToMove2.add(possiblePieceToMove);
-                        }
-                    }
-                }
-            }
-
-            if (possiblePiecesToMove2.isEmpty()) {
-                throw new InvalidMoveException("Couldn't find piece to move to " + squareOccupied + ": " + origNotation);
-            }
-
-            if (1 < possiblePiecesToMove2.size()) {
-                // TODO: Consider checking whether only one is a valid move ...
-                throw new AmbiguousMoveException("More than one piece fits move description: " + origNotation);
-            }
-
-            ChessPiece pieceMoved = null;
-
-            for (ChessPiece possiblePieceToMove : possiblePiecesToMove2) {
-                pieceMoved = possiblePieceToMove;
-            }
-
-            PromotablePiece promotedToPiece = null;
-
-            if (pieceMoved instanceof Pawn) {
-                Pawn pawn = (Pawn) pieceMoved;
-                if (pawn.promotionRow() == squareOccupied.getRow()) {
-                    // This pawn needs to be promoted ...
-                    boolean promotionSpecified = true;
-
-                    if (notation.endsWith("Q")) {
-                        promotedToPiece = new QueenImpl(pawn);
-                    } else if (notation.endsWith("N")) {
-                        promotedToPiece = new KnightImpl(pawn);
-                    } else if (notation.endsWith("R") || notation.endsWith("C")) {
-                        promotedToPiece = new CastleImpl(pawn);
-                    } else if (notation.endsWith("B")) {
-                        promotedToPiece = new BishopImpl(pawn);
-                    } else {
-                        promotedToPiece = new PromotablePieceImpl(pawn);
-                        promotionSpecified = false;
-                    }
-
-                    if (promotionSpecified) {
-                        notation = notation.substring(0, notation.length() - 2);
-                    }
-
-                    if (notation.endsWith("=")) {
-                        notation = notation.substring(0, notation.length() - 2);
-                    }
-                }
-            }
-
-            MoveRecord moveRecord = new MoveRecordImpl(
-                    pieceMoved,
-                    null != squareOfTakenPiece ? squareOfTakenPiece.getPiece() : null,
-                    promotedToPiece,
-                    pieceMoved.getSquare(),
-                    squareOccupied,
-                    squareOfTakenPiece);
-
-            if (moveRecord.gameStatus() != expectedGameStatus) {
-                throw new MisrepresentedMoveException("Move " + origNotation + " resulted in status "
-                        + moveRecord.gameStatus() + " not " + expectedGameStatus);
-            }
+        BitboardChessBoard position = (board instanceof BitboardChessBoard) ?
+                (BitboardChessBoard) board : new BitboardChessBoard(board);
 
-            return moveRecord;
+        int move = new MoveNotationParser().parse(notation, position, sideToMove);
 
-        } catch (StringIndexOutOfBoundsException sioobe) {
-            throw new InvalidMoveException("\"" + origNotation + "\" is an invalid move", sioobe);
-        }
+        return fromMove(board, move);
     }
 
 
-    public MoveRecordImpl(ChessPiece pieceMoved,
-                          ChessPiece pieceTaken,
-                          PromotablePiece promotedToPiece,
-                          ChessSquare squareDeparted,
-                          ChessSquare squareOccupied,
-                          ChessSquare squareOfTakenPiece) {
-
+    /**
+     * Records a move without making it. The notation and resulting ChessBoardState
+     * are only worked out when first asked for, from the position given.
+     *
+     * @param position a copy of the board the squares are on, which is never to change
+     * @param promotionType what a Pawn reaching its promotion row becomes, otherwise null
+     */
+    private MoveRecordImpl(BitboardChessBoard position,
+                           int move,
+                           ChessPiece pieceMoved,
+                           ChessPiece pieceTaken,
+                           PieceType promotionType,
+                           ChessSquare squareDeparted,
+                           ChessSquare squareOccupied,
+                           ChessSquare squareOfTakenPiece) {
+
+        _position = position;
+        _move = move;
         _pieceMoved = pieceMoved;
         _pieceTaken = pieceTaken;
-        _promotedToPiece = promotedToPiece;
+        _promotionType = promotionType;
 
         _squareDeparted = squareDeparted;
         _squareOccupied = squareOccupied;
         _squareOfTakenPiece = squareOfTakenPiece;
 
-        boolean mustDifferentiateRow = false;
-        boolean mustDifferentiateCol = false;
-
         if (_pieceMoved instanceof Pawn) {
             Pawn pawn = (Pawn) _pieceMoved;
 
-            if (_squareOccupied.getRow() == pawn.promotionRow()) {
-                if (null == _promotedToPiece) {
-                    // Put an abstract promotable piece in place if we don't know what it is yet ...
-                    //_promotedToPiece = new PromotablePieceImpl(pawn);
-                    throw new InternalError("Promotion piece should have been specified for " + pieceMoved);
-                }
+            if ((_squareOccupied.getRow() == pawn.promotionRow()) && (null == _promotionType)) {
+                throw new InternalError("Promotion piece should have been specified for " + pieceMoved);
             }
-
-            if (null != pieceTaken) {
-                // When a pawn takes something the column is always specified in the notation ...
-                mustDifferentiateCol = true;
-            }
-        } else {
-            _notation = _pieceMoved.notation();
         }
+    }
 
-        int similarPieceFlags = PieceFlags.similarPiecesOfSameSide(pieceMoved);
-        Set<ChessPiece> similarPieces = pieceMoved.getBoard().getPiecesInPlay(similarPieceFlags);
-
-        for (ChessPiece similarPiece : similarPieces) {
-            if (similarPiece.mightMoveTo(squareOccupied)) {
-                if (similarPiece.getSquare().getCol() != squareDeparted.getCol()) {
-                    mustDifferentiateCol = true;
-                } else if (similarPiece.getSquare().getRow() != squareDeparted.getRow()) {
-                    mustDifferentiateRow = true;
-                } else {
-                    throw new InternalError(similarPiece + " similar to " + pieceMoved + " might move to " + squareOccupied + "?");
-                }
-            }
-        }
 
-        if (mustDifferentiateCol) {
-            _notation += squareDeparted.getCol();
-        }
+    /**
+     * Turn a move packed as described by Move back into a MoveRecord on the given board,
+     * which must hold the position the move was generated from.
+     */
+    public static MoveRecordImpl fromMove(ChessBoard board, int move) {
+        BitboardChessBoard position = (board instanceof BitboardChessBoard) ?
+                ((BitboardChessBoard) board).clone() : new BitboardChessBoard(board);
 
-        if (mustDifferentiateRow) {
-            _notation += squareDeparted.getRow();
-        }
+        return fromMove(board, position, move);
+    }
 
-        if (null == pieceTaken) {
-            _notation += squareOccupied;
-        } else {
-            _notation += "x" + squareOfTakenPiece;
 
-            if (!_squareOfTakenPiece.equals(squareOccupied)) {
-                _notation += "ep";
-            }
-        }
+    /**
+     * @param position a copy of the board, which the MoveRecord may keep as it's never to change
+     */
+    static MoveRecordImpl fromMove(ChessBoard board, BitboardChessBoard position, int move) {
+        ChessSquare squareDeparted = board.getSquare(Move.squareDeparted(move));
+        ChessSquare squareOccupied = board.getSquare(Move.squareOccupied(move));
+        ChessSquare squareOfTakenPiece = null;
 
-        if (null != promotedToPiece) {
-            _notation += "=" + promotedToPiece.notation();
+        if (Move.isEnPassant(move)) {
+            squareOfTakenPiece = board.getSquare(squareDeparted.getRow(), squareOccupied.getCol());
+        } else if (Move.isCapture(move)) {
+            squareOfTakenPiece = squareOccupied;
         }
 
-        if (_pieceMoved instanceof King) {
-            if (2 == _squareOccupied.colsAwayFromCount(_squareDeparted)) {
-                _notation = "O-O";
-            } else if (-2 == squareOccupied.colsAwayFromCount(_squareDeparted)) {
-                _notation = "O-O-O";
-            }
-        }
+        return new MoveRecordImpl(position,
+                move,
+                squareDeparted.getPiece(),
+                (null == squareOfTakenPiece) ? null : squareOfTakenPiece.getPiece(),
+                Move.promotionType(move),
+                squareDeparted,
+                squareOccupied,
+                squareOfTakenPiece);
+    }
 
-        _resultingBoardState = new ChessBoardStateImpl(
-                pieceMoved.getBoard(),
-                pieceMoved.getSideColor().opposingSideColor(),
-                false);
-
-        GameStatus gameStatus = _resultingBoardState.getGameStatus();
-
-        switch (gameStatus) {
-            case WhiteInCheck:
-            case BlackInCheck:
-                _notation += "+";
-                break;
-            case WhiteWinByCheckmate:
-            case BlackWinByCheckmate:
-                _notation += "++";
-                break;
-        }
+
+    /**
+     * Take the move counters of the ChessBoardState this move is made from, to carry on in the resulting one.
+     */
+    void setMoveCountersBefore(int halfmoveClock, int fullmoveNumber) {
+        _halfmoveClockBefore = halfmoveClock;
+        _fullmoveNumberBefore = fullmoveNumber;
+    }
+
+
+    /**
+     * @return this move packed as described by Move
+     */
+    public int toMove() {
+        return _move;
     }
 
 
@@ -362,11 +174,7 @@ public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
             return false;
         }
 
-        if (this.promotedToPiece() != null) {
-            if (!this.promotedToPiece().equals(other.promotedToPiece())) {
-                return false;
-            }
-        } else if (other.promotedToPiece() != null) {
+        if (this.promotionType() != promotionTypeOf(other)) {
             return false;
         }
 
@@ -410,8 +218,11 @@ public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
             }
         }
 
-        if ((this.promotedToPiece() != null) && (other.promotedToPiece() != null)) {
-            comparison = this.promotedToPiece().compareTo(other.promotedToPiece());
+        PieceType otherPromotionType = promotionTypeOf(other);
+
+        if ((this.promotionType() != null) && (otherPromotionType != null)) {
+            // PieceType runs Knight, Bishop, Castle, Queen, just as comparing the pieces would ...
+            comparison = this.promotionType().compareTo(otherPromotionType);
         }
 
         return comparison;
@@ -420,7 +231,15 @@ public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
 
     @Override
     public String notation() {
-        return _notation;
+        // The position is shared by every MoveRecord of the same ChessBoardState, and writing the
+        // notation makes and unmakes the move on it, so only one at a time may ...
+        synchronized (_position) {
+            if (null == _notation) {
+                _notation = MoveNotationWriter.toNotation(_position, _move);
+            }
+
+            return _notation;
+        }
     }
 
 
@@ -438,7 +257,28 @@ public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
 
     @Override
     public PromotablePiece promotedToPiece() {
-        return _promotedToPiece;
+        if (null == _promotionType) {
+            return null;
+        }
+
+        return (PromotablePiece) this.resultingBoardState().getBoard().getPiece(_pieceMoved.getIndex());
+    }
+
+
+    /**
+     * @return what the Pawn moved is promoted to, or null if this isn't a promotion
+     */
+    public PieceType promotionType() {
+        return _promotionType;
+    }
+
+
+    private static PieceType promotionTypeOf(MoveRecord moveRecord) {
+        if (moveRecord instanceof MoveRecordImpl) {
+            return ((MoveRecordImpl) moveRecord).promotionType();
+        }
+
+        return PieceType.of(moveRecord.promotedToPiece());
     }
 
 
@@ -468,12 +308,28 @@ public class MoveRecordImpl implements MoveRecord, Comparable<MoveRecord> {
 
     @Override
     public GameStatus gameStatus() {
-        return _resultingBoardState.getGameStatus();
+        return this.resultingBoardState().getGameStatus();
     }
 
 
     @Override
     public ChessBoardState resultingBoardState() {
-        return _resultingBoardState;
+        synchronized (_position) {
+            if (null == _resultingBoardState) {
+                BitboardChessBoard board = _position.clone();
+                board.makeMove(_move);
+
+                boolean madeProgress = (_pieceMoved instanceof Pawn) || (null != _pieceTaken);
+
+                _resultingBoardState = new ChessBoardStateImpl(
+                        board,
+                        _pieceMoved.getSideColor().opposingSideColor(),
+                        madeProgress ? 0 : _halfmoveClockBefore + 1,
+                        (SideColor.Black == _pieceMoved.getSideColor()) ? _fullmoveNumberBefore + 1 : _fullmoveNumberBefore,
+                        true);
+            }
+
+            return _resultingBoardState;
+        }
     }
 }
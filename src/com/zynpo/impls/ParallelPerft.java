@@ -0,0 +1,218 @@
+package com.zynpo.impls;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.interfaces.ChessBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Perft spread over a ForkJoinPool. The moves of the first few plies each become a task on
+ * their own BitboardChessBoard, below which the walk is single-threaded, and every thread shares
+ * one PerftHashTable so a subtree reached by different move orders is only walked once.
+ *
+ * Only leaf nodes are counted, not captures, checks and so on, as those can't be kept in the hash table.
+ */
+public final class ParallelPerft {
+
+    public static final int DEFAULT_SPLIT_PLIES = 2;
+    public static final int DEFAULT_HASH_MEGABYTES = 64;
+
+    private PerftHashTable _hashTable;
+    private Map<String, LongAdder> _nodesByThread;
+
+
+    private ParallelPerft(PerftHashTable hashTable) {
+        _hashTable = hashTable;
+        _nodesByThread = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * @param threads how many threads to walk the tree with
+     * @param splitPlies how many plies from the root to split into separate tasks, at least 1
+     * @param hashTable to share between the threads, or null to do without
+     */
+    public static PerftResult perft(ChessBoard board, SideColor sideToMove, int depth,
+                                    int threads, int splitPlies, PerftHashTable hashTable) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft depth must be at least 1, not " + depth);
+        }
+
+        if ((SideColor.White != sideToMove) && (SideColor.Black != sideToMove)) {
+            throw new IllegalArgumentException("Can't run perft when sideToMove = " + sideToMove);
+        }
+
+        if ((threads < 1) || (splitPlies < 1)) {
+            throw new IllegalArgumentException("Need at least 1 thread and 1 split ply, not " + threads + " and " + splitPlies);
+        }
+
+        BitboardChessBoard position = (board instanceof BitboardChessBoard) ?
+                ((BitboardChessBoard) board).clone() : new BitboardChessBoard(board);
+
+        return new ParallelPerft(hashTable).run(position, sideToMove.getValue(), depth, threads, splitPlies);
+    }
+
+
+    public static PerftResult perft(ChessBoard board, SideColor sideToMove, int depth, int threads) {
+        return perft(board, sideToMove, depth, threads, DEFAULT_SPLIT_PLIES, new PerftHashTable(DEFAULT_HASH_MEGABYTES));
+    }
+
+
+    private PerftResult run(BitboardChessBoard position, int sideColor, int depth, int threads, int splitPlies) {
+        PerftResult result = new PerftResult(depth);
+        long startNanos = System.nanoTime();
+
+        MoveList rootMoves = new MoveList();
+        position.generateMoves(sideColor, rootMoves);
+
+        List<PerftTask> rootTasks = new ArrayList<>(rootMoves.size());
+
+        for (int i = 0; i < rootMoves.size(); ++i) {
+            rootTasks.add(new PerftTask(position, rootMoves.get(i), 1 - sideColor, depth - 1, splitPlies - 1));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    invokeAll(rootTasks);
+                    return null;
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < rootMoves.size(); ++i) {
+            long nodes = rootTasks.get(i).join();
+            result.addNodes(nodes);
+            result.putDivide(rootMoves.get(i), nodes);
+        }
+
+        result.setElapsedNanos(System.nanoTime() - startNanos);
+
+        for (Map.Entry<String, LongAdder> entry : _nodesByThread.entrySet()) {
+            result.putThreadNodes(entry.getKey(), entry.getValue().sum());
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Counts the leaf nodes below one move, on a board of its own, splitting into further tasks
+     * while there are split plies left.
+     */
+    private class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private BitboardChessBoard _parentPosition;
+        private int _move;
+        private int _sideColor;
+        private int _depth;
+        private int _splitPlies;
+
+        PerftTask(BitboardChessBoard parentPosition, int move, int sideColor, int depth, int splitPlies) {
+            _parentPosition = parentPosition;
+            _move = move;
+            _sideColor = sideColor;
+            _depth = depth;
+            _splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (0 == _depth) {
+                countThreadNodes(1);
+                return 1L;
+            }
+
+            BitboardChessBoard position = _parentPosition.clone();
+            position.makeMove(_move);
+            _parentPosition = null;
+
+            if ((0 < _splitPlies) && (1 < _depth)) {
+                MoveList moves = new MoveList();
+                position.generateMoves(_sideColor, moves);
+
+                List<PerftTask> tasks = new ArrayList<>(moves.size());
+
+                for (int i = 0; i < moves.size(); ++i) {
+                    tasks.add(new PerftTask(position, moves.get(i), 1 - _sideColor, _depth - 1, _splitPlies - 1));
+                }
+
+                invokeAll(tasks);
+
+                long nodes = 0;
+
+                for (PerftTask task : tasks) {
+                    nodes += task.join();
+                }
+
+                return nodes;
+            }
+
+            MoveList[] movesByPly = new MoveList[_depth];
+
+            for (int ply = 0; ply < movesByPly.length; ++ply) {
+                movesByPly[ply] = new MoveList();
+            }
+
+            long nodes = countNodes(position, movesByPly, _sideColor, _depth, 0);
+            countThreadNodes(nodes);
+
+            return nodes;
+        }
+    }
+
+
+    private long countNodes(BitboardChessBoard position, MoveList[] movesByPly, int sideColor, int depth, int ply) {
+        MoveList moves = movesByPly[ply];
+        moves.clear();
+
+        if (1 == depth) {
+            return position.generateMoves(sideColor, moves);
+        }
+
+        long hash = 0L;
+
+        if (null != _hashTable) {
+            hash = position.getZobristKey() ^ Zobrist.sideToMoveKey(sideColor);
+            long nodes = _hashTable.probe(hash, depth);
+
+            if (PerftHashTable.NOT_FOUND != nodes) {
+                return nodes;
+            }
+        }
+
+        position.generateMoves(sideColor, moves);
+        long nodes = 0;
+
+        for (int i = 0; i < moves.size(); ++i) {
+            position.makeMove(moves.get(i));
+            nodes += countNodes(position, movesByPly, 1 - sideColor, depth - 1, ply + 1);
+            position.unmakeMove();
+        }
+
+        if (null != _hashTable) {
+            _hashTable.store(hash, depth, nodes);
+        }
+
+        return nodes;
+    }
+
+
+    private void countThreadNodes(long nodes) {
+        _nodesByThread.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()).add(nodes);
+    }
+}
@@ -0,0 +1,129 @@
+package com.zynpo.impls;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessBoardState;
+
+
+/**
+ * Counts every position reachable from a given one to a fixed depth, to check move generation
+ * against known counts and to measure how fast it runs. The moves are made and unmade on a single
+ * BitboardChessBoard, with one reusable MoveList per ply.
+ */
+public final class Perft {
+
+    private BitboardChessBoard _board;
+    private MoveList[] _movesByPly;
+    private boolean _countChecks;
+    private PerftResult _result;
+
+
+    private Perft(BitboardChessBoard board, int depth, boolean countChecks) {
+        _board = board;
+        _movesByPly = new MoveList[Math.max(1, depth)];
+        _countChecks = countChecks;
+        _result = new PerftResult(depth);
+
+        for (int ply = 0; ply < _movesByPly.length; ++ply) {
+            _movesByPly[ply] = new MoveList();
+        }
+    }
+
+
+    /**
+     * @param countChecks whether to also count checks and checkmates, which means making every leaf move
+     */
+    public static PerftResult perft(ChessBoard board, SideColor sideToMove, int depth, boolean countChecks) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Perft depth must be at least 1, not " + depth);
+        }
+
+        if ((SideColor.White != sideToMove) && (SideColor.Black != sideToMove)) {
+            throw new IllegalArgumentException("Can't run perft when sideToMove = " + sideToMove);
+        }
+
+        BitboardChessBoard position = (board instanceof BitboardChessBoard) ?
+                ((BitboardChessBoard) board).clone() : new BitboardChessBoard(board);
+
+        return new Perft(position, depth, countChecks).run(sideToMove.getValue(), depth);
+    }
+
+
+    public static PerftResult perft(ChessBoardState state, int depth, boolean countChecks) {
+        return perft(state.getBoard(), state.getSideToMove(), depth, countChecks);
+    }
+
+
+    public static PerftResult perft(ChessBoard board, SideColor sideToMove, int depth) {
+        return perft(board, sideToMove, depth, false);
+    }
+
+
+    private PerftResult run(int sideColor, int depth) {
+        long startNanos = System.nanoTime();
+
+        MoveList rootMoves = _movesByPly[0];
+        _board.generateMoves(sideColor, rootMoves);
+
+        for (int i = 0; i < rootMoves.size(); ++i) {
+            int move = rootMoves.get(i);
+            long nodesBefore = _result.getNodes();
+
+            if (1 == depth) {
+                countLeafMove(move, sideColor);
+            } else {
+                _board.makeMove(move);
+                countNodes(1 - sideColor, depth - 1, 1);
+                _board.unmakeMove();
+            }
+
+            _result.putDivide(move, _result.getNodes() - nodesBefore);
+        }
+
+        _result.setElapsedNanos(System.nanoTime() - startNanos);
+
+        return _result;
+    }
+
+
+    private void countNodes(int sideColor, int depth, int ply) {
+        MoveList moves = _movesByPly[ply];
+        moves.clear();
+        _board.generateMoves(sideColor, moves);
+
+        for (int i = 0; i < moves.size(); ++i) {
+            int move = moves.get(i);
+
+            if (1 == depth) {
+                countLeafMove(move, sideColor);
+            } else {
+                _board.makeMove(move);
+                countNodes(1 - sideColor, depth - 1, ply + 1);
+                _board.unmakeMove();
+            }
+        }
+    }
+
+
+    private void countLeafMove(int move, int sideColor) {
+        _result.countLeafMove(move);
+
+        if (!_countChecks) {
+            return;
+        }
+
+        int opposingSideColor = 1 - sideColor;
+
+        _board.makeMove(move);
+
+        if (_board.isInCheck(opposingSideColor)) {
+            _result.countCheck();
+
+            if (!_board.hasValidMove(opposingSideColor)) {
+                _result.countCheckmate();
+            }
+        }
+
+        _board.unmakeMove();
+    }
+}
@@ -0,0 +1,68 @@
+package com.zynpo.impls;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Node counts below positions already walked by perft, shared by any number of threads without locking.
+ *
+ * Each entry is a pair of longs: the count packed with its depth, and that same packed count XORed with
+ * the position hash. An entry torn by two threads storing at once no longer XORs back to the hash it
+ * is probed with, so it simply misses rather than giving a wrong count.
+ */
+public class PerftHashTable {
+
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+    public static final long NOT_FOUND = -1L;
+
+    private AtomicLongArray _entries;
+    private int _entryMask;
+
+
+    /**
+     * @param megabytes roughly how much memory to take, rounded down to a power of two entries
+     */
+    public PerftHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Perft hash table needs at least 1 megabyte, not " + megabytes);
+        }
+
+        long entryCount = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        entryCount = Math.min(entryCount, 1L << 28);
+
+        _entries = new AtomicLongArray((int) (2 * entryCount));
+        _entryMask = (int) entryCount - 1;
+    }
+
+
+    public int getEntryCount() { return _entryMask + 1; }
+
+
+    /**
+     * @return the leaf nodes stored for the given position hash and depth, or NOT_FOUND
+     */
+    public long probe(long hash, int depth) {
+        int i = 2 * ((int) hash & _entryMask);
+
+        long data = _entries.get(i + 1);
+        long check = _entries.get(i);
+
+        if (((check ^ data) != hash) || ((data & DEPTH_MASK) != depth)) {
+            return NOT_FOUND;
+        }
+
+        return data >>> DEPTH_BITS;
+    }
+
+
+    public void store(long hash, int depth, long nodes) {
+        int i = 2 * ((int) hash & _entryMask);
+        long data = (nodes << DEPTH_BITS) | depth;
+
+        _entries.lazySet(i, hash ^ data);
+        _entries.lazySet(i + 1, data);
+    }
+}
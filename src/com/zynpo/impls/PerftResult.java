@@ -0,0 +1,116 @@
+package com.zynpo.impls;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+/**
+ * What Perft found below a position: the leaf nodes at the depth asked for, what kind
+ * of moves led to them, and how long it took to count them.
+ */
+public class PerftResult {
+
+    private int _depth;
+
+    private long _nodes;
+    private long _captures;
+    private long _enPassants;
+    private long _castles;
+    private long _promotions;
+    private long _checks;
+    private long _checkmates;
+
+    private long _elapsedNanos;
+
+    // Leaf nodes below each root move, keyed by Move.toString() in the order generated ...
+    private Map<String, Long> _divide;
+
+    // Leaf nodes counted by each thread, when more than one walked the tree ...
+    private Map<String, Long> _nodesByThread;
+
+
+    PerftResult(int depth) {
+        _depth = depth;
+        _divide = new LinkedHashMap<>();
+        _nodesByThread = new TreeMap<>();
+    }
+
+
+    void countLeafMove(int move) {
+        ++_nodes;
+
+        if (Move.isCapture(move)) {
+            ++_captures;
+        }
+
+        if (Move.isEnPassant(move)) {
+            ++_enPassants;
+        }
+
+        if (Move.isCastling(move)) {
+            ++_castles;
+        }
+
+        if (Move.isPromotion(move)) {
+            ++_promotions;
+        }
+    }
+
+    void addNodes(long nodes) { _nodes += nodes; }
+
+    void countCheck() { ++_checks; }
+
+    void countCheckmate() { ++_checkmates; }
+
+    void putDivide(int rootMove, long nodes) { _divide.put(Move.toString(rootMove), nodes); }
+
+    void putThreadNodes(String threadName, long nodes) { _nodesByThread.put(threadName, nodes); }
+
+    void setElapsedNanos(long elapsedNanos) { _elapsedNanos = elapsedNanos; }
+
+
+    public int getDepth() { return _depth; }
+
+    public long getNodes() { return _nodes; }
+
+    public long getCaptures() { return _captures; }
+
+    public long getEnPassants() { return _enPassants; }
+
+    public long getCastles() { return _castles; }
+
+    public long getPromotions() { return _promotions; }
+
+    public long getChecks() { return _checks; }
+
+    public long getCheckmates() { return _checkmates; }
+
+    public long getElapsedNanos() { return _elapsedNanos; }
+
+    /**
+     * @return leaf nodes below each root move, keyed by the move in coordinate notation
+     */
+    public Map<String, Long> getDivide() { return Collections.unmodifiableMap(_divide); }
+
+    /**
+     * @return leaf nodes counted by each thread by name, which is empty unless run by ParallelPerft
+     */
+    public Map<String, Long> getNodesByThread() { return Collections.unmodifiableMap(_nodesByThread); }
+
+
+    public long getNodesPerSecond() {
+        if (0 == _elapsedNanos) {
+            return 0;
+        }
+
+        return (long) (_nodes * 1e9 / _elapsedNanos);
+    }
+
+
+    @Override
+    public String toString() {
+        return String.format("Perft(%d) = %d nodes in %.3f s", _depth, _nodes, _elapsedNanos / 1e9);
+    }
+}
@@ -0,0 +1,77 @@
+package com.zynpo.impls;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+
+
+/**
+ * Random keys that are XORed together to hash a position: one per PieceType of each side on
+ * each square, one for Black to move, one per column an en passant square may be on, and one
+ * per Castle a King may still castle with. They come from a fixed seed, so a position hashes
+ * the same from one run to the next.
+ */
+final class Zobrist {
+
+    private static final long SEED = 0x5A594E504F434853L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long[] PIECE_SQUARE_KEYS = new long[2 * PieceType.COUNT * BitboardChessBoard.SQUARE_COUNT];
+    private static final long[] EN_PASSANT_COL_KEYS = new long[8];
+    private static final long[] CASTLING_KEYS = new long[4];
+    private static final long BLACK_TO_MOVE_KEY;
+
+
+    static {
+        long state = SEED;
+
+        for (int i = 0; i < PIECE_SQUARE_KEYS.length; ++i) {
+            PIECE_SQUARE_KEYS[i] = mix(state += GOLDEN_GAMMA);
+        }
+
+        for (int i = 0; i < EN_PASSANT_COL_KEYS.length; ++i) {
+            EN_PASSANT_COL_KEYS[i] = mix(state += GOLDEN_GAMMA);
+        }
+
+        for (int i = 0; i < CASTLING_KEYS.length; ++i) {
+            CASTLING_KEYS[i] = mix(state += GOLDEN_GAMMA);
+        }
+
+        BLACK_TO_MOVE_KEY = mix(state + GOLDEN_GAMMA);
+    }
+
+
+    private Zobrist() {}
+
+
+    /**
+     * The output function of splitmix64, which is plenty random for hash keys ...
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+
+    static long pieceKey(int sideColor, int pieceType, int square) {
+        return PIECE_SQUARE_KEYS[((sideColor * PieceType.COUNT) + pieceType) * BitboardChessBoard.SQUARE_COUNT + square];
+    }
+
+    static long enPassantKey(int square) {
+        return EN_PASSANT_COL_KEYS[BitboardChessBoard.colOf(square)];
+    }
+
+    /**
+     * @param kingSide whether the Castle is on the King's right as White sees the board
+     */
+    static long castlingKey(int sideColor, boolean kingSide) {
+        return CASTLING_KEYS[2 * sideColor + (kingSide ? 0 : 1)];
+    }
+
+    /**
+     * @return the key for Black to move, or 0 when White is to move
+     */
+    static long sideToMoveKey(int sideColor) {
+        return (SideColor.Black.getValue() == sideColor) ? BLACK_TO_MOVE_KEY : 0L;
+    }
+}
@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.Bishop;
@@ -30,6 +31,11 @@ public class BishopImpl extends PromotablePieceImpl implements Bishop {
         return "Bishop";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.Bishop;
+    }
+
     @Override
     public String notation() { return "B"; }
 
@@ -0,0 +1,17 @@
+package com.zynpo.impls.pieces;
+
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.interfaces.pieces.Castle;
+
+
+public class BitboardCastle extends BitboardPromotablePiece implements Castle {
+
+    BitboardCastle(BitboardChessBoard board, PieceIndex index) {
+        super(board, index);
+    }
+
+    @Override
+    protected PieceType getPieceType() { return PieceType.Castle; }
+}
@@ -0,0 +1,99 @@
+package com.zynpo.impls.pieces;
+
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.interfaces.ChessSquare;
+import com.zynpo.interfaces.pieces.Pawn;
+import com.zynpo.interfaces.pieces.PromotablePiece;
+
+
+public class BitboardPawn extends BitboardPiece implements Pawn {
+
+    BitboardPawn(BitboardChessBoard board, PieceIndex index) {
+        super(board, index);
+    }
+
+    @Override
+    protected PieceType getPieceType() { return PieceType.Pawn; }
+
+    @Override
+    public int advanceUnit() {
+        switch (this.getSideColor()) {
+            case White:
+                return 1;
+            case Black:
+                return -1;
+            default:
+                throw new IllegalStateException("Pawn SideColor should have been determined");
+        }
+    }
+
+    @Override
+    public int gameStartRow() {
+        switch (this.getSideColor()) {
+            case White:
+                return 1;
+            case Black:
+                return 6;
+            default:
+                throw new IllegalStateException("Pawn SideColor should have been determined");
+        }
+    }
+
+    @Override
+    public int jumpTwoRow() {
+        switch (this.getSideColor()) {
+            case White:
+                return 3;
+            case Black:
+                return 4;
+            default:
+                throw new IllegalStateException("Pawn SideColor should have been determined");
+        }
+    }
+
+    @Override
+    public int promotionRow() {
+        switch (this.getSideColor()) {
+            case White:
+                return 7;
+            case Black:
+                return 0;
+            default:
+                throw new IllegalStateException("Pawn SideColor should have been determined");
+        }
+    }
+
+    @Override
+    public ChessSquare squareJustInFront() {
+        if (null != this.getSquare())
+            return this.getSquare().getRelativeSquare(this.advanceUnit(), 0);
+        else
+            return null;
+    }
+
+    @Override
+    public ChessSquare jumpTwoSquare() {
+        int jumpTwoSquare = getBitboard().jumpTwoSquareOf(getIndex().getValue());
+        return (BitboardChessBoard.NO_SQUARE == jumpTwoSquare) ? null : getBitboard().getSquare(jumpTwoSquare);
+    }
+
+    @Override
+    public PromotablePiece getPromotedToPiece() {
+        if (isCurrent()) {
+            return null;
+        }
+
+        return (PromotablePiece) getBitboard().getPiece(getIndex());
+    }
+
+    @Override
+    public void setPromotedToPiece(PromotablePiece piece) {
+        if ((piece.getBoard() != getBoard()) || (piece.getIndex() != getIndex())) {
+            throw new IllegalStateException("this Pawn should be the original Pawn of the Promoted piece");
+        }
+
+        getBitboard().promotePiece(getIndex().getValue(), PieceType.of(piece));
+    }
+}
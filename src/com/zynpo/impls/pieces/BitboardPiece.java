@@ -0,0 +1,241 @@
+package com.zynpo.impls.pieces;
+
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.PotentialMoveReason;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessSquare;
+import com.zynpo.interfaces.pieces.ChessPiece;
+
+import java.util.Set;
+
+
+/**
+ * A view of one piece on a BitboardChessBoard. Everything it reports, and every
+ * move made through it, goes straight to the board's bitboards.
+ *
+ * A view only speaks for its piece while the board still holds that piece as the
+ * view's PieceType, so the view of a Pawn reports no square once it is promoted.
+ */
+abstract class BitboardPiece implements ChessPiece, Comparable<ChessPiece> {
+
+    private BitboardChessBoard _board;
+    private PieceIndex _index;
+
+
+    BitboardPiece(BitboardChessBoard board, PieceIndex index) {
+        _board = board;
+        _index = index;
+    }
+
+
+    abstract protected PieceType getPieceType();
+
+    protected String name() {
+        return getPieceType().name();
+    }
+
+    protected BitboardChessBoard getBitboard() { return _board; }
+
+    /**
+     * @return true while the board still holds this piece as this view's PieceType.
+     */
+    protected boolean isCurrent() {
+        return _board.getPieceTypeOf(_index.getValue()) == getPieceType().getValue();
+    }
+
+    private int squareIndexOnThisBoard(ChessSquare square) {
+        if (square.getBoard() != _board) {
+            throw new InternalError("Can't move " + this + " from one board to another");
+        }
+
+        return square.getIndex();
+    }
+
+    @Override
+    public String toString() {
+        if (null == this.getSquare()) {
+            return "Taken " + this.getSideColor() + " " + name();
+        } else {
+            return "" + this.getSideColor() + " " + name() + " on " + this.getSquare();
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (null == obj) {
+            return false;
+        }
+
+        if (!(obj instanceof ChessPiece)) {
+            return false;
+        }
+
+        ChessPiece other = (ChessPiece) obj;
+
+        if (this.getSideColor() != other.getSideColor()) {
+            return false;
+        }
+
+        return this.notation().equals(other.notation());
+    }
+
+    @Override
+    public int compareTo(ChessPiece other) {
+        if (this.getSideColor() != other.getSideColor()) {
+            return (this.getSideColor() == SideColor.Black) ? -1 : 1;
+        }
+
+        if (this.materialValue() != other.materialValue()) {
+            return (this.materialValue() < other.materialValue()) ? -1 : 1;
+        }
+
+        PieceType otherPieceType = PieceType.of(other);
+
+        if ((PieceType.Knight == this.getPieceType()) && (PieceType.Bishop == otherPieceType)) {
+            return -1;
+        } else if ((PieceType.Knight == otherPieceType) && (PieceType.Bishop == this.getPieceType())) {
+            return 1;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public ChessSquare getSquare() {
+        if (!isCurrent()) {
+            return null;
+        }
+
+        int square = _board.getSquareOf(_index.getValue());
+        return (BitboardChessBoard.NO_SQUARE == square) ? null : _board.getSquare(square);
+    }
+
+    @Override
+    public void dropToSquare(ChessSquare square) {
+        if (null == square) {
+            throw new InternalError("Can't drop " + this + " onto null");
+        }
+
+        _board.dropPiece(_index.getValue(), squareIndexOnThisBoard(square));
+    }
+
+    @Override
+    public ChessPiece moveToSquare(ChessSquare square) {
+        if (null == this.getSquare()) {
+            throw new InternalError("Can't move " + this + " from null to " + square);
+        }
+
+        if (null == square) {
+            throw new InternalError("Can't move " + this + " to null square");
+        }
+
+        int takenPiece = _board.movePiece(_index.getValue(), squareIndexOnThisBoard(square));
+        return (BitboardChessBoard.NO_PIECE == takenPiece) ? null : _board.getPiece(takenPiece);
+    }
+
+    @Override
+    public void takeBackToSquare(ChessSquare square, ChessPiece formerlyTakenPiece) {
+        int formerlyTakenIndex = (null == formerlyTakenPiece) ?
+                BitboardChessBoard.NO_PIECE : formerlyTakenPiece.getIndex().getValue();
+
+        _board.takeBackPiece(_index.getValue(), squareIndexOnThisBoard(square), formerlyTakenIndex);
+    }
+
+    @Override
+    public ChessSquare getOrigSquare() {
+        int origSquare = _board.getOrigSquareOf(_index.getValue());
+        return (BitboardChessBoard.NO_SQUARE == origSquare) ? null : _board.getSquare(origSquare);
+    }
+
+    @Override
+    public ChessBoard getBoard() { return _board; }
+
+    @Override
+    public String notation() { return getPieceType().notation(); }
+
+    @Override
+    public SideColor getSideColor() { return _index.origSideColor(); }
+
+    @Override
+    public boolean onSameSideAs(ChessPiece other) { return this.getSideColor() == other.getSideColor(); }
+
+    @Override
+    public boolean opposesSideOf(ChessPiece other) { return this.getSideColor() != other.getSideColor(); }
+
+    @Override
+    public int getMovedCount() { return _board.getMovedCountOf(_index.getValue()); }
+
+    @Override
+    public PieceIndex getIndex() { return _index; }
+
+    @Override
+    public int materialValue() { return getPieceType().materialValue(); }
+
+    private boolean isDifferentSquareOnSameBoard(ChessSquare square) {
+        if (null == this.getSquare()) {
+            return false;
+        }
+
+        if (null == square) {
+            return false;
+        }
+
+        if (this.getBoard() != square.getBoard()) {
+            throw new IllegalArgumentException("Shouldn't be comparing a "
+                    + this.name() + " from one board to a square on another.");
+        }
+
+        return this.getSquare().getIndex() != square.getIndex();
+    }
+
+    @Override
+    public boolean mightMoveTo(ChessSquare square) {
+        if (!isDifferentSquareOnSameBoard(square)) {
+            return false;
+        }
+
+        return _board.pieceMightMoveTo(_index.getValue(), square.getIndex());
+    }
+
+    @Override
+    public boolean covers(ChessSquare square) {
+        if (!isDifferentSquareOnSameBoard(square)) {
+            return false;
+        }
+
+        return _board.pieceCovers(_index.getValue(), square.getIndex());
+    }
+
+    @Override
+    public boolean coversAnyOf(Iterable<ChessSquare> squares) {
+        for (ChessSquare square : squares) {
+            if (this.covers(square))
+                return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Set<ChessSquare> potentialMoveSquares(PotentialMoveReason reason) {
+        if (!isCurrent()) {
+            return ChessFactory.createChessSquareSet();
+        }
+
+        return ChessFactory.createChessSquareSet(_board, _board.potentialMoveSquaresOf(_index.getValue(), reason));
+    }
+
+    @Override
+    public ChessPiece clone(ChessSquare otherSquare) {
+        // Views belong to their board, so the other board's own view stands in for a copy ...
+        if (null == otherSquare) {
+            throw new UnsupportedOperationException("Clone the BitboardChessBoard rather than its " + this);
+        }
+
+        return otherSquare.getBoard().getPiece(_index);
+    }
+}
@@ -0,0 +1,25 @@
+package com.zynpo.impls.pieces;
+
+import com.zynpo.enums.PieceFlags;
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.interfaces.pieces.Pawn;
+import com.zynpo.interfaces.pieces.PromotablePiece;
+
+
+abstract class BitboardPromotablePiece extends BitboardPiece implements PromotablePiece {
+
+    BitboardPromotablePiece(BitboardChessBoard board, PieceIndex index) {
+        super(board, index);
+    }
+
+    @Override
+    public Pawn getOrigPawn() {
+        if (PieceFlags.AllPawns.contains(getIndex())) {
+            // This piece was born out of the Pawn holding the same PieceIndex ...
+            return new BitboardPawn(getBitboard(), getIndex());
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zynpo.impls.pieces;
+
+import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.interfaces.pieces.Queen;
+
+
+public class BitboardQueen extends BitboardPromotablePiece implements Queen {
+
+    BitboardQueen(BitboardChessBoard board, PieceIndex index) {
+        super(board, index);
+    }
+
+    @Override
+    protected PieceType getPieceType() { return PieceType.Queen; }
+}
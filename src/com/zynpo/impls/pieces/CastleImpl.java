@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.Castle;
@@ -24,6 +25,11 @@ public class CastleImpl extends PromotablePieceImpl implements Castle {
         return "Castle";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.Castle;
+    }
+
     @Override
     public String notation() { return "R"; } // ... for Rook
 
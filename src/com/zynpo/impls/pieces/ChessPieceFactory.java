@@ -2,9 +2,13 @@ package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceFlags;
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
 import com.zynpo.interfaces.ChessBoard;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.ChessPiece;
+import com.zynpo.interfaces.pieces.Pawn;
+import com.zynpo.interfaces.pieces.PromotablePiece;
 
 public class ChessPieceFactory {
 
@@ -33,4 +37,71 @@ public class ChessPieceFactory {
     public static ChessPiece createPiece(int index, ChessBoard board) {
         return createPiece(PieceIndex.fromOrdinal(index), board);
     }
+
+    public static ChessPiece createPieceView(BitboardChessBoard board, PieceIndex index, PieceType pieceType) {
+        switch (pieceType) {
+            case Pawn:
+                return new BitboardPawn(board, index);
+            case Castle:
+                return new BitboardCastle(board, index);
+            case Knight:
+                return new BitboardKnight(board, index);
+            case Bishop:
+                return new BitboardBishop(board, index);
+            case Queen:
+                return new BitboardQueen(board, index);
+            case King:
+                return new BitboardKing(board, index);
+            default:
+                throw new InternalError("PieceType not handled correctly");
+        }
+    }
+
+    /**
+     * Promote a Pawn standing on its promotion row, on whichever kind of board it is on.
+     * @return the piece the Pawn was promoted to
+     */
+    public static PromotablePiece promotePawn(Pawn pawn, PieceType pieceType) {
+        if (pawn instanceof BitboardPawn) {
+            BitboardChessBoard board = (BitboardChessBoard) pawn.getBoard();
+            board.promotePiece(pawn.getIndex().getValue(), pieceType);
+            return (PromotablePiece) board.getPiece(pawn.getIndex());
+        }
+
+        switch (pieceType) {
+            case Knight:
+                return new KnightImpl(pawn);
+            case Bishop:
+                return new BishopImpl(pawn);
+            case Castle:
+                return new CastleImpl(pawn);
+            case Queen:
+                return new QueenImpl(pawn);
+            default:
+                throw new IllegalArgumentException("A Pawn can't be promoted to a " + pieceType);
+        }
+    }
+
+
+    /**
+     * Clone a piece onto another board, whether it is in play or not. A Pawn is cloned
+     * together with whatever it was promoted to.
+     */
+    public static ChessPiece clonePiece(ChessPiece piece, ChessBoard otherBoard) {
+        ChessSquare otherSquare = (null == piece.getSquare()) ? null : otherBoard.getSquare(piece.getSquare().getIndex());
+        ChessPieceImpl clonedPiece = (ChessPieceImpl) piece.clone(otherSquare);
+        clonedPiece.copyHistoryOf(piece, otherBoard);
+
+        if (piece instanceof PawnImpl) {
+            PromotablePiece promotedToPiece = ((Pawn) piece).getPromotedToPiece();
+
+            if (null != promotedToPiece) {
+                PromotablePieceImpl clonedPromotedToPiece = (PromotablePieceImpl) clonePiece(promotedToPiece, otherBoard);
+                clonedPromotedToPiece._origPawn = (Pawn) clonedPiece;
+                ((PawnImpl) clonedPiece).setPromotedToPiece(clonedPromotedToPiece);
+            }
+        }
+
+        return clonedPiece;
+    }
 }
@@ -1,8 +1,10 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.PotentialMoveReason;
 import com.zynpo.enums.SideColor;
+import com.zynpo.impls.AttackTables;
 import com.zynpo.impls.ChessBoardImpl;
 import com.zynpo.impls.ChessFactory;
 import com.zynpo.interfaces.ChessBoard;
@@ -42,14 +44,36 @@ abstract class ChessPieceImpl implements ChessPiece, Comparable<ChessPiece> {
 
     ChessPieceImpl(ChessPiece otherPiece, ChessSquare otherSquare) {
         _index = otherPiece.getIndex();
-        _movedCount = otherPiece.getMovedCount();
         _sideColor = otherPiece.getSideColor();
-        this.dropToSquare(otherSquare);
+
+        if (null != otherSquare) {
+            // Taken pieces are cloned without a square ...
+            this.dropToSquare(otherSquare);
+        }
+
+        _movedCount = otherPiece.getMovedCount();
+    }
+
+
+    /**
+     * Give a clone the board, original square and moved count of the piece it was cloned
+     * from, whether or not the clone was dropped onto a square.
+     */
+    void copyHistoryOf(ChessPiece otherPiece, ChessBoard otherBoard) {
+        _board = otherBoard;
+        _movedCount = otherPiece.getMovedCount();
+        _origSquare = (null == otherPiece.getOrigSquare()) ? null
+                : otherBoard.getSquare(otherPiece.getOrigSquare().getIndex());
     }
 
 
     abstract protected String name();
 
+    /**
+     * @return the PieceType this piece covers and moves as, or null if it doesn't yet know
+     */
+    abstract protected PieceType pieceType();
+
     @Override
     public String toString() {
         if (null == this.getSquare()) {
@@ -262,48 +286,19 @@ abstract class ChessPieceImpl implements ChessPiece, Comparable<ChessPiece> {
             return false;
         }
 
-        if (this instanceof Pawn) {
-            if (this.getSquare().getRow() + ((Pawn) this).advanceUnit() == square.getRow()) {
-                if (this.getSquare().colDistanceFrom(square) == 1) {
-                    return true;
-                }
-            }
-        }
-
-        if ((this instanceof Bishop) || (this instanceof Queen)) {
-            if (this.getSquare().rowDistanceFrom(square) == this.getSquare().colDistanceFrom(square)) {
-                return this.coversStraightWay(square);
-            }
-        }
-
-        if ((this instanceof Castle) || (this instanceof Queen)) {
-            if (this.getSquare().getRow() == square.getRow()) {
-                return this.coversStraightWay(square);
-            }
-
-            if (this.getSquare().getCol() == square.getCol()) {
-                return this.coversStraightWay(square);
-            }
-        }
+        PieceType pieceType = this.pieceType();
 
-        if (this instanceof Knight) {
-            if(3 == (this.getSquare().rowDistanceFrom(square) + this.getSquare().colDistanceFrom(square))) {
-                if ((this.getSquare().getRow() != square.getRow())
-                    && (this.getSquare().getCol() != square.getCol())) {
-                    return true;
-                }
-            }
+        if (null == pieceType) {
+            return false;
         }
 
-        if (this instanceof King) {
-            if (this.getSquare().colDistanceFrom(square) <= 1) {
-                if (this.getSquare().rowDistanceFrom(square) <= 1) {
-                    return true;
-                }
-            }
-        }
+        long attacks = AttackTables.attacks(
+                pieceType.getValue(),
+                this.getSideColor().getValue(),
+                this.getSquare().getIndex(),
+                ((ChessBoardImpl) _board).getOccupiedBitboard());
 
-        return false;
+        return 0L != (attacks & (1L << square.getIndex()));
     }
 
     @Override
@@ -363,36 +358,6 @@ abstract class ChessPieceImpl implements ChessPiece, Comparable<ChessPiece> {
         return false;
     }
 
-    /**
-     * Does this piece connect to the given square because it is on the same
-     * diagonal, horizontal or vertical, without being blocked by another piece?
-     *
-     * @param square
-     * @return
-     */
-    private boolean coversStraightWay(ChessSquare square) {
-        int rowStep = square.getRow() - this.getSquare().getRow();
-        int colStep = square.getCol() - this.getSquare().getCol();
-
-        if (0 != rowStep)
-            rowStep /= Math.abs(rowStep);
-
-        if (0 != colStep)
-            colStep /= Math.abs(colStep);
-
-        for(ChessSquare betweenSquare = this.getSquare().getRelativeSquare(rowStep, colStep);
-            betweenSquare != square;
-            betweenSquare = betweenSquare.getRelativeSquare(rowStep, colStep)) {
-
-            if (null != betweenSquare.getPiece())
-                return false; // Something is blocking this piece from connecting straightway to the square.
-        }
-
-        // If still here, nothing is blocking this Piece from connecting straightway to the square ...
-        return true;
-    }
-
-
     @Override
     public Set<ChessSquare> potentialMoveSquares(PotentialMoveReason reason) {
         final boolean movesLikeBishop = (this instanceof Bishop) || (this instanceof Queen);
@@ -435,10 +400,12 @@ abstract class ChessPieceImpl implements ChessPiece, Comparable<ChessPiece> {
                     ChessPiece piece = potential.getPiece();
 
                     if (null == piece) {
-                        // Assume this piece can move to an empty Square ...
-                        potentials.add(potential);
+                        // Assume this piece can move to an empty Square, unless it's only to take ...
+                        if (PotentialMoveReason.ForCaptureOrPromotion != reason) {
+                            potentials.add(potential);
+                        }
                     } else {
-                        if (PotentialMoveReason.ForNextMove == reason) {
+                        if ((PotentialMoveReason.ForNextMove == reason) || (PotentialMoveReason.ForCaptureOrPromotion == reason)) {
                             if (piece.opposesSideOf(this)) {
                                 // Assume this piece can take an opposing piece ...
                                 potentials.add(potential);
@@ -1,8 +1,11 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.PotentialMoveReason;
 import com.zynpo.enums.SideColor;
+import com.zynpo.impls.AttackTables;
+import com.zynpo.impls.ChessBoardImpl;
 import com.zynpo.impls.ChessFactory;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.Castle;
@@ -31,6 +34,11 @@ public class KingImpl extends ChessPieceImpl implements King {
         return "King";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.King;
+    }
+
     @Override
     public String notation() { return "K"; }
 
@@ -110,7 +118,14 @@ public class KingImpl extends ChessPieceImpl implements King {
             }
 
 
-            if ((null != castle) && (0 == castle.getMovedCount()) && castle.mightMoveTo(castleDestSquare)) {
+            if ((null != castle) && (0 == castle.getMovedCount()) && castle.onSameSideAs(this)) {
+                long betweenSquares = AttackTables.squaresBetween(this.getSquare().getIndex(), castle.getSquare().getIndex());
+
+                if (0L != (((ChessBoardImpl) this.getBoard()).getOccupiedBitboard() & betweenSquares)) {
+                    // Can't castle through other pieces ...
+                    return false;
+                }
+
                 SideColor opposingSideColor = SideColor.White == this.getSideColor() ? SideColor.Black : SideColor.White;
 
                 if ((this.getSquare().coveredBy(opposingSideColor))) {
@@ -140,7 +155,7 @@ public class KingImpl extends ChessPieceImpl implements King {
     public Set<ChessSquare> potentialMoveSquares(PotentialMoveReason reason) {
         Set<ChessSquare> potentials = ChessFactory.createChessSquareSet();
 
-        if (this.getMovedCount() == 0) {
+        if ((this.getMovedCount() == 0) && (PotentialMoveReason.ForCaptureOrPromotion != reason)) {
             for (int colOffset : new int[] { 2, -2 }) {
                 ChessSquare castleToSquare = this.getSquare().getRelativeSquare(0, colOffset);
                 if (this.mightMoveTo(castleToSquare)) {
@@ -158,16 +173,19 @@ public class KingImpl extends ChessPieceImpl implements King {
                 ChessSquare potential = this.getSquare().getRelativeSquare(rowDirection, colDirection);
 
                 if (null == potential) {
-                    break;
+                    // Off the edge of the board in this direction ...
+                    continue;
                 }
 
                 ChessPiece piece = potential.getPiece();
 
                 if (null == piece) {
-                    // Always assume this King can move to an empty Square ...
-                    potentials.add(potential);
+                    // Always assume this King can move to an empty Square, unless it's only to take ...
+                    if (PotentialMoveReason.ForCaptureOrPromotion != reason) {
+                        potentials.add(potential);
+                    }
                 } else {
-                    if (PotentialMoveReason.ForNextMove == reason) {
+                    if ((PotentialMoveReason.ForNextMove == reason) || (PotentialMoveReason.ForCaptureOrPromotion == reason)) {
                         if (piece.opposesSideOf(this)) {
                             // Assume this King can take an opposing Piece ...
                             potentials.add(potential);
@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.PotentialMoveReason;
 import com.zynpo.enums.SideColor;
 import com.zynpo.impls.ChessFactory;
@@ -33,6 +34,11 @@ public class KnightImpl extends PromotablePieceImpl implements Knight {
         return "Knight";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.Knight;
+    }
+
     @Override
     public String notation() { return "N"; } // can't use "K" because that's for King
 
@@ -52,10 +58,12 @@ public class KnightImpl extends PromotablePieceImpl implements Knight {
                         ChessPiece piece = potential.getPiece();
 
                         if (null == piece) {
-                            // Always assume this Knight can move to an empty Square ...
-                            potentials.add(potential);
+                            // Always assume this Knight can move to an empty Square, unless it's only to take ...
+                            if (PotentialMoveReason.ForCaptureOrPromotion != reason) {
+                                potentials.add(potential);
+                            }
                         } else {
-                            if (PotentialMoveReason.ForNextMove == reason) {
+                            if ((PotentialMoveReason.ForNextMove == reason) || (PotentialMoveReason.ForCaptureOrPromotion == reason)) {
                                 if (piece.opposesSideOf(this)) {
                                     // Assume this Knight can take an opposing Piece ...
                                     potentials.add(potential);
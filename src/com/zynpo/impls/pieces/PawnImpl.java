@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.PotentialMoveReason;
 import com.zynpo.enums.SideColor;
 import com.zynpo.impls.ChessBoardImpl;
@@ -34,6 +35,11 @@ public class PawnImpl extends ChessPieceImpl implements Pawn {
         return "Pawn";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.Pawn;
+    }
+
     @Override
     public String notation() { return "P"; }
 
@@ -197,6 +203,9 @@ public class PawnImpl extends ChessPieceImpl implements Pawn {
 
             if (PotentialMoveReason.ForMoveAfterNext == reason) {
                 potentials.add(potential); // Simply assume we might be able to move there
+            } else if ((PotentialMoveReason.ForCaptureOrPromotion == reason) && (0 == colOffset)
+                    && (potential.getRow() != this.promotionRow())) {
+                continue; // Stepping forward takes nothing, so only counts when it promotes
             } else if (this.mightMoveTo(potential)) {
                 potentials.add(potential);
             }
@@ -204,7 +213,8 @@ public class PawnImpl extends ChessPieceImpl implements Pawn {
 
         potential = this.jumpTwoSquare();
 
-        if ((null != potential) && (this.getSquare().getRow() == this.gameStartRow()) && (0 == this.getMovedCount())) {
+        if ((null != potential) && (this.getSquare().getRow() == this.gameStartRow()) && (0 == this.getMovedCount())
+                && (PotentialMoveReason.ForCaptureOrPromotion != reason)) {
             if (PotentialMoveReason.ForMoveAfterNext == reason) {
                 potentials.add(potential); // Simply assume we might be able to move there
             } else if (this.mightMoveTo(potential)) {
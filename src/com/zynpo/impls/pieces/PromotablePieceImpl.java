@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.Pawn;
@@ -35,7 +36,7 @@ public class PromotablePieceImpl extends ChessPieceImpl implements PromotablePie
 
 
     public PromotablePieceImpl(Pawn pawn) {
-        super(pawn.getIndex(), pawn.getSquare(), pawn.getSideColor());
+        super(pawn.getIndex(), liftedSquareOf(pawn), pawn.getSideColor());
         _origPawn = pawn;
 
         if (null == _origPawn.getPromotedToPiece()) {
@@ -44,11 +45,31 @@ public class PromotablePieceImpl extends ChessPieceImpl implements PromotablePie
     }
 
 
+    /**
+     * Empty the square the Pawn stands on, so the piece it is promoted to can be dropped there.
+     */
+    private static ChessSquare liftedSquareOf(Pawn pawn) {
+        ChessSquare square = pawn.getSquare();
+
+        if ((null != square) && (square.getPiece() == pawn)) {
+            square.setPiece(null);
+        }
+
+        return square;
+    }
+
+
     @Override
     protected String name() {
         return "Undetermined Promotion";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        // Doesn't cover or move like anything until it is determined ...
+        return null;
+    }
+
 
     @Override
     public String notation() {
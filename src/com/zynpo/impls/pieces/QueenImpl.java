@@ -1,6 +1,7 @@
 package com.zynpo.impls.pieces;
 
 import com.zynpo.enums.PieceIndex;
+import com.zynpo.enums.PieceType;
 import com.zynpo.enums.SideColor;
 import com.zynpo.interfaces.ChessSquare;
 import com.zynpo.interfaces.pieces.Pawn;
@@ -24,6 +25,11 @@ public class QueenImpl extends PromotablePieceImpl implements Queen {
         return "Queen";
     }
 
+    @Override
+    protected PieceType pieceType() {
+        return PieceType.Queen;
+    }
+
     @Override
     public String notation() { return "Q"; }
 
@@ -28,5 +28,8 @@ public interface ChessBoard extends Iterable<ChessSquare> {
 
     ChessSquare getEnPassantSquare();
 
+    long getZobristKey(); // Hash of the pieces, en passant square and castlings still possible, but not the side to move
+    long getPawnKey();    // Hash of the Pawns alone, for what's worked out from them to be kept while they stay put
+
     ChessBoard clone();
 }
@@ -17,4 +17,11 @@ public interface ChessBoardState {
     List<MoveRecord> getValidMoves();
 
     GameStatus getGameStatus();
+
+    long getZobristKey(); // The board's Zobrist key together with the side to move
+
+    int getHalfmoveClock();   // Moves since a pawn last moved or a piece was last taken
+    int getFullmoveNumber();  // Starting at 1, and going up after each move by Black
+
+    String toFen();
 }
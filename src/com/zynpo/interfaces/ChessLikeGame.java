@@ -24,7 +24,7 @@ public interface ChessLikeGame {
     boolean takenPiecesSwitchSides();
 
     GameStatus doMove(String notation) throws MoveException;
-    GameStatus takeBackLastMove();
+    GameStatus takeBackLastMove() throws IndexOutOfBoundsException;
 
     ChessBoardState reviewFirst();
     ChessBoardState reviewNext() throws IndexOutOfBoundsException;
@@ -0,0 +1,246 @@
+package com.zynpo.search;
+
+import com.zynpo.enums.GameStatus;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveRecordImpl;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.interfaces.MoveRecord;
+
+import java.util.Arrays;
+
+
+/**
+ * Thinks for one side of a ChessGameImpl, and on the opponent's time too. Having made its move, it
+ * ponders: it searches on a thread of its own the position after the reply its search expects, as
+ * though that reply were made already. Every move of the game, of either side, is to be done through
+ * doMove(), so the Engine sees the opponent's reply as soon as it's made:
+ *
+ *   when it's the one expected, a ponder hit, the search carries on from where it got to, with its
+ *     clock starting then, and think() gives its best move once the time for it is up,
+ *   when it isn't, the search is stopped and thrown away, and think() starts again from the move made,
+ *     with the TranspositionTable still holding what the pondering found.
+ *
+ * A game played to a clock has a move to think about for most of the opponent's time this way, as well
+ * as its own. The Engine isn't thread safe itself, and is to be called from one thread only.
+ */
+public class Engine {
+
+    private ChessGameImpl _game;
+    private TranspositionTable _table;    // Kept from one move to the next
+    private int _threadCount;
+
+    private int _expectedMove;            // The best move found by the last think(), to ponder after
+    private int _expectedReply;           // The reply it expects to that
+    private int _lastMove;
+
+    private Search _ponderSearch;
+    private Thread _ponderThread;
+    private int _ponderMove;              // The reply pondered on
+    private boolean _ponderHit;
+    private volatile SearchResult _ponderResult;
+
+    private int _ponderHits;
+    private int _ponderMisses;
+
+
+    public Engine(ChessGameImpl game) {
+        this(game, new TranspositionTable());
+    }
+
+
+    public Engine(ChessGameImpl game, TranspositionTable table) {
+        _game = game;
+        _table = table;
+        _threadCount = 1;
+        _expectedMove = Move.NO_MOVE;
+        _expectedReply = Move.NO_MOVE;
+        _lastMove = Move.NO_MOVE;
+        _ponderMove = Move.NO_MOVE;
+    }
+
+
+    public ChessGameImpl getGame() { return _game; }
+
+    public TranspositionTable getTable() { return _table; }
+
+    public int getThreadCount() { return _threadCount; }
+
+    public void setThreadCount(int threadCount) {
+        if ((threadCount < 1) || (Search.MAX_THREADS < threadCount)) {
+            throw new IllegalArgumentException("Must search with 1 to " + Search.MAX_THREADS + " threads, not " + threadCount);
+        }
+
+        _threadCount = threadCount;
+    }
+
+
+    public boolean isPondering() { return null != _ponderThread; }
+
+    /**
+     * @return the reply being pondered on, or Move.NO_MOVE
+     */
+    public int getPonderMove() { return isPondering() ? _ponderMove : Move.NO_MOVE; }
+
+    public int getPonderHits() { return _ponderHits; }
+
+    public int getPonderMisses() { return _ponderMisses; }
+
+
+    /**
+     * Find the best move of the game's current position, without doing it. After a ponder hit, that's
+     * the best move of the search pondering, which keeps to the limits it was started with.
+     */
+    public SearchResult think(SearchLimits limits) {
+        SearchResult result = null;
+
+        if (isPondering()) {
+            if (_ponderHit) {
+                joinPonderThread();
+                result = _ponderResult;
+            }
+
+            stopPondering();
+        }
+
+        if (null == result) {
+            Search search = new Search(_game.reviewLast(), _game.getZobristKeysSinceProgress(), _table);
+            search.setThreadCount(_threadCount);
+            result = search.search(limits);
+        }
+
+        _expectedMove = result.getBestMove();
+        _expectedReply = result.getPonderMove();
+
+        return result;
+    }
+
+
+    /**
+     * Do a move of either side in the game, telling the search pondering, if any, whether it's the
+     * move it's pondering on.
+     */
+    public GameStatus doMove(int move) {
+        GameStatus gameStatus = _game.doMove(move);
+        _lastMove = move;
+
+        if (isPondering()) {
+            if (!_ponderHit && (Move.keyOf(move) == Move.keyOf(_ponderMove))) {
+                _ponderHit = true;
+                _ponderSearch.ponderHit();
+                ++_ponderHits;
+            } else {
+                stopPondering();
+                ++_ponderMisses;
+            }
+        }
+
+        return gameStatus;
+    }
+
+
+    /**
+     * Having done the move found by think(), start searching the position after the reply expected to
+     * it, until the reply is made or not.
+     *
+     * @param limits to keep to should the reply be made, as for the move after it, with the clock as it
+     *     will be then, which are set to ponder
+     * @return false when there's no reply to ponder on, as the game is over, the move done wasn't the one
+     *     found, or no reply was expected of it
+     */
+    public boolean ponder(SearchLimits limits) {
+        stopPondering();
+
+        if (_game.getOverallGameStatus().meansGameIsOver() || (Move.NO_MOVE == _expectedMove)
+                || (Move.keyOf(_lastMove) != Move.keyOf(_expectedMove))) {
+            return false;
+        }
+
+        ChessBoardState boardState = _game.reviewLast();
+        int reply = _expectedReply;
+
+        // Without a reply in the best line, as when it was cut short by the table, the table may know ...
+        if (Move.NO_MOVE == reply) {
+            long entry = _table.probe(boardState.getZobristKey());
+            reply = (TranspositionTable.NOT_FOUND == entry) ? Move.NO_MOVE : TranspositionTable.moveOf(entry);
+        }
+
+        MoveRecord replyRecord = findValidMove(boardState, reply);
+
+        if (null == replyRecord) {
+            return false;
+        }
+
+        ChessBoardState ponderState = replyRecord.resultingBoardState();
+
+        if (ponderState.getGameStatus().meansGameIsOver()) {
+            return false;
+        }
+
+        // The positions leading up to the one pondered on, since the last progress made ...
+        long[] zobristKeys = new long[0];
+
+        if (0 < ponderState.getHalfmoveClock()) {
+            long[] keysSoFar = _game.getZobristKeysSinceProgress();
+            zobristKeys = Arrays.copyOf(keysSoFar, keysSoFar.length + 1);
+            zobristKeys[keysSoFar.length] = boardState.getZobristKey();
+        }
+
+        limits.setPonder(true);
+
+        Search search = new Search(ponderState, zobristKeys, _table);
+        search.setThreadCount(_threadCount);
+
+        _ponderSearch = search;
+        _ponderMove = reply;
+        _ponderHit = false;
+        _ponderResult = null;
+        _ponderThread = new Thread(() -> _ponderResult = search.search(limits), "ponder");
+        _ponderThread.setDaemon(true);
+        _ponderThread.start();
+
+        return true;
+    }
+
+
+    /**
+     * Stop any search pondering, keeping what it put in the table, and wait for it to be done.
+     */
+    public void stopPondering() {
+        if (!isPondering()) {
+            return;
+        }
+
+        _ponderSearch.stop();
+        joinPonderThread();
+
+        _ponderSearch = null;
+        _ponderThread = null;
+        _ponderMove = Move.NO_MOVE;
+        _ponderHit = false;
+    }
+
+
+    private void joinPonderThread() {
+        try {
+            _ponderThread.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static MoveRecord findValidMove(ChessBoardState boardState, int move) {
+        if (Move.NO_MOVE == move) {
+            return null;
+        }
+
+        for (MoveRecord moveRecord : boardState.getValidMoves()) {
+            if (Move.keyOf(((MoveRecordImpl) moveRecord).toMove()) == Move.keyOf(move)) {
+                return moveRecord;
+            }
+        }
+
+        return null;
+    }
+}
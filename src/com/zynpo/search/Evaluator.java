@@ -0,0 +1,38 @@
+package com.zynpo.search;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.PieceSquareTables;
+
+
+/**
+ * Scores a position in centipawns from the point of view of the side to move, so a Search can
+ * negate it from one ply to the next. The material and PieceSquareTables scores are kept up to date
+ * by the board itself as moves are made and unmade, and only tapered from the middlegame to the
+ * endgame here, so evaluating costs the same whatever is on the board. The PawnStructure is added,
+ * from a PawnHashTable of this Evaluator's own whenever the Pawns have been seen before.
+ */
+public class Evaluator {
+
+    // By PieceType value, for weighing exchanges. The King is never taken, so is worth nothing here ...
+    private static final int[] PIECE_VALUES = { 100, 320, 330, 500, 900, 0 };
+
+
+    public static int pieceValue(int pieceType) {
+        return PIECE_VALUES[pieceType];
+    }
+
+
+    private PawnHashTable _pawnTable = new PawnHashTable();
+
+
+    public PawnHashTable getPawnTable() { return _pawnTable; }
+
+
+    public int evaluate(BitboardChessBoard board, int sideToMove) {
+        int packedScore = board.getPieceSquareScore() + PawnStructure.evaluate(board, _pawnTable);
+        int score = PieceSquareTables.taper(packedScore, board.getGamePhase());
+
+        return (SideColor.White.getValue() == sideToMove) ? score : -score;
+    }
+}
@@ -0,0 +1,407 @@
+package com.zynpo.search;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveList;
+
+
+/**
+ * Hands out the valid moves of a position one at a time, most likely to be best first, generating
+ * them in stages so a cutoff by one of the first moves never pays for generating the rest:
+ *
+ *   the hash move, found best when the position was searched before,
+ *   the captures and promotions to a Queen that lose no material, most valuable victim first and
+ *     least valuable attacker first among those,
+ *   the two killer moves, quiet moves that caused a cutoff at the same ply elsewhere in the search,
+ *   the counter-move, the quiet move that last refuted the move just made,
+ *   the rest of the quiet moves, by how often each has caused a cutoff so far,
+ *   and last of all the captures that lose material, those losing least first.
+ *
+ * Moves remembered from other positions are only handed out once found valid on this board, and no
+ * move is handed out twice. A Search keeps one MovePicker for each ply, so nothing is allocated from
+ * one node to the next once its lists are big enough.
+ */
+public final class MovePicker {
+
+    public static final int HISTORY_SIZE = BitboardChessBoard.SQUARE_COUNT * BitboardChessBoard.SQUARE_COUNT;
+
+    // Ordering of the moves of a list given whole, as at the root ...
+    private static final int PV_MOVE_ORDER = 1 << 30;
+    private static final int WINNING_CAPTURE_ORDER = 1 << 20;
+    private static final int LOSING_CAPTURE_ORDER = -(1 << 20);  // Less what's lost
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int COUNTER_MOVE = 5;
+    private static final int GENERATE_QUIET_MOVES = 6;
+    private static final int QUIET_MOVES = 7;
+    private static final int BAD_CAPTURES = 8;
+    private static final int GIVEN_MOVES = 9;
+    private static final int DONE = 10;
+
+    private BitboardChessBoard _board;
+    private int _sideColor;
+    private int[] _history;
+    private boolean _capturesOnly;
+    private int _stage;
+
+    private int _hashMove;
+    private int _firstKiller;
+    private int _secondKiller;
+    private int _counterMove;
+
+    private MoveList _moves;
+    private int[] _scores;
+    private int _next;
+    private MoveList _ownMoves;     // For the stages to generate into, unless given a list
+    private MoveList _badCaptures;
+    private int[] _badCaptureScores;
+    private int _nextBadCapture;
+    private boolean _losingCapture; // Whether the move last handed out loses material
+    private StaticExchange _staticExchange;
+
+
+    public MovePicker() {
+        _ownMoves = new MoveList();
+        _badCaptures = new MoveList();
+        _scores = new int[0];
+        _badCaptureScores = new int[0];
+        _staticExchange = new StaticExchange();
+        _stage = DONE;
+    }
+
+
+    /**
+     * Start handing out every valid move of the side, in stages.
+     *
+     * @param hashMove to hand out first, or Move.NO_MOVE
+     * @param firstKiller to hand out after the captures that lose no material, or Move.NO_MOVE
+     * @param secondKiller to hand out after that, or Move.NO_MOVE
+     * @param counterMove to hand out after the killers, or Move.NO_MOVE
+     * @param history how often each quiet move of the side caused a cutoff, by historyIndex()
+     */
+    public void reset(BitboardChessBoard board, int sideColor, int hashMove, int firstKiller, int secondKiller,
+                      int counterMove, int[] history) {
+        start(board, sideColor, history);
+        _hashMove = hashMove;
+        _firstKiller = firstKiller;
+        _secondKiller = secondKiller;
+        _counterMove = counterMove;
+        _capturesOnly = false;
+        _stage = HASH_MOVE;
+    }
+
+
+    /**
+     * Start handing out only the valid captures and promotions of the side that lose no material, as a
+     * quiescence search follows.
+     */
+    public void resetForCaptures(BitboardChessBoard board, int sideColor) {
+        start(board, sideColor, null);
+        _capturesOnly = true;
+        _stage = GENERATE_CAPTURES;
+    }
+
+
+    /**
+     * Start handing out the moves of a list already generated, as at the root, which is left in the order
+     * they're handed out in: the given move of the best line first, then the captures and promotions that
+     * lose no material, the quiet moves by history, keeping the order they're given in otherwise, and the
+     * captures that lose material.
+     */
+    public void resetForMoves(BitboardChessBoard board, int sideColor, MoveList moves, int pvMove, int[] history) {
+        start(board, sideColor, history);
+        _moves = moves;
+        _scores = ensureCapacity(_scores, moves.size());
+
+        for (int i = 0; i < moves.size(); ++i) {
+            int move = moves.get(i);
+
+            if (move == pvMove) {
+                _scores[i] = PV_MOVE_ORDER;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                int gain = _staticExchange.evaluate(board, move);
+                _scores[i] = (0 <= gain) ? WINNING_CAPTURE_ORDER + gain : LOSING_CAPTURE_ORDER + gain;
+            } else {
+                _scores[i] = history[historyIndex(move)];
+            }
+        }
+
+        _stage = GIVEN_MOVES;
+    }
+
+
+    private void start(BitboardChessBoard board, int sideColor, int[] history) {
+        _board = board;
+        _sideColor = sideColor;
+        _history = history;
+        _hashMove = Move.NO_MOVE;
+        _firstKiller = Move.NO_MOVE;
+        _secondKiller = Move.NO_MOVE;
+        _counterMove = Move.NO_MOVE;
+        _moves = _ownMoves;
+        _moves.clear();
+        _next = 0;
+        _badCaptures.clear();
+        _nextBadCapture = 0;
+        _losingCapture = false;
+    }
+
+
+    /**
+     * @return the index of the move in a table of history scores, by the squares it departs and occupies
+     */
+    public static int historyIndex(int move) {
+        return Move.squareDeparted(move) * BitboardChessBoard.SQUARE_COUNT + Move.squareOccupied(move);
+    }
+
+
+    /**
+     * @return whether the move is one handed out among the killers, counter-move and quiet moves, so may
+     *     be remembered as such
+     */
+    public static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && (PieceType.Queen.getValue() != Move.promotionTypeValue(move));
+    }
+
+
+    /**
+     * @return whether the move last handed out is a capture that loses material
+     */
+    public boolean isLosingCapture() { return _losingCapture; }
+
+
+    /**
+     * @return the next move, or Move.NO_MOVE once every one has been handed out
+     */
+    @SuppressWarnings("fallthrough")
+    public int next() {
+        switch (_stage) {
+            case HASH_MOVE:
+                _stage = GENERATE_CAPTURES;
+
+                if (_board.isValidMove(_sideColor, _hashMove)) {
+                    return _hashMove;
+                }
+
+                _hashMove = Move.NO_MOVE;
+
+                // Fall through ...
+            case GENERATE_CAPTURES:
+                generateCaptures();
+                _stage = GOOD_CAPTURES;
+
+                // Fall through ...
+            case GOOD_CAPTURES:
+                if (_next < _moves.size()) {
+                    return pickBest(_moves, _scores, _next++);
+                }
+
+                if (_capturesOnly) {
+                    _stage = DONE;
+                    return Move.NO_MOVE;
+                }
+
+                _stage = FIRST_KILLER;
+
+                // Fall through ...
+            case FIRST_KILLER:
+                _stage = SECOND_KILLER;
+
+                if (isValidQuietMove(_firstKiller)) {
+                    return _firstKiller;
+                }
+
+                _firstKiller = Move.NO_MOVE;
+
+                // Fall through ...
+            case SECOND_KILLER:
+                _stage = COUNTER_MOVE;
+
+                if ((_secondKiller != _firstKiller) && isValidQuietMove(_secondKiller)) {
+                    return _secondKiller;
+                }
+
+                _secondKiller = Move.NO_MOVE;
+
+                // Fall through ...
+            case COUNTER_MOVE:
+                _stage = GENERATE_QUIET_MOVES;
+
+                if ((_counterMove != _firstKiller) && (_counterMove != _secondKiller) && isValidQuietMove(_counterMove)) {
+                    return _counterMove;
+                }
+
+                _counterMove = Move.NO_MOVE;
+
+                // Fall through ...
+            case GENERATE_QUIET_MOVES:
+                generateQuietMoves();
+                _stage = QUIET_MOVES;
+
+                // Fall through ...
+            case QUIET_MOVES:
+                if (_next < _moves.size()) {
+                    return pickBest(_moves, _scores, _next++);
+                }
+
+                _stage = BAD_CAPTURES;
+
+                // Fall through ...
+            case BAD_CAPTURES:
+                if (_nextBadCapture < _badCaptures.size()) {
+                    _losingCapture = true;
+                    return pickBest(_badCaptures, _badCaptureScores, _nextBadCapture++);
+                }
+
+                _stage = DONE;
+                return Move.NO_MOVE;
+
+            case GIVEN_MOVES:
+                if (_next < _moves.size()) {
+                    int move = pickBest(_moves, _scores, _next);
+                    _losingCapture = _scores[_next++] < LOSING_CAPTURE_ORDER;
+                    return move;
+                }
+
+                _stage = DONE;
+                return Move.NO_MOVE;
+
+            default:
+                return Move.NO_MOVE;
+        }
+    }
+
+
+    /**
+     * Generate the captures and promotions to a Queen, setting aside those that lose material for last ...
+     */
+    private void generateCaptures() {
+        _moves.clear();
+        _board.generateCaptures(_sideColor, _moves);
+        _scores = ensureCapacity(_scores, _moves.size());
+        _badCaptureScores = ensureCapacity(_badCaptureScores, _moves.size());
+
+        int kept = 0;
+
+        for (int i = 0; i < _moves.size(); ++i) {
+            int move = _moves.get(i);
+
+            if (move == _hashMove) {
+                continue;
+            }
+
+            int gain = _staticExchange.evaluate(_board, move);
+
+            if (gain < 0) {
+                if (!_capturesOnly) {
+                    _badCaptureScores[_badCaptures.size()] = gain;
+                    _badCaptures.add(move);
+                }
+
+                continue;
+            }
+
+            _scores[kept] = mostValuableVictimLeastValuableAttacker(move);
+            _moves.set(kept++, move);
+        }
+
+        truncate(_moves, kept);
+        _next = 0;
+    }
+
+
+    /**
+     * Generate the rest of the moves, leaving out those already handed out, as the hash move, killers
+     * and counter-move are by now only when they were ...
+     */
+    private void generateQuietMoves() {
+        _moves.clear();
+        _board.generateQuietMoves(_sideColor, _moves);
+        _scores = ensureCapacity(_scores, _moves.size());
+
+        int kept = 0;
+
+        for (int i = 0; i < _moves.size(); ++i) {
+            int move = _moves.get(i);
+
+            if ((move == _hashMove) || (move == _firstKiller) || (move == _secondKiller) || (move == _counterMove)) {
+                continue;
+            }
+
+            _scores[kept] = _history[historyIndex(move)];
+            _moves.set(kept++, move);
+        }
+
+        truncate(_moves, kept);
+        _next = 0;
+    }
+
+
+    private boolean isValidQuietMove(int move) {
+        return (Move.NO_MOVE != move) && (move != _hashMove) && isQuiet(move) && _board.isValidMove(_sideColor, move);
+    }
+
+
+    private int mostValuableVictimLeastValuableAttacker(int move) {
+        int attackerType = _board.getPieceTypeOf(_board.getPieceIndexOn(Move.squareDeparted(move)));
+        int score = -attackerType;
+
+        if (Move.isEnPassant(move)) {
+            score += PieceType.COUNT * Evaluator.pieceValue(PieceType.Pawn.getValue());
+        } else if (Move.isCapture(move)) {
+            int victimType = _board.getPieceTypeOf(_board.getPieceIndexOn(Move.squareOccupied(move)));
+            score += PieceType.COUNT * Evaluator.pieceValue(victimType);
+        }
+
+        if (Move.isPromotion(move)) {
+            score += PieceType.COUNT * Evaluator.pieceValue(Move.promotionTypeValue(move));
+        }
+
+        return score;
+    }
+
+
+    /**
+     * Bring the best scored of the moves from the given index on to that index, keeping the rest in the
+     * order they were in, so moves scored alike are handed out in the order they were generated ...
+     */
+    private static int pickBest(MoveList moves, int[] scores, int from) {
+        int best = from;
+
+        for (int i = from + 1; i < moves.size(); ++i) {
+            if (scores[best] < scores[i]) {
+                best = i;
+            }
+        }
+
+        int move = moves.get(best);
+        int score = scores[best];
+
+        for (int i = best; from < i; --i) {
+            moves.set(i, moves.get(i - 1));
+            scores[i] = scores[i - 1];
+        }
+
+        moves.set(from, move);
+        scores[from] = score;
+
+        return move;
+    }
+
+
+    private static void truncate(MoveList moves, int size) {
+        while (size < moves.size()) {
+            moves.removeLast();
+        }
+    }
+
+
+    private static int[] ensureCapacity(int[] scores, int size) {
+        return (scores.length < size) ? new int[2 * size] : scores;
+    }
+}
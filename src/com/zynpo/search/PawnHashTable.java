@@ -0,0 +1,75 @@
+package com.zynpo.search;
+
+
+/**
+ * The PawnStructure scores of arrangements of Pawns already seen, by the Zobrist key of the Pawns
+ * alone. Pawns move far less often than the other pieces, so nearly every position a search reaches
+ * finds its Pawns here. Each Evaluator has a table of its own, as each searching thread does, so no
+ * locking is needed.
+ *
+ * The table is of fixed size, allocated up front, and a new entry simply takes the place of whatever
+ * was hashed to the same slot before.
+ */
+public class PawnHashTable {
+
+    public static final int DEFAULT_ENTRY_COUNT = 1 << 14;
+
+    // No Pawns score this, packed, as it's an endgame score of -32768 ...
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+    private final long[] _keys;
+    private final int[] _scores;
+    private final int _mask;
+
+    private long _probes;
+    private long _hits;
+
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRY_COUNT);
+    }
+
+
+    /**
+     * @param entryCount a power of two
+     */
+    public PawnHashTable(int entryCount) {
+        if ((entryCount < 1) || (0 != (entryCount & (entryCount - 1)))) {
+            throw new IllegalArgumentException("Pawn hash table must have a power of two entries, not " + entryCount);
+        }
+
+        _keys = new long[entryCount];
+        _scores = new int[entryCount];
+        _mask = entryCount - 1;
+
+        // Every slot starts out keyed by the board with no Pawns, whose score is 0 as it should be ...
+    }
+
+
+    /**
+     * @return the packed score stored for the Pawns with the given key, or NOT_FOUND
+     */
+    public int probe(long pawnKey) {
+        int i = (int) pawnKey & _mask;
+        ++_probes;
+
+        if (_keys[i] != pawnKey) {
+            return NOT_FOUND;
+        }
+
+        ++_hits;
+        return _scores[i];
+    }
+
+
+    public void store(long pawnKey, int score) {
+        int i = (int) pawnKey & _mask;
+        _keys[i] = pawnKey;
+        _scores[i] = score;
+    }
+
+
+    public long getProbes() { return _probes; }
+
+    public long getHits() { return _hits; }
+}
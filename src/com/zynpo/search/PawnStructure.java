@@ -0,0 +1,180 @@
+package com.zynpo.search;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.PieceSquareTables;
+
+
+/**
+ * What the Pawns are worth to each side beyond their squares: passed Pawns, and the isolated, doubled
+ * and backward Pawns that are weaknesses. These depend on the Pawns alone, so are worked out once for
+ * each arrangement of them and kept in a PawnHashTable. How well each King is sheltered by the Pawns
+ * in front of it depends on where the King is too, so is worked out each time, which takes only a few
+ * masks.
+ *
+ * Scores are packed as PieceSquareTables packs them, for White less Black, to be added to the board's.
+ */
+public final class PawnStructure {
+
+    private static final int WHITE = SideColor.White.getValue();
+    private static final int BLACK = SideColor.Black.getValue();
+    private static final int PAWN = PieceType.Pawn.getValue();
+    private static final int KING = PieceType.King.getValue();
+
+    private static final long COL_A = 0x0101010101010101L;
+    private static final long COL_H = COL_A << (ChessBoardSpecs.COL_COUNT - 1);
+
+    private static final int DOUBLED = PieceSquareTables.pack(-11, -51);
+    private static final int ISOLATED = PieceSquareTables.pack(-5, -15);
+    private static final int BACKWARD = PieceSquareTables.pack(-9, -12);
+
+    // By how many rows the Pawn has come from its side's 1st row ...
+    private static final int[] PASSED = {
+            0,
+            PieceSquareTables.pack(0, 10),
+            PieceSquareTables.pack(5, 15),
+            PieceSquareTables.pack(10, 25),
+            PieceSquareTables.pack(20, 45),
+            PieceSquareTables.pack(35, 75),
+            PieceSquareTables.pack(60, 120),
+            0,
+    };
+
+    // A Pawn in front of its King, on the row in front of it or the one after ...
+    private static final int SHIELD_NEAR = PieceSquareTables.pack(12, 0);
+    private static final int SHIELD_FAR = PieceSquareTables.pack(6, 0);
+
+    private static final long[] COLS = new long[ChessBoardSpecs.COL_COUNT];
+    private static final long[] ADJACENT_COLS = new long[ChessBoardSpecs.COL_COUNT];
+
+    // By side and square: the squares ahead on the same column, those ahead on it and the columns either
+    // side, and those on the columns either side no further ahead ...
+    private static final long[][] FORWARD_SPANS = new long[2][BitboardChessBoard.SQUARE_COUNT];
+    private static final long[][] PASSED_SPANS = new long[2][BitboardChessBoard.SQUARE_COUNT];
+    private static final long[][] SUPPORT_SPANS = new long[2][BitboardChessBoard.SQUARE_COUNT];
+
+
+    static {
+        for (int col = 0; col < ChessBoardSpecs.COL_COUNT; ++col) {
+            COLS[col] = COL_A << col;
+        }
+
+        for (int col = 0; col < ChessBoardSpecs.COL_COUNT; ++col) {
+            ADJACENT_COLS[col] = ((0 < col) ? COLS[col - 1] : 0L) | ((col < ChessBoardSpecs.COL_COUNT - 1) ? COLS[col + 1] : 0L);
+        }
+
+        for (int square = 0; square < BitboardChessBoard.SQUARE_COUNT; ++square) {
+            int row = BitboardChessBoard.rowOf(square);
+            int col = BitboardChessBoard.colOf(square);
+            long rowsAbove = (ChessBoardSpecs.ROW_COUNT - 1 == row) ? 0L : (-1L << (ChessBoardSpecs.COL_COUNT * (row + 1)));
+            long rowsBelow = (-1L >>> (ChessBoardSpecs.COL_COUNT * (ChessBoardSpecs.ROW_COUNT - row)));
+            long thisRow = 0xFFL << (ChessBoardSpecs.COL_COUNT * row);
+
+            FORWARD_SPANS[WHITE][square] = COLS[col] & rowsAbove;
+            FORWARD_SPANS[BLACK][square] = (0 == row) ? 0L : (COLS[col] & rowsBelow);
+            PASSED_SPANS[WHITE][square] = (COLS[col] | ADJACENT_COLS[col]) & rowsAbove;
+            PASSED_SPANS[BLACK][square] = (0 == row) ? 0L : ((COLS[col] | ADJACENT_COLS[col]) & rowsBelow);
+            SUPPORT_SPANS[WHITE][square] = ADJACENT_COLS[col] & ~rowsAbove;
+            SUPPORT_SPANS[BLACK][square] = ADJACENT_COLS[col] & (thisRow | rowsAbove);
+        }
+    }
+
+
+    private PawnStructure() {}
+
+
+    /**
+     * @return the packed score of the Pawns of either side, as cached by the table when it has them already
+     */
+    public static int evaluate(BitboardChessBoard board, PawnHashTable table) {
+        long pawnKey = board.getPawnKey();
+        int score = table.probe(pawnKey);
+
+        if (PawnHashTable.NOT_FOUND == score) {
+            score = evaluatePawns(board);
+            table.store(pawnKey, score);
+        }
+
+        return score + kingShelter(board, WHITE) - kingShelter(board, BLACK);
+    }
+
+
+    /**
+     * @return the packed score of the passed, isolated, doubled and backward Pawns of either side
+     */
+    public static int evaluatePawns(BitboardChessBoard board) {
+        return evaluatePawns(board, WHITE) - evaluatePawns(board, BLACK);
+    }
+
+
+    private static int evaluatePawns(BitboardChessBoard board, int sideColor) {
+        long pawns = board.getPieceBitboard(sideColor, PAWN);
+        long otherPawns = board.getPieceBitboard(1 - sideColor, PAWN);
+        long otherPawnAttacks = pawnAttacks(1 - sideColor, otherPawns);
+        int score = 0;
+
+        for (long remaining = pawns; 0L != remaining; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            int col = BitboardChessBoard.colOf(square);
+
+            // Only the rearmost of Pawns on the same column counts as doubled ...
+            if (0L != (FORWARD_SPANS[sideColor][square] & pawns)) {
+                score += DOUBLED;
+            } else if (0L == (PASSED_SPANS[sideColor][square] & otherPawns)) {
+                int row = BitboardChessBoard.rowOf(square);
+                score += PASSED[(WHITE == sideColor) ? row : ChessBoardSpecs.ROW_COUNT - 1 - row];
+            }
+
+            if (0L == (ADJACENT_COLS[col] & pawns)) {
+                score += ISOLATED;
+            } else if ((0L == (SUPPORT_SPANS[sideColor][square] & pawns))
+                    && (0L != (otherPawnAttacks & (1L << (square + BitboardChessBoard.pawnAdvance(sideColor)))))) {
+                // None of its neighbours can come up to cover it, and it can't go on without being taken ...
+                score += BACKWARD;
+            }
+        }
+
+        return score;
+    }
+
+
+    /**
+     * @return the packed score of the side's Pawns on the King's column and those either side, in front of it
+     */
+    private static int kingShelter(BitboardChessBoard board, int sideColor) {
+        long king = board.getPieceBitboard(sideColor, KING);
+
+        if (0L == king) {
+            return 0;
+        }
+
+        int square = Long.numberOfTrailingZeros(king);
+        int col = BitboardChessBoard.colOf(square);
+        long shield = (COLS[col] | ADJACENT_COLS[col]) & board.getPieceBitboard(sideColor, PAWN);
+        int advance = BitboardChessBoard.pawnAdvance(sideColor);
+
+        long nearRow = rowOf(square + advance);
+        long farRow = rowOf(square + 2 * advance);
+
+        return Long.bitCount(shield & nearRow) * SHIELD_NEAR + Long.bitCount(shield & farRow) * SHIELD_FAR;
+    }
+
+
+    /**
+     * @return the squares of the row the square is on, or none when it's off the board
+     */
+    private static long rowOf(int square) {
+        return ((0 <= square) && (square < BitboardChessBoard.SQUARE_COUNT))
+                ? 0xFFL << (ChessBoardSpecs.COL_COUNT * BitboardChessBoard.rowOf(square))
+                : 0L;
+    }
+
+
+    private static long pawnAttacks(int sideColor, long pawns) {
+        return (WHITE == sideColor)
+                ? (((pawns & ~COL_A) << 7) | ((pawns & ~COL_H) << 9))
+                : (((pawns & ~COL_H) >>> 7) | ((pawns & ~COL_A) >>> 9));
+    }
+}
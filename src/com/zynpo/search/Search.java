@@ -0,0 +1,923 @@
+package com.zynpo.search;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SearchFeature;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveList;
+import com.zynpo.interfaces.ChessBoardState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+
+/**
+ * Looks for the best move of a ChessBoardState by negamax alpha-beta search, deepened one ply at a
+ * time until its SearchLimits are reached. Every move is made and unmade on a single BitboardChessBoard,
+ * with one reusable MoveList per ply, and the best line of each depth is kept in a triangular table.
+ *
+ * The best line of the last depth is tried first in the next, and a depth cut short by the limits
+ * is thrown away, so the result is always that of the deepest search completed. A line coming back
+ * to a position seen since the last capture or pawn move, whether in the search or in the game
+ * before it, is taken to be a draw, as is one reaching the 50 move rule.
+ *
+ * With more than one thread, helpers search the same root on boards of their own, sharing the
+ * TranspositionTable, some starting a ply deeper and each trying the quiet moves of the root in another
+ * order, so they fill the table with what the main thread will soon need. Only the main thread's line
+ * is given, but nodes are counted over all of them.
+ *
+ * Positions that don't look worth it are searched less deeply, or not at all: by a null move, by
+ * reducing the quiet moves ordered late, and by futility pruning near the last ply. Checks are searched
+ * a ply deeper instead. Each of these SearchFeatures may be turned off, to measure what it's worth.
+ *
+ * More than one line may be looked for, as for analysis, each searching the moves of the root less those
+ * of the better lines found before it, so all but the first are found from what the first put in the
+ * table.
+ *
+ * Playing to a clock, a TimeManager decides when to stop deepening, and when to give up on a depth
+ * partway. Pondering, the clock only starts once told of a ponder hit.
+ *
+ * A Search may be stopped from any thread, and stays stopped, so a new one is needed for each move.
+ */
+public class Search {
+
+    public static final int MAX_PLY = 128;
+
+    public static final int INFINITE_SCORE = 32000;
+    public static final int MATE_SCORE = 31000;  // Less the plies it takes to checkmate
+    public static final int DRAW_SCORE = 0;
+
+    private static final int MOVES_WITHOUT_PROGRESS_FOR_DRAW = 100;
+    private static final long CHECK_LIMITS_MASK = 2047;  // Checking the clock every node would slow the search down ...
+
+    public static final int MAX_THREADS = 256;
+    public static final int MAX_MULTI_PV = 256;
+
+    private static final int MAX_HISTORY = 1 << 16;  // Past which every history score is halved
+
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MAX_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MARGIN = 120;     // By depth
+    private static final int[] FUTILITY_MARGINS = { 0, 150, 300 };  // By depth, as far as futility pruning goes
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    private static final int REDUCTION_MIN_MOVES = 3;          // Searched in full before any is reduced
+
+    // By depth and moves searched before it, how many plies less a late quiet move is searched ...
+    private static final int[][] REDUCTIONS = new int[MAX_PLY][64];
+
+
+    static {
+        for (int depth = 1; depth < MAX_PLY; ++depth) {
+            for (int moves = 1; moves < REDUCTIONS[depth].length; ++moves) {
+                REDUCTIONS[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    private BitboardChessBoard _board;
+    private int _rootSideColor;
+    private Evaluator _evaluator;
+    private TranspositionTable _table;
+    private EnumSet<SearchFeature> _features;
+
+    private MoveList _rootMoves;      // Searched at the root, by the line being looked for
+    private MoveList _allRootMoves;
+    private MoveList _rootMovesLeft;  // Once the best of the lines before have been taken out
+    private int _multiPv;
+    private SearchResult[] _lines;    // Of the last depth completed, best first
+    private MovePicker[] _pickers;  // By ply
+    private int[][] _pvTable;     // _pvTable[ply] holds the best line found from ply on, up to _pvLengths[ply]
+    private int[] _pvLengths;
+    private int[] _previousPv;    // Of the last depth completed, to be tried first
+    private int[][] _previousPvs; // By line
+    private int[][] _killers;       // By ply, the last two quiet moves to cause a cutoff there
+    private int[][] _counterMoves;  // By side, and MovePicker.historyIndex() of the move just made, the quiet move refuting it
+    private int[][] _history;       // By side, and MovePicker.historyIndex(), how much each quiet move caused cutoffs
+    private int[] _movesMade;       // By ply, the move leading to it
+    private boolean _followingPv;
+
+    // The Zobrist keys of the game since the last progress, followed by those of the line being searched ...
+    private long[] _zobristKeys;
+    private int _rootKeyIndex;
+    private int[] _halfmoveClocks;  // By ply
+
+    private SearchLimits _limits;
+    private TimeManager _timeManager;
+    private long _startNanos;
+    private long _nodes;
+    private volatile long _nodesPublished;  // For the main thread to add up, every so often
+    private boolean _aborted;
+    private volatile boolean _stopRequested;
+    private volatile boolean _ponderHit;
+
+    private int _threadCount;
+    private int _helperIndex;   // 0 for the main thread
+    private Search[] _helpers;
+
+
+    public Search(ChessBoardState boardState) {
+        this(boardState, new long[0], new TranspositionTable());
+    }
+
+
+    /**
+     * @param priorZobristKeys of the positions leading up to boardState since the last capture or pawn
+     *     move, oldest first, as ChessGameImpl.getZobristKeysSinceProgress() gives
+     * @param table to learn from and add to, which may be kept from one move to the next
+     */
+    public Search(ChessBoardState boardState, long[] priorZobristKeys, TranspositionTable table) {
+        _board = ChessFactory.createBitboardCopy(boardState.getBoard());
+        _rootSideColor = boardState.getSideToMove().getValue();
+        _evaluator = new Evaluator();
+        _table = table;
+        _features = EnumSet.allOf(SearchFeature.class);
+
+        allocatePlyTables();
+
+        _rootKeyIndex = priorZobristKeys.length;
+        _zobristKeys = Arrays.copyOf(priorZobristKeys, _rootKeyIndex + MAX_PLY + 1);
+        _zobristKeys[_rootKeyIndex] = _board.getZobristKey(_rootSideColor);
+        _halfmoveClocks = new int[MAX_PLY + 1];
+        _halfmoveClocks[0] = boardState.getHalfmoveClock();
+
+        _threadCount = 1;
+        _helpers = new Search[0];
+    }
+
+
+    /**
+     * A helper searching the same root as the main thread, with everything else of its own ...
+     */
+    private Search(Search main, int helperIndex) {
+        _board = main._board.clone();
+        _rootSideColor = main._rootSideColor;
+        _evaluator = new Evaluator();
+        _table = main._table;
+        _features = EnumSet.copyOf(main._features);
+
+        allocatePlyTables();
+
+        _rootKeyIndex = main._rootKeyIndex;
+        _zobristKeys = main._zobristKeys.clone();
+        _halfmoveClocks = new int[MAX_PLY + 1];
+        _halfmoveClocks[0] = main._halfmoveClocks[0];
+
+        _threadCount = 1;
+        _helperIndex = helperIndex;
+        _helpers = new Search[0];
+    }
+
+
+    private void allocatePlyTables() {
+        _timeManager = new TimeManager();
+        _allRootMoves = new MoveList();
+        _rootMovesLeft = new MoveList();
+        _rootMoves = _allRootMoves;
+        _multiPv = 1;
+        _lines = new SearchResult[0];
+        _pickers = new MovePicker[MAX_PLY];
+        _pvTable = new int[MAX_PLY][MAX_PLY];
+        _pvLengths = new int[MAX_PLY];
+        _previousPv = new int[0];
+        _previousPvs = new int[0][];
+
+        _killers = new int[MAX_PLY][2];
+        _counterMoves = new int[2][MovePicker.HISTORY_SIZE];
+        _history = new int[2][MovePicker.HISTORY_SIZE];
+        _movesMade = new int[MAX_PLY + 1];
+
+        for (int ply = 0; ply < MAX_PLY; ++ply) {
+            _pickers[ply] = new MovePicker();
+        }
+    }
+
+
+    public int getThreadCount() { return _threadCount; }
+
+    /**
+     * @param threadCount how many threads to search with, the calling thread being one of them
+     */
+    public void setThreadCount(int threadCount) {
+        if ((threadCount < 1) || (MAX_THREADS < threadCount)) {
+            throw new IllegalArgumentException("Must search with 1 to " + MAX_THREADS + " threads, not " + threadCount);
+        }
+
+        _threadCount = threadCount;
+    }
+
+
+    public int getMultiPv() { return _multiPv; }
+
+    /**
+     * @param multiPv how many of the best moves of the root to find a line for, each but the first
+     *     searched without the moves of the lines before it, sharing the table and move ordering
+     */
+    public void setMultiPv(int multiPv) {
+        if ((multiPv < 1) || (MAX_MULTI_PV < multiPv)) {
+            throw new IllegalArgumentException("Must look for 1 to " + MAX_MULTI_PV + " lines, not " + multiPv);
+        }
+
+        _multiPv = multiPv;
+    }
+
+
+    /**
+     * @return the lines of the deepest search completed, best first, as many as were asked for by
+     *     setMultiPv() unless there are fewer moves than that
+     */
+    public List<SearchResult> getLines() {
+        return Collections.unmodifiableList(Arrays.asList(_lines.clone()));
+    }
+
+
+    public boolean isFeatureEnabled(SearchFeature feature) { return _features.contains(feature); }
+
+    /**
+     * Every SearchFeature is enabled to begin with.
+     */
+    public void setFeatureEnabled(SearchFeature feature, boolean enabled) {
+        if (enabled) {
+            _features.add(feature);
+        } else {
+            _features.remove(feature);
+        }
+    }
+
+
+    public static boolean isMateScore(int score) {
+        return MATE_SCORE - MAX_PLY <= Math.abs(score);
+    }
+
+
+    /**
+     * Ask the search to give up as soon as it can, with the best move of the deepest search completed.
+     */
+    public void stop() {
+        _stopRequested = true;
+    }
+
+
+    /**
+     * Tell a search pondering that the move pondered on was made, so its clock is to start now, and it's
+     * to give its best move once the time for it is up, as any other.
+     */
+    public void ponderHit() {
+        _ponderHit = true;
+    }
+
+
+    /**
+     * @return whether the search is pondering still, with its clock yet to start
+     */
+    public boolean isPondering() {
+        return (null != _limits) && _limits.isPonder() && !_ponderHit;
+    }
+
+
+    public SearchResult search(SearchLimits limits) {
+        return search(limits, null);
+    }
+
+
+    /**
+     * Search on the calling thread, along with as many helper threads as there are more threads to
+     * search with, which are stopped once the calling thread is done.
+     *
+     * @param listener told of the best line of each depth as it's completed, or null
+     * @return the best line of the deepest search completed, with no moves at all when there are none
+     */
+    public SearchResult search(SearchLimits limits, SearchListener listener) {
+        _table.newSearch();
+
+        _helpers = new Search[_threadCount - 1];
+        Thread[] helperThreads = new Thread[_helpers.length];
+
+        for (int i = 0; i < _helpers.length; ++i) {
+            Search helper = new Search(this, i + 1);
+            _helpers[i] = helper;
+            helperThreads[i] = new Thread(() -> helper.deepen(limits, null), "search-helper-" + (i + 1));
+            helperThreads[i].setDaemon(true);
+        }
+
+        for (Thread helperThread : helperThreads) {
+            helperThread.start();
+        }
+
+        SearchResult result;
+
+        try {
+            result = deepen(limits, listener);
+        } finally {
+            for (Search helper : _helpers) {
+                helper.stop();
+            }
+
+            for (Thread helperThread : helperThreads) {
+                try {
+                    helperThread.join();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        // Only now the helpers are done are all their nodes counted ...
+        return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(),
+                countNodes(), System.nanoTime() - _startNanos);
+    }
+
+
+    /**
+     * @return the nodes searched so far, by every thread
+     */
+    private long countNodes() {
+        long nodes = _nodes;
+
+        for (Search helper : _helpers) {
+            nodes += helper._nodesPublished;
+        }
+
+        return nodes;
+    }
+
+
+    /**
+     * Iterative deepening, until the limits are reached or there's no point going any deeper ...
+     */
+    private SearchResult deepen(SearchLimits limits, SearchListener listener) {
+        _limits = limits;
+        _startNanos = System.nanoTime();
+        _timeManager.start(limits, _startNanos);
+        _nodes = 0;
+        _aborted = false;
+
+        MoveList rootMoves = _allRootMoves;
+        rootMoves.clear();
+        _board.generateMoves(_rootSideColor, rootMoves);
+        _lines = new SearchResult[0];
+
+        if (rootMoves.isEmpty()) {
+            int score = _board.isInCheck(_rootSideColor) ? -MATE_SCORE : DRAW_SCORE;
+            return new SearchResult(new int[0], score, 0, 0, System.nanoTime() - _startNanos);
+        }
+
+        if (0 < _helperIndex) {
+            rotateQuietMoves(rootMoves, _helperIndex);
+        }
+
+        // Helpers only ever look for the best line, which is what they help with most ...
+        int lineCount = (0 == _helperIndex) ? Math.min(_multiPv, rootMoves.size()) : 1;
+        int[][] linePvs = new int[lineCount][];
+        int[] lineScores = new int[lineCount];
+        _previousPvs = new int[lineCount][0];
+
+        // Should the very first depth be cut short, any valid move is better than none ...
+        SearchResult result = new SearchResult(new int[] { rootMoves.get(0) }, DRAW_SCORE, 0, 0, 0);
+        int maxDepth = limits.isInfinite() ? MAX_PLY - 1 : limits.getMaxDepth();
+
+        for (int depth = 1 + (_helperIndex & 1); depth <= maxDepth; ++depth) {
+            for (int line = 0; (line < lineCount) && !_aborted; ++line) {
+                _rootMoves = (0 == line) ? rootMoves : rootMovesLeft(rootMoves, linePvs, line);
+                _previousPv = _previousPvs[line];
+                _followingPv = true;
+
+                lineScores[line] = negamax(_rootSideColor, depth, -INFINITE_SCORE, INFINITE_SCORE, 0);
+                linePvs[line] = Arrays.copyOf(_pvTable[0], _pvLengths[0]);
+            }
+
+            if (_aborted) {
+                break;
+            }
+
+            SearchResult[] lines = sortLines(linePvs, lineScores, depth);
+
+            for (int line = 0; line < lineCount; ++line) {
+                _previousPvs[line] = lines[line].getPrincipalVariation();
+            }
+
+            _lines = lines;
+            result = lines[0];
+            int score = result.getScore();
+
+            if (null != listener) {
+                for (SearchResult line : lines) {
+                    listener.iterationDone(line);
+                }
+            }
+
+            // Searching deeper won't find a quicker checkmate than one already found ...
+            if ((1 == lineCount) && isMateScore(score) && (MATE_SCORE - Math.abs(score) <= depth)) {
+                break;
+            }
+
+            if (0 == _helperIndex) {
+                checkPonderHit();
+
+                // Nor is there anything to decide with only the one move, once the clock is running ...
+                boolean timeForMore = _timeManager.iterationDone(result.getBestMove(), score, System.nanoTime());
+
+                if (!timeForMore || ((1 == rootMoves.size()) && limits.isTimed() && !_timeManager.isPondering())) {
+                    break;
+                }
+            }
+        }
+
+        _nodesPublished = _nodes;
+
+        return result;
+    }
+
+
+    /**
+     * @return the moves of the root, less those found best by the lines before the given one ...
+     */
+    private MoveList rootMovesLeft(MoveList rootMoves, int[][] linePvs, int line) {
+        MoveList movesLeft = _rootMovesLeft;
+        movesLeft.clear();
+
+        for (int i = 0; i < rootMoves.size(); ++i) {
+            int move = rootMoves.get(i);
+            boolean taken = false;
+
+            for (int j = 0; (j < line) && !taken; ++j) {
+                taken = (0 < linePvs[j].length) && (move == linePvs[j][0]);
+            }
+
+            if (!taken) {
+                movesLeft.add(move);
+            }
+        }
+
+        return movesLeft;
+    }
+
+
+    /**
+     * @return the lines of the depth, best first, as a line searched later may turn out better than one
+     *     searched before it now that it's been searched deeper ...
+     */
+    private SearchResult[] sortLines(int[][] linePvs, int[] lineScores, int depth) {
+        Integer[] order = new Integer[linePvs.length];
+
+        for (int line = 0; line < order.length; ++line) {
+            order[line] = line;
+        }
+
+        Arrays.sort(order, (a, b) -> Integer.compare(lineScores[b], lineScores[a]));
+
+        SearchResult[] lines = new SearchResult[order.length];
+        long nodes = countNodes();
+        long elapsedNanos = System.nanoTime() - _startNanos;
+
+        for (int rank = 0; rank < order.length; ++rank) {
+            lines[rank] = new SearchResult(linePvs[order[rank]], lineScores[order[rank]], depth, nodes, elapsedNanos, rank + 1);
+        }
+
+        return lines;
+    }
+
+
+    /**
+     * Have a helper try the quiet moves of the root in an order of its own, after the captures ...
+     */
+    private static void rotateQuietMoves(MoveList moves, int by) {
+        int firstQuiet = 0;
+
+        for (int i = 0; i < moves.size(); ++i) {
+            if (Move.isCapture(moves.get(i))) {
+                swap(moves, i, firstQuiet++);
+            }
+        }
+
+        int quietCount = moves.size() - firstQuiet;
+
+        for (int n = 0; n < (by % Math.max(1, quietCount)); ++n) {
+            int first = moves.get(firstQuiet);
+
+            for (int i = firstQuiet; i < moves.size() - 1; ++i) {
+                moves.set(i, moves.get(i + 1));
+            }
+
+            moves.set(moves.size() - 1, first);
+        }
+    }
+
+
+    private int negamax(int sideColor, int depth, int alpha, int beta, int ply) {
+        if (depth <= 0) {
+            return quiesce(sideColor, alpha, beta, ply);
+        }
+
+        _pvLengths[ply] = 0;
+
+        if (((++_nodes & CHECK_LIMITS_MASK) == 0) || (_limits.getMaxNodes() <= _nodes)) {
+            checkLimits();
+        }
+
+        if (_aborted) {
+            return 0;
+        }
+
+        if ((0 < ply) && (isRepetition(ply) || (MOVES_WITHOUT_PROGRESS_FOR_DRAW <= _halfmoveClocks[ply]))) {
+            return DRAW_SCORE;
+        }
+
+        if (MAX_PLY - 1 <= ply) {
+            return _evaluator.evaluate(_board, sideColor);
+        }
+
+        // Only a window that's been narrowed to nothing can be cut short by the table, so the best line
+        // is never lost for an entry that was searched with other bounds ...
+        boolean pvNode = (alpha + 1 < beta);
+        long zobristKey = _zobristKeys[_rootKeyIndex + ply];
+        long entry = _table.probe(zobristKey);
+        int hashMove = Move.NO_MOVE;
+
+        if (TranspositionTable.NOT_FOUND != entry) {
+            hashMove = TranspositionTable.moveOf(entry);
+
+            if (!pvNode && (depth <= TranspositionTable.depthOf(entry))) {
+                int score = scoreFromTable(TranspositionTable.scoreOf(entry), ply);
+                int bound = TranspositionTable.boundOf(entry);
+
+                if ((TranspositionTable.EXACT == bound)
+                        || ((TranspositionTable.LOWER_BOUND == bound) && (beta <= score))
+                        || ((TranspositionTable.UPPER_BOUND == bound) && (score <= alpha))) {
+                    return score;
+                }
+            }
+        }
+
+        int pvMove = hashMove;
+
+        if (_followingPv) {
+            _followingPv = false;
+
+            if (ply < _previousPv.length) {
+                pvMove = _previousPv[ply];
+            }
+        }
+
+        boolean inCheck = _board.isInCheck(sideColor);
+        boolean mayPrune = !pvNode && !inCheck;
+        int staticEval = mayPrune ? _evaluator.evaluate(_board, sideColor) : -INFINITE_SCORE;
+
+        // So far above beta that even losing a little more than the depth is worth won't bring it back ...
+        if (mayPrune && (depth <= REVERSE_FUTILITY_MAX_DEPTH) && !isMateScore(beta)
+                && (beta <= staticEval - REVERSE_FUTILITY_MARGIN * depth)
+                && _features.contains(SearchFeature.FutilityPruning)) {
+            return staticEval;
+        }
+
+        // Should the side to move still be above beta after passing, and searching less deeply, it
+        // surely is with a move. That's not so when every move makes things worse, as is likely with
+        // only Pawns left, nor after a pass already, as passing twice proves nothing ...
+        if (mayPrune && (NULL_MOVE_MIN_DEPTH <= depth) && (beta <= staticEval) && !isMateScore(beta)
+                && (Move.NO_MOVE != _movesMade[ply]) && _board.hasPiecesOtherThanPawns(sideColor)
+                && _features.contains(SearchFeature.NullMovePruning)) {
+            int reduction = (6 < depth) ? 3 : 2;
+
+            makeNullMove(sideColor, ply);
+            int score = -negamax(1 - sideColor, depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+            _board.unmakeMove();
+
+            if (_aborted) {
+                return 0;
+            }
+
+            if (beta <= score) {
+                return isMateScore(score) ? beta : score;
+            }
+        }
+
+        MovePicker picker = _pickers[ply];
+
+        if (0 == ply) {
+            picker.resetForMoves(_board, sideColor, _rootMoves, pvMove, _history[sideColor]);
+        } else {
+            picker.reset(_board, sideColor, pvMove, _killers[ply][0], _killers[ply][1],
+                    _counterMoves[sideColor][MovePicker.historyIndex(_movesMade[ply])], _history[sideColor]);
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = Move.NO_MOVE;
+        int movesSearched = 0;
+
+        // A move into the last ply is only followed by quiesce(), which itself passes over the captures the
+        // static exchange says lose material, so here they aren't worth one of their own either, unless
+        // they get the King out of check ...
+        boolean pruneLosingCaptures = (1 == depth) && !inCheck;
+
+        // Quiet moves from a position so far below alpha that they're unlikely to make up for it ...
+        boolean pruneQuietMoves = mayPrune && (depth < FUTILITY_MARGINS.length) && !isMateScore(alpha)
+                && (staticEval + FUTILITY_MARGINS[depth] <= alpha)
+                && _features.contains(SearchFeature.FutilityPruning);
+
+        for (int move = picker.next(); Move.NO_MOVE != move; move = picker.next()) {
+            int score;
+
+            if (pruneLosingCaptures && (0 < movesSearched) && picker.isLosingCapture()) {
+                continue;
+            }
+
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+
+            _followingPv = (Move.NO_MOVE != pvMove) && (move == pvMove);
+            makeMove(move, sideColor, ply);
+
+            boolean givesCheck = _board.isInCheck(1 - sideColor);
+
+            if (pruneQuietMoves && quiet && !givesCheck && (0 < movesSearched)) {
+                _board.unmakeMove();
+                continue;
+            }
+
+            int newDepth = (givesCheck && _features.contains(SearchFeature.CheckExtensions)) ? depth : depth - 1;
+            int reduction = 0;
+
+            if (quiet && !inCheck && !givesCheck && (REDUCTION_MIN_DEPTH <= depth) && (REDUCTION_MIN_MOVES <= movesSearched)
+                    && _features.contains(SearchFeature.LateMoveReductions)) {
+                reduction = REDUCTIONS[depth][Math.min(movesSearched, REDUCTIONS[depth].length - 1)] - (pvNode ? 1 : 0);
+                reduction = Math.max(0, Math.min(reduction, newDepth - 1));
+            }
+
+            // Having searched the first move in full, the rest need only be shown to be no better, which
+            // a window of nothing does quickly, and only those that turn out better are searched again,
+            // at full depth first when they were reduced ...
+            if (0 == movesSearched) {
+                score = -negamax(1 - sideColor, newDepth, -beta, -alpha, ply + 1);
+            } else {
+                score = -negamax(1 - sideColor, newDepth - reduction, -alpha - 1, -alpha, ply + 1);
+
+                if (!_aborted && (0 < reduction) && (alpha < score)) {
+                    score = -negamax(1 - sideColor, newDepth, -alpha - 1, -alpha, ply + 1);
+                }
+
+                if (!_aborted && (alpha < score) && (score < beta)) {
+                    score = -negamax(1 - sideColor, newDepth, -beta, -alpha, ply + 1);
+                }
+            }
+
+            _board.unmakeMove();
+            ++movesSearched;
+
+            if (_aborted) {
+                return 0;
+            }
+
+            if (bestScore < score) {
+                bestScore = score;
+
+                if (alpha < score) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+
+                    if (beta <= alpha) {
+                        if (MovePicker.isQuiet(move)) {
+                            rememberCutoff(move, sideColor, depth, ply);
+                        }
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (0 == movesSearched) {
+            return inCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+
+        int bound = (beta <= bestScore) ? TranspositionTable.LOWER_BOUND
+                : ((originalAlpha < bestScore) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND);
+        _table.store(zobristKey, bestMove, scoreToTable(bestScore, ply), depth, bound);
+
+        return bestScore;
+    }
+
+
+    /**
+     * Past the last ply, only captures and promotions that win material, or at least lose none, are
+     * followed until the position is quiet, so nothing is evaluated with a piece about to be taken.
+     * The side to move may stand pat on the evaluation instead, as it needn't take, unless it's in
+     * check, when every move out of check is tried. Captures don't lead back to positions seen before,
+     * so are neither stored in the table nor added to the best line ...
+     */
+    private int quiesce(int sideColor, int alpha, int beta, int ply) {
+        _pvLengths[ply] = 0;
+
+        if (((++_nodes & CHECK_LIMITS_MASK) == 0) || (_limits.getMaxNodes() <= _nodes)) {
+            checkLimits();
+        }
+
+        if (_aborted) {
+            return 0;
+        }
+
+        if (isRepetition(ply) || (MOVES_WITHOUT_PROGRESS_FOR_DRAW <= _halfmoveClocks[ply])) {
+            return DRAW_SCORE;
+        }
+
+        if (MAX_PLY - 1 <= ply) {
+            return _evaluator.evaluate(_board, sideColor);
+        }
+
+        boolean inCheck = _board.isInCheck(sideColor);
+        MovePicker picker = _pickers[ply];
+        int bestScore;
+
+        if (inCheck) {
+            picker.reset(_board, sideColor, Move.NO_MOVE, Move.NO_MOVE, Move.NO_MOVE, Move.NO_MOVE, _history[sideColor]);
+            bestScore = -INFINITE_SCORE;
+        } else {
+            bestScore = _evaluator.evaluate(_board, sideColor);
+
+            if (beta <= bestScore) {
+                return bestScore;
+            }
+
+            alpha = Math.max(alpha, bestScore);
+            picker.resetForCaptures(_board, sideColor);
+        }
+
+        int movesSearched = 0;
+
+        for (int move = picker.next(); Move.NO_MOVE != move; move = picker.next()) {
+            makeMove(move, sideColor, ply);
+            int score = -quiesce(1 - sideColor, -beta, -alpha, ply + 1);
+            _board.unmakeMove();
+            ++movesSearched;
+
+            if (_aborted) {
+                return 0;
+            }
+
+            if (bestScore < score) {
+                bestScore = score;
+
+                if (alpha < score) {
+                    alpha = score;
+
+                    if (beta <= alpha) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (inCheck && (0 == movesSearched)) {
+            return -MATE_SCORE + ply;
+        }
+
+        return bestScore;
+    }
+
+
+    /**
+     * A checkmate is stored in the table as so many plies from the position, rather than from the root,
+     * as the position may come up again at another ply ...
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return (0 < score) ? score + ply : score - ply;
+        }
+
+        return score;
+    }
+
+
+    private static int scoreFromTable(int score, int ply) {
+        if (isMateScore(score)) {
+            return (0 < score) ? score - ply : score + ply;
+        }
+
+        return score;
+    }
+
+
+    /**
+     * Make the move, and keep up with the Zobrist keys and halfmove clock of the line it leads to ...
+     */
+    private void makeMove(int move, int sideColor, int ply) {
+        int pieceType = _board.getPieceTypeOf(_board.getPieceIndexOn(Move.squareDeparted(move)));
+        boolean madeProgress = Move.isCapture(move) || (PieceType.Pawn.getValue() == pieceType);
+
+        _board.makeMove(move);
+
+        _zobristKeys[_rootKeyIndex + ply + 1] = _board.getZobristKey(1 - sideColor);
+        _movesMade[ply + 1] = move;
+        _halfmoveClocks[ply + 1] = madeProgress ? 0 : _halfmoveClocks[ply] + 1;
+    }
+
+
+    /**
+     * Pass the move to the other side. A line coming back to a position from before the pass isn't
+     * taken as a repetition of it, as passing isn't a move that could be made in the game ...
+     */
+    private void makeNullMove(int sideColor, int ply) {
+        _board.makeNullMove();
+
+        _zobristKeys[_rootKeyIndex + ply + 1] = _board.getZobristKey(1 - sideColor);
+        _movesMade[ply + 1] = Move.NO_MOVE;
+        _halfmoveClocks[ply + 1] = 0;
+        _followingPv = false;
+    }
+
+
+    /**
+     * @return whether the position at the given ply came up before, since the last progress made. Only
+     *     every other one need be looked at, as the side to move must be the same
+     */
+    private boolean isRepetition(int ply) {
+        int keyIndex = _rootKeyIndex + ply;
+        int oldestIndex = Math.max(0, keyIndex - _halfmoveClocks[ply]);
+        long zobristKey = _zobristKeys[keyIndex];
+
+        for (int i = keyIndex - 4; oldestIndex <= i; i -= 2) {
+            if (zobristKey == _zobristKeys[i]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Remember a quiet move that caused a cutoff as a killer of its ply, as the counter-move of the move
+     * before it, and in its history, the more so the deeper it was searched ...
+     */
+    private void rememberCutoff(int move, int sideColor, int depth, int ply) {
+        int[] killers = _killers[ply];
+
+        if (killers[0] != move) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+
+        if (Move.NO_MOVE != _movesMade[ply]) {
+            _counterMoves[sideColor][MovePicker.historyIndex(_movesMade[ply])] = move;
+        }
+
+        int[] history = _history[sideColor];
+        int i = MovePicker.historyIndex(move);
+        history[i] += depth * depth;
+
+        if (MAX_HISTORY < history[i]) {
+            for (int j = 0; j < history.length; ++j) {
+                history[j] /= 2;
+            }
+        }
+    }
+
+
+    private static void swap(MoveList moves, int i, int j) {
+        int move = moves.get(i);
+        moves.set(i, moves.get(j));
+        moves.set(j, move);
+    }
+
+
+    private void updatePv(int ply, int move) {
+        int[] pv = _pvTable[ply];
+        int childLength = _pvLengths[ply + 1];
+
+        pv[0] = move;
+        System.arraycopy(_pvTable[ply + 1], 0, pv, 1, childLength);
+        _pvLengths[ply] = childLength + 1;
+    }
+
+
+    /**
+     * A helper only stops when told to, while the main thread keeps to the limits, counting the nodes
+     * of every thread so far ...
+     */
+    private void checkLimits() {
+        _nodesPublished = _nodes;
+
+        if (_stopRequested) {
+            _aborted = true;
+        } else if (0 == _helperIndex) {
+            checkPonderHit();
+
+            if ((_limits.getMaxNodes() <= countNodes()) || _timeManager.isTimeUp(System.nanoTime())) {
+                _aborted = true;
+            }
+        }
+    }
+
+
+    /**
+     * Start the clock once told of a ponder hit, on the searching thread, so the TimeManager is only
+     * ever used by the one thread ...
+     */
+    private void checkPonderHit() {
+        if (_ponderHit) {
+            _timeManager.ponderHit(System.nanoTime());
+        }
+    }
+}
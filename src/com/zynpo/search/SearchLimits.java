@@ -0,0 +1,152 @@
+package com.zynpo.search;
+
+
+/**
+ * How far a Search may go before giving its best move: a depth, a number of nodes and a time,
+ * whichever comes first. A search that's infinite ignores them all and only ends when stopped.
+ *
+ * Rather than a time for the move, the side to move's clock may be given, with its increment and how
+ * many moves are left to make before the next time control, for a TimeManager to share out. Pondering,
+ * the clock is only started once the move pondered on is made, as told by Search.ponderHit().
+ */
+public class SearchLimits {
+
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private int _maxDepth;
+    private long _maxNodes;
+    private long _moveTimeMillis;
+    private long _timeLeftMillis;
+    private long _incrementMillis;
+    private int _movesToGo;
+    private boolean _infinite;
+    private boolean _ponder;
+
+
+    public SearchLimits() {
+        _maxDepth = Search.MAX_PLY - 1;
+        _maxNodes = NO_LIMIT;
+        _moveTimeMillis = NO_LIMIT;
+        _timeLeftMillis = NO_LIMIT;
+        _incrementMillis = 0;
+        _movesToGo = 0;
+        _infinite = false;
+        _ponder = false;
+    }
+
+
+    public static SearchLimits depth(int maxDepth) {
+        SearchLimits limits = new SearchLimits();
+        limits.setMaxDepth(maxDepth);
+        return limits;
+    }
+
+
+    public int getMaxDepth() { return _maxDepth; }
+
+    public void setMaxDepth(int maxDepth) {
+        if ((maxDepth < 1) || (Search.MAX_PLY <= maxDepth)) {
+            throw new IllegalArgumentException("Search depth must be from 1 to " + (Search.MAX_PLY - 1) + ", not " + maxDepth);
+        }
+
+        _maxDepth = maxDepth;
+    }
+
+
+    public long getMaxNodes() { return _maxNodes; }
+
+    public void setMaxNodes(long maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Must search at least 1 node, not " + maxNodes);
+        }
+
+        _maxNodes = maxNodes;
+    }
+
+
+    public long getMoveTimeMillis() { return _moveTimeMillis; }
+
+    public void setMoveTimeMillis(long moveTimeMillis) {
+        if (moveTimeMillis < 1) {
+            throw new IllegalArgumentException("Must search for at least 1 millisecond, not " + moveTimeMillis);
+        }
+
+        _moveTimeMillis = moveTimeMillis;
+    }
+
+
+    /**
+     * @return what's left on the side to move's clock, or NO_LIMIT when it isn't playing to a clock
+     */
+    public long getTimeLeftMillis() { return _timeLeftMillis; }
+
+    public void setTimeLeftMillis(long timeLeftMillis) {
+        if (timeLeftMillis < 0) {
+            throw new IllegalArgumentException("Time left can't be negative: " + timeLeftMillis);
+        }
+
+        _timeLeftMillis = timeLeftMillis;
+    }
+
+
+    /**
+     * @return what's added to the side to move's clock with each move it makes
+     */
+    public long getIncrementMillis() { return _incrementMillis; }
+
+    public void setIncrementMillis(long incrementMillis) {
+        if (incrementMillis < 0) {
+            throw new IllegalArgumentException("Increment can't be negative: " + incrementMillis);
+        }
+
+        _incrementMillis = incrementMillis;
+    }
+
+
+    /**
+     * @return the moves left to make in the time left, or 0 when it's all the time there is for the game
+     */
+    public int getMovesToGo() { return _movesToGo; }
+
+    public void setMovesToGo(int movesToGo) {
+        if (movesToGo < 0) {
+            throw new IllegalArgumentException("Moves to go can't be negative: " + movesToGo);
+        }
+
+        _movesToGo = movesToGo;
+    }
+
+
+    public boolean isTimed() {
+        return !_infinite && ((NO_LIMIT != _moveTimeMillis) || (NO_LIMIT != _timeLeftMillis));
+    }
+
+
+    public boolean isInfinite() { return _infinite; }
+
+    public void setInfinite(boolean infinite) { _infinite = infinite; }
+
+
+    /**
+     * @return whether the search is of the position after the move expected of the opponent, made before
+     *     the opponent has made it, so the clock isn't to be started until it has
+     */
+    public boolean isPonder() { return _ponder; }
+
+    public void setPonder(boolean ponder) { _ponder = ponder; }
+
+
+    @Override
+    public String toString() {
+        if (_infinite) {
+            return "infinite";
+        }
+
+        return (_ponder ? "ponder " : "")
+                + "depth " + _maxDepth
+                + ((NO_LIMIT == _maxNodes) ? "" : " nodes " + _maxNodes)
+                + ((NO_LIMIT == _moveTimeMillis) ? "" : " movetime " + _moveTimeMillis)
+                + ((NO_LIMIT == _timeLeftMillis) ? "" : " time " + _timeLeftMillis + " inc " + _incrementMillis)
+                + ((0 == _movesToGo) ? "" : " movestogo " + _movesToGo);
+    }
+}
@@ -0,0 +1,13 @@
+package com.zynpo.search;
+
+
+/**
+ * Told of the progress of a Search, from the thread doing the searching.
+ */
+public interface SearchListener {
+
+    /**
+     * @param result the best line found by the iteration of iterative deepening just completed
+     */
+    void iterationDone(SearchResult result);
+}
@@ -0,0 +1,133 @@
+package com.zynpo.search;
+
+import com.zynpo.impls.Move;
+
+import java.util.Arrays;
+
+
+/**
+ * The best line a Search found to the depth it completed: the moves expected from both sides,
+ * packed as described by Move, and the score of where they lead for the side to move. Looking for
+ * more than one line, it's one of them, ranked from 1 for the best.
+ */
+public class SearchResult {
+
+    private int[] _principalVariation;
+    private int _score;
+    private int _depth;
+    private long _nodes;
+    private long _elapsedNanos;
+    private int _multiPv;
+
+
+    SearchResult(int[] principalVariation, int score, int depth, long nodes, long elapsedNanos) {
+        this(principalVariation, score, depth, nodes, elapsedNanos, 1);
+    }
+
+
+    SearchResult(int[] principalVariation, int score, int depth, long nodes, long elapsedNanos, int multiPv) {
+        _principalVariation = principalVariation;
+        _score = score;
+        _depth = depth;
+        _nodes = nodes;
+        _elapsedNanos = elapsedNanos;
+        _multiPv = multiPv;
+    }
+
+
+    /**
+     * @return the move to make, or Move.NO_MOVE when there's none
+     */
+    public int getBestMove() {
+        return (0 == _principalVariation.length) ? Move.NO_MOVE : _principalVariation[0];
+    }
+
+    /**
+     * @return the reply expected to the best move, or Move.NO_MOVE
+     */
+    public int getPonderMove() {
+        return (_principalVariation.length < 2) ? Move.NO_MOVE : _principalVariation[1];
+    }
+
+    public int[] getPrincipalVariation() { return _principalVariation.clone(); }
+
+    /**
+     * @return centipawns for the side to move, or within Search.MAX_PLY of Search.MATE_SCORE
+     *     either way when a checkmate is found
+     */
+    public int getScore() { return _score; }
+
+    public boolean isMateScore() { return Search.isMateScore(_score); }
+
+    /**
+     * @return moves to checkmate, negative when being checkmated, or 0 when there's no checkmate in sight
+     */
+    public int getMateInMoves() {
+        if (!isMateScore()) {
+            return 0;
+        }
+
+        return (0 < _score) ? (Search.MATE_SCORE - _score + 1) / 2 : -(Search.MATE_SCORE + _score) / 2;
+    }
+
+    public int getDepth() { return _depth; }
+
+    /**
+     * @return the rank of the line among those looked for, from 1 for the best
+     */
+    public int getMultiPv() { return _multiPv; }
+
+    public long getNodes() { return _nodes; }
+
+    public long getElapsedNanos() { return _elapsedNanos; }
+
+    public long getNodesPerSecond() {
+        return (0 == _elapsedNanos) ? 0 : (long) (_nodes * 1e9 / _elapsedNanos);
+    }
+
+
+    /**
+     * @return the principal variation in coordinate notation, separated by spaces
+     */
+    public String principalVariationString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int move : _principalVariation) {
+            if (0 < sb.length()) {
+                sb.append(' ');
+            }
+
+            sb.append(Move.toString(move));
+        }
+
+        return sb.toString();
+    }
+
+
+    @Override
+    public String toString() {
+        return "depth " + _depth
+                + ((1 == _multiPv) ? "" : " multipv " + _multiPv)
+                + (isMateScore() ? " mate " + getMateInMoves() : " cp " + _score)
+                + " nodes " + _nodes
+                + " pv " + principalVariationString();
+    }
+
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof SearchResult)) {
+            return false;
+        }
+
+        SearchResult other = (SearchResult) obj;
+        return (_score == other._score) && (_depth == other._depth) && (_multiPv == other._multiPv)
+                && Arrays.equals(_principalVariation, other._principalVariation);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(_principalVariation) + _score;
+    }
+}
@@ -0,0 +1,166 @@
+package com.zynpo.search;
+
+import com.zynpo.constant.ChessBoardSpecs;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.AttackTables;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.Move;
+
+
+/**
+ * Static exchange evaluation: what a move wins or loses once every piece that covers the square it
+ * occupies has taken there in turn, each side taking with its least valuable piece first and stopping
+ * as soon as taking any more would only lose. Pieces behind a Bishop, Castle or Queen on the same line
+ * join in as the pieces in front of them take, though pins aren't looked at, and a King never takes
+ * onto a square the other side still covers.
+ *
+ * This is worked out on the bitboards alone, without making any move, so is cheap enough for ordering
+ * and pruning the captures of a search. Values are the centipawns of Evaluator. The gains of each
+ * exchange are worked out in a buffer kept from one move to the next, so a StaticExchange is only to be
+ * used by one thread at a time, as by the MovePicker that owns it.
+ */
+public final class StaticExchange {
+
+    private static final int MAX_EXCHANGES = BitboardChessBoard.PIECE_COUNT;
+
+    private final int[] _gains;     // By exchange, what the side taking then wins, if nothing more is taken
+
+
+    public StaticExchange() {
+        _gains = new int[MAX_EXCHANGES];
+    }
+
+
+    /**
+     * @param board holding the position the move is made from
+     * @param move packed as described by Move
+     * @return the material the side making the move wins by it, in centipawns, or loses when negative
+     */
+    public int evaluate(BitboardChessBoard board, int move) {
+        if (Move.isCastling(move)) {
+            return 0;
+        }
+
+        int squareDeparted = Move.squareDeparted(move);
+        int squareOccupied = Move.squareOccupied(move);
+        int sideColor = BitboardChessBoard.sideColorOf(board.getPieceIndexOn(squareDeparted));
+
+        long occupied = board.getOccupiedBitboard() & ~(1L << squareDeparted);
+        int[] gains = _gains;
+        gains[0] = 0;
+
+        if (Move.isEnPassant(move)) {
+            occupied &= ~(1L << (squareOccupied - BitboardChessBoard.pawnAdvance(sideColor)));
+            gains[0] = Evaluator.pieceValue(PieceType.Pawn.getValue());
+        } else if (Move.isCapture(move)) {
+            gains[0] = Evaluator.pieceValue(board.getPieceTypeOf(board.getPieceIndexOn(squareOccupied)));
+        }
+
+        // What stands on the square, to be taken next ...
+        int onSquareValue = Evaluator.pieceValue(board.getPieceTypeOf(board.getPieceIndexOn(squareDeparted)));
+
+        if (Move.isPromotion(move)) {
+            int promotionValue = Evaluator.pieceValue(Move.promotionTypeValue(move));
+            gains[0] += promotionValue - onSquareValue;
+            onSquareValue = promotionValue;
+        }
+
+        int row = BitboardChessBoard.rowOf(squareOccupied);
+        boolean promotionRow = (0 == row) || (ChessBoardSpecs.ROW_COUNT - 1 == row);
+        long attackers = attackersOf(board, squareOccupied, occupied) & occupied;
+        int side = 1 - sideColor;
+        int exchanges = 0;
+
+        while (exchanges + 1 < MAX_EXCHANGES) {
+            long sideAttackers = attackers & board.getSideBitboard(side);
+
+            if (0L == sideAttackers) {
+                break;
+            }
+
+            int pieceType = PieceType.Pawn.getValue();
+            long attacker = 0L;
+
+            for (; pieceType < PieceType.COUNT; ++pieceType) {
+                attacker = sideAttackers & board.getPieceBitboard(side, pieceType);
+
+                if (0L != attacker) {
+                    attacker &= -attacker;
+                    break;
+                }
+            }
+
+            if ((PieceType.King.getValue() == pieceType) && (0L != (attackers & ~attacker & board.getSideBitboard(1 - side)))) {
+                break;
+            }
+
+            ++exchanges;
+            gains[exchanges] = onSquareValue - gains[exchanges - 1];
+            onSquareValue = Evaluator.pieceValue(pieceType);
+
+            if ((PieceType.Pawn.getValue() == pieceType) && promotionRow) {
+                gains[exchanges] += Evaluator.pieceValue(PieceType.Queen.getValue()) - onSquareValue;
+                onSquareValue = Evaluator.pieceValue(PieceType.Queen.getValue());
+            }
+
+            // Neither side would go on, whatever came next ...
+            if (Math.max(-gains[exchanges - 1], gains[exchanges]) < 0) {
+                break;
+            }
+
+            occupied &= ~attacker;
+            attackers = (attackers | xrayAttackersOf(board, squareOccupied, occupied)) & occupied;
+            side = 1 - side;
+        }
+
+        // Each side takes only when it's better for it than leaving things be ...
+        while (0 < exchanges) {
+            gains[exchanges - 1] = -Math.max(-gains[exchanges - 1], gains[exchanges]);
+            --exchanges;
+        }
+
+        return gains[0];
+    }
+
+
+    /**
+     * @return whether the move wins at least the given centipawns, or loses no more than their negation
+     */
+    public boolean isAtLeast(BitboardChessBoard board, int move, int threshold) {
+        return threshold <= evaluate(board, move);
+    }
+
+
+    /**
+     * @return the squares of the pieces of either side covering the square, with the given squares occupied
+     */
+    private static long attackersOf(BitboardChessBoard board, int square, long occupied) {
+        int white = SideColor.White.getValue();
+        int black = SideColor.Black.getValue();
+        int pawn = PieceType.Pawn.getValue();
+
+        return (AttackTables.pawnAttacks(black, square) & board.getPieceBitboard(white, pawn))
+                | (AttackTables.pawnAttacks(white, square) & board.getPieceBitboard(black, pawn))
+                | (AttackTables.knightAttacks(square) & piecesOfType(board, PieceType.Knight))
+                | (AttackTables.kingAttacks(square) & piecesOfType(board, PieceType.King))
+                | xrayAttackersOf(board, square, occupied);
+    }
+
+
+    /**
+     * @return the Bishops, Castles and Queens of either side covering the square, which are the only
+     *     pieces that can be revealed behind another as it leaves
+     */
+    private static long xrayAttackersOf(BitboardChessBoard board, int square, long occupied) {
+        long queens = piecesOfType(board, PieceType.Queen);
+
+        return (AttackTables.bishopAttacks(square, occupied) & (piecesOfType(board, PieceType.Bishop) | queens))
+                | (AttackTables.castleAttacks(square, occupied) & (piecesOfType(board, PieceType.Castle) | queens));
+    }
+
+
+    private static long piecesOfType(BitboardChessBoard board, PieceType pieceType) {
+        return board.getPieceBitboard(SideColor.White, pieceType) | board.getPieceBitboard(SideColor.Black, pieceType);
+    }
+}
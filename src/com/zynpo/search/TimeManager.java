@@ -0,0 +1,149 @@
+package com.zynpo.search;
+
+
+/**
+ * Shares out the side to move's clock, one move at a time, so a Search gives its move at much the same
+ * time each move rather than by how deep it gets. Two times are set aside for each move:
+ *
+ *   the optimum, the time a move is expected to take, by the time left, the increment and how many moves
+ *     are left to make in it, which iterative deepening doesn't start a new depth past half of, as that
+ *     would surely take longer than all the depths before it,
+ *   and the maximum, past which the search is given up mid-iteration, with the best line of the last
+ *     depth completed.
+ *
+ * The optimum is stretched, up to the maximum, while the best move keeps changing from one depth to the
+ * next, and while its score is falling, as both mean the search hasn't made up its mind yet.
+ *
+ * Given a time for the move instead, that's both the optimum and the maximum, and only the maximum is
+ * kept to. Untimed, or pondering until told of a ponder hit, neither time is ever up.
+ */
+public class TimeManager {
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    public static final long MOVE_OVERHEAD_MILLIS = 50;   // Kept back for the time it takes to hear of the move
+    public static final int DEFAULT_MOVES_TO_GO = 30;     // Left in the game, when playing to the end of it on the clock
+
+    private static final int MAX_OVER_OPTIMUM = 5;        // How much longer than the optimum a move may ever take
+    private static final int FAIL_LOW_MARGIN = 30;        // Centipawns lost from one depth to the next that count
+    private static final double FAIL_LOW_STRETCH = 1.5;
+
+    private SearchLimits _limits;
+    private long _startNanos;
+    private long _optimumNanos;
+    private long _maximumNanos;
+    private boolean _pondering;
+
+    private int _iterations;
+    private int _previousBestMove;
+    private int _previousScore;
+    private double _bestMoveChanges;  // Over the depths so far, halved with each one, so the last few count most
+    private boolean _failingLow;
+
+
+    /**
+     * Start the clock on a move.
+     */
+    public void start(SearchLimits limits, long nowNanos) {
+        _limits = limits;
+        _pondering = limits.isPonder();
+        _iterations = 0;
+        _bestMoveChanges = 0;
+        _failingLow = false;
+
+        allot(nowNanos);
+    }
+
+
+    /**
+     * The move pondered on was made, so the clock starts now.
+     */
+    public void ponderHit(long nowNanos) {
+        if (_pondering) {
+            _pondering = false;
+            allot(nowNanos);
+        }
+    }
+
+
+    private void allot(long nowNanos) {
+        _startNanos = nowNanos;
+        _optimumNanos = NO_DEADLINE;
+        _maximumNanos = NO_DEADLINE;
+
+        if (_pondering || !_limits.isTimed()) {
+            return;
+        }
+
+        long optimumMillis = SearchLimits.NO_LIMIT;
+        long maximumMillis = SearchLimits.NO_LIMIT;
+
+        if (SearchLimits.NO_LIMIT != _limits.getTimeLeftMillis()) {
+            long usable = Math.max(1, _limits.getTimeLeftMillis() - MOVE_OVERHEAD_MILLIS);
+            int movesToGo = (0 < _limits.getMovesToGo()) ? _limits.getMovesToGo() : DEFAULT_MOVES_TO_GO;
+
+            // With only this move left before more time is added, nearly all of it may go on it, else no
+            // more than half, so there's something left for the moves after it ...
+            maximumMillis = (1 == movesToGo) ? usable * 9 / 10 : usable / 2;
+            optimumMillis = usable / movesToGo + _limits.getIncrementMillis() * 3 / 4;
+            maximumMillis = Math.max(1, Math.min(maximumMillis, MAX_OVER_OPTIMUM * optimumMillis));
+            optimumMillis = Math.max(1, Math.min(optimumMillis, maximumMillis));
+        }
+
+        if (SearchLimits.NO_LIMIT != _limits.getMoveTimeMillis()) {
+            maximumMillis = Math.min(maximumMillis, _limits.getMoveTimeMillis());
+            optimumMillis = maximumMillis;
+        }
+
+        _optimumNanos = optimumMillis * 1_000_000L;
+        _maximumNanos = maximumMillis * 1_000_000L;
+    }
+
+
+    public boolean isPondering() { return _pondering; }
+
+    /**
+     * @return the time a move is expected to take, from when the clock was started, or NO_DEADLINE
+     */
+    public long getOptimumNanos() { return _optimumNanos; }
+
+    /**
+     * @return the time a move may take at most, from when the clock was started, or NO_DEADLINE
+     */
+    public long getMaximumNanos() { return _maximumNanos; }
+
+
+    /**
+     * @return whether the search must be given up now, even mid-iteration
+     */
+    public boolean isTimeUp(long nowNanos) {
+        return (NO_DEADLINE != _maximumNanos) && (_maximumNanos <= nowNanos - _startNanos);
+    }
+
+
+    /**
+     * Take note of the best move and score of the depth just completed.
+     *
+     * @return whether there's time enough for another depth
+     */
+    public boolean iterationDone(int bestMove, int score, long nowNanos) {
+        if (0 < _iterations) {
+            _bestMoveChanges = _bestMoveChanges / 2 + ((bestMove != _previousBestMove) ? 1 : 0);
+            _failingLow = score + FAIL_LOW_MARGIN < _previousScore;
+        }
+
+        ++_iterations;
+        _previousBestMove = bestMove;
+        _previousScore = score;
+
+        // Given a time for the move, it's all used, or given a clock, only as much as the move seems to need ...
+        if ((NO_DEADLINE == _optimumNanos) || (SearchLimits.NO_LIMIT == _limits.getTimeLeftMillis())) {
+            return true;
+        }
+
+        double stretch = (1 + _bestMoveChanges) * (_failingLow ? FAIL_LOW_STRETCH : 1);
+        double budgetNanos = Math.min(_maximumNanos, _optimumNanos * stretch);
+
+        return (nowNanos - _startNanos) < budgetNanos / 2;
+    }
+}
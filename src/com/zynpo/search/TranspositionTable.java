@@ -0,0 +1,194 @@
+package com.zynpo.search;
+
+import com.zynpo.impls.Move;
+
+import java.util.Arrays;
+
+
+/**
+ * What a Search learnt of positions it has already been through, so it needn't search them again
+ * when they come up by another move order, or in the next depth or move. The table is allocated up
+ * front as a single long[], and may be shared by any number of searching threads without locking.
+ *
+ * Entries are in buckets of two: one kept for the deepest search of the positions hashed to it, and
+ * one taking whatever was searched last. An entry from a search before the current one is taken to be
+ * out of date, and gives way to any newer. Each entry is a pair of longs, the packed data and that data
+ * XORed with the Zobrist key of the position, so an entry torn by two threads storing at once no longer
+ * XORs back to the key it's probed with, and simply misses.
+ *
+ * Data is packed with the move in bits 0-18, as described by Move, the score in bits 19-34, the depth
+ * in bits 35-42, the bound in bits 43-44 and the generation of the search in bits 45-52. As the bound
+ * is never 0, neither is the data of any entry stored.
+ */
+public class TranspositionTable {
+
+    public static final int DEFAULT_MEGABYTES = 16;
+    public static final int MAX_MEGABYTES = 4096;
+
+    public static final long NOT_FOUND = 0L;
+
+    public static final int UPPER_BOUND = 1;  // The score is at most this, as no move reached alpha
+    public static final int LOWER_BOUND = 2;  // At least, as a move reached beta
+    public static final int EXACT = 3;
+
+    private static final int MOVE_BITS = 19;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + 16;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int GENERATION_SHIFT = BOUND_SHIFT + 2;
+
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final int GENERATION_MASK = 0xFF;
+
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+
+    private long[] _entries;
+    private int _bucketMask;
+    private int _generation;
+
+
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+
+    /**
+     * @param megabytes roughly how much memory to take, rounded down to a power of two buckets
+     */
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+
+    /**
+     * Allocate the table again at the given size, forgetting everything in it ...
+     */
+    public void resize(int megabytes) {
+        if ((megabytes < 1) || (MAX_MEGABYTES < megabytes)) {
+            throw new IllegalArgumentException("Transposition table must take 1 to " + MAX_MEGABYTES + " megabytes, not " + megabytes);
+        }
+
+        long bucketCount = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+
+        _entries = null;  // So the old table may be collected before the new one is allocated ...
+        _entries = new long[(int) (LONGS_PER_BUCKET * bucketCount)];
+        _bucketMask = (int) bucketCount - 1;
+        _generation = 0;
+    }
+
+
+    public void clear() {
+        Arrays.fill(_entries, 0L);
+        _generation = 0;
+    }
+
+
+    public int getBucketCount() { return _bucketMask + 1; }
+
+
+    /**
+     * Age every entry stored so far, so they give way to those of the search about to start.
+     */
+    public void newSearch() {
+        _generation = (_generation + 1) & GENERATION_MASK;
+    }
+
+
+    /**
+     * @return the data stored for the position with the given Zobrist key, or NOT_FOUND
+     */
+    public long probe(long zobristKey) {
+        int i = LONGS_PER_BUCKET * ((int) zobristKey & _bucketMask);
+        long[] entries = _entries;
+
+        for (int j = i; j < i + LONGS_PER_BUCKET; j += 2) {
+            long data = entries[j + 1];
+
+            if ((NOT_FOUND != data) && ((entries[j] ^ data) == zobristKey)) {
+                return data;
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+
+    /**
+     * @param move the best move found, or Move.NO_MOVE to keep whatever move was stored before
+     * @param score as the search should find it again, which for a checkmate is counted from the position
+     * @param bound UPPER_BOUND, LOWER_BOUND or EXACT
+     */
+    public void store(long zobristKey, int move, int score, int depth, int bound) {
+        int i = LONGS_PER_BUCKET * ((int) zobristKey & _bucketMask);
+        long[] entries = _entries;
+
+        long deepData = entries[i + 1];
+        boolean deepMatches = (NOT_FOUND != deepData) && ((entries[i] ^ deepData) == zobristKey);
+        long lastData = entries[i + 3];
+        boolean lastMatches = (NOT_FOUND != lastData) && ((entries[i + 2] ^ lastData) == zobristKey);
+
+        long oldData = deepMatches ? deepData : (lastMatches ? lastData : NOT_FOUND);
+
+        if ((Move.NO_MOVE == move) && (NOT_FOUND != oldData)) {
+            move = moveOf(oldData);
+        }
+
+        depth = Math.max(0, Math.min(depth, 0xFF));
+        long data = pack(move, score, depth, bound, _generation);
+
+        if (deepMatches || (depthOf(deepData) <= depth) || (generationOf(deepData) != _generation)) {
+            // Whatever was deepest gives way, but is still kept as the last stored, in place of any older
+            // entry of this same position ...
+            if (!deepMatches && (NOT_FOUND != deepData)) {
+                entries[i + 2] = entries[i];
+                entries[i + 3] = deepData;
+            }
+
+            entries[i] = zobristKey ^ data;
+            entries[i + 1] = data;
+        } else {
+            entries[i + 2] = zobristKey ^ data;
+            entries[i + 3] = data;
+        }
+    }
+
+
+    /**
+     * @return how many of a thousand entries were stored by the current search, as UCI reports hashfull
+     */
+    public int permilleFull() {
+        int sampled = Math.min(1000, 2 * getBucketCount());
+        int used = 0;
+
+        for (int j = 0; j < sampled; ++j) {
+            long data = _entries[2 * j + 1];
+
+            if ((NOT_FOUND != data) && (generationOf(data) == _generation)) {
+                ++used;
+            }
+        }
+
+        return used * 1000 / sampled;
+    }
+
+
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & MOVE_MASK)
+                | (((long) score & 0xFFFF) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) generation << GENERATION_SHIFT);
+    }
+
+
+    public static int moveOf(long data) { return (int) (data & MOVE_MASK); }
+
+    public static int scoreOf(long data) { return (short) (data >>> SCORE_SHIFT); }
+
+    public static int depthOf(long data) { return (int) (data >>> DEPTH_SHIFT) & 0xFF; }
+
+    public static int boundOf(long data) { return (int) (data >>> BOUND_SHIFT) & 0x3; }
+
+    private static int generationOf(long data) { return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK; }
+}
@@ -0,0 +1,84 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.AttackTables;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.interfaces.ChessBoard;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class AttackTablesTest extends Assert {
+
+    private static long bits(ChessBoard board, String... notations) {
+        long mask = 0L;
+
+        for (String notation : notations) {
+            mask |= 1L << board.getSquare(notation).getIndex();
+        }
+
+        return mask;
+    }
+
+
+    @Test
+    public void steppingPieces() {
+        ChessBoard board = ChessFactory.createBoard();
+
+        assertEquals(bits(board, "b3", "c2"), AttackTables.knightAttacks(board.getSquare("a1").getIndex()));
+        assertEquals(bits(board, "d1", "d2", "e2", "f2", "f1"), AttackTables.kingAttacks(board.getSquare("e1").getIndex()));
+        assertEquals(bits(board, "b3"), AttackTables.pawnAttacks(SideColor.White.getValue(), board.getSquare("a2").getIndex()));
+        assertEquals(bits(board, "d6", "f6"), AttackTables.pawnAttacks(SideColor.Black.getValue(), board.getSquare("e7").getIndex()));
+    }
+
+
+    @Test
+    public void slidingPiecesStopAtBlockers() {
+        ChessBoard board = ChessFactory.createBoard();
+        long occupied = bits(board, "d6", "f4", "b4");
+
+        assertEquals(bits(board, "d5", "d6", "d3", "d2", "d1", "c4", "b4", "e4", "f4"),
+                AttackTables.castleAttacks(board.getSquare("d4").getIndex(), occupied));
+
+        assertEquals(bits(board, "a1", "b2", "c3", "e5", "f6", "g7", "h8", "a7", "b6", "c5", "e3", "f2", "g1"),
+                AttackTables.bishopAttacks(board.getSquare("d4").getIndex(), occupied));
+
+        assertEquals(AttackTables.castleAttacks(board.getSquare("d4").getIndex(), occupied)
+                        | AttackTables.bishopAttacks(board.getSquare("d4").getIndex(), occupied),
+                AttackTables.queenAttacks(board.getSquare("d4").getIndex(), occupied));
+    }
+
+
+    @Test
+    public void squaresBetween() {
+        ChessBoard board = ChessFactory.createBoard();
+
+        assertEquals(bits(board, "f1", "g1"),
+                AttackTables.squaresBetween(board.getSquare("e1").getIndex(), board.getSquare("h1").getIndex()));
+        assertEquals(bits(board, "b1", "c1", "d1"),
+                AttackTables.squaresBetween(board.getSquare("e1").getIndex(), board.getSquare("a1").getIndex()));
+        assertEquals(0L, AttackTables.squaresBetween(board.getSquare("a1").getIndex(), board.getSquare("c2").getIndex()));
+    }
+
+
+    @Test
+    public void squaresCoveredOnBothRepresentations() {
+        for (ChessBoard board : new ChessBoard[] {
+                ChessFactory.createBoard(BoardRepresentation.PieceObjects),
+                ChessFactory.createBoard(BoardRepresentation.Bitboards) }) {
+
+            assertTrue(board.getSquare("f3").coveredBy(SideColor.White));
+            assertFalse(board.getSquare("f4").coveredBy(SideColor.White));
+            assertTrue(board.getSquare("f6").coveredBy(SideColor.Black));
+
+            board.getSquare("e2").getPiece().moveToSquare(board.getSquare("e4"));
+
+            // The Queen and Bishop now see through to the other side ...
+            assertTrue(board.getSquare("h5").coveredBy(SideColor.White));
+            assertTrue(board.getSquare("a6").coveredBy(SideColor.White));
+            assertTrue(board.getSquare("d1").getPiece().covers(board.getSquare("h5")));
+            assertFalse(board.getSquare("d1").getPiece().covers(board.getSquare("d3")));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.PieceFlags;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.pieces.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class BitboardChessBoardTest extends Assert {
+
+    @Test
+    public void initialBoardMatchesPieceObjects() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        ChessBoard board2 = ChessFactory.createBoard(BoardRepresentation.PieceObjects);
+
+        assertTrue(board instanceof BitboardChessBoard);
+        assertEquals(board, board2);
+        assertEquals(board2, board);
+        assertEquals(board2.toString(), board.toString());
+
+        assertEquals(32, board.getPiecesInPlay(PieceFlags.AllPieces).size());
+        assertEquals(16, board.getPiecesInPlay(PieceFlags.AllWhitePieces).size());
+        assertEquals(0, board.getPiecesOutOfPlay(PieceFlags.AllPieces).size());
+        assertTrue(board.getPiecesInPlay(PieceFlags.WhiteKing).toArray()[0] instanceof King);
+        assertNull(board.getEnPassantSquare());
+    }
+
+
+    @Test
+    public void bitboardsFollowMoves() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(BoardRepresentation.Bitboards);
+
+        assertEquals(0x000000000000FF00L, board.getPieceBitboard(SideColor.White, PieceType.Pawn));
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupiedBitboard());
+
+        Knight whiteKnight = (Knight) board.getSquare("g1").getPiece();
+        whiteKnight.moveToSquare(board.getSquare("f3"));
+
+        assertEquals(0x0000000000200002L, board.getPieceBitboard(SideColor.White, PieceType.Knight));
+        assertEquals(whiteKnight, board.getSquare("f3").getPiece());
+        assertNull(board.getSquare("g1").getPiece());
+        assertEquals(1, whiteKnight.getMovedCount());
+
+        whiteKnight.takeBackToSquare(board.getSquare("g1"), null);
+        assertEquals(ChessFactory.createBoard(BoardRepresentation.Bitboards), board);
+        assertEquals(0, whiteKnight.getMovedCount());
+    }
+
+
+    @Test
+    public void cloneIsIndependent() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        ChessBoard board2 = board.clone();
+
+        assertFalse(board == board2);
+        assertEquals(board, board2);
+
+        Pawn whitePawn = (Pawn) board2.getSquare("e2").getPiece();
+        whitePawn.moveToSquare(whitePawn.jumpTwoSquare());
+
+        assertNotEquals(board, board2);
+        assertNotNull(board.getSquare("e2").getPiece());
+        assertNull(board.getSquare("e4").getPiece());
+        assertTrue(board2.getSquare("e4").getPiece() == whitePawn);
+    }
+
+
+    @Test
+    public void copiedFromPieceObjects() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.PieceObjects);
+
+        Pawn whitePawn = (Pawn) board.getSquare("d2").getPiece();
+        whitePawn.moveToSquare(whitePawn.jumpTwoSquare());
+        Knight blackKnight = (Knight) board.getSquare("b8").getPiece();
+        blackKnight.moveToSquare(board.getSquare("c6"));
+
+        ChessBoard bitboard = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        bitboard.getSquare("d2").getPiece().moveToSquare(bitboard.getSquare("d4"));
+        bitboard.getSquare("b8").getPiece().moveToSquare(bitboard.getSquare("c6"));
+
+        assertEquals(board, bitboard);
+        assertEquals(1, bitboard.getSquare("c6").getPiece().getMovedCount());
+    }
+
+
+    @Test
+    public void enPassantTakesThePawnBehind() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+
+        Pawn whitePawn = (Pawn) board.getSquare("e2").getPiece();
+        whitePawn.moveToSquare(whitePawn.jumpTwoSquare());
+        board.getSquare("a7").getPiece().moveToSquare(board.getSquare("a6"));
+        whitePawn.moveToSquare(whitePawn.squareJustInFront());
+
+        Pawn blackPawn = (Pawn) board.getSquare("d7").getPiece();
+        blackPawn.moveToSquare(blackPawn.jumpTwoSquare());
+        assertEquals(board.getSquare("d6"), board.getEnPassantSquare());
+        assertTrue(whitePawn.mightMoveTo(board.getSquare("d6")));
+
+        ChessPiece takenPiece = whitePawn.moveToSquare(board.getSquare("d6"));
+        assertEquals(blackPawn, takenPiece);
+        assertNull(blackPawn.getSquare());
+        assertNull(board.getSquare("d5").getPiece());
+        assertEquals(1, board.getPiecesOutOfPlay(PieceFlags.AllBlackPawns).size());
+
+        whitePawn.takeBackToSquare(board.getSquare("e5"), takenPiece);
+        assertEquals(board.getSquare("d5"), blackPawn.getSquare());
+        assertNull(board.getSquare("d6").getPiece());
+    }
+
+
+    @Test
+    public void kingCastlesWithItsCastle() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+
+        board.getSquare("e2").getPiece().moveToSquare(board.getSquare("e4"));
+        board.getSquare("e7").getPiece().moveToSquare(board.getSquare("e5"));
+        board.getSquare("g1").getPiece().moveToSquare(board.getSquare("f3"));
+        board.getSquare("b8").getPiece().moveToSquare(board.getSquare("c6"));
+
+        King whiteKing = (King) board.getSquare("e1").getPiece();
+        assertFalse(whiteKing.mightMoveTo(board.getSquare("g1")));
+
+        board.getSquare("f1").getPiece().moveToSquare(board.getSquare("c4"));
+        board.getSquare("g8").getPiece().moveToSquare(board.getSquare("f6"));
+
+        assertTrue(whiteKing.mightMoveTo(board.getSquare("g1")));
+        assertFalse(whiteKing.mightMoveTo(board.getSquare("c1")));
+
+        whiteKing.moveToSquare(board.getSquare("g1"));
+        assertTrue(board.getSquare("f1").getPiece() instanceof Castle);
+        assertNull(board.getSquare("h1").getPiece());
+
+        whiteKing.takeBackToSquare(board.getSquare("e1"), null);
+        assertTrue(board.getSquare("h1").getPiece() instanceof Castle);
+        assertEquals(0, board.getSquare("h1").getPiece().getMovedCount());
+        assertNull(board.getSquare("f1").getPiece());
+    }
+
+
+    @Test
+    public void promotedPawnKeepsItsIndex() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(BoardRepresentation.Bitboards);
+
+        Pawn whitePawn = (Pawn) board.getSquare("a2").getPiece();
+        board.promotePiece(whitePawn.getIndex().getValue(), PieceType.Queen);
+
+        ChessPiece queen = board.getSquare("a2").getPiece();
+        assertTrue(queen instanceof Queen);
+        assertEquals(whitePawn.getIndex(), queen.getIndex());
+        assertEquals(whitePawn, ((Queen) queen).getOrigPawn());
+        assertNull(whitePawn.getSquare());
+        assertEquals(queen, whitePawn.getPromotedToPiece());
+
+        assertEquals(2, board.getPiecesInPlay(PieceFlags.WhiteQueen).size());
+        assertEquals(7, board.getPiecesInPlay(PieceFlags.AllWhitePawns).size());
+    }
+
+
+    @Test
+    public void nullMoveOnlyPasses() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(
+                "rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 3");
+        long occupied = board.getOccupiedBitboard();
+        int enPassantSquare = board.getEnPassantSquareIndex();
+
+        board.makeNullMove();
+        assertEquals(BitboardChessBoard.NO_SQUARE, board.getEnPassantSquareIndex());
+        assertEquals(occupied, board.getOccupiedBitboard());
+        assertEquals(board.computeHash(SideColor.White.getValue()), board.getZobristKey());
+
+        board.unmakeMove();
+        assertEquals(enPassantSquare, board.getEnPassantSquareIndex());
+        assertEquals(board.computeHash(SideColor.Black.getValue()), board.getZobristKey(SideColor.Black.getValue()));
+        assertEquals(0, board.getUndoDepth());
+    }
+
+
+    @Test
+    public void promotedPawnsAreMoreThanPawns() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard("4k3/7p/8/8/8/8/P7/4K3 w - - 0 1");
+        assertFalse(board.hasPiecesOtherThanPawns(SideColor.White.getValue()));
+
+        board.promotePiece(board.getSquare("a2").getPiece().getIndex().getValue(), PieceType.Knight);
+        assertTrue(board.hasPiecesOtherThanPawns(SideColor.White.getValue()));
+        assertFalse(board.hasPiecesOtherThanPawns(SideColor.Black.getValue()));
+    }
+}
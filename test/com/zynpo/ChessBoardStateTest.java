@@ -0,0 +1,178 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.GameStatus;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.interfaces.MoveRecord;
+import com.zynpo.interfaces.pieces.Knight;
+import com.zynpo.interfaces.pieces.Queen;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class ChessBoardStateTest extends Assert {
+
+    private static void move(ChessBoard board, String from, String to) {
+        board.getSquare(from).getPiece().moveToSquare(board.getSquare(to));
+    }
+
+
+    private static long countMoves(ChessBoardState state, int depth) {
+        if (1 == depth) {
+            return state.getValidMoves().size();
+        }
+
+        long count = 0;
+
+        for (MoveRecord moveRecord : state.getValidMoves()) {
+            count += countMoves(moveRecord.resultingBoardState(), depth - 1);
+        }
+
+        return count;
+    }
+
+
+    private static List<String> notations(ChessBoardState state) {
+        List<String> notations = new ArrayList<>();
+
+        for (MoveRecord moveRecord : state.getValidMoves()) {
+            notations.add(moveRecord.notation());
+        }
+
+        return notations;
+    }
+
+
+    @Test
+    public void openingMoves() {
+        ChessBoardState state = new ChessGameImpl().reviewFirst();
+
+        assertEquals(SideColor.White, state.getSideToMove());
+        assertEquals(GameStatus.InPlay, state.getGameStatus());
+        assertFalse(state.sideToMoveIsInCheck());
+        assertEquals(20, state.getValidMoves().size());
+        assertTrue(notations(state).contains("Nf3"));
+        assertTrue(notations(state).contains("e4"));
+
+        // Generating the moves leaves the board as it was ...
+        assertEquals(ChessFactory.createBoard(), state.getBoard());
+        assertEquals(8902, countMoves(state, 3));
+    }
+
+
+    @Test
+    public void resultingStateFollowsTheMove() {
+        ChessBoardState state = new ChessGameImpl().reviewFirst();
+
+        MoveRecord moveRecord = state.getValidMoves().get(state.getValidMoves().size() - 2);
+        assertEquals("Nf3", moveRecord.notation());
+
+        ChessBoardState resultingState = moveRecord.resultingBoardState();
+        assertTrue(resultingState == moveRecord.resultingBoardState());
+        assertEquals(SideColor.Black, resultingState.getSideToMove());
+        assertTrue(resultingState.getBoard().getSquare("f3").getPiece() instanceof Knight);
+        assertNull(resultingState.getBoard().getSquare("g1").getPiece());
+
+        // ... while the state it came from is untouched ...
+        assertNull(state.getBoard().getSquare("f3").getPiece());
+        assertEquals(20, resultingState.getValidMoves().size());
+    }
+
+
+    @Test
+    public void movesAreOfThePositionTheyCameFrom() {
+        ChessBoardState state = new ChessGameImpl().reviewFirst();
+        MoveRecord a3 = null;
+        MoveRecord nf3 = null;
+
+        for (MoveRecord moveRecord : state.getValidMoves()) {
+            if (moveRecord.notation().equals("a3")) {
+                a3 = moveRecord;
+            } else if (moveRecord.squareOccupied().toString().equals("f3")) {
+                nf3 = moveRecord;
+            }
+        }
+
+        // Changing the board handed out after the moves were found mustn't change them ...
+        move(state.getBoard(), "e2", "e4");
+        move(state.getBoard(), "g1", "e2");
+
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/P7/1PPPPPPP/RNBQKBNR b KQkq - 0 1", a3.resultingBoardState().toFen());
+        assertEquals("Nf3", nf3.toString());
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/5N2/PPPPPPPP/RNBQKB1R b KQkq - 1 1", nf3.resultingBoardState().toFen());
+    }
+
+
+    @Test
+    public void foolsMate() {
+        for (BoardRepresentation boardRepresentation : BoardRepresentation.values()) {
+            ChessBoard board = ChessFactory.createBoard(boardRepresentation);
+            move(board, "f2", "f3");
+            move(board, "e7", "e5");
+            move(board, "g2", "g4");
+
+            ChessBoardState state = ChessFactory.createBoardState(board, SideColor.Black);
+            MoveRecord mate = null;
+
+            for (MoveRecord moveRecord : state.getValidMoves()) {
+                if (moveRecord.squareOccupied().toString().equals("h4")
+                        && (moveRecord.pieceMoved() instanceof Queen)) {
+                    mate = moveRecord;
+                }
+            }
+
+            assertNotNull(mate);
+            assertEquals("Qh4++", mate.notation());
+            assertEquals(GameStatus.BlackWinByCheckmate, mate.gameStatus());
+            assertTrue(mate.resultingBoardState().sideToMoveIsInCheck());
+            assertEquals(0, mate.resultingBoardState().getValidMoves().size());
+        }
+    }
+
+
+    @Test
+    public void enPassantAndPromotion() {
+        for (BoardRepresentation boardRepresentation : BoardRepresentation.values()) {
+            ChessBoard board = ChessFactory.createBoard(boardRepresentation);
+            move(board, "e2", "e4");
+            move(board, "a7", "a6");
+            move(board, "e4", "e5");
+            move(board, "d7", "d5");
+
+            ChessBoardState state = ChessFactory.createBoardState(board, SideColor.White);
+            assertTrue(notations(state).contains("exd5ep"));
+
+            move(board, "e5", "d6");
+            move(board, "h7", "h6");
+            move(board, "d6", "c7");
+            move(board, "h6", "h5");
+
+            state = ChessFactory.createBoardState(board, SideColor.White);
+            List<MoveRecord> promotions = new ArrayList<>();
+
+            for (MoveRecord moveRecord : state.getValidMoves()) {
+                if (moveRecord.squareDeparted().toString().equals("c7")
+                        && moveRecord.squareOccupied().toString().equals("b8")) {
+                    promotions.add(moveRecord);
+                }
+            }
+
+            assertEquals(4, promotions.size());
+            assertTrue(notations(state).contains("cxb8=Q"));
+
+            MoveRecord queening = promotions.get(promotions.size() - 1);
+            assertTrue(queening.promotedToPiece() instanceof Queen);
+            assertTrue(queening.resultingBoardState().getBoard().getSquare("b8").getPiece() instanceof Queen);
+
+            // ... while the Pawn is still a Pawn on the board the move was found on ...
+            assertEquals("P", state.getBoard().getSquare("c7").getPiece().notation());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.zynpo;
+
+import com.zynpo.enums.GameStatus;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.interfaces.MoveRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class ChessGameTest extends Assert {
+
+    private static GameStatus move(ChessGameImpl game, String from, String to) {
+        for (MoveRecord moveRecord : game.reviewLast().getValidMoves()) {
+            if (moveRecord.squareDeparted().toString().equals(from) && moveRecord.squareOccupied().toString().equals(to)) {
+                return game.doMove(moveRecord);
+            }
+        }
+
+        fail("No valid move from " + from + " to " + to);
+        return null;
+    }
+
+
+    private static void shuffleKnights(ChessGameImpl game) {
+        move(game, "g1", "f3");
+        move(game, "g8", "f6");
+        move(game, "f3", "g1");
+        move(game, "f6", "g8");
+    }
+
+
+    @Test
+    public void repetitionCountedAsMovesAreDoneAndTakenBack() {
+        ChessGameImpl game = new ChessGameImpl();
+        assertTrue(game.whoCanForceDraw().isEmpty());
+
+        shuffleKnights(game);
+        assertTrue(game.whoCanForceDraw().isEmpty());
+
+        shuffleKnights(game);
+        assertTrue(game.whoCanForceDraw().contains(SideColor.Black));
+
+        game.takeBackLastMove();
+        assertTrue(game.whoCanForceDraw().isEmpty());
+
+        move(game, "f6", "g8");
+        shuffleKnights(game);
+        shuffleKnights(game);
+        assertEquals(GameStatus.DrawByRepetition, game.getOverallGameStatus());
+    }
+
+
+    @Test
+    public void takingBackTheLastMoveResumesTheGame() {
+        ChessGameImpl game = new ChessGameImpl();
+        move(game, "f2", "f3");
+        move(game, "e7", "e5");
+        move(game, "g2", "g4");
+        assertEquals(GameStatus.BlackWinByCheckmate, move(game, "d8", "h4"));
+        assertTrue(game.getOverallGameStatus().meansGameIsOver());
+
+        assertEquals(GameStatus.InPlay, game.takeBackLastMove());
+        assertEquals(GameStatus.InPlay, game.getOverallGameStatus());
+        assertEquals(GameStatus.BlackWinByCheckmate, move(game, "d8", "h4"));
+
+        game = new ChessGameImpl();
+
+        for (int i = 0; i < 4; ++i) {
+            shuffleKnights(game);
+        }
+
+        assertEquals(GameStatus.DrawByRepetition, game.getOverallGameStatus());
+        game.takeBackLastMove();
+        assertFalse(game.getOverallGameStatus().meansGameIsOver());
+        assertTrue(game.whoCanForceDraw().contains(SideColor.White));
+
+        move(game, "f6", "g8");
+        assertEquals(GameStatus.DrawByRepetition, game.getOverallGameStatus());
+    }
+
+
+    @Test
+    public void nothingToTakeBackInANewGame() {
+        ChessGameImpl game = new ChessGameImpl();
+
+        try {
+            game.takeBackLastMove();
+            fail("Took back a move that was never made");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        // ... and the game is none the worse for trying ...
+        shuffleKnights(game);
+        assertEquals(4, game.getAllMoves().split(", ").length);
+        game.takeBackLastMove();
+        assertEquals(GameStatus.InPlay, game.getOverallGameStatus());
+    }
+
+
+    @Test
+    public void onlyMovesOfTheCurrentPositionAreDone() {
+        ChessGameImpl game = new ChessGameImpl();
+        MoveRecord firstMove = game.reviewLast().getValidMoves().get(0);
+        move(game, "g1", "f3");
+
+        try {
+            game.doMove(firstMove);
+            fail("Did a move of a position the game has moved on from");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals("Nf3", game.getAllMoves());
+        assertEquals(SideColor.Black, game.reviewLast().getSideToMove());
+    }
+
+
+    @Test
+    public void pawnMovesAndCapturesResetProgress() {
+        ChessGameImpl game = new ChessGameImpl();
+
+        for (int i = 0; i < 2; ++i) {
+            shuffleKnights(game);
+        }
+
+        move(game, "e2", "e4");
+        move(game, "d7", "d5");
+
+        // Only now reaching the position after the pawn moves, this is its first occurrence ...
+        shuffleKnights(game);
+        assertTrue(game.whoCanForceDraw().isEmpty());
+
+        move(game, "e4", "d5");
+        assertEquals(SideColor.Black, game.reviewLast().getSideToMove());
+        assertTrue(game.whoCanForceDraw().isEmpty());
+    }
+
+
+    @Test
+    public void reviewingMadeAgainFromCheckpoints() {
+        ChessGameImpl game = new ChessGameImpl();
+        List<Long> zobristKeys = new ArrayList<>();
+        zobristKeys.add(game.reviewLast().getZobristKey());
+
+        for (char col = 'a'; col <= 'h'; ++col) {
+            move(game, col + "2", col + "3");
+            zobristKeys.add(game.reviewLast().getZobristKey());
+            move(game, col + "7", col + "6");
+            zobristKeys.add(game.reviewLast().getZobristKey());
+        }
+
+        move(game, "b1", "d2");
+        zobristKeys.add(game.reviewLast().getZobristKey());
+        move(game, "b8", "d7");
+        zobristKeys.add(game.reviewLast().getZobristKey());
+
+        assertEquals((long) zobristKeys.get(0), game.reviewFirst().getZobristKey());
+
+        for (int ply = 1; ply < zobristKeys.size(); ++ply) {
+            assertEquals((long) zobristKeys.get(ply), game.reviewNext().getZobristKey());
+        }
+
+        assertEquals(SideColor.Black, game.reviewPrevious().getSideToMove());
+        assertTrue(game.getAllMoves().startsWith("a3, a6, b3, b6"));
+        assertTrue(game.getAllMoves().endsWith("h3, h6, Nd2, Nd7"));
+
+        // Taking back across a checkpoint ...
+        for (int i = 0; i < 3; ++i) {
+            game.takeBackLastMove();
+        }
+
+        assertEquals((long) zobristKeys.get(zobristKeys.size() - 4), game.reviewLast().getZobristKey());
+        move(game, "h7", "h5");
+        assertNotEquals((long) zobristKeys.get(zobristKeys.size() - 3), game.reviewLast().getZobristKey());
+        assertEquals(SideColor.White, game.reviewLast().getSideToMove());
+    }
+}
@@ -0,0 +1,79 @@
+package com.zynpo;
+
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveRecordImpl;
+import com.zynpo.interfaces.MoveRecord;
+import com.zynpo.search.Engine;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class EngineTest extends Assert {
+
+    @Test
+    public void ponderHitCarriesOn() {
+        ChessGameImpl game = new ChessGameImpl();
+        Engine engine = new Engine(game);
+
+        SearchResult result = engine.think(SearchLimits.depth(4));
+        engine.doMove(result.getBestMove());
+
+        assertTrue(engine.ponder(SearchLimits.depth(5)));
+        assertTrue(engine.isPondering());
+        assertEquals(result.getPonderMove(), engine.getPonderMove());
+
+        engine.doMove(result.getPonderMove());
+        assertEquals(1, engine.getPonderHits());
+
+        // The limits of the search pondering are kept to, rather than these ...
+        SearchResult pondered = engine.think(SearchLimits.depth(1));
+        assertEquals(5, pondered.getDepth());
+        assertFalse(engine.isPondering());
+
+        engine.doMove(pondered.getBestMove());
+        assertEquals(SideColor.Black, game.reviewLast().getSideToMove());
+    }
+
+
+    @Test
+    public void ponderMissStartsAgain() {
+        ChessGameImpl game = new ChessGameImpl();
+        Engine engine = new Engine(game);
+
+        SearchResult result = engine.think(SearchLimits.depth(4));
+        engine.doMove(result.getBestMove());
+
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTimeMillis(100);
+        assertTrue(engine.ponder(limits));
+
+        engine.doMove(otherMove(game, result.getPonderMove()));
+        assertFalse(engine.isPondering());
+        assertEquals(1, engine.getPonderMisses());
+        assertTrue(0 < engine.getTable().permilleFull());
+
+        SearchResult replied = engine.think(SearchLimits.depth(2));
+        assertEquals(2, replied.getDepth());
+
+        // Nothing to ponder on after a move other than the one found ...
+        engine.doMove(otherMove(game, replied.getBestMove()));
+        assertFalse(engine.ponder(SearchLimits.depth(3)));
+    }
+
+
+    private static int otherMove(ChessGameImpl game, int move) {
+        for (MoveRecord moveRecord : game.reviewLast().getValidMoves()) {
+            int otherMove = ((MoveRecordImpl) moveRecord).toMove();
+
+            if (Move.keyOf(otherMove) != Move.keyOf(move)) {
+                return otherMove;
+            }
+        }
+
+        return Move.NO_MOVE;
+    }
+}
@@ -0,0 +1,152 @@
+package com.zynpo;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Fen;
+import com.zynpo.impls.MoveList;
+import com.zynpo.impls.PieceSquareTables;
+import com.zynpo.search.Evaluator;
+import com.zynpo.search.PawnHashTable;
+import com.zynpo.search.PawnStructure;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+
+public class EvaluatorTest extends Assert {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    private static int evaluate(String fen, SideColor sideToMove) {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+        return new Evaluator().evaluate(board, sideToMove.getValue());
+    }
+
+
+    /**
+     * The packed score and phase of every piece on the board, added up afresh ...
+     */
+    private static int[] addUp(BitboardChessBoard board) {
+        int score = 0;
+        int phase = 0;
+
+        for (SideColor sideColor : new SideColor[] { SideColor.White, SideColor.Black }) {
+            for (int pieceType = 0; pieceType < PieceType.COUNT; ++pieceType) {
+                long pieces = board.getPieceBitboard(sideColor.getValue(), pieceType);
+
+                for (; 0L != pieces; pieces &= pieces - 1) {
+                    score += PieceSquareTables.score(sideColor.getValue(), pieceType, Long.numberOfTrailingZeros(pieces));
+                    phase += PieceSquareTables.phase(pieceType);
+                }
+            }
+        }
+
+        return new int[] { score, phase };
+    }
+
+
+    @Test
+    public void keptUpWithMakeAndUnmake() {
+        for (String fen : new String[] { KIWIPETE, "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1" }) {
+            BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+            int initialScore = board.getPieceSquareScore();
+            assertArrayEquals(addUp(board), new int[] { initialScore, board.getGamePhase() });
+
+            Random random = new Random(11);
+            MoveList moves = new MoveList();
+            int sideColor = fen.contains(" w ") ? SideColor.White.getValue() : SideColor.Black.getValue();
+            int movesMade = 0;
+
+            for (; movesMade < 80; ++movesMade) {
+                moves.clear();
+
+                if (0 == board.generateMoves(sideColor, moves)) {
+                    break;
+                }
+
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                sideColor = 1 - sideColor;
+
+                assertArrayEquals(addUp(board), new int[] { board.getPieceSquareScore(), board.getGamePhase() });
+                assertEquals(board.getPieceSquareScore(), board.clone().getPieceSquareScore());
+
+                String fenNow = Fen.toFen(board, SideColor.fromValue(sideColor), 0, 1);
+                assertEquals(ChessFactory.createBoard(fenNow).getPawnKey(), board.getPawnKey());
+            }
+
+            while (0 < movesMade--) {
+                board.unmakeMove();
+            }
+
+            assertEquals(initialScore, board.getPieceSquareScore());
+        }
+    }
+
+
+    @Test
+    public void sidesAreScoredAlike() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(Fen.START_POSITION);
+        assertEquals(PieceSquareTables.MAX_PHASE, board.getGamePhase());
+        assertEquals(0, new Evaluator().evaluate(board, SideColor.White.getValue()));
+
+        // The same position with the colours swapped and the board turned over ...
+        String mirrored = "r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1";
+        assertEquals(evaluate(KIWIPETE, SideColor.White), evaluate(mirrored, SideColor.Black));
+        assertEquals(-evaluate(KIWIPETE, SideColor.White), evaluate(KIWIPETE, SideColor.Black));
+    }
+
+
+    private static int pawnScore(String fen) {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+        return PieceSquareTables.taper(PawnStructure.evaluatePawns(board), board.getGamePhase());
+    }
+
+
+    @Test
+    public void pawnStructure() {
+        // Passed, and the further on the better ...
+        assertTrue(0 < pawnScore("4k3/8/8/8/3P4/8/8/4K3 w - - 0 1"));
+        assertTrue(pawnScore("4k3/8/8/8/3P4/8/8/4K3 w - - 0 1") < pawnScore("4k3/8/3P4/8/8/8/8/4K3 w - - 0 1"));
+        assertEquals(-pawnScore("4k3/8/8/8/3P4/8/8/4K3 w - - 0 1"), pawnScore("4k3/8/8/3p4/8/8/8/4K3 w - - 0 1"));
+
+        // ... but not when there's a Pawn in the way or to take it ...
+        assertEquals(0, pawnScore("4k3/8/3p4/8/3P4/8/8/4K3 w - - 0 1") + pawnScore("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertTrue(pawnScore("4k3/8/4p3/8/3PP3/8/8/4K3 w - - 0 1") < pawnScore("4k3/8/8/8/3PP3/8/8/4K3 w - - 0 1"));
+
+        // Doubled and isolated Pawns are worth less than those side by side ...
+        assertTrue(pawnScore("4k3/pp6/8/8/8/1P6/1P6/4K3 w - - 0 1") < pawnScore("4k3/pp6/8/8/8/8/PP6/4K3 w - - 0 1"));
+        assertTrue(pawnScore("4k3/pp6/8/8/8/8/P1P5/4K3 w - - 0 1") < pawnScore("4k3/pp6/8/8/8/8/PP6/4K3 w - - 0 1"));
+
+        // The d-Pawn can't go on without being taken, nor be covered by its neighbours, left behind ...
+        assertTrue(pawnScore("4k3/8/2p5/4p3/2P5/3P4/8/4K3 w - - 0 1") < pawnScore("4k3/8/2p5/4p3/8/2PP4/8/4K3 w - - 0 1"));
+    }
+
+
+    @Test
+    public void pawnsAreFoundInTheirTable() {
+        Evaluator evaluator = new Evaluator();
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(KIWIPETE);
+        MoveList moves = new MoveList();
+        board.generateMoves(SideColor.White.getValue(), moves);
+
+        int score = evaluator.evaluate(board, SideColor.White.getValue());
+
+        for (int i = 0; i < moves.size(); ++i) {
+            board.makeMove(moves.get(i));
+            BitboardChessBoard fresh = (BitboardChessBoard) ChessFactory.createBoard(Fen.toFen(board, SideColor.Black, 0, 1));
+            assertEquals(new Evaluator().evaluate(fresh, SideColor.Black.getValue()), evaluator.evaluate(board, SideColor.Black.getValue()));
+            board.unmakeMove();
+        }
+
+        assertEquals(score, evaluator.evaluate(board, SideColor.White.getValue()));
+
+        // Only the moves of Pawns, and captures of them, bring new arrangements of Pawns ...
+        PawnHashTable pawnTable = evaluator.getPawnTable();
+        assertEquals(moves.size() + 2, pawnTable.getProbes());
+        assertTrue(pawnTable.getProbes() - 20 < pawnTable.getHits());
+    }
+}
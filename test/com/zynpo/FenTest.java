@@ -0,0 +1,134 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Fen;
+import com.zynpo.impls.Perft;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.interfaces.MoveRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class FenTest extends Assert {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    @Test
+    public void startPosition() {
+        ChessBoardState boardState = ChessFactory.createBoardState(Fen.START_POSITION);
+
+        assertEquals(Fen.START_POSITION, boardState.toFen());
+        assertEquals(new ChessGameImpl().reviewFirst().toFen(), boardState.toFen());
+        assertEquals(new ChessGameImpl().reviewFirst().getZobristKey(), boardState.getZobristKey());
+        assertEquals(ChessFactory.createBoard(BoardRepresentation.PieceObjects), ChessFactory.createBoard(Fen.START_POSITION));
+    }
+
+
+    @Test
+    public void movesCarryTheCounters() {
+        ChessGameImpl game = new ChessGameImpl();
+        game.doMove(findMove(game.reviewLast(), "g1", "f3"));
+        game.doMove(findMove(game.reviewLast(), "g8", "f6"));
+        game.doMove(findMove(game.reviewLast(), "e2", "e4"));
+
+        // No black pawn could take on e3, so it isn't an en passant square ...
+        String fen = "rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 0 2";
+        assertEquals(fen, game.reviewLast().toFen());
+        assertEquals(fen, ChessFactory.createBoardState(fen).toFen());
+
+        game.takeBackLastMove();
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 2 2", game.reviewLast().toFen());
+        assertEquals(game.reviewLast().getZobristKey(),
+                ChessFactory.createBoardState(game.reviewLast().toFen()).getZobristKey());
+    }
+
+
+    @Test
+    public void enPassantSquareAndCastlings() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 5 40";
+        ChessBoardState boardState = ChessFactory.createBoardState(fen);
+
+        assertEquals(fen, boardState.toFen());
+        assertEquals(5, boardState.getHalfmoveClock());
+        assertEquals(40, boardState.getFullmoveNumber());
+        assertEquals("d6", boardState.getBoard().getEnPassantSquare().toString());
+        assertNotNull(findMove(boardState, "e5", "d6"));
+        assertNotNull(findMove(boardState, "e1", "g1"));
+        assertNull(findMove(boardState, "e1", "c1"));
+
+        // Missing fields are taken as nothing more to say ...
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", ChessFactory.createBoardState("4k3/8/8/8/8/8/8/4K3 b").toFen());
+    }
+
+
+    @Test
+    public void promotedPieces() {
+        String fen = "QQQ5/8/8/8/7k/8/PPPPP3/4K3 w - - 0 60";
+        ChessBoardState boardState = ChessFactory.createBoardState(fen);
+
+        assertEquals(fen, boardState.toFen());
+        assertEquals(SideColor.White, boardState.getSideToMove());
+    }
+
+
+    @Test
+    public void invalidFens() {
+        String[] fens = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "8/8/4k3/3P4/8/8/6K1/8 w - e6 0 1",
+                "4k3/4p3/8/3Pp3/8/8/6K1/8 w - e6 0 1",
+                "8/8/4k3/3PP3/8/8/6K1/8 w - e6 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "4k3/8/8/8/8/8/8/8 w - - 0 1",
+                "4k3/4R3/8/8/8/8/8/4K3 w - - 0 1",
+        };
+
+        for (String fen : fens) {
+            try {
+                ChessFactory.createBoardState(fen);
+                fail("Should have rejected " + fen);
+            } catch (IllegalArgumentException iae) {
+                // As expected ...
+            }
+        }
+    }
+
+
+    @Test
+    public void perftFromFens() {
+        assertPerft(KIWIPETE, 48, 2039, 97862);
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238);
+        assertPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467);
+        assertPerft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1486, 62379);
+    }
+
+
+    private static void assertPerft(String fen, long... nodesByDepth) {
+        ChessBoard board = ChessFactory.createBoard(fen);
+        SideColor sideToMove = ChessFactory.createBoardState(fen).getSideToMove();
+
+        for (int depth = 1; depth <= nodesByDepth.length; ++depth) {
+            assertEquals(fen + " to depth " + depth, nodesByDepth[depth - 1], Perft.perft(board, sideToMove, depth).getNodes());
+        }
+    }
+
+
+    private static MoveRecord findMove(ChessBoardState boardState, String from, String to) {
+        for (MoveRecord moveRecord : boardState.getValidMoves()) {
+            if (moveRecord.squareDeparted().toString().equals(from) && moveRecord.squareOccupied().toString().equals(to)) {
+                return moveRecord;
+            }
+        }
+
+        return null;
+    }
+}
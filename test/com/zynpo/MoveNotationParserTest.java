@@ -0,0 +1,119 @@
+package com.zynpo;
+
+import com.zynpo.enums.GameStatus;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.SideColor;
+import com.zynpo.exceptions.AmbiguousMoveException;
+import com.zynpo.exceptions.InvalidMoveException;
+import com.zynpo.exceptions.MisrepresentedMoveException;
+import com.zynpo.exceptions.MoveException;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveNotationParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class MoveNotationParserTest extends Assert {
+
+    private final MoveNotationParser _parser = new MoveNotationParser();
+
+
+    private int parse(String fen, String notation) throws MoveException {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+        SideColor sideToMove = ChessFactory.createBoardState(fen).getSideToMove();
+
+        long zobristKey = board.getZobristKey();
+        int move = _parser.parse(notation, board, sideToMove);
+        assertEquals(zobristKey, board.getZobristKey());
+
+        return move;
+    }
+
+
+    private void assertRejected(String fen, String notation, Class<? extends MoveException> expected) {
+        try {
+            parse(fen, notation);
+            fail("Should have rejected " + notation);
+        } catch (MoveException me) {
+            assertEquals(expected, me.getClass());
+        }
+    }
+
+
+    @Test
+    public void gamePlayedByNotation() throws MoveException {
+        ChessGameImpl game = new ChessGameImpl();
+        game.loadAllMoves("e4, e5, Nf3, Nc6, Bc4, Nf6, Ng5, d5, exd5, Na5, Bb5+, c6, dxc6, bxc6, Qf3, cxb5, Qxa8, Bc5, O-O");
+
+        assertEquals("Q1bqk2r/p4ppp/5n2/npb1p1N1/8/8/PPPP1PPP/RNB2RK1 b k - 2 10", game.reviewLast().toFen());
+
+        // What the game writes it reads back just the same ...
+        ChessGameImpl replayed = new ChessGameImpl();
+        replayed.loadAllMoves(game.getAllMoves());
+        assertEquals(game.reviewLast().toFen(), replayed.reviewLast().toFen());
+    }
+
+
+    @Test
+    public void foolsMate() throws MoveException {
+        ChessGameImpl game = new ChessGameImpl();
+        game.loadAllMoves("f3, e5, g4");
+
+        assertEquals(GameStatus.BlackWinByCheckmate, game.doMove(" Qh4# "));
+        assertTrue(game.getAllMoves().endsWith("Qh4++"));
+    }
+
+
+    @Test
+    public void disambiguation() throws MoveException {
+        String knights = "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1";
+        assertEquals(Move.of(1, 11, PieceType.Pawn, 0), parse(knights, "Nbd2"));
+        assertEquals(Move.of(5, 11, PieceType.Pawn, 0), parse(knights, "Nf1-d2"));
+        assertRejected(knights, "Nd2", AmbiguousMoveException.class);
+
+        // A piece pinned to its King needn't be told apart from one that isn't ...
+        String pinned = "4k3/4r3/8/8/8/8/4N3/2N1K3 w - - 0 1";
+        assertEquals(Move.of(2, 19, PieceType.Pawn, 0), parse(pinned, "Nd3"));
+
+        String rooks = "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1";
+        assertEquals(Move.of(0, 16, PieceType.Pawn, 0), parse(rooks, "R1a3"));
+        assertEquals(Move.of(32, 16, PieceType.Pawn, 0), parse(rooks, "C5a3!?"));
+    }
+
+
+    @Test
+    public void pawnsTakingAndPromoting() throws MoveException {
+        String enPassant = "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1";
+        int expected = Move.of(36, 43, PieceType.Pawn, Move.CAPTURE | Move.EN_PASSANT);
+
+        assertEquals(expected, parse(enPassant, "exd6"));
+        assertEquals(expected, parse(enPassant, "exd6 e.p."));
+        assertEquals(expected, parse(enPassant, "exd5ep"));
+        assertRejected(enPassant, "xd6", InvalidMoveException.class);
+
+        String promotion = "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+        assertEquals(Move.of(48, 56, PieceType.Queen, 0), parse(promotion, "a8=Q"));
+        assertEquals(Move.of(48, 57, PieceType.Knight, Move.CAPTURE), parse(promotion, "axb8N"));
+        assertRejected(promotion, "a8", InvalidMoveException.class);
+        assertRejected(promotion, "axb8=K", InvalidMoveException.class);
+    }
+
+
+    @Test
+    public void misdescribedMoves() throws MoveException {
+        String rook = "4k3/8/8/8/8/8/8/R3K3 w - - 0 1";
+        assertEquals(Move.of(0, 56, PieceType.Pawn, 0), parse(rook, "Ra8"));
+        assertEquals(Move.of(0, 56, PieceType.Pawn, 0), parse(rook, "Ra8+"));
+
+        assertRejected(rook, "Ra8#", MisrepresentedMoveException.class);
+        assertRejected(rook, "Ra7+", MisrepresentedMoveException.class);
+        assertRejected(rook, "Rxa7", InvalidMoveException.class);
+        assertRejected(rook, "O-O-O", InvalidMoveException.class);
+        assertRejected(rook, "Ra9", InvalidMoveException.class);
+        assertRejected(rook, "Rb2", InvalidMoveException.class);
+        assertRejected(rook, " ", InvalidMoveException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.zynpo;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.exceptions.MoveException;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveList;
+import com.zynpo.impls.MoveNotationParser;
+import com.zynpo.impls.MoveNotationWriter;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.interfaces.MoveRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class MoveNotationWriterTest extends Assert {
+
+    private static String notation(String fen, int move) {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+        long zobristKey = board.getZobristKey();
+
+        String notation = MoveNotationWriter.toNotation(board, move);
+        assertEquals(zobristKey, board.getZobristKey());
+
+        return notation;
+    }
+
+
+    @Test
+    public void checksAndCheckmates() {
+        String rook = "4k3/8/8/8/8/8/8/R3K3 w Q - 0 1";
+        assertEquals("Ra8+", notation(rook, Move.of(0, 56, PieceType.Pawn, 0)));
+        assertEquals("Ra7", notation(rook, Move.of(0, 48, PieceType.Pawn, 0)));
+        assertEquals("O-O-O", notation(rook, Move.of(4, 2, PieceType.Pawn, Move.CASTLING)));
+
+        String backRank = "6k1/5ppp/8/8/8/8/8/R3K3 w - - 0 1";
+        assertEquals("Ra8++", notation(backRank, Move.of(0, 56, PieceType.Pawn, 0)));
+    }
+
+
+    @Test
+    public void differentiatingSimilarPieces() {
+        String knights = "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1";
+        assertEquals("Nbd2", notation(knights, Move.of(1, 11, PieceType.Pawn, 0)));
+        assertEquals("Nc3", notation(knights, Move.of(1, 18, PieceType.Pawn, 0)));
+
+        String rooks = "4k3/8/8/R7/8/8/8/R3K3 w - - 0 1";
+        assertEquals("R1a3", notation(rooks, Move.of(0, 16, PieceType.Pawn, 0)));
+
+        String enPassant = "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1";
+        assertEquals("exd5ep", notation(enPassant, Move.of(36, 43, PieceType.Pawn, Move.CAPTURE | Move.EN_PASSANT)));
+
+        String promotion = "1n2k3/P7/8/8/8/8/8/4K3 w - - 0 1";
+        assertEquals("axb8=N", notation(promotion, Move.of(48, 57, PieceType.Knight, Move.CAPTURE)));
+    }
+
+
+    @Test
+    public void everyMoveReadsBackTheSame() throws MoveException {
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(kiwipete);
+        ChessBoardState boardState = ChessFactory.createBoardState(kiwipete);
+        MoveNotationParser parser = new MoveNotationParser();
+
+        MoveList moves = new MoveList();
+        board.generateMoves(boardState.getSideToMove(), moves);
+        assertEquals(48, moves.size());
+
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < moves.size(); ++i) {
+            int start = sb.length();
+            MoveNotationWriter.appendNotation(sb, board, moves.get(i));
+
+            assertEquals(moves.get(i), parser.parse(sb, start, sb.length(), board, boardState.getSideToMove().getValue()));
+            sb.append(' ');
+        }
+
+        for (MoveRecord moveRecord : boardState.getValidMoves()) {
+            assertTrue(sb.indexOf(moveRecord.notation() + " ") >= 0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.zynpo;
+
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveList;
+import com.zynpo.search.MovePicker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+
+public class MovePickerTest extends Assert {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    private static int move(BitboardChessBoard board, String coordinates) {
+        int move = Move.fromString(coordinates);
+        return board.moveFrom(Move.squareDeparted(move), Move.squareOccupied(move), Move.promotionType(move));
+    }
+
+
+    @Test
+    public void everyMoveIsHandedOutOnce() {
+        for (String fen : new String[] { KIWIPETE, "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1" }) {
+            BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+            int sideColor = fen.contains(" w ") ? 0 : 1;
+
+            MoveList moves = new MoveList();
+            board.generateMoves(sideColor, moves);
+
+            MoveList captures = new MoveList();
+            MoveList quietMoves = new MoveList();
+            assertEquals(moves.size(), board.generateCaptures(sideColor, captures) + board.generateQuietMoves(sideColor, quietMoves));
+
+            // A hash move and killers from elsewhere, only some of them valid here ...
+            MovePicker picker = new MovePicker();
+            picker.reset(board, sideColor, moves.get(moves.size() / 2), Move.fromString("a1a8"), quietMoves.get(0),
+                    Move.NO_MOVE, new int[MovePicker.HISTORY_SIZE]);
+
+            Set<Integer> handedOut = new HashSet<>();
+
+            for (int move = picker.next(); Move.NO_MOVE != move; move = picker.next()) {
+                assertTrue(Move.toString(move), moves.contains(move));
+                assertTrue(Move.toString(move), handedOut.add(move));
+            }
+
+            assertEquals(moves.size(), handedOut.size());
+            assertEquals(0, board.getUndoDepth());
+        }
+    }
+
+
+    @Test
+    public void movesAreHandedOutInStages() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(KIWIPETE);
+        int[] history = new int[MovePicker.HISTORY_SIZE];
+        int killer = move(board, "a2a3");
+        int counterMove = move(board, "g2g3");
+        int historyMove = move(board, "d5d6");
+        history[MovePicker.historyIndex(historyMove)] = 100;
+
+        MovePicker picker = new MovePicker();
+        picker.reset(board, 0, move(board, "e1g1"), killer, Move.NO_MOVE, counterMove, history);
+
+        assertEquals("e1g1", Move.toString(picker.next()));
+
+        // The captures that lose nothing, the Queen taken first ...
+        assertEquals("e2a6", Move.toString(picker.next()));
+        int move = picker.next();
+
+        for (; Move.isCapture(move); move = picker.next()) {
+            assertFalse(picker.isLosingCapture());
+        }
+
+        assertEquals(killer, move);
+        assertEquals(counterMove, picker.next());
+        assertEquals(historyMove, picker.next());
+
+        // ... and those losing material last of all ...
+        for (move = picker.next(); !Move.isCapture(move); move = picker.next()) {
+            assertFalse(picker.isLosingCapture());
+        }
+
+        for (; Move.NO_MOVE != move; move = picker.next()) {
+            assertTrue(Move.isCapture(move));
+            assertTrue(picker.isLosingCapture());
+        }
+    }
+
+
+    @Test
+    public void movesFromElsewhereAreChecked() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(KIWIPETE);
+
+        assertTrue(board.isValidMove(0, move(board, "e2a6")));
+        assertTrue(board.isValidMove(0, move(board, "e1c1")));
+        assertFalse(board.isValidMove(1, move(board, "e2a6")));
+        assertFalse(board.isValidMove(0, Move.fromString("e2a6")));  // Without saying it takes
+        assertFalse(board.isValidMove(0, move(board, "a2a5")));
+        assertFalse(board.isValidMove(0, Move.NO_MOVE));
+
+        // The Knight is pinned ...
+        board = (BitboardChessBoard) ChessFactory.createBoard("4k3/4r3/8/8/8/8/4N3/4K3 w - - 0 1");
+        assertFalse(board.isValidMove(0, move(board, "e2c3")));
+        assertTrue(board.isValidMove(0, move(board, "e1d1")));
+    }
+}
@@ -0,0 +1,144 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.PieceFlags;
+import com.zynpo.enums.PieceType;
+import com.zynpo.enums.PotentialMoveReason;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Move;
+import com.zynpo.impls.MoveList;
+import com.zynpo.impls.MoveRecordImpl;
+import com.zynpo.interfaces.ChessBoard;
+import com.zynpo.interfaces.ChessBoardState;
+import com.zynpo.interfaces.ChessSquare;
+import com.zynpo.interfaces.MoveRecord;
+import com.zynpo.interfaces.pieces.ChessPiece;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class MoveTest extends Assert {
+
+    private static void move(ChessBoard board, String from, String to) {
+        board.getSquare(from).getPiece().moveToSquare(board.getSquare(to));
+    }
+
+
+    @Test
+    public void packingAndUnpacking() {
+        int move = Move.of(52, 60, PieceType.Queen, Move.CAPTURE);
+
+        assertEquals(52, Move.squareDeparted(move));
+        assertEquals(60, Move.squareOccupied(move));
+        assertEquals(PieceType.Queen, Move.promotionType(move));
+        assertTrue(Move.isPromotion(move));
+        assertTrue(Move.isCapture(move));
+        assertFalse(Move.isEnPassant(move));
+        assertEquals("e7e8q", Move.toString(move));
+
+        int quietMove = Move.of(12, 28, null, Move.DOUBLE_PUSH);
+        assertNull(Move.promotionType(quietMove));
+        assertFalse(Move.isPromotion(quietMove));
+        assertTrue(Move.isDoublePush(quietMove));
+        assertEquals("e2e4", Move.toString(quietMove));
+        assertEquals(Move.keyOf(quietMove), Move.keyOf(Move.of(12, 28, null, 0)));
+    }
+
+
+    @Test
+    public void moveListIsReused() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        MoveList moves = new MoveList(4);
+
+        assertEquals(20, board.generateMoves(SideColor.White, moves));
+        assertEquals(20, moves.size());
+        assertTrue(moves.contains(Move.of(6, 21, null, 0)));
+        assertEquals(0, board.getUndoDepth());
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertEquals(20, board.generateMoves(SideColor.Black, moves));
+        assertEquals(ChessFactory.createBoard(BoardRepresentation.Bitboards), board);
+    }
+
+
+    @Test
+    public void movesAndMoveRecordsConvert() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        move(board, "e2", "e4");
+        move(board, "a7", "a6");
+        move(board, "e4", "e5");
+        move(board, "d7", "d5");
+
+        MoveList moves = new MoveList();
+        board.generateMoves(SideColor.White, moves);
+
+        int enPassant = moves.get(moves.indexOf(board.moveFrom(36, 43, null)));
+        assertTrue(Move.isEnPassant(enPassant));
+        assertTrue(Move.isCapture(enPassant));
+
+        MoveRecordImpl moveRecord = MoveRecordImpl.fromMove(board, enPassant);
+        assertEquals("exd5ep", moveRecord.notation());
+        assertEquals(enPassant, moveRecord.toMove());
+
+        ChessBoardState state = ChessFactory.createBoardState(board, SideColor.White);
+        assertEquals(moves.size(), state.getValidMoves().size());
+
+        for (MoveRecord validMove : state.getValidMoves()) {
+            assertTrue(moves.contains(((MoveRecordImpl) validMove).toMove()));
+        }
+    }
+
+
+    @Test
+    public void capturesAreGeneratedAlone() {
+        for (String fen : new String[] {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1",
+                "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3" }) {
+
+            ChessBoardState state = ChessFactory.createBoardState(fen);
+            BitboardChessBoard board = ChessFactory.createBitboardCopy(state.getBoard());
+            int sideColor = state.getSideToMove().getValue();
+
+            MoveList moves = new MoveList();
+            board.generateMoves(sideColor, moves);
+            MoveList expected = new MoveList();
+
+            for (int i = 0; i < moves.size(); ++i) {
+                int move = moves.get(i);
+
+                if ((Move.isCapture(move) && !Move.isPromotion(move)) || (PieceType.Queen == Move.promotionType(move))) {
+                    expected.add(move);
+                }
+            }
+
+            MoveList captures = new MoveList();
+            assertEquals(expected.size(), board.generateCaptures(sideColor, captures));
+
+            for (int i = 0; i < expected.size(); ++i) {
+                assertTrue(Move.toString(expected.get(i)), captures.contains(expected.get(i)));
+            }
+
+            // The pieces of either representation agree on where they might take ...
+            for (ChessBoard pieceBoard : new ChessBoard[] { state.getBoard(), board }) {
+                for (ChessPiece piece : pieceBoard.getPiecesInPlay(PieceFlags.AllPieces)) {
+                    if (piece.getSideColor() != state.getSideToMove()) {
+                        continue;
+                    }
+
+                    long squares = 0L;
+
+                    for (ChessSquare square : piece.potentialMoveSquares(PotentialMoveReason.ForCaptureOrPromotion)) {
+                        squares |= 1L << square.getIndex();
+                    }
+
+                    assertEquals(piece.toString(), board.potentialMoveSquaresOf(piece.getIndex().getValue(),
+                            PotentialMoveReason.ForCaptureOrPromotion), squares);
+                }
+            }
+        }
+    }
+}
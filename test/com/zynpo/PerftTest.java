@@ -0,0 +1,78 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.ParallelPerft;
+import com.zynpo.impls.Perft;
+import com.zynpo.impls.PerftHashTable;
+import com.zynpo.impls.PerftResult;
+import com.zynpo.interfaces.ChessBoard;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class PerftTest extends Assert {
+
+    @Test
+    public void initialPosition() {
+        PerftResult result = Perft.perft(new ChessGameImpl().reviewFirst(), 4, true);
+
+        assertEquals(197281, result.getNodes());
+        assertEquals(1576, result.getCaptures());
+        assertEquals(0, result.getEnPassants());
+        assertEquals(469, result.getChecks());
+        assertEquals(8, result.getCheckmates());
+
+        assertEquals(20, result.getDivide().size());
+        assertEquals(Long.valueOf(13160), result.getDivide().get("e2e4"));
+    }
+
+
+    @Test
+    public void sameCountsOnBothRepresentations() {
+        for (BoardRepresentation boardRepresentation : BoardRepresentation.values()) {
+            ChessBoard board = ChessFactory.createBoard(boardRepresentation);
+            board.getSquare("e2").getPiece().moveToSquare(board.getSquare("e4"));
+            board.getSquare("a7").getPiece().moveToSquare(board.getSquare("a6"));
+            board.getSquare("e4").getPiece().moveToSquare(board.getSquare("e5"));
+            board.getSquare("d7").getPiece().moveToSquare(board.getSquare("d5"));
+
+            PerftResult result = Perft.perft(board, SideColor.White, 1, true);
+            assertEquals(31, result.getNodes());
+            assertEquals(1, result.getEnPassants());
+
+            result = Perft.perft(board, SideColor.White, 3);
+            assertEquals(Long.valueOf(result.getNodes()), result.getDivide().values().stream().reduce(0L, Long::sum));
+        }
+    }
+
+
+    @Test
+    public void parallelPerftMatches() {
+        ChessBoard board = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+
+        PerftResult expected = Perft.perft(board, SideColor.White, 4);
+        PerftResult result = ParallelPerft.perft(board, SideColor.White, 4, 3, 2, new PerftHashTable(1));
+
+        assertEquals(197281, result.getNodes());
+        assertEquals(expected.getDivide(), result.getDivide());
+        assertEquals(Long.valueOf(result.getNodes()),
+                result.getNodesByThread().values().stream().reduce(0L, Long::sum));
+
+        // ... and without a hash table at all ...
+        assertEquals(8902, ParallelPerft.perft(board, SideColor.White, 3, 2, 1, null).getNodes());
+    }
+
+
+    @Test
+    public void hashTableKeepsDepthApart() {
+        PerftHashTable hashTable = new PerftHashTable(1);
+
+        hashTable.store(0x123456789ABCDEFL, 3, 8902);
+        assertEquals(8902, hashTable.probe(0x123456789ABCDEFL, 3));
+        assertEquals(PerftHashTable.NOT_FOUND, hashTable.probe(0x123456789ABCDEFL, 4));
+        assertEquals(PerftHashTable.NOT_FOUND, hashTable.probe(0x223456789ABCDEFL, 3));
+    }
+}
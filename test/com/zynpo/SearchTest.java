@@ -0,0 +1,207 @@
+package com.zynpo;
+
+import com.zynpo.enums.SearchFeature;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Move;
+import com.zynpo.search.Search;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import com.zynpo.search.TranspositionTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+public class SearchTest extends Assert {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    private static SearchResult search(String fen, int depth) {
+        return new Search(ChessFactory.createBoardState(fen)).search(SearchLimits.depth(depth));
+    }
+
+
+    @Test
+    public void findsCheckmates() {
+        SearchResult mateInOne = search("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 4);
+        assertEquals("a1a8", Move.toString(mateInOne.getBestMove()));
+        assertEquals(1, mateInOne.getMateInMoves());
+        assertEquals(1, mateInOne.getDepth());  // The King can't get out of check past the last ply either
+
+        // Ra8+ only drives the King off, so the other Castle must first cut it off ...
+        SearchResult mateInTwo = search("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1", 6);
+        assertEquals(2, mateInTwo.getMateInMoves());
+        assertEquals(3, mateInTwo.getDepth());
+        assertEquals(3, mateInTwo.getPrincipalVariation().length);
+
+        // Being checkmated is scored from the side to move ...
+        SearchResult mated = search("k7/8/1K6/8/8/8/8/7R b - - 0 1", 3);
+        assertEquals("a8b8 h1h8", mated.principalVariationString());
+        assertEquals(-1, mated.getMateInMoves());
+        assertTrue(mated.getScore() < 0);
+    }
+
+
+    @Test
+    public void helperThreadsSearchAlong() {
+        Search search = new Search(ChessFactory.createBoardState("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"), new long[0], new TranspositionTable(1));
+        search.setThreadCount(4);
+
+        SearchResult result = search.search(SearchLimits.depth(6));
+        assertEquals(2, result.getMateInMoves());
+
+        // The helpers are done with once the main thread is ...
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse(thread.getName().startsWith("search-helper-"));
+        }
+    }
+
+
+    @Test
+    public void winsHangingQueen() {
+        SearchResult result = search("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 3);
+
+        assertEquals("d2d5", Move.toString(result.getBestMove()));
+        assertTrue(400 < result.getScore());
+    }
+
+
+    @Test
+    public void capturesAreFollowedPastTheLastPly() {
+        // Taking the Pawn looks good for a ply, until the Pawn behind takes the Queen back ...
+        SearchResult result = search("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1", 1);
+
+        assertNotEquals("d2d5", Move.toString(result.getBestMove()));
+        assertTrue(0 < result.getScore());
+    }
+
+
+    @Test
+    public void noMovesLeft() {
+        SearchResult stalemate = search("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", 4);
+
+        assertEquals(Move.NO_MOVE, stalemate.getBestMove());
+        assertEquals(Search.DRAW_SCORE, stalemate.getScore());
+    }
+
+
+    @Test
+    public void repetitionOfTheGameIsADraw() throws Exception {
+        // Down a Queen, Black can do no better than go back to where it was before ...
+        String fen = "6k1/6pp/8/8/8/8/6PP/KQ6 b - - 0 1";
+        ChessGameImpl game = new ChessGameImpl(fen);
+        game.loadAllMoves("Kh8, Ka2, Kg8, Ka1");
+
+        SearchResult result = new Search(game.reviewLast(), game.getZobristKeysSinceProgress(), new TranspositionTable(1)).search(SearchLimits.depth(3));
+        assertEquals("g8h8", Move.toString(result.getBestMove()));
+        assertEquals(Search.DRAW_SCORE, result.getScore());
+
+        // Not knowing the game so far, it's just a Queen down ...
+        assertTrue(search(fen, 3).getScore() < -800);
+    }
+
+
+    @Test
+    public void limitsAreKept() throws InterruptedException {
+        SearchLimits limits = new SearchLimits();
+        limits.setMaxNodes(5000);
+
+        SearchResult result = new Search(ChessFactory.createBoardState(KIWIPETE)).search(limits);
+        assertTrue(result.getNodes() <= 5000);
+        assertNotEquals(Move.NO_MOVE, result.getBestMove());
+
+        // An infinite search only ends when stopped, deepening all the while ...
+        Search search = new Search(ChessFactory.createBoardState(KIWIPETE));
+        SearchLimits infinite = new SearchLimits();
+        infinite.setInfinite(true);
+
+        List<SearchResult> iterations = new ArrayList<>();
+        Thread thread = new Thread(() -> search.search(infinite, iterations::add));
+        thread.start();
+        Thread.sleep(200);
+        search.stop();
+        thread.join(5000);
+
+        assertFalse(thread.isAlive());
+        assertFalse(iterations.isEmpty());
+    }
+
+
+    @Test
+    public void selectivityCanBeTurnedOff() {
+        Search selective = new Search(ChessFactory.createBoardState(KIWIPETE));
+        Search full = new Search(ChessFactory.createBoardState(KIWIPETE));
+
+        for (SearchFeature feature : SearchFeature.values()) {
+            assertTrue(full.isFeatureEnabled(feature));
+            full.setFeatureEnabled(feature, false);
+            assertFalse(full.isFeatureEnabled(feature));
+        }
+
+        SearchResult selectiveResult = selective.search(SearchLimits.depth(5));
+        SearchResult fullResult = full.search(SearchLimits.depth(5));
+        assertTrue(selectiveResult.getNodes() < fullResult.getNodes());
+
+        // Passing isn't taken for a way out of being checkmated ...
+        Search mating = new Search(ChessFactory.createBoardState("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"));
+        mating.setFeatureEnabled(SearchFeature.CheckExtensions, false);
+        assertEquals(2, mating.search(SearchLimits.depth(6)).getMateInMoves());
+    }
+
+
+    @Test
+    public void checksAreSearchedDeeper() {
+        // The smothered mate takes nine plies, further than a depth of 5 reaches unless checks are extended ...
+        String fen = "5rk1/6pp/8/6N1/8/8/8/3Q2K1 w - - 0 1";
+        SearchResult extended = search(fen, 5);
+        assertEquals(5, extended.getMateInMoves());
+        assertEquals("d1d5 g8h8 g5f7 h8g8 f7h6 g8h8 d5g8 f8g8 h6f7", extended.principalVariationString());
+
+        Search search = new Search(ChessFactory.createBoardState(fen));
+        search.setFeatureEnabled(SearchFeature.CheckExtensions, false);
+        assertFalse(Search.isMateScore(search.search(SearchLimits.depth(5)).getScore()));
+    }
+
+
+    @Test
+    public void multiPvGivesTheBestLines() {
+        Search search = new Search(ChessFactory.createBoardState(KIWIPETE));
+        search.setMultiPv(4);
+
+        List<SearchResult> iterations = new ArrayList<>();
+        SearchResult result = search.search(SearchLimits.depth(4), iterations::add);
+        List<SearchResult> lines = search.getLines();
+
+        assertEquals(4, lines.size());
+        assertEquals(result.getBestMove(), lines.get(0).getBestMove());
+        assertEquals(4 * 4, iterations.size());
+
+        Set<Integer> bestMoves = new HashSet<>();
+
+        for (int i = 0; i < lines.size(); ++i) {
+            assertEquals(i + 1, lines.get(i).getMultiPv());
+            assertEquals(4, lines.get(i).getDepth());
+            assertTrue(bestMoves.add(lines.get(i).getBestMove()));
+
+            if (0 < i) {
+                assertTrue(lines.get(i).getScore() <= lines.get(i - 1).getScore());
+            }
+        }
+
+        // Taking the Queen is far better than any other move, and there are only so many moves ...
+        search = new Search(ChessFactory.createBoardState("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"));
+        search.setMultiPv(Search.MAX_MULTI_PV);
+        search.search(SearchLimits.depth(3));
+        lines = search.getLines();
+
+        assertEquals(15, lines.size());
+        assertEquals("d2d5", Move.toString(lines.get(0).getBestMove()));
+        assertTrue(lines.get(1).getScore() < lines.get(0).getScore() - 500);
+    }
+}
@@ -0,0 +1,56 @@
+package com.zynpo;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.search.StaticExchange;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class StaticExchangeTest extends Assert {
+
+    // One for every test, as a MovePicker keeps one for every move it orders ...
+    private static final StaticExchange STATIC_EXCHANGE = new StaticExchange();
+
+
+    private static int evaluate(String fen, String from, String to) {
+        return evaluate(fen, from, to, null);
+    }
+
+
+    private static int evaluate(String fen, String from, String to, PieceType promotionType) {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(fen);
+        int move = board.moveFrom(board.getSquare(from).getIndex(), board.getSquare(to).getIndex(), promotionType);
+
+        return STATIC_EXCHANGE.evaluate(board, move);
+    }
+
+
+    @Test
+    public void capturesAndRecaptures() {
+        assertEquals(100, evaluate("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1", "e4", "d5"));
+        assertEquals(-400, evaluate("4k3/8/2p5/3p4/8/8/3R4/4K3 w - - 0 1", "d2", "d5"));
+
+        // Black had better not take back with the Castle, or it's lost too ...
+        assertEquals(100, evaluate("4k3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+        assertEquals(-400, evaluate("4k3/3r4/8/3p4/8/8/3R4/4K3 w - - 0 1", "d2", "d5"));
+
+        // The Bishop behind the Queen joins in once the Queen has taken, though too late to save her ...
+        assertEquals(-260, evaluate("4k3/8/8/2n5/4n3/5Q2/6B1/4K3 w - - 0 1", "f3", "e4"));
+        assertEquals(-580, evaluate("4k3/8/8/2n5/4n3/5Q2/8/4K3 w - - 0 1", "f3", "e4"));
+    }
+
+
+    @Test
+    public void specialMoves() {
+        assertEquals(100, evaluate("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+        assertEquals(800, evaluate("4k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7", "a8", PieceType.Queen));
+        assertEquals(-100, evaluate("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1", "a7", "a8", PieceType.Queen));
+        assertEquals(0, evaluate("4k3/8/8/8/8/8/8/4K2R w K - 0 1", "e1", "g1"));
+
+        // Nor may a King take back on a square still covered ...
+        assertEquals(-800, evaluate("8/8/3k4/3p4/8/8/8/3QK3 w - - 0 1", "d1", "d5"));
+        assertEquals(100, evaluate("8/8/3k4/R2p4/8/8/8/3QK3 w - - 0 1", "d1", "d5"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.zynpo;
+
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.Move;
+import com.zynpo.search.Search;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import com.zynpo.search.TimeManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class TimeManagerTest extends Assert {
+
+    private static final long MILLIS = 1_000_000L;
+
+
+    private static SearchLimits clock(long timeLeftMillis, long incrementMillis, int movesToGo) {
+        SearchLimits limits = new SearchLimits();
+        limits.setTimeLeftMillis(timeLeftMillis);
+        limits.setIncrementMillis(incrementMillis);
+        limits.setMovesToGo(movesToGo);
+        return limits;
+    }
+
+
+    @Test
+    public void clockIsSharedOut() {
+        TimeManager timeManager = new TimeManager();
+
+        timeManager.start(clock(60_050, 0, 0), 0);
+        assertEquals(60_000 / TimeManager.DEFAULT_MOVES_TO_GO * MILLIS, timeManager.getOptimumNanos());
+        assertEquals(5 * timeManager.getOptimumNanos(), timeManager.getMaximumNanos());
+
+        // An increment is as good as time left, for this move ...
+        timeManager.start(clock(60_050, 1000, 0), 0);
+        assertEquals((2000 + 750) * MILLIS, timeManager.getOptimumNanos());
+
+        // With the last move before the time control, nearly all of it may go on this one ...
+        timeManager.start(clock(10_050, 0, 1), 0);
+        assertEquals(9000 * MILLIS, timeManager.getOptimumNanos());
+        assertEquals(9000 * MILLIS, timeManager.getMaximumNanos());
+
+        // ... but never more than half of it otherwise ...
+        timeManager.start(clock(10_050, 0, 2), 0);
+        assertEquals(5000 * MILLIS, timeManager.getMaximumNanos());
+
+        // A time for the move is both ...
+        SearchLimits limits = new SearchLimits();
+        limits.setMoveTimeMillis(300);
+        timeManager.start(limits, 0);
+        assertEquals(300 * MILLIS, timeManager.getOptimumNanos());
+        assertTrue(timeManager.iterationDone(Move.fromString("e2e4"), 0, 299 * MILLIS));
+        assertFalse(timeManager.isTimeUp(299 * MILLIS));
+        assertTrue(timeManager.isTimeUp(300 * MILLIS));
+
+        timeManager.start(SearchLimits.depth(5), 0);
+        assertEquals(TimeManager.NO_DEADLINE, timeManager.getMaximumNanos());
+        assertFalse(timeManager.isTimeUp(Long.MAX_VALUE / 2));
+    }
+
+
+    @Test
+    public void uncertaintyTakesLonger() {
+        TimeManager timeManager = new TimeManager();
+        int e2e4 = Move.fromString("e2e4");
+        int d2d4 = Move.fromString("d2d4");
+
+        // Half the optimum gone, a best move that stays put isn't worth another depth ...
+        timeManager.start(clock(30_050, 0, 0), 0);
+        assertTrue(timeManager.iterationDone(e2e4, 20, 100 * MILLIS));
+        assertFalse(timeManager.iterationDone(e2e4, 20, 500 * MILLIS));
+
+        // ... but one that changed is ...
+        timeManager.start(clock(30_050, 0, 0), 0);
+        assertTrue(timeManager.iterationDone(e2e4, 20, 100 * MILLIS));
+        assertTrue(timeManager.iterationDone(d2d4, 20, 500 * MILLIS));
+
+        // ... as is one whose score is falling ...
+        timeManager.start(clock(30_050, 0, 0), 0);
+        assertTrue(timeManager.iterationDone(e2e4, 20, 100 * MILLIS));
+        assertTrue(timeManager.iterationDone(e2e4, -40, 600 * MILLIS));
+
+        // ... though not for ever ...
+        assertFalse(timeManager.iterationDone(d2d4, -400, 2500 * MILLIS));
+    }
+
+
+    @Test
+    public void clockStartsOnPonderHit() {
+        SearchLimits limits = clock(1050, 0, 1);
+        limits.setPonder(true);
+
+        TimeManager timeManager = new TimeManager();
+        timeManager.start(limits, 0);
+        assertTrue(timeManager.isPondering());
+        assertFalse(timeManager.isTimeUp(10_000 * MILLIS));
+
+        timeManager.ponderHit(10_000 * MILLIS);
+        assertFalse(timeManager.isPondering());
+        assertFalse(timeManager.isTimeUp(10_899 * MILLIS));
+        assertTrue(timeManager.isTimeUp(10_900 * MILLIS));
+    }
+
+
+    @Test
+    public void searchKeepsToTheClock() {
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        SearchResult result = new Search(ChessFactory.createBoardState(kiwipete)).search(clock(2050, 0, 10));
+
+        assertNotEquals(Move.NO_MOVE, result.getBestMove());
+        assertTrue(result.getElapsedNanos() < 1000 * MILLIS + 100 * MILLIS);  // The maximum, and a little to stop in
+
+        // With only the one move, there's nothing to think about ...
+        result = new Search(ChessFactory.createBoardState("7k/8/8/8/8/8/6q1/K7 w - - 0 1")).search(clock(600_000, 0, 0));
+        assertEquals("a1b1", Move.toString(result.getBestMove()));
+        assertEquals(1, result.getDepth());
+    }
+}
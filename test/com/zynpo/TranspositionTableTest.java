@@ -0,0 +1,115 @@
+package com.zynpo;
+
+import com.zynpo.enums.PieceType;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Move;
+import com.zynpo.search.Search;
+import com.zynpo.search.SearchLimits;
+import com.zynpo.search.SearchResult;
+import com.zynpo.search.TranspositionTable;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class TranspositionTableTest extends Assert {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+
+    @Test
+    public void storedEntriesAreFoundAgain() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1024 * 1024 / 32, table.getBucketCount());
+
+        long zobristKey = 0x123456789ABCDEFL;
+        int move = Move.of(12, 28, PieceType.Pawn, Move.DOUBLE_PUSH);
+
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(zobristKey));
+
+        table.store(zobristKey, move, -Search.MATE_SCORE + 3, 7, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(zobristKey);
+
+        assertEquals(move, TranspositionTable.moveOf(entry));
+        assertEquals(-Search.MATE_SCORE + 3, TranspositionTable.scoreOf(entry));
+        assertEquals(7, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.boundOf(entry));
+
+        // Storing without a move keeps the one found before ...
+        table.store(zobristKey, Move.NO_MOVE, 25, 8, TranspositionTable.UPPER_BOUND);
+        assertEquals(move, TranspositionTable.moveOf(table.probe(zobristKey)));
+        assertEquals(25, TranspositionTable.scoreOf(table.probe(zobristKey)));
+
+        table.clear();
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(zobristKey));
+    }
+
+
+    @Test
+    public void deeperEntriesAreKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.getBucketCount();
+
+        // Three positions hashed to the same bucket, of which only two fit ...
+        long deep = 5, shallow = 5 + bucketStride, shallower = 5 + 2 * bucketStride;
+
+        table.store(deep, Move.NO_MOVE, 1, 9, TranspositionTable.EXACT);
+        table.store(shallow, Move.NO_MOVE, 2, 3, TranspositionTable.EXACT);
+        table.store(shallower, Move.NO_MOVE, 3, 2, TranspositionTable.EXACT);
+
+        assertEquals(1, TranspositionTable.scoreOf(table.probe(deep)));
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(shallow));
+        assertEquals(3, TranspositionTable.scoreOf(table.probe(shallower)));
+
+        // Until a new search, when what's deepest is out of date and gives way, but is kept as the last stored ...
+        table.newSearch();
+        table.store(shallow, Move.NO_MOVE, 2, 3, TranspositionTable.EXACT);
+
+        assertEquals(2, TranspositionTable.scoreOf(table.probe(shallow)));
+        assertEquals(1, TranspositionTable.scoreOf(table.probe(deep)));
+        assertEquals(TranspositionTable.NOT_FOUND, table.probe(shallower));
+    }
+
+
+    @Test
+    public void tableIsSharedByConcurrentSearches() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(4);
+        SearchResult alone = new Search(ChessFactory.createBoardState(KIWIPETE), new long[0], new TranspositionTable(4))
+                .search(SearchLimits.depth(4));
+
+        Thread[] threads = new Thread[4];
+        SearchResult[] results = new SearchResult[threads.length];
+
+        for (int t = 0; t < threads.length; ++t) {
+            int i = t;
+            threads[t] = new Thread(() -> results[i] = new Search(ChessFactory.createBoardState(KIWIPETE), new long[0], table)
+                    .search(SearchLimits.depth(4)));
+            threads[t].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // However the threads get in each other's way, each finds a valid line all the way down ...
+        for (SearchResult result : results) {
+            assertEquals(4, result.getDepth());
+            assertFalse(result.isMateScore());
+            assertNotEquals(Move.NO_MOVE, result.getBestMove());
+            playOut(result.getPrincipalVariation());
+        }
+
+        // And searching again finds the best move in the table, from the first depth on ...
+        SearchResult again = new Search(ChessFactory.createBoardState(KIWIPETE), new long[0], table).search(SearchLimits.depth(4));
+        assertTrue(again.getNodes() < alone.getNodes());
+    }
+
+
+    private static void playOut(int[] moves) {
+        ChessGameImpl game = new ChessGameImpl(KIWIPETE);
+
+        for (int move : moves) {
+            game.doMove(move);
+        }
+    }
+}
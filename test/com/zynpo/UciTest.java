@@ -0,0 +1,92 @@
+package com.zynpo;
+
+import com.zynpo.impls.ChessGameImpl;
+import com.zynpo.impls.Move;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.Arrays;
+
+
+public class UciTest extends Assert {
+
+    private static String[] talk(String... commands) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new Uci(new StringReader(String.join("\n", commands)), new PrintStream(bytes, true)).run();
+
+        return bytes.toString().split("\\r?\\n");
+    }
+
+
+    @Test
+    public void handshake() throws IOException {
+        String[] lines = talk("uci", "isready", "quit");
+
+        assertEquals("uciok", lines[lines.length - 2]);
+        assertEquals("readyok", lines[lines.length - 1]);
+    }
+
+
+    @Test
+    public void positionsAreFollowedMoveByMove() throws IOException {
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+        String[] lines = talk(
+                "position startpos moves e2e4",
+                "position startpos moves e2e4 e7e5 g1f3",
+                "d",
+                "position startpos moves d2d4",
+                "d",
+                "position fen " + kiwipete + " moves e1g1 a6e2",
+                "d",
+                "position startpos moves e2e4 e7e9",
+                "quit");
+
+        assertEquals("Fen: rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2", lines[0]);
+        assertEquals("Fen: rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq - 0 1", lines[1]);
+        assertEquals("Fen: r3k2r/p1ppqpb1/1n2pnp1/3PN3/1p2P3/2N2Q1p/PPPBbPPP/R4RK1 w kq - 0 2", lines[2]);
+        assertTrue(lines[3].startsWith("info string Can't do move e7e9"));
+    }
+
+
+    @Test
+    public void goGivesAValidMove() throws Exception {
+        String[] lines = withoutInfo(talk("position startpos moves f2f3 e7e5 g2g4", "go", "stop", "quit"));
+
+        ChessGameImpl game = new ChessGameImpl();
+        game.loadAllMoves("f3, e5, g4");
+
+        assertTrue(lines[0].startsWith("bestmove "));
+        game.doMove(Move.fromString(lines[0].split(" ")[1]));
+    }
+
+
+    @Test
+    public void goInfiniteWaitsForStop() throws IOException {
+        String[] lines = withoutInfo(talk("go infinite", "isready", "stop", "quit"));
+
+        assertEquals("readyok", lines[0]);
+        assertTrue(lines[1].startsWith("bestmove "));
+    }
+
+
+    @Test
+    public void ponderWaitsForPonderHit() throws IOException {
+        String[] lines = withoutInfo(talk("position startpos moves e2e4", "go ponder wtime 2000 btime 2000 depth 3",
+                "isready", "ponderhit", "quit"));
+
+        // Done pondering to depth 3 straight away, it still waits to be told its move was made ...
+        assertEquals(2, lines.length);
+        assertEquals("readyok", lines[0]);
+        assertTrue(lines[1].startsWith("bestmove "));
+    }
+
+
+    private static String[] withoutInfo(String[] lines) {
+        return Arrays.stream(lines).filter(line -> !line.startsWith("info ")).toArray(String[]::new);
+    }
+}
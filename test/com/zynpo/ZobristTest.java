@@ -0,0 +1,104 @@
+package com.zynpo;
+
+import com.zynpo.enums.BoardRepresentation;
+import com.zynpo.enums.SideColor;
+import com.zynpo.impls.BitboardChessBoard;
+import com.zynpo.impls.ChessFactory;
+import com.zynpo.impls.MoveList;
+import com.zynpo.interfaces.ChessBoard;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+
+public class ZobristTest extends Assert {
+
+    private static void move(ChessBoard board, String from, String to) {
+        board.getSquare(from).getPiece().moveToSquare(board.getSquare(to));
+    }
+
+
+    @Test
+    public void keptUpWithMakeAndUnmake() {
+        BitboardChessBoard board = (BitboardChessBoard) ChessFactory.createBoard(BoardRepresentation.Bitboards);
+        long initialKey = board.getZobristKey();
+        assertEquals(board.computeHash(SideColor.White.getValue()), initialKey);
+
+        Random random = new Random(7);
+        MoveList moves = new MoveList();
+        int sideColor = SideColor.White.getValue();
+        int movesMade = 0;
+
+        for (; movesMade < 60; ++movesMade) {
+            moves.clear();
+
+            if (0 == board.generateMoves(sideColor, moves)) {
+                break;
+            }
+
+            board.makeMove(moves.get(random.nextInt(moves.size())));
+            sideColor = 1 - sideColor;
+
+            assertEquals(board.computeHash(SideColor.White.getValue()), board.getZobristKey());
+        }
+
+        while (0 < movesMade--) {
+            board.unmakeMove();
+        }
+
+        assertEquals(initialKey, board.getZobristKey());
+    }
+
+
+    @Test
+    public void sameOnBothRepresentations() {
+        for (String[][] moves : new String[][][] {
+                { { "e2", "e4" }, { "d7", "d5" }, { "e4", "e5" }, { "f7", "f5" } },
+                { { "g1", "f3" }, { "g8", "f6" }, { "e2", "e3" }, { "e7", "e6" }, { "f1", "e2" }, { "f8", "e7" }, { "e1", "g1" } } }) {
+
+            ChessBoard board = ChessFactory.createBoard(BoardRepresentation.PieceObjects);
+            ChessBoard bitboard = ChessFactory.createBoard(BoardRepresentation.Bitboards);
+            assertEquals(board.getZobristKey(), bitboard.getZobristKey());
+
+            for (String[] squares : moves) {
+                move(board, squares[0], squares[1]);
+                move(bitboard, squares[0], squares[1]);
+                assertEquals(board.getZobristKey(), bitboard.getZobristKey());
+                assertEquals(board.getZobristKey(), board.clone().getZobristKey());
+                assertEquals(board.getPawnKey(), bitboard.getPawnKey());
+            }
+        }
+    }
+
+
+    @Test
+    public void transpositionsShareKeys() {
+        for (BoardRepresentation boardRepresentation : BoardRepresentation.values()) {
+            ChessBoard board = ChessFactory.createBoard(boardRepresentation);
+            long initialKey = board.getZobristKey();
+
+            move(board, "g1", "f3");
+            move(board, "g8", "f6");
+            assertNotEquals(initialKey, board.getZobristKey());
+
+            move(board, "f3", "g1");
+            move(board, "f6", "g8");
+            assertEquals(initialKey, board.getZobristKey());
+
+            // ... but a King that has been for a walk can no longer castle ...
+            move(board, "e2", "e3");
+            move(board, "e7", "e6");
+            long keyBeforeWalk = board.getZobristKey();
+
+            move(board, "e1", "e2");
+            move(board, "e8", "e7");
+            move(board, "e2", "e1");
+            move(board, "e7", "e8");
+            assertNotEquals(keyBeforeWalk, board.getZobristKey());
+
+            assertNotEquals(ChessFactory.createBoardState(board, SideColor.White).getZobristKey(),
+                    ChessFactory.createBoardState(board, SideColor.Black).getZobristKey());
+        }
+    }
+}